@@ -27,6 +27,13 @@ repositories {
     mavenCentral()
 }
 
+dependencies {
+    // IDE-independent rule core, shared with the command line runner
+    implementation(project(":legion-core"))
+    
+    testImplementation("junit:junit:4.13.2")
+}
+
 java {
     sourceCompatibility = JavaVersion.VERSION_1_8
     targetCompatibility = JavaVersion.VERSION_1_8
@@ -63,5 +70,10 @@ tasks {
     compileJava {
         options.encoding = "UTF-8"
     }
+    
+    // The PSI detectors run the same rule corpus as legion-core's javac scanner
+    test {
+        systemProperty("codinglegion.ruleCorpus", file("legion-core/src/test/resources/rule-corpus").absolutePath)
+    }
 }
 
@@ -0,0 +1,54 @@
+#!/bin/bash
+# Git pre-commit hook client for the Coding Legion daemon
+#
+# Start the daemon once:   java -jar legion-core.jar daemon --classpath=... &
+# Install the hook:        ln -s ../../coding-legion-hook.sh .git/hooks/pre-commit
+#
+# Sends the staged Java files to the daemon over 127.0.0.1 (bash /dev/tcp, no JVM start)
+# and blocks the commit when ERROR violations are reported.
+# If the daemon is not running the check is skipped.
+
+PORT="${CODING_LEGION_PORT:-7431}"
+ROOT=$(git rev-parse --show-toplevel)
+
+FILES=$(git diff --cached --name-only --diff-filter=ACMR -- '*.java')
+if [ -z "$FILES" ]; then
+    exit 0
+fi
+
+if ! exec 3<>"/dev/tcp/127.0.0.1/$PORT" 2>/dev/null; then
+    echo "ℹ️  Coding Legion daemon not running on port $PORT - skipping check"
+    exit 0
+fi
+
+{
+    echo "ANALYZE"
+    while IFS= read -r file; do
+        echo "$ROOT/$file"
+    done <<< "$FILES"
+    echo ""
+} >&3
+
+ERRORS=0
+while IFS= read -r line <&3; do
+    case "$line" in
+        "END "*)
+            ERRORS=${line##* }
+            break
+            ;;
+        "FAILED "*)
+            echo "⚠️  Coding Legion daemon: ${line#FAILED } - skipping check"
+            break
+            ;;
+        *)
+            echo "$line"
+            ;;
+    esac
+done
+exec 3<&-
+
+if [ "$ERRORS" -gt 0 ]; then
+    echo "❌ Coding Legion: $ERRORS error(s) - commit blocked (use --no-verify to bypass)"
+    exit 1
+fi
+exit 0
@@ -0,0 +1,32 @@
+plugins {
+    id("java")
+}
+
+group = "com.codinglegion"
+version = rootProject.version
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    testImplementation("junit:junit:4.13.2")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+tasks {
+    compileJava {
+        options.encoding = "UTF-8"
+    }
+
+    // Runnable with: java -jar legion-core.jar [options] <sources>
+    jar {
+        manifest {
+            attributes("Main-Class" to "com.codinglegion.core.cli.LegionCli")
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.codinglegion.core;
+
+import com.codinglegion.model.ViolationSeverity;
+import com.codinglegion.model.ViolationType;
+
+/**
+ * Front-end independent view of a violation (IDE {@code Violation} or javac {@link SourceFinding})
+ * Everything exporters and baselines need, without PSI
+ */
+public interface Finding {
+    
+    ViolationType getType();
+    
+    /**
+     * Absolute path of the file containing the violation
+     */
+    String getFilePath();
+    
+    int getLineNumber();
+    
+    int getColumnNumber();
+    
+    String getClassName();
+    
+    String getPackageName();
+    
+    String getViolatingCode();
+    
+    default ViolationSeverity getSeverity() {
+        return getType().getSeverity();
+    }
+}
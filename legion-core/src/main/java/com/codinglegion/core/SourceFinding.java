@@ -0,0 +1,79 @@
+package com.codinglegion.core;
+
+import com.codinglegion.model.ViolationSeverity;
+import com.codinglegion.model.ViolationType;
+
+/**
+ * A violation found outside the IDE (javac trees), identified by file path and position
+ */
+public class SourceFinding implements Finding {
+    private final ViolationType type;
+    private final String filePath;
+    private final int lineNumber;
+    private final int columnNumber;
+    private final String className;
+    private final String packageName;
+    private final String violatingCode;
+    
+    public SourceFinding(ViolationType type, String filePath, int lineNumber, int columnNumber,
+                         String className, String packageName, String violatingCode) {
+        this.type = type;
+        this.filePath = filePath;
+        this.lineNumber = lineNumber;
+        this.columnNumber = columnNumber;
+        this.className = className;
+        this.packageName = packageName;
+        this.violatingCode = violatingCode;
+    }
+    
+    @Override
+    public ViolationType getType() {
+        return type;
+    }
+    
+    @Override
+    public String getFilePath() {
+        return filePath;
+    }
+    
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+    
+    @Override
+    public int getColumnNumber() {
+        return columnNumber;
+    }
+    
+    @Override
+    public String getClassName() {
+        return className;
+    }
+    
+    @Override
+    public String getPackageName() {
+        return packageName;
+    }
+    
+    @Override
+    public String getViolatingCode() {
+        return violatingCode;
+    }
+    
+    @Override
+    public ViolationSeverity getSeverity() {
+        return type.getSeverity();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("[%s] %s:%d:%d %s - %s",
+            type.getSeverity(),
+            filePath,
+            lineNumber,
+            columnNumber,
+            type.name(),
+            type.getTitle());
+    }
+}
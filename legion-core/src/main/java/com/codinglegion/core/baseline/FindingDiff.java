@@ -0,0 +1,96 @@
+package com.codinglegion.core.baseline;
+
+import com.codinglegion.core.Finding;
+
+import java.util.*;
+
+/**
+ * Difference between two analysis runs, matched by {@link FindingFingerprint}
+ * Each side is hashed once, so the cost is linear in the number of findings; identical findings
+ * (same rule, class and code) are matched by count, so a second copy of a known violation is still new
+ */
+public class FindingDiff<T extends Finding> {
+    
+    private final List<T> added;
+    private final List<T> fixed;
+    private final List<T> unchanged;
+    private final Set<T> addedSet;
+    
+    private FindingDiff(List<T> added, List<T> fixed, List<T> unchanged) {
+        this.added = added;
+        this.fixed = fixed;
+        this.unchanged = unchanged;
+        this.addedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.addedSet.addAll(added);
+    }
+    
+    /**
+     * @param previous findings of the earlier run
+     * @param current  findings of the later run
+     */
+    public static <T extends Finding> FindingDiff<T> compute(Collection<T> previous, Collection<T> current) {
+        // Fingerprint -> previous findings not matched yet
+        Map<Long, Deque<T>> open = new HashMap<>(previous.size() * 2);
+        for (T finding : previous) {
+            open.computeIfAbsent(FindingFingerprint.of(finding), k -> new ArrayDeque<>(1)).add(finding);
+        }
+        
+        List<T> added = new ArrayList<>();
+        List<T> unchanged = new ArrayList<>();
+        for (T finding : current) {
+            Deque<T> matches = open.get(FindingFingerprint.of(finding));
+            if (matches != null && !matches.isEmpty()) {
+                matches.poll();
+                unchanged.add(finding);
+            } else {
+                added.add(finding);
+            }
+        }
+        
+        // Whatever is left unmatched was fixed; report it in previous run order
+        Set<T> unmatched = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Deque<T> matches : open.values()) {
+            unmatched.addAll(matches);
+        }
+        List<T> fixed = new ArrayList<>(unmatched.size());
+        for (T finding : previous) {
+            if (unmatched.contains(finding)) {
+                fixed.add(finding);
+            }
+        }
+        
+        return new FindingDiff<>(added, fixed, unchanged);
+    }
+    
+    /**
+     * Diff against nothing: every finding is new
+     */
+    public static <T extends Finding> FindingDiff<T> allNew(Collection<T> current) {
+        return new FindingDiff<>(new ArrayList<>(current), new ArrayList<>(), new ArrayList<>());
+    }
+    
+    /**
+     * Findings of the current run that the previous run did not have, in current run order
+     */
+    public List<T> getAdded() {
+        return added;
+    }
+    
+    /**
+     * Findings of the previous run that are gone, in previous run order
+     */
+    public List<T> getFixed() {
+        return fixed;
+    }
+    
+    public List<T> getUnchanged() {
+        return unchanged;
+    }
+    
+    /**
+     * @return whether this exact finding object (from the current run) is new
+     */
+    public boolean isAdded(T finding) {
+        return addedSet.contains(finding);
+    }
+}
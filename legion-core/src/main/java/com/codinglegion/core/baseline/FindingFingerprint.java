@@ -0,0 +1,53 @@
+package com.codinglegion.core.baseline;
+
+import com.codinglegion.core.Finding;
+
+/**
+ * Stable 64-bit identity of a finding: rule + qualified class + violating code with whitespace removed
+ * Line and column are not part of it, so the fingerprint survives edits elsewhere in the file,
+ * reformatting and moving the file between directories of the same package
+ */
+public final class FindingFingerprint {
+    
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private FindingFingerprint() {
+    }
+    
+    public static long of(Finding finding) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, finding.getType().name());
+        hash = mix(hash, finding.getPackageName());
+        hash = mix(hash, finding.getClassName());
+        hash = mix(hash, finding.getViolatingCode());
+        return finish(hash);
+    }
+    
+    /**
+     * FNV-1a over the non-whitespace characters, followed by a separator
+     */
+    private static long mix(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (!Character.isWhitespace(c)) {
+                    hash = (hash ^ c) * FNV_PRIME;
+                }
+            }
+        }
+        return (hash ^ 0xff) * FNV_PRIME;
+    }
+    
+    /**
+     * Murmur3 finalizer: FNV leaves the low bits poorly mixed, and the bloom filter indexes by them
+     */
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
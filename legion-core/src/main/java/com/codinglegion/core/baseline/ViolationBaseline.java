@@ -0,0 +1,241 @@
+package com.codinglegion.core.baseline;
+
+import com.codinglegion.core.Finding;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Known violations that should not be reported again, stored as finding fingerprints
+ * Identical findings (same rule, class and code) share a fingerprint; the baseline keeps one entry per
+ * copy, so resolving one of two identical findings still reports the other
+ *
+ * File layout (big-endian): magic, version, entry count, bloom filter word count (4 ints),
+ * then the bloom filter words, then the sorted fingerprints (longs, repeated once per copy)
+ * The file is memory-mapped, so loading costs nothing per entry; a lookup is a few bloom filter probes
+ * and, only for probable members, a binary search over the mapped fingerprints
+ * A mapped file cannot be replaced on Windows until the mapping is garbage collected, so a baseline that
+ * will be rewritten is {@link #read} into heap memory instead
+ */
+public class ViolationBaseline {
+    
+    private static final int MAGIC = 0x434c424c; // "CLBL"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int PROBES = 4;
+    
+    private static final ViolationBaseline EMPTY = new ViolationBaseline(LongBuffer.allocate(0), LongBuffer.allocate(0));
+    
+    private final LongBuffer bloom;
+    private final LongBuffer fingerprints;
+    private final long bloomMask;
+    
+    private ViolationBaseline(LongBuffer bloom, LongBuffer fingerprints) {
+        this.bloom = bloom;
+        this.fingerprints = fingerprints;
+        this.bloomMask = (long) bloom.capacity() * Long.SIZE - 1;
+    }
+    
+    public static ViolationBaseline empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * Map a baseline file; a missing file is an empty baseline
+     *
+     * @throws IOException if the file is not a baseline file
+     */
+    public static ViolationBaseline load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return EMPTY;
+        }
+        
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return parse(buffer, file);
+    }
+    
+    /**
+     * Read a baseline file into heap memory, keeping no reference to the file; a missing file is an empty baseline
+     *
+     * @throws IOException if the file is not a baseline file
+     */
+    public static ViolationBaseline read(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return EMPTY;
+        }
+        return parse(ByteBuffer.wrap(Files.readAllBytes(file)), file);
+    }
+    
+    private static ViolationBaseline parse(ByteBuffer buffer, Path file) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a Coding Legion baseline file: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported baseline version " + buffer.getInt(4) + ": " + file);
+        }
+        int count = buffer.getInt(8);
+        int bloomWords = buffer.getInt(12);
+        if (count < 0 || bloomWords < 0
+                || buffer.capacity() != HEADER_BYTES + ((long) bloomWords + count) * Long.BYTES) {
+            throw new IOException("Truncated baseline file: " + file);
+        }
+        
+        LongBuffer longs = ((ByteBuffer) buffer.position(HEADER_BYTES)).slice().asLongBuffer();
+        LongBuffer bloom = ((LongBuffer) longs.duplicate().limit(bloomWords)).slice();
+        LongBuffer fingerprints = ((LongBuffer) longs.duplicate().position(bloomWords)).slice();
+        return new ViolationBaseline(bloom, fingerprints);
+    }
+    
+    /**
+     * Write a baseline file atomically (temporary file + rename)
+     */
+    public static void write(Path file, long[] fingerprints) throws IOException {
+        long[] sorted = Arrays.copyOf(fingerprints, fingerprints.length);
+        Arrays.sort(sorted);
+        int count = sorted.length;
+        
+        long[] bloom = new long[bloomWords(count)];
+        long mask = (long) bloom.length * Long.SIZE - 1;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && sorted[i] == sorted[i - 1]) {
+                continue;
+            }
+            long h1 = sorted[i];
+            long h2 = secondHash(h1);
+            for (int p = 0; p < PROBES; p++) {
+                long bit = (h1 + p * h2) & mask;
+                bloom[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + (bloom.length + count) * Long.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(bloom.length);
+        buffer.asLongBuffer().put(bloom).put(sorted, 0, count);
+        
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(temp, buffer.array());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    public static void write(Path file, Collection<? extends Finding> findings) throws IOException {
+        long[] fingerprints = new long[findings.size()];
+        int i = 0;
+        for (Finding finding : findings) {
+            fingerprints[i++] = FindingFingerprint.of(finding);
+        }
+        write(file, fingerprints);
+    }
+    
+    public boolean contains(Finding finding) {
+        return contains(FindingFingerprint.of(finding));
+    }
+    
+    public boolean contains(long fingerprint) {
+        return count(fingerprint) > 0;
+    }
+    
+    /**
+     * Number of baselined copies of a fingerprint
+     */
+    public int count(long fingerprint) {
+        if (fingerprints.capacity() == 0) {
+            return 0;
+        }
+        
+        long h2 = secondHash(fingerprint);
+        for (int p = 0; p < PROBES; p++) {
+            long bit = (fingerprint + p * h2) & bloomMask;
+            if ((bloom.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return 0;
+            }
+        }
+        
+        // Lower bound, then count the run of equal values
+        int low = 0;
+        int high = fingerprints.capacity();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (fingerprints.get(mid) < fingerprint) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end < fingerprints.capacity() && fingerprints.get(end) == fingerprint) {
+            end++;
+        }
+        return end - low;
+    }
+    
+    /**
+     * Findings that are not in the baseline, in their original order
+     * Of n identical findings, as many as the baseline has copies of are suppressed (the first ones)
+     */
+    public <T extends Finding> List<T> filterNew(Collection<T> findings) {
+        List<T> fresh = new ArrayList<>(findings.size());
+        Map<Long, Integer> suppressed = new HashMap<>();
+        for (T finding : findings) {
+            long fingerprint = FindingFingerprint.of(finding);
+            int copies = count(fingerprint);
+            if (copies == 0 || suppressed.merge(fingerprint, 1, Integer::sum) > copies) {
+                fresh.add(finding);
+            }
+        }
+        return fresh;
+    }
+    
+    /**
+     * Number of entries, counting each copy
+     */
+    public int size() {
+        return fingerprints.capacity();
+    }
+    
+    /**
+     * Copy of the sorted fingerprints, e.g. to merge new entries and write a new file
+     */
+    public long[] toArray() {
+        long[] values = new long[fingerprints.capacity()];
+        fingerprints.duplicate().get(values);
+        return values;
+    }
+    
+    /**
+     * Power of two number of words giving at least {@link #BITS_PER_ENTRY} bits per fingerprint
+     */
+    private static int bloomWords(int count) {
+        long bits = Math.max(Long.SIZE, (long) count * BITS_PER_ENTRY);
+        return (int) ((Long.highestOneBit(bits - 1) << 1) / Long.SIZE);
+    }
+    
+    private static long secondHash(long fingerprint) {
+        // Odd, so the probe sequence visits distinct bits
+        return Long.rotateLeft(fingerprint, 32) * 0x9e3779b97f4a7c15L | 1;
+    }
+}
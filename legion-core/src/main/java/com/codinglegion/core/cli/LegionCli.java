@@ -0,0 +1,244 @@
+package com.codinglegion.core.cli;
+
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.core.baseline.ViolationBaseline;
+import com.codinglegion.core.daemon.AnalysisDaemon;
+import com.codinglegion.core.export.ExportFormat;
+import com.codinglegion.core.export.FindingExporter;
+import com.codinglegion.core.javac.JavacAnalyzer;
+import com.codinglegion.core.rules.CoreRuleConfig;
+import com.codinglegion.model.ViolationSeverity;
+import com.codinglegion.model.ViolationType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command line entry point: runs the Coding Legion rules on source files without starting an IDE
+ *
+ * Exit codes: 0 = no errors, 1 = ERROR violations found, 2 = invalid arguments or analysis failure
+ */
+public class LegionCli {
+    
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_VIOLATIONS = 1;
+    public static final int EXIT_FAILURE = 2;
+    
+    public static final String USAGE =
+        "Usage: java -jar legion-core.jar [options] <file-or-directory>...\n" +
+        "       java -jar legion-core.jar daemon [options] [--port=<n>] [<source-root>...]\n" +
+        "  --classpath=<path>        Classpath used to resolve types (recommended)\n" +
+        "  --sourcepath=<path>       Source roots declaring project types (default: the given directories;\n" +
+        "                            package roots of analyzed files are always added)\n" +
+        "  --threads=<n>             Worker threads (default: number of CPUs)\n" +
+        "  --batch-size=<n>          Files per javac task (default: " + JavacAnalyzer.DEFAULT_BATCH_SIZE + ")\n" +
+        "  --rules=<RULE,...>        Rules to run, e.g. STRING_EQUALS,LOG_NULL_DEREFERENCE (default: all)\n" +
+        "  --utility-beans=<a,b,...> Qualifier name suffixes treated as non-null in log statements\n" +
+        "  --context-types=<a.B,...> Context base types (qualified names), replacing the *Context name match\n" +
+        "  --format=<fmt>            Report format: text (stdout), sarif, jsonl or junit (default: text)\n" +
+        "  --output=<file>           Report file for --format (default: coding-legion-report.<ext>)\n" +
+        "  --baseline=<file>         Known violations to suppress (see --update-baseline)\n" +
+        "  --update-baseline         Write all current findings to the --baseline file and exit 0\n" +
+        "  --port=<n>                Daemon port on 127.0.0.1 (default: " + AnalysisDaemon.DEFAULT_PORT + ")";
+    
+    public static void main(String[] args) {
+        int exitCode;
+        try {
+            exitCode = run(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Coding Legion: " + e.getMessage());
+            System.err.println(USAGE);
+            exitCode = EXIT_FAILURE;
+        } catch (Exception e) {
+            System.err.println("Coding Legion: analysis failed - " + e.getMessage());
+            exitCode = EXIT_FAILURE;
+        }
+        System.exit(exitCode);
+    }
+    
+    static int run(String[] args) throws IOException, InterruptedException {
+        String classpath = null;
+        String sourcepath = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int batchSize = JavacAnalyzer.DEFAULT_BATCH_SIZE;
+        Set<ViolationType> rules = EnumSet.allOf(ViolationType.class);
+        List<String> utilityBeans = new ArrayList<>();
+        List<String> contextTypes = new ArrayList<>();
+        List<File> roots = new ArrayList<>();
+        int port = AnalysisDaemon.DEFAULT_PORT;
+        ExportFormat format = null;
+        File output = null;
+        File baselineFile = null;
+        boolean updateBaseline = false;
+        boolean daemon = args.length > 0 && "daemon".equals(args[0]);
+        
+        for (String arg : daemon ? Arrays.copyOfRange(args, 1, args.length) : args) {
+            if (arg.startsWith("--classpath=")) {
+                classpath = value(arg);
+            } else if (arg.startsWith("--sourcepath=")) {
+                sourcepath = value(arg);
+            } else if (arg.startsWith("--threads=")) {
+                threads = positiveInt(arg);
+            } else if (arg.startsWith("--batch-size=")) {
+                batchSize = positiveInt(arg);
+            } else if (arg.startsWith("--rules=")) {
+                rules = CoreRuleConfig.parseRules(value(arg));
+            } else if (arg.startsWith("--utility-beans=")) {
+                utilityBeans = CoreRuleConfig.splitList(value(arg));
+            } else if (arg.startsWith("--context-types=")) {
+                contextTypes = CoreRuleConfig.splitList(value(arg));
+            } else if (arg.startsWith("--format=")) {
+                format = "text".equals(value(arg)) ? null : ExportFormat.fromName(value(arg));
+                if (format == null && !"text".equals(value(arg))) {
+                    throw new IllegalArgumentException("Invalid format: " + value(arg));
+                }
+            } else if (arg.startsWith("--output=")) {
+                output = new File(value(arg));
+            } else if (arg.startsWith("--baseline=")) {
+                baselineFile = new File(value(arg));
+            } else if ("--update-baseline".equals(arg)) {
+                updateBaseline = true;
+            } else if (arg.startsWith("--port=")) {
+                port = positiveInt(arg);
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            } else {
+                roots.add(new File(arg));
+            }
+        }
+        
+        CoreRuleConfig config = new CoreRuleConfig(rules, utilityBeans, contextTypes);
+        if (sourcepath == null) {
+            sourcepath = defaultSourcepath(roots);
+        }
+        
+        if (updateBaseline && baselineFile == null) {
+            throw new IllegalArgumentException("--update-baseline requires --baseline=<file>");
+        }
+        ViolationBaseline baseline = baselineFile != null && !updateBaseline
+            ? ViolationBaseline.load(baselineFile.toPath())
+            : ViolationBaseline.empty();
+        
+        if (daemon) {
+            return runDaemon(config, classpath, sourcepath, threads, batchSize, port, baseline);
+        }
+        
+        if (roots.isEmpty()) {
+            throw new IllegalArgumentException("No source files or directories given");
+        }
+        
+        List<File> files = collectJavaFiles(roots);
+        System.err.println(String.format("Coding Legion: analyzing %d file(s) with %d thread(s)", files.size(), threads));
+        
+        List<SourceFinding> findings;
+        try (JavacAnalyzer analyzer = new JavacAnalyzer(config, classpath, sourcepath, threads, batchSize)) {
+            findings = analyzer.analyze(files);
+            if (analyzer.getDuplicateStats().getTotal() > 0) {
+                System.err.println("Coding Legion: overlapping findings merged: " + analyzer.getDuplicateStats());
+            }
+        }
+        
+        if (updateBaseline) {
+            ViolationBaseline.write(baselineFile.toPath(), findings);
+            System.err.println(String.format("Coding Legion: baseline %s updated with %d violation(s)",
+                baselineFile.getAbsolutePath(), findings.size()));
+            return EXIT_OK;
+        }
+        
+        int total = findings.size();
+        findings = baseline.filterNew(findings);
+        if (findings.size() < total) {
+            System.err.println(String.format("Coding Legion: %d known violation(s) suppressed by the baseline",
+                total - findings.size()));
+        }
+        
+        if (format != null) {
+            if (output == null) {
+                output = new File("coding-legion-report." + format.getExtension());
+            }
+            try (FindingExporter exporter = format.open(output.toPath(), new File("").getAbsolutePath())) {
+                exporter.writeAll(findings);
+            }
+            System.err.println("Coding Legion: report written to " + output.getAbsolutePath());
+        } else {
+            for (SourceFinding finding : findings) {
+                System.out.println(finding);
+            }
+        }
+        
+        long errorCount = findings.stream()
+            .filter(f -> f.getSeverity() == ViolationSeverity.ERROR)
+            .count();
+        
+        System.err.println(String.format("Coding Legion: %d violation(s), %d error(s)", findings.size(), errorCount));
+        
+        return errorCount > 0 ? EXIT_VIOLATIONS : EXIT_OK;
+    }
+    
+    private static int runDaemon(CoreRuleConfig config, String classpath, String sourcepath, int threads, int batchSize,
+                                 int port, ViolationBaseline baseline) throws IOException {
+        try (JavacAnalyzer analyzer = new JavacAnalyzer(config, classpath, sourcepath, threads, batchSize);
+             AnalysisDaemon daemon = new AnalysisDaemon(analyzer, port, baseline)) {
+            System.err.println("Coding Legion daemon: listening on 127.0.0.1:" + daemon.getPort());
+            daemon.serve();
+        }
+        return EXIT_OK;
+    }
+    
+    /**
+     * The scanned directories (the parent directory for a single file), so types declared in files
+     * of another batch resolve
+     */
+    private static String defaultSourcepath(List<File> roots) {
+        Set<String> entries = new LinkedHashSet<>();
+        for (File root : roots) {
+            File dir = root.isFile() ? root.getAbsoluteFile().getParentFile() : root.getAbsoluteFile();
+            if (dir != null && dir.isDirectory()) {
+                entries.add(dir.getPath());
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+    
+    private static List<File> collectJavaFiles(List<File> roots) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (File root : roots) {
+            if (!root.exists()) {
+                throw new IllegalArgumentException("No such file or directory: " + root);
+            }
+            if (root.isFile()) {
+                files.add(root);
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(root.toPath())) {
+                files.addAll(paths
+                    .filter(p -> Files.isRegularFile(p) && p.toString().endsWith(".java"))
+                    .sorted()
+                    .map(Path::toFile)
+                    .collect(Collectors.toList()));
+            }
+        }
+        return files;
+    }
+    
+    private static String value(String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+    
+    private static int positiveInt(String arg) {
+        try {
+            int value = Integer.parseInt(value(arg));
+            if (value < 1) {
+                throw new IllegalArgumentException("Value must be at least 1: " + arg);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + arg);
+        }
+    }
+}
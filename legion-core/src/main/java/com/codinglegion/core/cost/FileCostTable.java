@@ -0,0 +1,199 @@
+package com.codinglegion.core.cost;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Analysis cost of each file in earlier runs: time and syntax tree nodes visited
+ * File size is a poor proxy for cost (a short file full of DTO checks can cost more than a long
+ * utility class), so schedulers use the measured time where there is one and fall back to the
+ * length times {@link #getNanosPerByte()}
+ *
+ * The time kept is a moving average (half the old value, half the new one), so one slow run (cold
+ * caches, GC) moves it but does not replace it. A measurement above the average by more than the
+ * threshold is reported as a {@link Regression}
+ *
+ * File layout (big-endian): magic, version, entry count (3 ints), then per entry the key (modified
+ * UTF-8), average nanos (long), nodes (int) and length (long)
+ * Thread-safe
+ */
+public class FileCostTable {
+    
+    private static final int MAGIC = 0x434c4354; // "CLCT"
+    private static final int VERSION = 1;
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    /**
+     * Read a table; a missing file is an empty table
+     *
+     * @throws IOException if the file is not a cost table
+     */
+    public static FileCostTable load(Path file) throws IOException {
+        FileCostTable table = new FileCostTable();
+        if (!Files.isRegularFile(file)) {
+            return table;
+        }
+        
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a Coding Legion cost table: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported cost table version " + version + ": " + file);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                table.entries.put(key, new Entry(in.readLong(), in.readInt(), in.readLong()));
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * Write the table atomically (temporary file + rename)
+     */
+    public void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Map<String, Entry> snapshot = new TreeMap<>(entries);
+            try (OutputStream stream = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, Entry> entry : snapshot.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue().nanos);
+                    out.writeInt(entry.getValue().nodes);
+                    out.writeLong(entry.getValue().length);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * Record one analysis of a file
+     *
+     * @param regressionThreshold relative increase over the average that counts as a regression (0.5 = 50%)
+     * @param minRegressionNanos  absolute increase below which a slower run is ignored as noise
+     * @return the regression, or null if the file was not measured before or did not get slower
+     */
+    public Regression record(String key, long nanos, int nodes, long length,
+                             double regressionThreshold, long minRegressionNanos) {
+        Entry previous = entries.get(key);
+        long average = previous != null ? (previous.nanos + nanos) / 2 : nanos;
+        entries.put(key, new Entry(average, nodes, length));
+        
+        if (previous == null || nanos - previous.nanos < minRegressionNanos
+                || nanos <= previous.nanos * (1 + regressionThreshold)) {
+            return null;
+        }
+        return new Regression(key, previous.nanos, nanos, previous.nodes, nodes);
+    }
+    
+    /**
+     * Average measured time of a file, or -1 if it was never measured
+     */
+    public long getNanos(String key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.nanos : -1;
+    }
+    
+    /**
+     * Average time per byte of the measured files (one nano for an empty table), to estimate the
+     * time of files never measured from their length
+     */
+    public double getNanosPerByte() {
+        long nanos = 0;
+        long bytes = 0;
+        for (Entry entry : entries.values()) {
+            nanos += entry.nanos;
+            bytes += entry.length;
+        }
+        return bytes > 0 ? (double) nanos / bytes : 1;
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    private static final class Entry {
+        final long nanos;
+        final int nodes;
+        final long length;
+        
+        Entry(long nanos, int nodes, long length) {
+            this.nanos = nanos;
+            this.nodes = nodes;
+            this.length = length;
+        }
+    }
+    
+    /**
+     * A file that took noticeably longer than its average
+     * A grown node count points at the file itself, an unchanged one at the detectors or the types it uses
+     */
+    public static final class Regression {
+        private final String key;
+        private final long previousNanos;
+        private final long nanos;
+        private final int previousNodes;
+        private final int nodes;
+        
+        Regression(String key, long previousNanos, long nanos, int previousNodes, int nodes) {
+            this.key = key;
+            this.previousNanos = previousNanos;
+            this.nanos = nanos;
+            this.previousNodes = previousNodes;
+            this.nodes = nodes;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        public long getPreviousNanos() {
+            return previousNanos;
+        }
+        
+        public long getNanos() {
+            return nanos;
+        }
+        
+        public int getPreviousNodes() {
+            return previousNodes;
+        }
+        
+        public int getNodes() {
+            return nodes;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s: %d ms -> %d ms, %d -> %d nodes", key,
+                previousNanos / 1_000_000, nanos / 1_000_000, previousNodes, nodes);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.codinglegion.core.daemon;
+
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.core.baseline.ViolationBaseline;
+import com.codinglegion.core.javac.JavacAnalyzer;
+import com.codinglegion.model.ViolationSeverity;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Long-running analysis server for git hooks and editors
+ * Keeps the analyzer (javac workers, file managers, type facts) and per-file results warm,
+ * so a request for unchanged files is answered without touching the compiler
+ * A file is re-analyzed when it or a file declaring a type its findings relied on changed;
+ * type facts tied to changed files (declared there or on a supertype declared there) are dropped first
+ *
+ * Line protocol on 127.0.0.1, one request per connection:
+ *   ANALYZE, then one absolute file path per line, then an empty line
+ *     -> one finding per line, then "END <findings> <errors>"
+ *   PING -> PONG, STATS -> "STATS <cached files> <cached types>",
+ *   INVALIDATE -> OK (drop all caches), SHUTDOWN -> BYE
+ * Failures are answered with "FAILED <message>"
+ * Findings in the baseline are cached like all others but not sent
+ */
+public class AnalysisDaemon implements Closeable {
+    
+    public static final int DEFAULT_PORT = 7431;
+    
+    private final JavacAnalyzer analyzer;
+    private final ViolationBaseline baseline;
+    private final FileResultCache results = new FileResultCache();
+    private final ServerSocket serverSocket;
+    private volatile boolean running = true;
+    
+    public AnalysisDaemon(JavacAnalyzer analyzer, int port, ViolationBaseline baseline) throws IOException {
+        this.analyzer = analyzer;
+        this.baseline = baseline;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+    
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+    
+    /**
+     * Serve requests until SHUTDOWN or {@link #close()}
+     * Requests are handled one at a time; each analysis is itself parallel
+     */
+    public void serve() throws IOException {
+        while (running) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (!running) {
+                    return;
+                }
+                throw e;
+            }
+            
+            try (Socket client = socket) {
+                handle(client);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Coding Legion daemon: request failed - " + e.getMessage());
+            }
+        }
+    }
+    
+    private void handle(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        
+        String command = in.readLine();
+        if (command == null) {
+            return;
+        }
+        
+        try {
+            switch (command.trim()) {
+                case "ANALYZE":
+                    analyze(readPaths(in), out);
+                    break;
+                case "PING":
+                    out.write("PONG\n");
+                    break;
+                case "STATS":
+                    out.write(String.format("STATS %d %d\n", results.size(), analyzer.getTypeFacts().size()));
+                    break;
+                case "INVALIDATE":
+                    results.clear();
+                    analyzer.getTypeFacts().clear();
+                    out.write("OK\n");
+                    break;
+                case "SHUTDOWN":
+                    out.write("BYE\n");
+                    out.flush();
+                    close();
+                    break;
+                default:
+                    out.write("FAILED unknown command " + command + "\n");
+            }
+        } catch (IOException | RuntimeException e) {
+            out.write("FAILED " + e.getMessage() + "\n");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            out.write("FAILED interrupted\n");
+        }
+        out.flush();
+    }
+    
+    private List<File> readPaths(BufferedReader in) throws IOException {
+        List<File> files = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        String line;
+        while ((line = in.readLine()) != null && !line.isEmpty()) {
+            File file = new File(line.trim());
+            // Deleted files show up in diffs; there is nothing to analyze
+            if (file.isFile() && seen.add(FileResultCache.keyOf(file))) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+    
+    private void analyze(List<File> files, Writer out) throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        
+        Map<String, List<SourceFinding>> byFile = new HashMap<>();
+        List<File> changed = new ArrayList<>();
+        Set<String> changedKeys = new HashSet<>();
+        for (File file : files) {
+            changedKeys.addAll(results.getChangedDependencies(file));
+            List<SourceFinding> cached = results.lookup(file);
+            if (cached != null) {
+                byFile.put(FileResultCache.keyOf(file), cached);
+            } else {
+                changed.add(file);
+            }
+        }
+        
+        if (!changed.isEmpty()) {
+            Map<File, FileResultCache.Snapshot> snapshots = new HashMap<>();
+            for (File file : changed) {
+                changedKeys.add(FileResultCache.keyOf(file));
+                snapshots.put(file, FileResultCache.snapshot(file));
+            }
+            // Types declared in changed files, or extending one, may have gained or lost isInitialized()
+            analyzer.getTypeFacts().invalidateSources(changedKeys);
+            
+            Map<String, List<SourceFinding>> fresh = new HashMap<>();
+            for (SourceFinding finding : analyzer.analyze(changed)) {
+                fresh.computeIfAbsent(finding.getFilePath(), k -> new ArrayList<>()).add(finding);
+            }
+            for (File file : changed) {
+                String key = FileResultCache.keyOf(file);
+                List<SourceFinding> findings = fresh.getOrDefault(key, Collections.<SourceFinding>emptyList());
+                results.store(snapshots.get(file), analyzer.getDependencies(key), findings);
+                byFile.put(key, findings);
+            }
+        }
+        
+        int total = 0;
+        int errors = 0;
+        for (File file : files) {
+            for (SourceFinding finding : baseline.filterNew(byFile.get(FileResultCache.keyOf(file)))) {
+                out.write(finding.toString());
+                out.write('\n');
+                total++;
+                if (finding.getSeverity() == ViolationSeverity.ERROR) {
+                    errors++;
+                }
+            }
+        }
+        out.write(String.format("END %d %d\n", total, errors));
+        
+        System.err.println(String.format("Coding Legion daemon: %d file(s), %d analyzed, %d ms",
+            files.size(), changed.size(), System.currentTimeMillis() - start));
+    }
+    
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+    }
+}
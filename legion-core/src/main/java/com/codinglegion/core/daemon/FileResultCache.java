@@ -0,0 +1,159 @@
+package com.codinglegion.core.daemon;
+
+import com.codinglegion.core.SourceFinding;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-file analysis results, reused while the file and the files it depends on are unchanged
+ * A size + mtime match is trusted without reading the file; on mismatch the content hash decides,
+ * so touching a file (checkout, rebase) does not force a re-analysis
+ *
+ * Results are stored under the file state read before the analysis ({@link #snapshot}): a file saved
+ * while javac runs no longer matches, so its next lookup analyzes it again. Dependencies (files
+ * declaring the types the findings relied on) are compared by size + mtime only
+ */
+public class FileResultCache {
+    
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    /**
+     * Cache key for a file; matches the path javac reports in {@link SourceFinding#getFilePath()}
+     */
+    public static String keyOf(File file) {
+        return file.getAbsoluteFile().toURI().getPath();
+    }
+    
+    /**
+     * File for a cache key or javac source path
+     */
+    public static File fileOf(String key) {
+        try {
+            return new File(new URI("file", null, key, null));
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return new File(key);
+        }
+    }
+    
+    /**
+     * @return cached findings, or null if the file or one of its dependencies changed, or it was never analyzed
+     */
+    public List<SourceFinding> lookup(File file) throws IOException {
+        Entry entry = entries.get(keyOf(file));
+        if (entry == null || !getChangedDependencies(entry).isEmpty()) {
+            return null;
+        }
+        
+        long size = file.length();
+        long lastModified = file.lastModified();
+        if (entry.state.size == size && entry.state.lastModified == lastModified) {
+            return entry.findings;
+        }
+        
+        if (entry.state.size == size && Arrays.equals(entry.state.contentHash, hash(file))) {
+            entries.put(keyOf(file), new Entry(new Snapshot(file, size, lastModified, entry.state.contentHash),
+                entry.dependencies, entry.findings));
+            return entry.findings;
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Dependencies of the file's cached results that changed since they were stored
+     * (keys as {@link #keyOf}); empty if there is no entry
+     */
+    public Set<String> getChangedDependencies(File file) {
+        Entry entry = entries.get(keyOf(file));
+        return entry != null ? getChangedDependencies(entry) : Collections.<String>emptySet();
+    }
+    
+    private static Set<String> getChangedDependencies(Entry entry) {
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, long[]> dependency : entry.dependencies.entrySet()) {
+            File file = fileOf(dependency.getKey());
+            long[] stamp = dependency.getValue();
+            if (file.length() != stamp[0] || file.lastModified() != stamp[1]) {
+                changed.add(dependency.getKey());
+            }
+        }
+        return changed;
+    }
+    
+    /**
+     * State of the file to store results under; take it before analyzing the file
+     */
+    public static Snapshot snapshot(File file) throws IOException {
+        // Size and mtime first: a write after them changes the mtime, so the entry will not match
+        long size = file.length();
+        long lastModified = file.lastModified();
+        return new Snapshot(file, size, lastModified, hash(file));
+    }
+    
+    /**
+     * @param snapshot     state of the file before the analysis
+     * @param dependencies other source files (javac paths) the findings depend on
+     */
+    public void store(Snapshot snapshot, Collection<String> dependencies, List<SourceFinding> findings) {
+        Map<String, long[]> stamps = new HashMap<>();
+        for (String dependency : dependencies) {
+            File file = fileOf(dependency);
+            stamps.put(dependency, new long[] {file.length(), file.lastModified()});
+        }
+        entries.put(keyOf(snapshot.file), new Entry(snapshot, stamps,
+            Collections.unmodifiableList(new ArrayList<>(findings))));
+    }
+    
+    public void clear() {
+        entries.clear();
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    private static byte[] hash(File file) throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(Files.readAllBytes(file.toPath()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Size, mtime and content hash of a file at one point in time
+     */
+    public static final class Snapshot {
+        private final File file;
+        private final long size;
+        private final long lastModified;
+        private final byte[] contentHash;
+        
+        private Snapshot(File file, long size, long lastModified, byte[] contentHash) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+        }
+    }
+    
+    private static class Entry {
+        final Snapshot state;
+        final Map<String, long[]> dependencies;
+        final List<SourceFinding> findings;
+        
+        Entry(Snapshot state, Map<String, long[]> dependencies, List<SourceFinding> findings) {
+            this.state = state;
+            this.dependencies = dependencies;
+            this.findings = findings;
+        }
+    }
+}
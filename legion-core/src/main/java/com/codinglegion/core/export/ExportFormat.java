@@ -0,0 +1,66 @@
+package com.codinglegion.core.export;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Machine-readable report formats
+ */
+public enum ExportFormat {
+    SARIF("sarif", "SARIF 2.1.0 (code scanning, review bots)"),
+    JSON_LINES("jsonl", "JSON Lines (one finding per line)"),
+    JUNIT_XML("xml", "JUnit XML (CI test reports)");
+    
+    private final String extension;
+    private final String description;
+    
+    ExportFormat(String extension, String description) {
+        this.extension = extension;
+        this.description = description;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    /**
+     * Open a streaming exporter
+     *
+     * @param basePath project root; file paths below it are written relative to it (may be null)
+     */
+    public FindingExporter open(Path output, String basePath) throws IOException {
+        switch (this) {
+            case SARIF:
+                return new SarifExporter(output, basePath);
+            case JSON_LINES:
+                return new JsonLinesExporter(output, basePath);
+            case JUNIT_XML:
+            default:
+                return new JUnitXmlExporter(output, basePath);
+        }
+    }
+    
+    /**
+     * Format by name (sarif, jsonl/json, junit/xml) or file extension
+     *
+     * @return null if not recognized
+     */
+    public static ExportFormat fromName(String name) {
+        switch (name.toLowerCase()) {
+            case "sarif":
+                return SARIF;
+            case "jsonl":
+            case "json":
+                return JSON_LINES;
+            case "junit":
+            case "xml":
+                return JUNIT_XML;
+            default:
+                return null;
+        }
+    }
+}
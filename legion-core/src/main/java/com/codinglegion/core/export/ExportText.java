@@ -0,0 +1,134 @@
+package com.codinglegion.core.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Escaping and path helpers shared by the exporters
+ */
+final class ExportText {
+    
+    private ExportText() {
+    }
+    
+    static Writer openWriter(Path output) throws IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(output), StandardCharsets.UTF_8), 1 << 16);
+    }
+    
+    /**
+     * Path relative to the base directory with forward slashes, or the absolute path if outside it
+     */
+    static String relativePath(String path, String basePath) {
+        String relative = pathInBase(path, basePath);
+        return relative != null ? relative : normalize(path);
+    }
+    
+    /**
+     * Path relative to the base directory with forward slashes, or null if there is no base or the path is outside it
+     */
+    static String pathInBase(String path, String basePath) {
+        if (basePath == null) {
+            return null;
+        }
+        String normalized = normalize(path);
+        String base = normalize(basePath);
+        if (!base.endsWith("/")) {
+            base = base + "/";
+        }
+        return normalized.startsWith(base) ? normalized.substring(base.length()) : null;
+    }
+    
+    /**
+     * Forward slashes, and no leading slash before a drive letter (javac reports Windows files as "/C:/...")
+     */
+    static String normalize(String path) {
+        String normalized = path.replace('\\', '/');
+        if (normalized.length() > 2 && normalized.charAt(0) == '/' && normalized.charAt(2) == ':') {
+            normalized = normalized.substring(1);
+        }
+        return normalized;
+    }
+    
+    /**
+     * JSON string literal including the surrounding quotes
+     */
+    static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+        return sb.toString();
+    }
+    
+    /**
+     * XML attribute / text escaping; characters not allowed in XML 1.0 are dropped
+     */
+    static String xml(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '"':
+                    sb.append("&quot;");
+                    break;
+                case '\'':
+                    sb.append("&apos;");
+                    break;
+                default:
+                    if (c >= 0x20 || c == '\n' || c == '\r' || c == '\t') {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.toString();
+    }
+}
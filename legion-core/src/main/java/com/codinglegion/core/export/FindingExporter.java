@@ -0,0 +1,22 @@
+package com.codinglegion.core.export;
+
+import com.codinglegion.core.Finding;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Streams findings to a report file one at a time
+ * Implementations keep only constant state (counters, the open stream), so exporting 100k+ findings
+ * does not build the report in memory; {@link #close()} writes the trailer
+ */
+public interface FindingExporter extends Closeable {
+    
+    void write(Finding finding) throws IOException;
+    
+    default void writeAll(Iterable<? extends Finding> findings) throws IOException {
+        for (Finding finding : findings) {
+            write(finding);
+        }
+    }
+}
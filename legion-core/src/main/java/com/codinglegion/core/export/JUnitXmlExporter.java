@@ -0,0 +1,96 @@
+package com.codinglegion.core.export;
+
+import com.codinglegion.core.Finding;
+import com.codinglegion.model.ViolationSeverity;
+import com.codinglegion.model.ViolationType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.codinglegion.core.export.ExportText.xml;
+
+/**
+ * JUnit XML report: one test case per finding, failing for errors and skipped for warnings
+ * The test suite counts are only known at the end, so the start tag is written padded to a fixed width
+ * and {@link #close()} overwrites it in place
+ */
+public class JUnitXmlExporter implements FindingExporter {
+    
+    private static final int TAG_WIDTH = 128;
+    private static final String PROLOG = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+    
+    private final Path output;
+    private final Writer writer;
+    private final String basePath;
+    private int tests;
+    private int failures;
+    private int skipped;
+    
+    public JUnitXmlExporter(Path output, String basePath) throws IOException {
+        this.output = output;
+        this.writer = ExportText.openWriter(output);
+        this.basePath = basePath;
+        
+        writer.write(PROLOG);
+        writer.write(suiteStartTag(0, 0, 0));
+        writer.write("\n");
+    }
+    
+    @Override
+    public void write(Finding finding) throws IOException {
+        ViolationType type = finding.getType();
+        String path = ExportText.relativePath(finding.getFilePath(), basePath);
+        String message = type.getTitle() + ": " + type.getCompactDescription();
+        
+        tests++;
+        writer.write("  <testcase classname=\"" + xml(SarifExporter.qualifiedClassName(finding))
+            + "\" name=\"" + xml(type.name() + " " + path + ":" + finding.getLineNumber() + ":" + finding.getColumnNumber())
+            + "\" file=\"" + xml(path) + "\" line=\"" + finding.getLineNumber() + "\">\n");
+        
+        if (finding.getSeverity() == ViolationSeverity.ERROR) {
+            failures++;
+            writer.write("    <failure type=\"" + xml(type.name()) + "\" message=\"" + xml(message) + "\">");
+        } else {
+            skipped++;
+            writer.write("    <skipped message=\"" + xml(message) + "\">");
+        }
+        writer.write(xml(finding.getViolatingCode()));
+        writer.write("\nSuggested fix: ");
+        writer.write(xml(type.getSuggestedFix()));
+        writer.write(finding.getSeverity() == ViolationSeverity.ERROR ? "</failure>\n" : "</skipped>\n");
+        writer.write("  </testcase>\n");
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.write("</testsuite>\n");
+        } finally {
+            writer.close();
+        }
+        
+        // Start tag is pure ASCII of constant length, right after the prolog
+        byte[] tag = suiteStartTag(tests, failures, skipped).getBytes(StandardCharsets.US_ASCII);
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(tag), PROLOG.length());
+        }
+    }
+    
+    /**
+     * Start tag padded with whitespace before the closing bracket, so it has the same length for any counts
+     */
+    private static String suiteStartTag(int tests, int failures, int skipped) {
+        StringBuilder sb = new StringBuilder("<testsuite name=\"Coding Legion\" tests=\"" + tests
+            + "\" failures=\"" + failures
+            + "\" errors=\"0\" skipped=\"" + skipped + "\"");
+        while (sb.length() < TAG_WIDTH - 1) {
+            sb.append(' ');
+        }
+        return sb.append('>').toString();
+    }
+}
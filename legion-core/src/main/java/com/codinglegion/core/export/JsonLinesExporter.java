@@ -0,0 +1,57 @@
+package com.codinglegion.core.export;
+
+import com.codinglegion.core.Finding;
+import com.codinglegion.model.ViolationType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+
+import static com.codinglegion.core.export.ExportText.json;
+
+/**
+ * One JSON object per line, e.g.
+ * {"ruleId":"STRING_EQUALS","severity":"ERROR","file":"src/A.java","line":12,"column":9,...}
+ */
+public class JsonLinesExporter implements FindingExporter {
+    
+    private final Writer writer;
+    private final String basePath;
+    
+    public JsonLinesExporter(Path output, String basePath) throws IOException {
+        this.writer = ExportText.openWriter(output);
+        this.basePath = basePath;
+    }
+    
+    @Override
+    public void write(Finding finding) throws IOException {
+        ViolationType type = finding.getType();
+        
+        writer.write("{\"ruleId\":");
+        writer.write(json(type.name()));
+        writer.write(",\"severity\":");
+        writer.write(json(finding.getSeverity().name()));
+        writer.write(",\"title\":");
+        writer.write(json(type.getTitle()));
+        writer.write(",\"file\":");
+        writer.write(json(ExportText.relativePath(finding.getFilePath(), basePath)));
+        writer.write(",\"line\":");
+        writer.write(Integer.toString(finding.getLineNumber()));
+        writer.write(",\"column\":");
+        writer.write(Integer.toString(finding.getColumnNumber()));
+        writer.write(",\"package\":");
+        writer.write(json(finding.getPackageName()));
+        writer.write(",\"class\":");
+        writer.write(json(finding.getClassName()));
+        writer.write(",\"code\":");
+        writer.write(json(finding.getViolatingCode()));
+        writer.write(",\"suggestedFix\":");
+        writer.write(json(type.getSuggestedFix()));
+        writer.write("}\n");
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,138 @@
+package com.codinglegion.core.export;
+
+import com.codinglegion.core.Finding;
+import com.codinglegion.model.ViolationSeverity;
+import com.codinglegion.model.ViolationType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static com.codinglegion.core.export.ExportText.json;
+
+/**
+ * SARIF 2.1.0 report
+ * The rule table (every {@link ViolationType}) is written up front, results are appended as they arrive
+ * and the JSON arrays are closed in {@link #close()}
+ */
+public class SarifExporter implements FindingExporter {
+    
+    private static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+    private static final String SRCROOT = "%SRCROOT%";
+    
+    private final Writer writer;
+    private final String basePath;
+    private boolean first = true;
+    
+    public SarifExporter(Path output, String basePath) throws IOException {
+        this.writer = ExportText.openWriter(output);
+        this.basePath = basePath;
+        writeHeader();
+    }
+    
+    private void writeHeader() throws IOException {
+        writer.write("{\n");
+        writer.write("  \"$schema\": " + json(SCHEMA) + ",\n");
+        writer.write("  \"version\": \"2.1.0\",\n");
+        writer.write("  \"runs\": [{\n");
+        writer.write("    \"tool\": {\"driver\": {\n");
+        writer.write("      \"name\": \"Coding Legion\",\n");
+        writer.write("      \"rules\": [");
+        
+        ViolationType[] types = ViolationType.values();
+        for (int i = 0; i < types.length; i++) {
+            ViolationType type = types[i];
+            writer.write(i == 0 ? "\n" : ",\n");
+            writer.write("        {\"id\": " + json(type.name())
+                + ", \"name\": " + json(type.getTitle())
+                + ", \"shortDescription\": {\"text\": " + json(type.getCompactDescription()) + "}"
+                + ", \"fullDescription\": {\"text\": " + json(type.getDescription()) + "}"
+                + ", \"help\": {\"text\": " + json(type.getSuggestedFix()) + "}"
+                + ", \"defaultConfiguration\": {\"level\": " + json(level(type.getSeverity())) + "}}");
+        }
+        
+        writer.write("\n      ]\n");
+        writer.write("    }},\n");
+        if (basePath != null) {
+            writer.write("    \"originalUriBaseIds\": {" + json(SRCROOT)
+                + ": {\"uri\": " + json(baseUri(basePath)) + "}},\n");
+        }
+        writer.write("    \"results\": [");
+    }
+    
+    @Override
+    public void write(Finding finding) throws IOException {
+        ViolationType type = finding.getType();
+        // Files in the base directory are relative to %SRCROOT%, all others get an absolute file URI
+        String relative = ExportText.pathInBase(finding.getFilePath(), basePath);
+        String uri = relative != null ? relativeUri(relative) : fileUri(finding.getFilePath());
+        
+        writer.write(first ? "\n" : ",\n");
+        first = false;
+        
+        writer.write("      {\"ruleId\": " + json(type.name())
+            + ", \"ruleIndex\": " + type.ordinal()
+            + ", \"level\": " + json(level(finding.getSeverity()))
+            + ", \"message\": {\"text\": " + json(type.getTitle() + ": " + type.getCompactDescription()) + "}"
+            + ", \"locations\": [{\"physicalLocation\": {"
+            + "\"artifactLocation\": {\"uri\": " + json(uri)
+            + (relative != null ? ", \"uriBaseId\": " + json(SRCROOT) : "") + "}"
+            + ", \"region\": {\"startLine\": " + Math.max(1, finding.getLineNumber())
+            + ", \"startColumn\": " + Math.max(1, finding.getColumnNumber())
+            + ", \"snippet\": {\"text\": " + json(finding.getViolatingCode()) + "}}"
+            + "}, \"logicalLocations\": [{\"fullyQualifiedName\": " + json(qualifiedClassName(finding))
+            + ", \"kind\": \"type\"}]}]"
+            + ", \"properties\": {\"suggestedFix\": " + json(type.getSuggestedFix()) + "}}");
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.write(first ? "]\n" : "\n    ]\n");
+            writer.write("  }]\n");
+            writer.write("}\n");
+        } finally {
+            writer.close();
+        }
+    }
+    
+    private static String level(ViolationSeverity severity) {
+        return severity == ViolationSeverity.ERROR ? "error" : "warning";
+    }
+    
+    private static String baseUri(String basePath) {
+        String uri = fileUri(basePath);
+        return uri.endsWith("/") ? uri : uri + "/";
+    }
+    
+    /**
+     * Percent-encoded file URI of an absolute path, e.g. file:///C:/My%20Project/A.java
+     */
+    static String fileUri(String path) {
+        return Paths.get(ExportText.normalize(path)).toUri().toASCIIString();
+    }
+    
+    /**
+     * Percent-encoded relative URI reference of a relative path with forward slashes
+     */
+    static String relativeUri(String path) {
+        // A colon in the first segment would read as a scheme
+        int colon = path.indexOf(':');
+        String reference = colon >= 0 && colon < (path.indexOf('/') < 0 ? path.length() : path.indexOf('/')) ? "./" + path : path;
+        try {
+            return new URI(null, null, reference, null).toASCIIString();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Not a relative path: " + path, e);
+        }
+    }
+    
+    static String qualifiedClassName(Finding finding) {
+        String packageName = finding.getPackageName();
+        return packageName == null || packageName.isEmpty()
+            ? finding.getClassName()
+            : packageName + "." + finding.getClassName();
+    }
+}
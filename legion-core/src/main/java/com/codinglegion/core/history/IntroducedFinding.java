@@ -0,0 +1,68 @@
+package com.codinglegion.core.history;
+
+import com.codinglegion.core.Finding;
+import com.codinglegion.model.ViolationType;
+
+/**
+ * A finding of a file's latest version together with the commit that introduced it
+ */
+public class IntroducedFinding implements Finding {
+    private final Finding finding;
+    private final String commit;
+    
+    public IntroducedFinding(Finding finding, String commit) {
+        this.finding = finding;
+        this.commit = commit;
+    }
+    
+    public Finding getFinding() {
+        return finding;
+    }
+    
+    /**
+     * Hash of the introducing commit, or null if the finding predates the analyzed range
+     */
+    public String getCommit() {
+        return commit;
+    }
+    
+    @Override
+    public ViolationType getType() {
+        return finding.getType();
+    }
+    
+    @Override
+    public String getFilePath() {
+        return finding.getFilePath();
+    }
+    
+    @Override
+    public int getLineNumber() {
+        return finding.getLineNumber();
+    }
+    
+    @Override
+    public int getColumnNumber() {
+        return finding.getColumnNumber();
+    }
+    
+    @Override
+    public String getClassName() {
+        return finding.getClassName();
+    }
+    
+    @Override
+    public String getPackageName() {
+        return finding.getPackageName();
+    }
+    
+    @Override
+    public String getViolatingCode() {
+        return finding.getViolatingCode();
+    }
+    
+    @Override
+    public String toString() {
+        return finding + (commit != null ? " (introduced in " + commit + ")" : " (before range)");
+    }
+}
@@ -0,0 +1,95 @@
+package com.codinglegion.core.history;
+
+import com.codinglegion.core.Finding;
+import com.codinglegion.core.baseline.FindingFingerprint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Works out which commit introduced each finding, given the findings of every version of each file
+ * in commit order
+ *
+ * Findings are matched between two versions of a file by {@link FindingFingerprint} (rule, class,
+ * code), so edits elsewhere in the file and moved code keep their original commit. Equal fingerprints
+ * are counted: a second copy of the same violating code is attributed to the commit that added it
+ *
+ * Not thread-safe
+ */
+public class IntroductionTracker {
+    
+    // Current findings per repository-relative path, sorted for a stable report order
+    private final Map<String, List<IntroducedFinding>> files = new TreeMap<>();
+    
+    public boolean isTracked(String path) {
+        return files.containsKey(path);
+    }
+    
+    /**
+     * Findings of the version a file had where the analyzed range starts (none of them introduced in it)
+     */
+    public void seed(String path, List<? extends Finding> findings) {
+        update(path, null, findings);
+    }
+    
+    /**
+     * Findings of a new version of the file, written by the given commit
+     * A finding matching one of the previous version keeps that version's commit; the rest are new
+     */
+    public void update(String path, String commit, List<? extends Finding> findings) {
+        Map<Long, List<String>> previous = new HashMap<>();
+        for (IntroducedFinding finding : files.getOrDefault(path, Collections.emptyList())) {
+            previous.computeIfAbsent(FindingFingerprint.of(finding), key -> new ArrayList<>()).add(finding.getCommit());
+        }
+        
+        List<IntroducedFinding> next = new ArrayList<>(findings.size());
+        for (Finding finding : findings) {
+            List<String> commits = previous.get(FindingFingerprint.of(finding));
+            String introducedBy = commits != null && !commits.isEmpty() ? commits.remove(commits.size() - 1) : commit;
+            next.add(new IntroducedFinding(finding, introducedBy));
+        }
+        files.put(path, next);
+    }
+    
+    /**
+     * The file moved; its findings keep their commits
+     */
+    public void rename(String oldPath, String newPath) {
+        List<IntroducedFinding> findings = files.remove(oldPath);
+        if (findings != null) {
+            files.put(newPath, findings);
+        }
+    }
+    
+    public void delete(String path) {
+        files.remove(path);
+    }
+    
+    /**
+     * Findings of the latest version of every file that were introduced within the analyzed range
+     */
+    public List<IntroducedFinding> getIntroduced() {
+        List<IntroducedFinding> introduced = new ArrayList<>();
+        for (IntroducedFinding finding : getCurrent()) {
+            if (finding.getCommit() != null) {
+                introduced.add(finding);
+            }
+        }
+        return introduced;
+    }
+    
+    /**
+     * Findings of the latest version of every file, including those that predate the range
+     */
+    public List<IntroducedFinding> getCurrent() {
+        List<IntroducedFinding> current = new ArrayList<>();
+        for (List<IntroducedFinding> findings : files.values()) {
+            current.addAll(findings);
+        }
+        return current;
+    }
+}
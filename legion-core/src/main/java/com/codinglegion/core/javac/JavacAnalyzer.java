@@ -0,0 +1,251 @@
+package com.codinglegion.core.javac;
+
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.core.rules.CoreRuleConfig;
+import com.codinglegion.core.rules.DuplicateStats;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.Trees;
+
+import javax.tools.*;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Analyzes Java source files without an IDE
+ * Files are split into batches; each batch is parsed and attributed by its own javac task
+ * on a worker thread, then scanned with {@link JavacRuleScanner}
+ * Types declared outside a batch are read from the sourcepath (attributed, never compiled), so the
+ * findings of a file do not depend on which other files share its batch. Besides the configured
+ * entries, the sourcepath holds the package roots of the analyzed files (from their package
+ * declarations), so a file sent alone still sees the types of its project
+ *
+ * Worker threads, file managers (with their classpath archive indexes) and type facts are kept
+ * between {@link #analyze} calls, so a long-lived instance gets faster after the first request
+ */
+public class JavacAnalyzer implements Closeable {
+    
+    public static final int DEFAULT_BATCH_SIZE = 50;
+    
+    private static final Pattern PACKAGE_DECLARATION = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;");
+    
+    private final CoreRuleConfig config;
+    private final String classpath;
+    private final String sourcepath;
+    private final int threads;
+    private final int batchSize;
+    private final JavaCompiler compiler;
+    private final ExecutorService executor;
+    private final TypeFactCache typeFacts = new TypeFactCache();
+    private final DuplicateStats duplicates = new DuplicateStats();
+    // Per analyzed file (javac path): the other source files its findings depend on
+    private final Map<String, Set<String>> dependencies = new ConcurrentHashMap<>();
+    
+    // At most one file manager per worker thread; StandardJavaFileManager is not thread-safe
+    private final BlockingQueue<StandardJavaFileManager> fileManagers;
+    private final List<StandardJavaFileManager> allFileManagers = new ArrayList<>();
+    
+    /**
+     * @param classpath  libraries and compiled classes, or null
+     * @param sourcepath source roots (package roots, {@link File#pathSeparator}-separated) declaring the
+     *                   project types the analyzed files use, or null
+     */
+    public JavacAnalyzer(CoreRuleConfig config, String classpath, String sourcepath, int threads, int batchSize) {
+        this.config = config;
+        this.classpath = classpath;
+        this.sourcepath = sourcepath;
+        this.threads = Math.max(1, threads);
+        this.batchSize = Math.max(1, batchSize);
+        
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No system Java compiler available - run on a JDK, not a JRE");
+        }
+        
+        this.executor = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread thread = new Thread(r, "coding-legion-javac");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.fileManagers = new ArrayBlockingQueue<>(this.threads);
+    }
+    
+    public TypeFactCache getTypeFacts() {
+        return typeFacts;
+    }
+    
+    /**
+     * Overlapping findings merged so far, over all {@link #analyze} calls
+     */
+    public DuplicateStats getDuplicateStats() {
+        return duplicates;
+    }
+    
+    /**
+     * Other source files the findings of a file depended on in its last analysis (empty if unknown);
+     * paths as in {@link SourceFinding#getFilePath()}
+     */
+    public Set<String> getDependencies(String filePath) {
+        return dependencies.getOrDefault(filePath, Collections.<String>emptySet());
+    }
+    
+    /**
+     * Analyze the files and return findings in input file order
+     */
+    public List<SourceFinding> analyze(List<File> files) throws IOException, InterruptedException {
+        List<String> options = compilerOptions(files);
+        List<List<File>> batches = new ArrayList<>();
+        for (int i = 0; i < files.size(); i += batchSize) {
+            batches.add(files.subList(i, Math.min(i + batchSize, files.size())));
+        }
+        
+        List<Future<List<SourceFinding>>> futures = new ArrayList<>();
+        for (List<File> batch : batches) {
+            futures.add(executor.submit(() -> analyzeBatch(batch, options)));
+        }
+        
+        List<SourceFinding> findings = new ArrayList<>();
+        try {
+            for (Future<List<SourceFinding>> future : futures) {
+                findings.addAll(future.get());
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException("Analysis failed: " + cause.getMessage(), cause);
+        } finally {
+            for (Future<List<SourceFinding>> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return findings;
+    }
+    
+    private List<SourceFinding> analyzeBatch(List<File> batch, List<String> options) throws IOException {
+        List<SourceFinding> findings = new ArrayList<>();
+        StandardJavaFileManager fileManager = acquireFileManager();
+        
+        try {
+            Iterable<? extends JavaFileObject> sources = fileManager.getJavaFileObjectsFromFiles(batch);
+            
+            // Compile errors (missing classpath entries etc.) only degrade type information
+            DiagnosticListener<JavaFileObject> ignoreDiagnostics = diagnostic -> { };
+            JavacTask task = (JavacTask) compiler.getTask(null, fileManager, ignoreDiagnostics,
+                options, null, sources);
+            
+            Iterable<? extends CompilationUnitTree> units = task.parse();
+            task.analyze();
+            
+            Trees trees = Trees.instance(task);
+            for (CompilationUnitTree unit : units) {
+                JavacRuleScanner scanner = new JavacRuleScanner(unit, trees, task.getElements(), config, typeFacts,
+                    duplicates, (finding, tree) -> findings.add(finding));
+                scanner.scanUnit();
+                dependencies.put(unit.getSourceFile().toUri().getPath(), scanner.getDependencies());
+            }
+        } finally {
+            fileManagers.offer(fileManager);
+        }
+        
+        return findings;
+    }
+    
+    private StandardJavaFileManager acquireFileManager() {
+        StandardJavaFileManager fileManager = fileManagers.poll();
+        if (fileManager == null) {
+            fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+            synchronized (allFileManagers) {
+                allFileManagers.add(fileManager);
+            }
+        }
+        return fileManager;
+    }
+    
+    private List<String> compilerOptions(List<File> files) {
+        List<String> options = new ArrayList<>(Arrays.asList(
+            "-proc:none",
+            "-nowarn",
+            "-Xlint:none",
+            // Sourcepath types are only attributed for the batch, not compiled
+            "-implicit:none",
+            // Keep attributing after errors (option name differs between JDK 8 and 9+)
+            "-XDshould-stop.ifError=FLOW",
+            "-XDshouldStopPolicyIfError=FLOW"
+        ));
+        if (classpath != null && !classpath.isEmpty()) {
+            options.add("-classpath");
+            options.add(classpath);
+        }
+        Set<String> sourceRoots = new LinkedHashSet<>();
+        if (sourcepath != null && !sourcepath.isEmpty()) {
+            sourceRoots.add(sourcepath);
+        }
+        // Files of one directory share a package; read one declaration per directory
+        Set<File> seenDirs = new HashSet<>();
+        for (File file : files) {
+            if (!seenDirs.add(file.getAbsoluteFile().getParentFile())) {
+                continue;
+            }
+            File root = packageRoot(file);
+            if (root != null) {
+                sourceRoots.add(root.getPath());
+            }
+        }
+        if (!sourceRoots.isEmpty()) {
+            options.add("-sourcepath");
+            options.add(String.join(File.pathSeparator, sourceRoots));
+        }
+        return options;
+    }
+    
+    /**
+     * Directory the file's package starts in (src/main/java for src/main/java/a/b/C.java in package a.b),
+     * or null if the directories do not match the package declaration
+     */
+    static File packageRoot(File file) {
+        File dir = file.getAbsoluteFile().getParentFile();
+        String packageName;
+        try (Stream<String> lines = Files.lines(file.toPath(), StandardCharsets.UTF_8)) {
+            packageName = lines.map(PACKAGE_DECLARATION::matcher)
+                .filter(Matcher::find)
+                .map(matcher -> matcher.group(1))
+                .findFirst()
+                .orElse(null);
+        } catch (IOException | UncheckedIOException e) {
+            return null;
+        }
+        if (packageName == null) {
+            return dir;
+        }
+        String[] segments = packageName.split("\\.");
+        for (int i = segments.length - 1; i >= 0 && dir != null; i--) {
+            if (!segments[i].equals(dir.getName())) {
+                return null;
+            }
+            dir = dir.getParentFile();
+        }
+        return dir;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        synchronized (allFileManagers) {
+            for (StandardJavaFileManager fileManager : allFileManagers) {
+                fileManager.close();
+            }
+            allFileManagers.clear();
+        }
+    }
+}
@@ -0,0 +1,1237 @@
+package com.codinglegion.core.javac;
+
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.core.rules.CoreRuleConfig;
+import com.codinglegion.core.rules.DuplicateStats;
+import com.codinglegion.core.rules.FindingDeduplicator;
+import com.codinglegion.core.rules.GuardFact;
+import com.codinglegion.core.rules.NullSafetyRules;
+import com.codinglegion.model.ViolationType;
+import com.sun.source.tree.*;
+import com.sun.source.util.SourcePositions;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.Trees;
+
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Runs all Coding Legion rules over one attributed javac compilation unit
+ * Mirrors the PSI detectors one to one; name and type predicates come from {@link NullSafetyRules}
+ * Both sides must report exactly the findings marked in the test resources' rule-corpus
+ */
+public class JavacRuleScanner extends TreePathScanner<Void, Void> {
+    
+    private final CompilationUnitTree unit;
+    private final Trees trees;
+    private final Elements elements;
+    private final CoreRuleConfig config;
+    private final FindingSink sink;
+    private final FindingDeduplicator<SourceFinding> deduplicator;
+    private final Map<SourceFinding, Tree> reportedTrees = new IdentityHashMap<>();
+    // Guard facts of the enclosing if / ternary / while regions, innermost first; reset per method
+    private final Deque<Set<GuardFact>> guardRegions = new ArrayDeque<>();
+    private final SourcePositions positions;
+    private final String source;
+    private final String filePath;
+    private final String packageName;
+    
+    // Types with an isInitialized(String) method; may be shared across compilation units and tasks
+    private final TypeFactCache typeFacts;
+    // Other source files whose types or members the rules looked at
+    private final Set<String> dependencies = new HashSet<>();
+    private final Map<TypeElement, String> sourcePaths = new IdentityHashMap<>();
+    
+    public JavacRuleScanner(CompilationUnitTree unit, Trees trees, Elements elements,
+                            CoreRuleConfig config, TypeFactCache typeFacts, DuplicateStats duplicates,
+                            FindingSink sink) {
+        this.unit = unit;
+        this.typeFacts = typeFacts;
+        this.trees = trees;
+        this.elements = elements;
+        this.config = config;
+        this.sink = sink;
+        this.deduplicator = new FindingDeduplicator<>(duplicates);
+        this.positions = trees.getSourcePositions();
+        try {
+            this.source = unit.getSourceFile().getCharContent(true).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + unit.getSourceFile().getName(), e);
+        }
+        this.filePath = unit.getSourceFile().toUri().getPath();
+        this.packageName = unit.getPackageName() != null ? unit.getPackageName().toString() : "default";
+    }
+    
+    /**
+     * Scan the whole compilation unit
+     */
+    public void scanUnit() {
+        scan(new TreePath(unit), null);
+        flush();
+    }
+    
+    /**
+     * Scan a single class of the compilation unit (used by the compiler plugin, which sees one class at a time)
+     */
+    public void scanClass(TreePath classPath) {
+        scan(classPath, null);
+        flush();
+    }
+    
+    /**
+     * Source files other than this unit's that declare types or members the findings depend on
+     * (expression types, called methods, their supertypes); a change to one of them can change the findings
+     */
+    public Set<String> getDependencies() {
+        Set<String> others = new HashSet<>(dependencies);
+        others.remove(filePath);
+        return others;
+    }
+    
+    /**
+     * Pass the findings that survived deduplication to the sink
+     */
+    private void flush() {
+        for (SourceFinding finding : deduplicator.drain()) {
+            sink.accept(finding, reportedTrees.get(finding));
+        }
+        reportedTrees.clear();
+    }
+    
+    // ---------------------------------------------------------------- visitors
+    
+    @Override
+    public Void scan(Tree tree, Void unused) {
+        Set<GuardFact> region = tree != null ? guardRegionOf(tree) : null;
+        if (region != null) {
+            guardRegions.push(region);
+        }
+        try {
+            return super.scan(tree, unused);
+        } finally {
+            if (region != null) {
+                guardRegions.pop();
+            }
+        }
+    }
+    
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree node, Void unused) {
+        String methodName = methodName(node);
+        ExpressionTree qualifier = qualifier(node);
+        
+        if (config.isEnabled(ViolationType.STRING_EQUALS)) {
+            checkStringEquals(node, methodName, qualifier);
+        }
+        if (config.isEnabled(ViolationType.COLLECTION_NULL_CHECK)) {
+            checkUnsafeCollectionMethod(node, methodName, qualifier);
+        }
+        if (config.isEnabled(ViolationType.BOOLEAN_UNBOXING)) {
+            checkBooleanArguments(node);
+        }
+        if (config.isEnabled(ViolationType.LOG_NULL_DEREFERENCE)) {
+            checkLogArguments(node, methodName, qualifier);
+        }
+        if (config.isEnabled(ViolationType.DTO_INITIALIZATION_CHECK)) {
+            checkDtoGetter(node, methodName, qualifier);
+        }
+        if (config.isEnabled(ViolationType.NULL_VALUE_IN_CONTEXT) || config.isEnabled(ViolationType.NULL_VALUE_IN_MAP)) {
+            checkNullValueInContext(node, methodName, qualifier);
+        }
+        
+        return super.visitMethodInvocation(node, unused);
+    }
+    
+    @Override
+    public Void visitBinary(BinaryTree node, Void unused) {
+        if (node.getKind() == Tree.Kind.CONDITIONAL_OR) {
+            if (config.isEnabled(ViolationType.STRING_EMPTY_CHECK)) {
+                checkStringNullOrEmpty(node);
+            }
+            if (config.isEnabled(ViolationType.COLLECTION_NULL_CHECK)) {
+                checkCollectionNullOrEmpty(node);
+            }
+        }
+        if (config.isEnabled(ViolationType.COLLECTION_SIZE_CHECK)) {
+            checkSizeComparison(node);
+        }
+        
+        return super.visitBinary(node, unused);
+    }
+    
+    @Override
+    public Void visitConditionalExpression(ConditionalExpressionTree node, Void unused) {
+        if (config.isEnabled(ViolationType.TERNARY_NULL_DEFAULT)) {
+            checkTernaryNullDefault(node);
+        }
+        
+        return super.visitConditionalExpression(node, unused);
+    }
+    
+    @Override
+    public Void visitIf(IfTree node, Void unused) {
+        if (config.isEnabled(ViolationType.TERNARY_NULL_DEFAULT)) {
+            checkIfElseNullDefault(node);
+        }
+        if (config.isEnabled(ViolationType.BOOLEAN_UNBOXING)) {
+            ExpressionTree condition = unwrapParentheses(node.getCondition());
+            if (isBooleanWrapper(condition)) {
+                report(ViolationType.BOOLEAN_UNBOXING, node, text(condition));
+            }
+        }
+        
+        return super.visitIf(node, unused);
+    }
+    
+    @Override
+    public Void visitVariable(VariableTree node, Void unused) {
+        if (config.isEnabled(ViolationType.BOOLEAN_UNBOXING)) {
+            checkBooleanVariable(node);
+        }
+        
+        return super.visitVariable(node, unused);
+    }
+    
+    @Override
+    public Void visitAssignment(AssignmentTree node, Void unused) {
+        if (config.isEnabled(ViolationType.BOOLEAN_UNBOXING)) {
+            TypeMirror lhsType = typeOf(node.getVariable());
+            if (lhsType != null && lhsType.getKind() == TypeKind.BOOLEAN && isBooleanWrapper(node.getExpression())) {
+                report(ViolationType.BOOLEAN_UNBOXING, node, text(node.getExpression()));
+            }
+        }
+        
+        return super.visitAssignment(node, unused);
+    }
+    
+    @Override
+    public Void visitCompoundAssignment(CompoundAssignmentTree node, Void unused) {
+        if (config.isEnabled(ViolationType.BOOLEAN_UNBOXING)) {
+            TypeMirror lhsType = typeOf(node.getVariable());
+            if (lhsType != null && lhsType.getKind() == TypeKind.BOOLEAN && isBooleanWrapper(node.getExpression())) {
+                report(ViolationType.BOOLEAN_UNBOXING, node, text(node.getExpression()));
+            }
+        }
+        
+        return super.visitCompoundAssignment(node, unused);
+    }
+    
+    @Override
+    public Void visitReturn(ReturnTree node, Void unused) {
+        if (config.isEnabled(ViolationType.BOOLEAN_UNBOXING)) {
+            checkBooleanReturn(node);
+        }
+        
+        return super.visitReturn(node, unused);
+    }
+    
+    // ---------------------------------------------------------------- string rules
+    
+    private void checkStringEquals(MethodInvocationTree call, String methodName, ExpressionTree qualifier) {
+        if (!"equals".equals(methodName) || qualifier == null) {
+            return;
+        }
+        
+        // "CONSTANT".equals(variable) is already null-safe
+        if (qualifier.getKind() == Tree.Kind.STRING_LITERAL) {
+            return;
+        }
+        
+        String qualifierType = typeName(typeOf(qualifier));
+        if (qualifierType != null && NullSafetyRules.isStringType(qualifierType)) {
+            report(ViolationType.STRING_EQUALS, call, text(call));
+        }
+    }
+    
+    private void checkStringNullOrEmpty(BinaryTree binary) {
+        ExpressionTree left = binary.getLeftOperand();
+        ExpressionTree right = binary.getRightOperand();
+        
+        boolean leftIsNullCheck = isNullComparison(left, false);
+        boolean rightIsEmptyCheck = isStringIsEmptyCall(right) || isEqualsEmptyStringCall(right) || isStringLengthZero(right);
+        
+        if (leftIsNullCheck && rightIsEmptyCheck) {
+            String leftVar = referenceFromNullCheck(left);
+            String rightVar = referenceFromEmptyCheck(right, true);
+            
+            if (leftVar != null && leftVar.equals(rightVar)) {
+                report(ViolationType.STRING_EMPTY_CHECK, binary, text(binary));
+            }
+        }
+    }
+    
+    private boolean isStringIsEmptyCall(ExpressionTree expr) {
+        if (!(expr instanceof MethodInvocationTree) || !"isEmpty".equals(methodName((MethodInvocationTree) expr))) {
+            return false;
+        }
+        ExpressionTree qualifier = qualifier((MethodInvocationTree) expr);
+        return qualifier != null && NullSafetyRules.STRING_TYPE.equals(typeName(typeOf(qualifier)));
+    }
+    
+    private boolean isEqualsEmptyStringCall(ExpressionTree expr) {
+        if (!(expr instanceof MethodInvocationTree)) {
+            return false;
+        }
+        MethodInvocationTree call = (MethodInvocationTree) expr;
+        if (!"equals".equals(methodName(call)) || call.getArguments().size() != 1) {
+            return false;
+        }
+        ExpressionTree arg = call.getArguments().get(0);
+        return arg.getKind() == Tree.Kind.STRING_LITERAL && "".equals(((LiteralTree) arg).getValue());
+    }
+    
+    private boolean isStringLengthZero(ExpressionTree expr) {
+        if (expr.getKind() != Tree.Kind.EQUAL_TO) {
+            return false;
+        }
+        BinaryTree binary = (BinaryTree) expr;
+        return (isStringLengthCall(binary.getLeftOperand()) && isZeroLiteral(binary.getRightOperand())) ||
+               (isStringLengthCall(binary.getRightOperand()) && isZeroLiteral(binary.getLeftOperand()));
+    }
+    
+    private boolean isStringLengthCall(ExpressionTree expr) {
+        if (!(expr instanceof MethodInvocationTree) || !"length".equals(methodName((MethodInvocationTree) expr))) {
+            return false;
+        }
+        ExpressionTree qualifier = qualifier((MethodInvocationTree) expr);
+        return qualifier != null && NullSafetyRules.STRING_TYPE.equals(typeName(typeOf(qualifier)));
+    }
+    
+    // ---------------------------------------------------------------- collection rules
+    
+    private void checkCollectionNullOrEmpty(BinaryTree binary) {
+        ExpressionTree left = binary.getLeftOperand();
+        ExpressionTree right = binary.getRightOperand();
+        
+        boolean leftIsNullCheck = isNullComparison(left, true);
+        boolean rightIsEmptyCheck = isIsEmptyCall(right) || isSizeEqualsZero(right);
+        
+        if (leftIsNullCheck && rightIsEmptyCheck) {
+            String leftVar = referenceFromNullCheck(left);
+            String rightVar = referenceFromEmptyCheck(right, false);
+            
+            if (leftVar != null && leftVar.equals(rightVar) && isCollectionExpression(right)) {
+                report(ViolationType.COLLECTION_NULL_CHECK, binary, text(binary));
+            }
+        }
+    }
+    
+    private void checkSizeComparison(BinaryTree binary) {
+        switch (binary.getKind()) {
+            case EQUAL_TO:
+            case NOT_EQUAL_TO:
+            case GREATER_THAN:
+            case LESS_THAN:
+            case GREATER_THAN_EQUAL:
+            case LESS_THAN_EQUAL:
+                break;
+            default:
+                return;
+        }
+        
+        ExpressionTree left = binary.getLeftOperand();
+        ExpressionTree right = binary.getRightOperand();
+        
+        boolean leftIsSize = isSizeCall(left);
+        boolean rightIsSize = isSizeCall(right);
+        
+        if ((leftIsSize && isNumericLiteral(right)) || (rightIsSize && isNumericLiteral(left))) {
+            ExpressionTree sizeExpr = leftIsSize ? left : right;
+            if (isCollectionQualified(sizeExpr)) {
+                report(ViolationType.COLLECTION_SIZE_CHECK, binary, text(binary));
+            }
+        }
+    }
+    
+    private void checkUnsafeCollectionMethod(MethodInvocationTree call, String methodName, ExpressionTree qualifier) {
+        if (!NullSafetyRules.isCollectionCheckMethod(methodName) || qualifier == null) {
+            return;
+        }
+        if (!isCollectionType(qualifier)) {
+            return;
+        }
+        if (isGuarded(GuardFact.nullCheck(subjectKey(getCurrentPath(), qualifier)))) {
+            return;
+        }
+        if (isGuaranteedNonNull(qualifier)) {
+            return;
+        }
+        
+        report(ViolationType.COLLECTION_NULL_CHECK, call, text(call));
+    }
+    
+    private boolean isIsEmptyCall(ExpressionTree expr) {
+        return expr instanceof MethodInvocationTree && "isEmpty".equals(methodName((MethodInvocationTree) expr));
+    }
+    
+    private boolean isSizeEqualsZero(ExpressionTree expr) {
+        if (!(expr instanceof BinaryTree)) {
+            return false;
+        }
+        BinaryTree binary = (BinaryTree) expr;
+        return (isSizeCall(binary.getLeftOperand()) && isZeroLiteral(binary.getRightOperand())) ||
+               (isSizeCall(binary.getRightOperand()) && isZeroLiteral(binary.getLeftOperand()));
+    }
+    
+    private boolean isSizeCall(ExpressionTree expr) {
+        return expr instanceof MethodInvocationTree && NullSafetyRules.isSizeMethod(methodName((MethodInvocationTree) expr));
+    }
+    
+    private boolean isCollectionExpression(ExpressionTree expr) {
+        if (expr instanceof MethodInvocationTree) {
+            return isCollectionQualified(expr);
+        } else if (expr instanceof BinaryTree) {
+            BinaryTree binary = (BinaryTree) expr;
+            if (isSizeCall(binary.getLeftOperand())) {
+                return isCollectionQualified(binary.getLeftOperand());
+            } else if (isSizeCall(binary.getRightOperand())) {
+                return isCollectionQualified(binary.getRightOperand());
+            }
+        }
+        return false;
+    }
+    
+    private boolean isCollectionQualified(ExpressionTree expr) {
+        if (!(expr instanceof MethodInvocationTree)) {
+            return false;
+        }
+        ExpressionTree qualifier = qualifier((MethodInvocationTree) expr);
+        return qualifier != null && isCollectionType(qualifier);
+    }
+    
+    private boolean isCollectionType(ExpressionTree expr) {
+        return (typeKind(typeOf(expr)) & NullSafetyRules.TYPE_COLLECTION) != 0;
+    }
+    
+    private boolean isGuaranteedNonNull(ExpressionTree expr) {
+        // Newly created objects are non-null
+        if (expr instanceof NewClassTree || expr instanceof NewArrayTree) {
+            return true;
+        }
+        
+        // Method calls like Collections.emptyList() are typically non-null
+        return expr instanceof MethodInvocationTree &&
+               NullSafetyRules.isNonNullFactoryMethod(methodName((MethodInvocationTree) expr));
+    }
+    
+    // ---------------------------------------------------------------- null default rules
+    
+    private void checkTernaryNullDefault(ConditionalExpressionTree ternary) {
+        NullCheck nullCheck = extractNullCheck(ternary.getCondition());
+        if (nullCheck == null) {
+            return;
+        }
+        
+        ExpressionTree kept = nullCheck.isNotNullCheck ? ternary.getTrueExpression() : ternary.getFalseExpression();
+        if (text(kept).equals(nullCheck.varName)) {
+            report(ViolationType.TERNARY_NULL_DEFAULT, ternary, text(ternary));
+        }
+    }
+    
+    private void checkIfElseNullDefault(IfTree ifTree) {
+        if (ifTree.getElseStatement() == null) {
+            return;
+        }
+        
+        NullCheck nullCheck = extractNullCheck(unwrapParentheses(ifTree.getCondition()));
+        if (nullCheck == null) {
+            return;
+        }
+        
+        StatementTree thenStmt = unwrapBlock(ifTree.getThenStatement());
+        StatementTree elseStmt = unwrapBlock(ifTree.getElseStatement());
+        if (thenStmt == null || elseStmt == null) {
+            return;
+        }
+        
+        ExpressionTree thenValue = null;
+        ExpressionTree elseValue = null;
+        
+        if (thenStmt instanceof ExpressionStatementTree && elseStmt instanceof ExpressionStatementTree) {
+            // if (obj == null) { x = default; } else { x = obj; }
+            ExpressionTree thenExpr = ((ExpressionStatementTree) thenStmt).getExpression();
+            ExpressionTree elseExpr = ((ExpressionStatementTree) elseStmt).getExpression();
+            if (!(thenExpr instanceof AssignmentTree) || !(elseExpr instanceof AssignmentTree)) {
+                return;
+            }
+            
+            AssignmentTree thenAssign = (AssignmentTree) thenExpr;
+            AssignmentTree elseAssign = (AssignmentTree) elseExpr;
+            if (!text(thenAssign.getVariable()).equals(text(elseAssign.getVariable()))) {
+                return;
+            }
+            thenValue = thenAssign.getExpression();
+            elseValue = elseAssign.getExpression();
+        } else if (thenStmt instanceof ReturnTree && elseStmt instanceof ReturnTree) {
+            // if (obj == null) { return default; } else { return obj; }
+            thenValue = ((ReturnTree) thenStmt).getExpression();
+            elseValue = ((ReturnTree) elseStmt).getExpression();
+        }
+        
+        if (thenValue == null || elseValue == null) {
+            return;
+        }
+        
+        ExpressionTree kept = nullCheck.isNotNullCheck ? thenValue : elseValue;
+        if (text(kept).equals(nullCheck.varName)) {
+            report(ViolationType.TERNARY_NULL_DEFAULT, ifTree, text(ifTree));
+        }
+    }
+    
+    private NullCheck extractNullCheck(ExpressionTree condition) {
+        Tree.Kind kind = condition.getKind();
+        if (kind != Tree.Kind.EQUAL_TO && kind != Tree.Kind.NOT_EQUAL_TO) {
+            return null;
+        }
+        
+        BinaryTree binary = (BinaryTree) condition;
+        boolean leftIsNull = binary.getLeftOperand().getKind() == Tree.Kind.NULL_LITERAL;
+        boolean rightIsNull = binary.getRightOperand().getKind() == Tree.Kind.NULL_LITERAL;
+        if (!leftIsNull && !rightIsNull) {
+            return null;
+        }
+        
+        String varName = leftIsNull ? text(binary.getRightOperand()) : text(binary.getLeftOperand());
+        return new NullCheck(varName, kind == Tree.Kind.NOT_EQUAL_TO);
+    }
+    
+    private StatementTree unwrapBlock(StatementTree statement) {
+        if (statement instanceof BlockTree) {
+            List<? extends StatementTree> statements = ((BlockTree) statement).getStatements();
+            return statements.size() == 1 ? statements.get(0) : null;
+        }
+        return statement;
+    }
+    
+    // ---------------------------------------------------------------- boolean unboxing
+    
+    private void checkBooleanVariable(VariableTree variable) {
+        Element element = trees.getElement(getCurrentPath());
+        if (element == null ||
+            (element.getKind() != ElementKind.LOCAL_VARIABLE && element.getKind() != ElementKind.RESOURCE_VARIABLE)) {
+            return;
+        }
+        if (element.asType().getKind() != TypeKind.BOOLEAN || variable.getInitializer() == null) {
+            return;
+        }
+        
+        if (isBooleanWrapper(variable.getInitializer())) {
+            report(ViolationType.BOOLEAN_UNBOXING, variable, nameOffset(variable), text(variable.getInitializer()));
+        }
+    }
+    
+    private void checkBooleanReturn(ReturnTree returnTree) {
+        ExpressionTree value = returnTree.getExpression();
+        if (value == null || !isBooleanWrapper(value)) {
+            return;
+        }
+        
+        MethodTree method = enclosingMethod();
+        if (method == null || !(method.getReturnType() instanceof PrimitiveTypeTree)) {
+            return;
+        }
+        if (((PrimitiveTypeTree) method.getReturnType()).getPrimitiveTypeKind() == TypeKind.BOOLEAN) {
+            report(ViolationType.BOOLEAN_UNBOXING, returnTree, text(value));
+        }
+    }
+    
+    private void checkBooleanArguments(MethodInvocationTree call) {
+        Element element = trees.getElement(getCurrentPath());
+        if (!(element instanceof ExecutableElement)) {
+            return;
+        }
+        
+        List<? extends ExpressionTree> args = call.getArguments();
+        List<? extends VariableElement> params = ((ExecutableElement) element).getParameters();
+        
+        for (int i = 0; i < args.size() && i < params.size(); i++) {
+            ExpressionTree arg = args.get(i);
+            if (isBooleanWrapper(arg) && params.get(i).asType().getKind() == TypeKind.BOOLEAN) {
+                report(ViolationType.BOOLEAN_UNBOXING, arg, text(arg));
+            }
+        }
+    }
+    
+    private boolean isBooleanWrapper(ExpressionTree expr) {
+        // Skip Boolean constants (Boolean.TRUE, Boolean.FALSE) - they're safe
+        if (isReference(expr) && NullSafetyRules.isBooleanConstant(text(expr))) {
+            return false;
+        }
+        String typeName = typeName(typeOf(expr));
+        return typeName != null && NullSafetyRules.isBooleanWrapperType(typeName);
+    }
+    
+    // ---------------------------------------------------------------- log rule
+    
+    private void checkLogArguments(MethodInvocationTree call, String methodName, ExpressionTree qualifier) {
+        if (!NullSafetyRules.isLogMethod(methodName)) {
+            return;
+        }
+        if (qualifier != null && !NullSafetyRules.isLoggerQualifier(text(qualifier))) {
+            return;
+        }
+        
+        for (ExpressionTree arg : call.getArguments()) {
+            if (containsDereference(arg)) {
+                report(ViolationType.LOG_NULL_DEREFERENCE, call, text(call));
+                break; // Only report once per log statement
+            }
+        }
+    }
+    
+    /**
+     * Same traversal as the PSI detector: method call arguments are not descended into
+     */
+    private boolean containsDereference(ExpressionTree expr) {
+        // If this is a ternary operator with a null check, it's safe
+        if (expr instanceof ConditionalExpressionTree &&
+            isSingleNullComparison(((ConditionalExpressionTree) expr).getCondition())) {
+            return false;
+        }
+        
+        if (expr instanceof MethodInvocationTree) {
+            MethodInvocationTree call = (MethodInvocationTree) expr;
+            ExpressionTree qualifier = qualifier(call);
+            
+            if (isNullSafeMethod(methodName(call), qualifier)) {
+                return false;
+            }
+            // Only flag if called on an object (has qualifier), not static calls
+            if (qualifier != null) {
+                return true;
+            }
+        }
+        
+        if (expr instanceof MemberSelectTree) {
+            ExpressionTree qualifier = ((MemberSelectTree) expr).getExpression();
+            if (!isThisOrSuper(qualifier)) {
+                Element element = elementOf(expr);
+                if (element != null &&
+                    (element.getKind() == ElementKind.FIELD || element.getKind() == ElementKind.ENUM_CONSTANT)) {
+                    return true;
+                }
+            }
+        }
+        
+        for (ExpressionTree child : childExpressions(expr)) {
+            if (containsDereference(child)) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    private boolean isNullSafeMethod(String methodName, ExpressionTree qualifier) {
+        if (methodName == null) {
+            return false;
+        }
+        
+        String qualifierClass = null;
+        if (qualifier != null) {
+            qualifierClass = typeName(typeOf(qualifier));
+            
+            // Skip common utility bean patterns (autowired beans) - assume they're non-null
+            if (config.isUtilityBean(text(qualifier))) {
+                return true;
+            }
+        }
+        
+        return NullSafetyRules.isNullSafeUtilityCall(qualifierClass, methodName);
+    }
+    
+    private List<ExpressionTree> childExpressions(ExpressionTree expr) {
+        List<ExpressionTree> children = new ArrayList<>();
+        
+        if (expr instanceof ParenthesizedTree) {
+            children.add(((ParenthesizedTree) expr).getExpression());
+        } else if (expr instanceof BinaryTree) {
+            children.add(((BinaryTree) expr).getLeftOperand());
+            children.add(((BinaryTree) expr).getRightOperand());
+        } else if (expr instanceof UnaryTree) {
+            children.add(((UnaryTree) expr).getExpression());
+        } else if (expr instanceof TypeCastTree) {
+            children.add(((TypeCastTree) expr).getExpression());
+        } else if (expr instanceof ConditionalExpressionTree) {
+            ConditionalExpressionTree conditional = (ConditionalExpressionTree) expr;
+            children.add(conditional.getCondition());
+            children.add(conditional.getTrueExpression());
+            children.add(conditional.getFalseExpression());
+        } else if (expr instanceof MethodInvocationTree) {
+            children.add(((MethodInvocationTree) expr).getMethodSelect());
+        } else if (expr instanceof MemberSelectTree) {
+            children.add(((MemberSelectTree) expr).getExpression());
+        } else if (expr instanceof MemberReferenceTree) {
+            children.add(((MemberReferenceTree) expr).getQualifierExpression());
+        } else if (expr instanceof ArrayAccessTree) {
+            children.add(((ArrayAccessTree) expr).getExpression());
+            children.add(((ArrayAccessTree) expr).getIndex());
+        } else if (expr instanceof InstanceOfTree) {
+            children.add(((InstanceOfTree) expr).getExpression());
+        } else if (expr instanceof AssignmentTree) {
+            children.add(((AssignmentTree) expr).getVariable());
+            children.add(((AssignmentTree) expr).getExpression());
+        } else if (expr instanceof CompoundAssignmentTree) {
+            children.add(((CompoundAssignmentTree) expr).getVariable());
+            children.add(((CompoundAssignmentTree) expr).getExpression());
+        } else if (expr instanceof NewClassTree) {
+            if (((NewClassTree) expr).getEnclosingExpression() != null) {
+                children.add(((NewClassTree) expr).getEnclosingExpression());
+            }
+        } else if (expr instanceof NewArrayTree) {
+            NewArrayTree newArray = (NewArrayTree) expr;
+            children.addAll(newArray.getDimensions());
+            if (newArray.getInitializers() != null) {
+                children.addAll(newArray.getInitializers());
+            }
+        } else if (expr instanceof LambdaExpressionTree) {
+            Tree body = ((LambdaExpressionTree) expr).getBody();
+            if (body instanceof ExpressionTree) {
+                children.add((ExpressionTree) body);
+            }
+        }
+        
+        return children;
+    }
+    
+    // ---------------------------------------------------------------- DTO rule
+    
+    private void checkDtoGetter(MethodInvocationTree call, String methodName, ExpressionTree qualifier) {
+        if (methodName == null || !NullSafetyRules.isGetterName(methodName) || qualifier == null) {
+            return;
+        }
+        if (!hasIsInitializedMethod(qualifier)) {
+            return;
+        }
+        
+        String propertyName = NullSafetyRules.extractPropertyName(methodName);
+        if (propertyName == null) {
+            return;
+        }
+        
+        if (!isGuarded(GuardFact.initializationCheck(subjectKey(getCurrentPath(), qualifier), propertyName))) {
+            report(ViolationType.DTO_INITIALIZATION_CHECK, call, text(call));
+        }
+    }
+    
+    private boolean hasIsInitializedMethod(ExpressionTree qualifier) {
+        TypeMirror type = typeOf(qualifier);
+        if (!(type instanceof DeclaredType)) {
+            return false;
+        }
+        
+        TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+        String key = typeElement.getQualifiedName().toString();
+        Boolean cached = typeFacts.isDtoType(key, dependencies);
+        if (cached != null) {
+            return cached;
+        }
+        
+        boolean result = false;
+        for (Element member : elements.getAllMembers(typeElement)) {
+            if (member.getKind() != ElementKind.METHOD ||
+                !NullSafetyRules.IS_INITIALIZED_METHOD.contentEquals(member.getSimpleName())) {
+                continue;
+            }
+            List<? extends VariableElement> params = ((ExecutableElement) member).getParameters();
+            if (params.size() == 1 && NullSafetyRules.isStringType(typeName(params.get(0).asType()))) {
+                result = true;
+                break;
+            }
+        }
+        
+        Set<String> hierarchySources = new HashSet<>();
+        walkHierarchy(typeElement, hierarchySources);
+        dependencies.addAll(hierarchySources);
+        typeFacts.putDtoType(key, hierarchySources, result);
+        return result;
+    }
+    
+    // ---------------------------------------------------------------- type hierarchy
+    
+    /**
+     * Collection / map / context bits of a declared type, from its whole supertype hierarchy
+     */
+    private int typeKind(TypeMirror type) {
+        if (!(type instanceof DeclaredType)) {
+            return 0;
+        }
+        
+        TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+        String key = typeElement.getQualifiedName().toString();
+        Integer cached = typeFacts.getTypeKind(key, dependencies);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Set<String> hierarchySources = new HashSet<>();
+        int kind = 0;
+        for (TypeElement current : walkHierarchy(typeElement, hierarchySources)) {
+            kind |= NullSafetyRules.classifySupertype(current.getQualifiedName().toString(),
+                current.getSimpleName().toString(), config.getContextBaseTypes());
+        }
+        
+        dependencies.addAll(hierarchySources);
+        typeFacts.putTypeKind(key, hierarchySources, kind);
+        return kind;
+    }
+    
+    /**
+     * The type and all its supertypes; collects the source files declaring them
+     */
+    private Set<TypeElement> walkHierarchy(TypeElement typeElement, Set<String> sources) {
+        Set<TypeElement> seen = new LinkedHashSet<>();
+        Deque<TypeElement> pending = new ArrayDeque<>();
+        pending.push(typeElement);
+        while (!pending.isEmpty()) {
+            TypeElement current = pending.pop();
+            if (!seen.add(current)) {
+                continue;
+            }
+            String sourcePath = sourcePathOf(current);
+            if (sourcePath != null) {
+                sources.add(sourcePath);
+            }
+            pushElement(current.getSuperclass(), pending);
+            for (TypeMirror superInterface : current.getInterfaces()) {
+                pushElement(superInterface, pending);
+            }
+        }
+        return seen;
+    }
+    
+    private static void pushElement(TypeMirror type, Deque<TypeElement> pending) {
+        if (type instanceof DeclaredType) {
+            pending.push((TypeElement) ((DeclaredType) type).asElement());
+        }
+    }
+    
+    /**
+     * Source file declaring the type, or null when it comes from the classpath
+     */
+    private String sourcePathOf(TypeElement typeElement) {
+        if (sourcePaths.containsKey(typeElement)) {
+            return sourcePaths.get(typeElement);
+        }
+        TreePath path = trees.getPath(typeElement);
+        String sourcePath = path != null ? path.getCompilationUnit().getSourceFile().toUri().getPath() : null;
+        sourcePaths.put(typeElement, sourcePath);
+        return sourcePath;
+    }
+    
+    /**
+     * Record the source file of the top-level type declaring the element, if it is another source file
+     */
+    private void dependOn(Element element) {
+        Element current = element;
+        while (current != null && !(current instanceof TypeElement &&
+            (current.getEnclosingElement() == null || current.getEnclosingElement().getKind() == ElementKind.PACKAGE))) {
+            current = current.getEnclosingElement();
+        }
+        if (current != null) {
+            String sourcePath = sourcePathOf((TypeElement) current);
+            if (sourcePath != null) {
+                dependencies.add(sourcePath);
+            }
+        }
+    }
+    
+    // ---------------------------------------------------------------- guard facts
+    
+    /**
+     * Facts holding inside the tree about to be scanned (enclosing facts included),
+     * or null when it opens no new region
+     * Read once per if / ternary / while, so call sites only do a set lookup
+     */
+    private Set<GuardFact> guardRegionOf(Tree tree) {
+        if (tree instanceof MethodTree) {
+            return Collections.emptySet();
+        }
+        
+        TreePath path = new TreePath(getCurrentPath(), tree);
+        Set<GuardFact> facts = new HashSet<>();
+        if (tree instanceof IfTree) {
+            ExpressionTree condition = ((IfTree) tree).getCondition();
+            collectNullChecks(path, unwrapParentheses(condition), facts);
+            collectInitializationChecks(path, condition, facts);
+        } else if (tree instanceof ConditionalExpressionTree) {
+            ExpressionTree condition = ((ConditionalExpressionTree) tree).getCondition();
+            collectNullChecks(path, condition, facts);
+            collectInitializationChecks(path, condition, facts);
+        } else if (tree instanceof WhileLoopTree) {
+            // Loops only establish isInitialized facts
+            collectInitializationChecks(path, ((WhileLoopTree) tree).getCondition(), facts);
+        }
+        
+        if (facts.isEmpty()) {
+            return null;
+        }
+        if (!guardRegions.isEmpty()) {
+            facts.addAll(guardRegions.peek());
+        }
+        return facts;
+    }
+    
+    private boolean isGuarded(GuardFact fact) {
+        return !guardRegions.isEmpty() && guardRegions.peek().contains(fact);
+    }
+    
+    /**
+     * x != null / x == null, directly or as an operand of &&
+     */
+    private void collectNullChecks(TreePath path, ExpressionTree condition, Set<GuardFact> facts) {
+        Tree.Kind kind = condition.getKind();
+        
+        if (kind == Tree.Kind.EQUAL_TO || kind == Tree.Kind.NOT_EQUAL_TO) {
+            BinaryTree binary = (BinaryTree) condition;
+            boolean leftIsNull = binary.getLeftOperand().getKind() == Tree.Kind.NULL_LITERAL;
+            boolean rightIsNull = binary.getRightOperand().getKind() == Tree.Kind.NULL_LITERAL;
+            if (leftIsNull && !rightIsNull) {
+                facts.add(GuardFact.nullCheck(subjectKey(path, binary.getRightOperand())));
+            } else if (rightIsNull && !leftIsNull) {
+                facts.add(GuardFact.nullCheck(subjectKey(path, binary.getLeftOperand())));
+            }
+        } else if (kind == Tree.Kind.CONDITIONAL_AND) {
+            BinaryTree binary = (BinaryTree) condition;
+            collectNullChecks(path, binary.getLeftOperand(), facts);
+            collectNullChecks(path, binary.getRightOperand(), facts);
+        }
+    }
+    
+    /**
+     * dto.isInitialized("Property") anywhere in the condition, through binary operators, ! and parentheses
+     */
+    private void collectInitializationChecks(TreePath path, ExpressionTree condition, Set<GuardFact> facts) {
+        if (condition instanceof MethodInvocationTree) {
+            MethodInvocationTree call = (MethodInvocationTree) condition;
+            ExpressionTree qualifier = qualifier(call);
+            if (qualifier != null && call.getArguments().size() == 1 &&
+                NullSafetyRules.IS_INITIALIZED_METHOD.equals(methodName(call)) &&
+                call.getArguments().get(0).getKind() == Tree.Kind.STRING_LITERAL) {
+                String property = (String) ((LiteralTree) call.getArguments().get(0)).getValue();
+                facts.add(GuardFact.initializationCheck(subjectKey(path, qualifier), property));
+            }
+        } else if (condition instanceof BinaryTree) {
+            BinaryTree binary = (BinaryTree) condition;
+            collectInitializationChecks(path, binary.getLeftOperand(), facts);
+            collectInitializationChecks(path, binary.getRightOperand(), facts);
+        } else if (condition instanceof ParenthesizedTree) {
+            collectInitializationChecks(path, ((ParenthesizedTree) condition).getExpression(), facts);
+        } else if (condition instanceof UnaryTree && isPrefixOperator(condition.getKind())) {
+            collectInitializationChecks(path, ((UnaryTree) condition).getExpression(), facts);
+        }
+    }
+    
+    /**
+     * The resolved variable for plain and this-qualified names, otherwise the expression text
+     *
+     * @param path path of a tree containing expr
+     */
+    private Object subjectKey(TreePath path, ExpressionTree expr) {
+        boolean plainName = expr instanceof IdentifierTree ||
+            (expr instanceof MemberSelectTree && "this".equals(text(((MemberSelectTree) expr).getExpression())));
+        if (plainName) {
+            TreePath exprPath = TreePath.getPath(path, expr);
+            Element element = exprPath != null ? trees.getElement(exprPath) : null;
+            if (element instanceof VariableElement) {
+                return element;
+            }
+        }
+        return text(expr);
+    }
+    
+    // ---------------------------------------------------------------- context / map rule
+    
+    private void checkNullValueInContext(MethodInvocationTree call, String methodName, ExpressionTree qualifier) {
+        if (methodName == null || NullSafetyRules.isExcludedMethod(methodName) ||
+            !NullSafetyRules.isSetterLikeMethod(methodName) || qualifier == null) {
+            return;
+        }
+        
+        int kind = typeKind(typeOf(qualifier));
+        boolean isMap = (kind & NullSafetyRules.TYPE_MAP) != 0;
+        if (!isMap && (kind & NullSafetyRules.TYPE_CONTEXT) == 0) {
+            return; // Skip regular POJO setters like product.setPrice(null)
+        }
+        
+        List<? extends ExpressionTree> args = call.getArguments();
+        int valueArgIndex = NullSafetyRules.getValueArgumentIndex(methodName, args.size());
+        if (valueArgIndex < 0 || valueArgIndex >= args.size() || !isNullLiteral(args.get(valueArgIndex))) {
+            return;
+        }
+        
+        ViolationType type = isMap ? ViolationType.NULL_VALUE_IN_MAP : ViolationType.NULL_VALUE_IN_CONTEXT;
+        if (config.isEnabled(type)) {
+            report(type, call, text(call));
+        }
+    }
+    
+    private boolean isNullLiteral(ExpressionTree expr) {
+        if (expr instanceof ParenthesizedTree) {
+            return isNullLiteral(((ParenthesizedTree) expr).getExpression());
+        }
+        if (expr instanceof TypeCastTree) {
+            return isNullLiteral(((TypeCastTree) expr).getExpression());
+        }
+        return expr.getKind() == Tree.Kind.NULL_LITERAL;
+    }
+    
+    // ---------------------------------------------------------------- shared helpers
+    
+    /**
+     * x == null / null == x (or != when allowed), with a null literal on at least one side
+     */
+    private boolean isNullComparison(ExpressionTree expr, boolean allowNotEqual) {
+        Tree.Kind kind = expr.getKind();
+        if (kind != Tree.Kind.EQUAL_TO && !(allowNotEqual && kind == Tree.Kind.NOT_EQUAL_TO)) {
+            return false;
+        }
+        BinaryTree binary = (BinaryTree) expr;
+        return binary.getLeftOperand().getKind() == Tree.Kind.NULL_LITERAL ||
+               binary.getRightOperand().getKind() == Tree.Kind.NULL_LITERAL;
+    }
+    
+    /**
+     * x == null / x != null with exactly one null literal
+     */
+    private boolean isSingleNullComparison(ExpressionTree expr) {
+        Tree.Kind kind = expr.getKind();
+        if (kind != Tree.Kind.EQUAL_TO && kind != Tree.Kind.NOT_EQUAL_TO) {
+            return false;
+        }
+        BinaryTree binary = (BinaryTree) expr;
+        boolean leftIsNull = binary.getLeftOperand().getKind() == Tree.Kind.NULL_LITERAL;
+        boolean rightIsNull = binary.getRightOperand().getKind() == Tree.Kind.NULL_LITERAL;
+        return leftIsNull != rightIsNull;
+    }
+    
+    private String referenceFromNullCheck(ExpressionTree expr) {
+        if (!(expr instanceof BinaryTree)) {
+            return null;
+        }
+        BinaryTree binary = (BinaryTree) expr;
+        if (isReference(binary.getLeftOperand())) {
+            return text(binary.getLeftOperand());
+        } else if (isReference(binary.getRightOperand())) {
+            return text(binary.getRightOperand());
+        }
+        return null;
+    }
+    
+    /**
+     * Qualifier reference of x.isEmpty() / x.equals("") or of the size/length call in x.size() == 0
+     */
+    private String referenceFromEmptyCheck(ExpressionTree expr, boolean stringLength) {
+        ExpressionTree call = null;
+        
+        if (expr instanceof MethodInvocationTree) {
+            call = expr;
+        } else if (expr instanceof BinaryTree) {
+            BinaryTree binary = (BinaryTree) expr;
+            if (stringLength) {
+                call = isStringLengthCall(binary.getLeftOperand()) ? binary.getLeftOperand()
+                    : (isStringLengthCall(binary.getRightOperand()) ? binary.getRightOperand() : null);
+            } else {
+                call = isSizeCall(binary.getLeftOperand()) ? binary.getLeftOperand()
+                    : (isSizeCall(binary.getRightOperand()) ? binary.getRightOperand() : null);
+            }
+        }
+        
+        if (call instanceof MethodInvocationTree) {
+            ExpressionTree qualifier = qualifier((MethodInvocationTree) call);
+            if (isReference(qualifier)) {
+                return text(qualifier);
+            }
+        }
+        return null;
+    }
+    
+    private boolean isZeroLiteral(ExpressionTree expr) {
+        return expr.getKind() == Tree.Kind.INT_LITERAL && Integer.valueOf(0).equals(((LiteralTree) expr).getValue());
+    }
+    
+    private boolean isNumericLiteral(ExpressionTree expr) {
+        return expr instanceof LiteralTree && ((LiteralTree) expr).getValue() instanceof Number;
+    }
+    
+    private boolean isReference(ExpressionTree expr) {
+        return expr instanceof IdentifierTree || expr instanceof MemberSelectTree;
+    }
+    
+    private boolean isThisOrSuper(ExpressionTree expr) {
+        if (!(expr instanceof IdentifierTree)) {
+            return false;
+        }
+        String name = ((IdentifierTree) expr).getName().toString();
+        return "this".equals(name) || "super".equals(name);
+    }
+    
+    private boolean isPrefixOperator(Tree.Kind kind) {
+        return kind == Tree.Kind.LOGICAL_COMPLEMENT || kind == Tree.Kind.BITWISE_COMPLEMENT ||
+               kind == Tree.Kind.UNARY_PLUS || kind == Tree.Kind.UNARY_MINUS ||
+               kind == Tree.Kind.PREFIX_INCREMENT || kind == Tree.Kind.PREFIX_DECREMENT;
+    }
+    
+    private ExpressionTree unwrapParentheses(ExpressionTree expr) {
+        return expr instanceof ParenthesizedTree ? ((ParenthesizedTree) expr).getExpression() : expr;
+    }
+    
+    private static String methodName(MethodInvocationTree call) {
+        ExpressionTree select = call.getMethodSelect();
+        if (select instanceof MemberSelectTree) {
+            return ((MemberSelectTree) select).getIdentifier().toString();
+        } else if (select instanceof IdentifierTree) {
+            return ((IdentifierTree) select).getName().toString();
+        }
+        return null;
+    }
+    
+    private static ExpressionTree qualifier(MethodInvocationTree call) {
+        ExpressionTree select = call.getMethodSelect();
+        return select instanceof MemberSelectTree ? ((MemberSelectTree) select).getExpression() : null;
+    }
+    
+    private MethodTree enclosingMethod() {
+        TreePath path = getCurrentPath().getParentPath();
+        while (path != null) {
+            if (path.getLeaf() instanceof MethodTree) {
+                return (MethodTree) path.getLeaf();
+            }
+            path = path.getParentPath();
+        }
+        return null;
+    }
+    
+    private Element elementOf(Tree tree) {
+        TreePath path = TreePath.getPath(getCurrentPath(), tree);
+        return path != null ? trees.getElement(path) : null;
+    }
+    
+    /**
+     * Expression type, or null when unknown or when the expression names a type or package
+     * (PSI reports no type for a class qualifier such as StringUtils in StringUtils.isEmpty(x))
+     */
+    private TypeMirror typeOf(ExpressionTree expr) {
+        TreePath path = TreePath.getPath(getCurrentPath(), expr);
+        if (path == null) {
+            return null;
+        }
+        
+        if (isReference(expr) || expr instanceof MethodInvocationTree) {
+            Element element = trees.getElement(path);
+            if (element != null &&
+                (element.getKind().isClass() || element.getKind().isInterface() || element.getKind() == ElementKind.PACKAGE)) {
+                return null;
+            }
+            // A field or method of another file: its declared type decides the rules
+            if (element != null && element.getKind() != ElementKind.PACKAGE) {
+                dependOn(element);
+            }
+        }
+        
+        TypeMirror type = trees.getTypeMirror(path);
+        if (type instanceof DeclaredType) {
+            dependOn(((DeclaredType) type).asElement());
+        }
+        return type == null || type.getKind() == TypeKind.ERROR ? null : type;
+    }
+    
+    /**
+     * Canonical type text without type annotations, comparable to PsiType.getCanonicalText()
+     */
+    private static String typeName(TypeMirror type) {
+        if (type == null) {
+            return null;
+        }
+        if (!(type instanceof DeclaredType)) {
+            return type.toString();
+        }
+        
+        DeclaredType declared = (DeclaredType) type;
+        StringBuilder name = new StringBuilder(((TypeElement) declared.asElement()).getQualifiedName());
+        if (!declared.getTypeArguments().isEmpty()) {
+            name.append('<');
+            for (int i = 0; i < declared.getTypeArguments().size(); i++) {
+                if (i > 0) {
+                    name.append(',');
+                }
+                name.append(typeName(declared.getTypeArguments().get(i)));
+            }
+            name.append('>');
+        }
+        return name.toString();
+    }
+    
+    private String text(Tree tree) {
+        long start = positions.getStartPosition(unit, tree);
+        long end = positions.getEndPosition(unit, tree);
+        if (start < 0 || end < start || end > source.length()) {
+            return "";
+        }
+        return source.substring((int) start, (int) end);
+    }
+    
+    /**
+     * Offset of the variable name, which is where PSI places a named element's text offset
+     */
+    private long nameOffset(VariableTree variable) {
+        long from = variable.getType() != null ? positions.getEndPosition(unit, variable.getType()) : -1;
+        if (from < 0) {
+            from = positions.getStartPosition(unit, variable);
+        }
+        int index = source.indexOf(variable.getName().toString(), (int) Math.max(from, 0));
+        return index >= 0 ? index : positions.getStartPosition(unit, variable);
+    }
+    
+    private void report(ViolationType type, Tree tree, String code) {
+        report(type, tree, positions.getStartPosition(unit, tree), code);
+    }
+    
+    private void report(ViolationType type, Tree tree, long offset, String code) {
+        LineMap lineMap = unit.getLineMap();
+        int line = offset >= 0 ? (int) lineMap.getLineNumber(offset) : -1;
+        int column = offset >= 0 ? (int) lineMap.getColumnNumber(offset) : -1;
+        
+        SourceFinding finding = new SourceFinding(type, filePath, line, column, enclosingClassName(), packageName, code);
+        reportedTrees.put(finding, tree);
+        deduplicator.offer(finding,
+            (int) positions.getStartPosition(unit, tree), (int) positions.getEndPosition(unit, tree));
+    }
+    
+    private String enclosingClassName() {
+        TreePath path = getCurrentPath();
+        while (path != null) {
+            if (path.getLeaf() instanceof ClassTree) {
+                // Anonymous classes have an empty simple name
+                String name = ((ClassTree) path.getLeaf()).getSimpleName().toString();
+                return name.isEmpty() ? "Unknown" : name;
+            }
+            path = path.getParentPath();
+        }
+        return "Unknown";
+    }
+    
+    /**
+     * Receives findings together with the tree they were reported on
+     */
+    public interface FindingSink {
+        void accept(SourceFinding finding, Tree tree);
+    }
+    
+    private static class NullCheck {
+        final String varName;
+        final boolean isNotNullCheck;
+        
+        NullCheck(String varName, boolean isNotNullCheck) {
+            this.varName = varName;
+            this.isNotNullCheck = isNotNullCheck;
+        }
+    }
+}
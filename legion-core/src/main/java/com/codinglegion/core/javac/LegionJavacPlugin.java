@@ -0,0 +1,121 @@
+package com.codinglegion.core.javac;
+
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.core.rules.CoreRuleConfig;
+import com.codinglegion.core.rules.DuplicateStats;
+import com.codinglegion.model.ViolationSeverity;
+import com.codinglegion.model.ViolationType;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.*;
+
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.util.*;
+
+/**
+ * javac plugin that applies the Coding Legion rules to the trees the compiler has already attributed
+ * No extra parsing or type resolution: each top-level class is scanned right after its ANALYZE phase
+ *
+ * Usage: -Xplugin:"CodingLegion [rules=RULE,...] [utilityBeans=a,b] [contextTypes=a.B,c.D] [failOnError=true]"
+ * with legion-core.jar on the processor path
+ */
+public class LegionJavacPlugin implements Plugin {
+    
+    public static final String NAME = "CodingLegion";
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    @Override
+    public void init(JavacTask task, String... args) {
+        Set<ViolationType> rules = EnumSet.allOf(ViolationType.class);
+        List<String> utilityBeans = Collections.emptyList();
+        List<String> contextTypes = Collections.emptyList();
+        boolean failOnError = false;
+        
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = eq >= 0 ? arg.substring(0, eq) : arg;
+            String value = eq >= 0 ? arg.substring(eq + 1) : "true";
+            
+            switch (key) {
+                case "rules":
+                    rules = CoreRuleConfig.parseRules(value);
+                    break;
+                case "utilityBeans":
+                    utilityBeans = CoreRuleConfig.splitList(value);
+                    break;
+                case "contextTypes":
+                    contextTypes = CoreRuleConfig.splitList(value);
+                    break;
+                case "failOnError":
+                    failOnError = Boolean.parseBoolean(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown " + NAME + " plugin option: " + arg);
+            }
+        }
+        
+        task.addTaskListener(new RuleListener(task, new CoreRuleConfig(rules, utilityBeans, contextTypes), failOnError));
+    }
+    
+    private static class RuleListener implements TaskListener {
+        private final JavacTask task;
+        private final Trees trees;
+        private final CoreRuleConfig config;
+        private final boolean failOnError;
+        private final TypeFactCache typeFacts = new TypeFactCache();
+        private final DuplicateStats duplicates = new DuplicateStats();
+        
+        // One scanner per compilation unit; files with several top-level classes get several ANALYZE events
+        private CompilationUnitTree currentUnit;
+        private JavacRuleScanner currentScanner;
+        
+        RuleListener(JavacTask task, CoreRuleConfig config, boolean failOnError) {
+            this.task = task;
+            this.trees = Trees.instance(task);
+            this.config = config;
+            this.failOnError = failOnError;
+        }
+        
+        @Override
+        public void started(TaskEvent e) {
+        }
+        
+        @Override
+        public void finished(TaskEvent e) {
+            if (e.getKind() != TaskEvent.Kind.ANALYZE || e.getCompilationUnit() == null) {
+                return;
+            }
+            
+            // package-info and module-info have no type element
+            TypeElement typeElement = e.getTypeElement();
+            TreePath classPath = typeElement != null ? trees.getPath(typeElement) : null;
+            if (classPath == null) {
+                return;
+            }
+            
+            CompilationUnitTree unit = e.getCompilationUnit();
+            if (unit != currentUnit) {
+                currentUnit = unit;
+                currentScanner = new JavacRuleScanner(unit, trees, task.getElements(), config, typeFacts, duplicates,
+                    (finding, tree) -> report(finding, tree, unit));
+            }
+            currentScanner.scanClass(classPath);
+        }
+        
+        private void report(SourceFinding finding, Tree tree, CompilationUnitTree unit) {
+            ViolationType type = finding.getType();
+            Diagnostic.Kind kind = failOnError && type.getSeverity() == ViolationSeverity.ERROR
+                ? Diagnostic.Kind.ERROR
+                : Diagnostic.Kind.WARNING;
+            
+            trees.printMessage(kind,
+                String.format("[Coding Legion] %s: %s", type.name(), type.getCompactDescription()),
+                tree, unit);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.codinglegion.core.javac;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Type classification results that survive a single javac task
+ * (e.g. "this class has isInitialized(String)", "this class is a Map"), keyed by qualified class name
+ *
+ * A fact remembers the source files of the type and of all its supertypes, so it is dropped when any
+ * of them changes (a subtype's facts go with a changed base class); facts about classpath types
+ * live until {@link #clear()}
+ */
+public class TypeFactCache {
+    
+    private final ConcurrentHashMap<String, Fact> dtoTypes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Fact> typeKinds = new ConcurrentHashMap<>();
+    
+    /**
+     * @param dependencies receives the source files the answer depends on
+     * @return cached answer, or null if unknown
+     */
+    public Boolean isDtoType(String qualifiedName, Collection<String> dependencies) {
+        Fact fact = dtoTypes.get(qualifiedName);
+        if (fact == null) {
+            return null;
+        }
+        dependencies.addAll(fact.sourcePaths);
+        return fact.value;
+    }
+    
+    /**
+     * @param sourcePaths source files of the type and its supertypes; empty for classpath types
+     */
+    public void putDtoType(String qualifiedName, Set<String> sourcePaths, boolean value) {
+        dtoTypes.put(qualifiedName, new Fact(sourcePaths, value, 0));
+    }
+    
+    /**
+     * @param dependencies receives the source files the answer depends on
+     * @return cached {@link com.codinglegion.core.rules.NullSafetyRules#classifySupertype} bits
+     *         for the type and all its supertypes, or null if unknown
+     */
+    public Integer getTypeKind(String qualifiedName, Collection<String> dependencies) {
+        Fact fact = typeKinds.get(qualifiedName);
+        if (fact == null) {
+            return null;
+        }
+        dependencies.addAll(fact.sourcePaths);
+        return fact.kind;
+    }
+    
+    /**
+     * @param sourcePaths source files of the type and its supertypes; empty for classpath types
+     */
+    public void putTypeKind(String qualifiedName, Set<String> sourcePaths, int kind) {
+        typeKinds.put(qualifiedName, new Fact(sourcePaths, false, kind));
+    }
+    
+    /**
+     * Drop facts about types declared in any of the given source files, or inheriting from such a type
+     */
+    public void invalidateSources(Collection<String> sourcePaths) {
+        if (sourcePaths.isEmpty()) {
+            return;
+        }
+        Set<String> paths = new HashSet<>(sourcePaths);
+        dtoTypes.values().removeIf(fact -> fact.dependsOn(paths));
+        typeKinds.values().removeIf(fact -> fact.dependsOn(paths));
+    }
+    
+    public void clear() {
+        dtoTypes.clear();
+        typeKinds.clear();
+    }
+    
+    public int size() {
+        return dtoTypes.size() + typeKinds.size();
+    }
+    
+    private static class Fact {
+        final Set<String> sourcePaths;
+        final boolean value;
+        final int kind;
+        
+        Fact(Set<String> sourcePaths, boolean value, int kind) {
+            this.sourcePaths = sourcePaths.isEmpty() ? Collections.emptySet() : new HashSet<>(sourcePaths);
+            this.value = value;
+            this.kind = kind;
+        }
+        
+        boolean dependsOn(Set<String> paths) {
+            for (String sourcePath : sourcePaths) {
+                if (paths.contains(sourcePath)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
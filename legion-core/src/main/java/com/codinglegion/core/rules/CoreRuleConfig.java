@@ -0,0 +1,114 @@
+package com.codinglegion.core.rules;
+
+import com.codinglegion.model.ViolationType;
+
+import java.util.*;
+
+/**
+ * Immutable rule configuration, shared by the CLI, the javac plugin and the IDE analyzer
+ * Utility bean patterns are compiled once here rather than matched as strings per call
+ */
+public final class CoreRuleConfig {
+    
+    private final Set<ViolationType> enabledRules;
+    private final List<String> utilityBeanPatterns;
+    private final SuffixMatcher utilityBeans;
+    private final Set<String> contextBaseTypes;
+    
+    public CoreRuleConfig(Collection<ViolationType> enabledRules, Collection<String> utilityBeanPatterns) {
+        this(enabledRules, utilityBeanPatterns, Collections.<String>emptyList());
+    }
+    
+    /**
+     * @param contextBaseTypes qualified names of types whose subtypes count as contexts for the null-in-context rule
+     */
+    public CoreRuleConfig(Collection<ViolationType> enabledRules, Collection<String> utilityBeanPatterns,
+                          Collection<String> contextBaseTypes) {
+        this.enabledRules = enabledRules.isEmpty()
+            ? Collections.unmodifiableSet(EnumSet.noneOf(ViolationType.class))
+            : Collections.unmodifiableSet(EnumSet.copyOf(enabledRules));
+        this.utilityBeanPatterns = Collections.unmodifiableList(new ArrayList<>(utilityBeanPatterns));
+        this.utilityBeans = SuffixMatcher.compile(utilityBeanPatterns);
+        this.contextBaseTypes = Collections.unmodifiableSet(new HashSet<>(contextBaseTypes));
+    }
+    
+    /**
+     * All rules enabled, no utility bean whitelist
+     */
+    public static CoreRuleConfig allRules() {
+        return new CoreRuleConfig(EnumSet.allOf(ViolationType.class), Collections.<String>emptyList());
+    }
+    
+    public boolean isEnabled(ViolationType type) {
+        return enabledRules.contains(type);
+    }
+    
+    public Set<ViolationType> getEnabledRules() {
+        return enabledRules;
+    }
+    
+    public List<String> getUtilityBeanPatterns() {
+        return utilityBeanPatterns;
+    }
+    
+    /**
+     * Whether the qualifier name ends with a utility bean pattern, ignoring case
+     * Such beans (usually autowired) are assumed non-null by the log rule
+     */
+    public boolean isUtilityBean(String qualifierName) {
+        return utilityBeans.matches(qualifierName);
+    }
+    
+    public Set<String> getContextBaseTypes() {
+        return contextBaseTypes;
+    }
+    
+    /**
+     * Same rules, utility bean patterns and context base types; results computed under one apply to the other
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CoreRuleConfig)) {
+            return false;
+        }
+        CoreRuleConfig other = (CoreRuleConfig) o;
+        return enabledRules.equals(other.enabledRules) &&
+               utilityBeanPatterns.equals(other.utilityBeanPatterns) &&
+               contextBaseTypes.equals(other.contextBaseTypes);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(enabledRules, utilityBeanPatterns, contextBaseTypes);
+    }
+    
+    /**
+     * Parse a comma-separated list of rule names (ViolationType constants, case-insensitive)
+     *
+     * @throws IllegalArgumentException for unknown rule names
+     */
+    public static Set<ViolationType> parseRules(String commaSeparated) {
+        Set<ViolationType> rules = EnumSet.noneOf(ViolationType.class);
+        for (String name : splitList(commaSeparated)) {
+            try {
+                rules.add(ViolationType.valueOf(name.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown rule " + name);
+            }
+        }
+        return rules;
+    }
+    
+    public static List<String> splitList(String commaSeparated) {
+        List<String> result = new ArrayList<>();
+        for (String part : commaSeparated.split(",")) {
+            if (!part.trim().isEmpty()) {
+                result.add(part.trim());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package com.codinglegion.core.rules;
+
+import com.codinglegion.model.ViolationType;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Counts findings dropped by {@link FindingDeduplicator}, per rule of the dropped finding
+ * Thread-safe, so one instance can collect counts from parallel file analyses
+ */
+public class DuplicateStats {
+    
+    private final AtomicIntegerArray dropped = new AtomicIntegerArray(ViolationType.values().length);
+    
+    void record(ViolationType type) {
+        dropped.incrementAndGet(type.ordinal());
+    }
+    
+    public int getDropped(ViolationType type) {
+        return dropped.get(type.ordinal());
+    }
+    
+    public int getTotal() {
+        int total = 0;
+        for (int i = 0; i < dropped.length(); i++) {
+            total += dropped.get(i);
+        }
+        return total;
+    }
+    
+    /**
+     * e.g. "3 (COLLECTION_NULL_CHECK=2, COLLECTION_SIZE_CHECK=1)"
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (ViolationType type : ViolationType.values()) {
+            int count = getDropped(type);
+            if (count > 0) {
+                sb.append(sb.length() == 0 ? "" : ", ").append(type.name()).append('=').append(count);
+            }
+        }
+        return getTotal() + (sb.length() > 0 ? " (" + sb + ")" : "");
+    }
+}
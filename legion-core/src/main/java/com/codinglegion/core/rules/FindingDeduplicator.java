@@ -0,0 +1,130 @@
+package com.codinglegion.core.rules;
+
+import com.codinglegion.core.Finding;
+import com.codinglegion.model.ViolationSeverity;
+import com.codinglegion.model.ViolationType;
+
+import java.util.*;
+
+/**
+ * Drops duplicate findings of one file as they are reported
+ *
+ * Two findings of the same {@link RuleFamily} describe one problem when
+ *   - they were reported on the same source range (e.g. null in a context and in a map for one setter call), or
+ *   - they form a redundant pair: a check and an operand of it that a rule of the family reports on its
+ *     own, e.g. "list == null || list.isEmpty()" and the unguarded "list.isEmpty()" on its right, or
+ *     "list.size() == 0" and "list.size()" on its left. The inner finding must start or end with the
+ *     enclosing one, as an operand does
+ * Merely nested findings are kept: a Boolean unboxing reported on a whole if statement says nothing
+ * about another unboxing in its body, nor does a DTO getter call about the getter call it is chained on.
+ * Of a group one finding is kept:
+ *   1. an ERROR beats a WARNING,
+ *   2. with equal severity the enclosing finding wins - its suggested fix covers the inner code,
+ *   3. for the same range the first reported finding wins.
+ *
+ * Findings must be offered in tree pre-order (enclosing elements before their children),
+ * which is the order of the PSI and javac visitors
+ */
+public class FindingDeduplicator<T extends Finding> {
+    
+    /**
+     * Redundant pairs: finding types of an enclosing check and the types of its operands' findings
+     * that add nothing to it
+     */
+    private static final Map<ViolationType, Set<ViolationType>> REDUNDANT_OPERANDS = new EnumMap<>(ViolationType.class);
+    
+    static {
+        REDUNDANT_OPERANDS.put(ViolationType.COLLECTION_NULL_CHECK, EnumSet.of(ViolationType.COLLECTION_NULL_CHECK));
+        REDUNDANT_OPERANDS.put(ViolationType.COLLECTION_SIZE_CHECK, EnumSet.of(ViolationType.COLLECTION_NULL_CHECK));
+        REDUNDANT_OPERANDS.put(ViolationType.STRING_EMPTY_CHECK, EnumSet.of(ViolationType.STRING_EMPTY_CHECK));
+    }
+    
+    private final DuplicateStats stats;
+    private final List<Group<T>> groups = new ArrayList<>();
+    
+    // Per family: groups whose range may still contain later findings, innermost on top
+    private final Map<RuleFamily, Deque<Group<T>>> open = new EnumMap<>(RuleFamily.class);
+    
+    public FindingDeduplicator(DuplicateStats stats) {
+        this.stats = stats;
+    }
+    
+    /**
+     * @param start start offset of the reported element in the file
+     * @param end   end offset (exclusive)
+     */
+    public void offer(T finding, int start, int end) {
+        Deque<Group<T>> stack = open.computeIfAbsent(RuleFamily.of(finding.getType()), k -> new ArrayDeque<>());
+        
+        // Groups that ended before this finding cannot contain anything reported later
+        while (!stack.isEmpty() && stack.peek().end <= start && stack.peek().start < start) {
+            stack.pop();
+        }
+        
+        for (Group<T> enclosing : stack) {
+            if (!(enclosing.start <= start && end <= enclosing.end)) {
+                continue;
+            }
+            if (!duplicates(enclosing, finding, start, end)) {
+                continue;
+            }
+            if (outranks(finding, enclosing.kept)) {
+                stats.record(enclosing.kept.getType());
+                enclosing.kept = finding;
+            } else {
+                stats.record(finding.getType());
+            }
+            return;
+        }
+        
+        Group<T> group = new Group<>(finding, start, end);
+        groups.add(group);
+        stack.push(group);
+    }
+    
+    /**
+     * Kept findings in report order; resets the deduplicator
+     */
+    public List<T> drain() {
+        List<T> kept = new ArrayList<>(groups.size());
+        for (Group<T> group : groups) {
+            kept.add(group.kept);
+        }
+        groups.clear();
+        open.clear();
+        return kept;
+    }
+    
+    /**
+     * Whether a finding inside the group's range repeats it: same range, or a redundant operand
+     */
+    private static <T extends Finding> boolean duplicates(Group<T> group, Finding inner, int start, int end) {
+        if (group.start == start && group.end == end) {
+            return true;
+        }
+        Set<ViolationType> operands = REDUNDANT_OPERANDS.get(group.first);
+        return operands != null && operands.contains(inner.getType()) && (group.start == start || group.end == end);
+    }
+    
+    /**
+     * Only a higher severity replaces a finding that is already kept
+     */
+    private static boolean outranks(Finding inner, Finding kept) {
+        return inner.getSeverity() == ViolationSeverity.ERROR && kept.getSeverity() != ViolationSeverity.ERROR;
+    }
+    
+    private static class Group<T extends Finding> {
+        final int start;
+        final int end;
+        // Type of the finding the group was opened with, which decides its redundant operands
+        final ViolationType first;
+        T kept;
+        
+        Group(T kept, int start, int end) {
+            this.kept = kept;
+            this.start = start;
+            this.end = end;
+            this.first = kept.getType();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.codinglegion.core.rules;
+
+import java.util.Objects;
+
+/**
+ * Something an enclosing condition has established about a subject: "x != null" (or == null)
+ * or "dto.isInitialized(\"Day\")"
+ * The subject is the resolved variable (PsiVariable, javac VariableElement) when there is one,
+ * otherwise the expression text
+ */
+public final class GuardFact {
+    
+    private final Object subject;
+    private final String property;
+    
+    private GuardFact(Object subject, String property) {
+        this.subject = Objects.requireNonNull(subject);
+        this.property = property;
+    }
+    
+    public static GuardFact nullCheck(Object subject) {
+        return new GuardFact(subject, null);
+    }
+    
+    public static GuardFact initializationCheck(Object subject, String property) {
+        return new GuardFact(subject, Objects.requireNonNull(property));
+    }
+    
+    public Object getSubject() {
+        return subject;
+    }
+    
+    /**
+     * Property passed to isInitialized, or null for a null check
+     */
+    public String getProperty() {
+        return property;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GuardFact)) return false;
+        GuardFact other = (GuardFact) o;
+        return subject.equals(other.subject) && Objects.equals(property, other.property);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * subject.hashCode() + Objects.hashCode(property);
+    }
+    
+    @Override
+    public String toString() {
+        return property == null ? subject + " null-checked" : subject + ".isInitialized(\"" + property + "\")";
+    }
+}
@@ -0,0 +1,294 @@
+package com.codinglegion.core.rules;
+
+import java.util.*;
+
+/**
+ * Name- and type-level predicates shared by all Coding Legion rule implementations
+ * Used by the PSI detectors in the IDE plugin and by the javac tree scanner in the CLI,
+ * so both front ends agree on what each rule considers a violation
+ */
+public final class NullSafetyRules {
+    
+    public static final String STRING_TYPE = "java.lang.String";
+    public static final String BOOLEAN_WRAPPER_TYPE = "java.lang.Boolean";
+    public static final String IS_INITIALIZED_METHOD = "isInitialized";
+    public static final String COLLECTION_BASE_TYPE = "java.util.Collection";
+    public static final String MAP_BASE_TYPE = "java.util.Map";
+    
+    // Last word of class names treated as context/container types
+    private static final List<String> CONTEXT_NAME_SUFFIXES = Arrays.asList(
+        "Context", "Attributes", "Properties", "Configuration", "Settings", "Registry", "Cache"
+    );
+    
+    private static final Set<String> LOG_METHODS = new HashSet<>(Arrays.asList(
+        "debug", "info", "warn", "error", "trace", "fatal", "log"
+    ));
+    
+    // Common setter method patterns
+    private static final List<String> SETTER_METHOD_PATTERNS = Arrays.asList(
+        "set", "put", "add", "insert", "append"
+    );
+    
+    // Methods that should be excluded (safe to pass null)
+    private static final List<String> EXCLUDED_METHODS = Arrays.asList(
+        "assertEquals", "assertNull", "assertNotNull", "assertTrue", "assertFalse",
+        "setNull"  // JDBC setNull is intentional
+    );
+    
+    // Common factory methods that return non-null collections
+    private static final Set<String> NON_NULL_FACTORY_METHODS = new HashSet<>(Arrays.asList(
+        "emptyList", "emptySet", "emptyMap", "singleton", "singletonList", "asList"
+    ));
+    
+    // Null-safe methods of JDK utility classes, by qualified and by simple class name
+    private static final Map<String, Set<String>> NULL_SAFE_METHODS_BY_CLASS = new HashMap<>();
+    
+    // Null-safe methods of Apache Commons helpers, by a part of the class name
+    private static final Map<String, Set<String>> NULL_SAFE_METHODS_BY_CLASS_NAME_PART = new LinkedHashMap<>();
+    
+    static {
+        addNullSafeMethods("java.lang.String", "valueOf", "format");
+        addNullSafeMethods("java.util.Objects", "toString", "isNull", "nonNull", "hash", "equals");
+        addNullSafeMethods("java.util.Arrays", "toString", "deepToString", "asList");
+        addNullSafeMethods("java.util.Optional", "ofNullable", "empty");
+        
+        NULL_SAFE_METHODS_BY_CLASS_NAME_PART.put("StringUtils", methodSet(
+            "toString", "isEmpty", "isNotEmpty", "isBlank", "isNotBlank", "defaultString",
+            "defaultIfEmpty", "equals", "equalsIgnoreCase"));
+        NULL_SAFE_METHODS_BY_CLASS_NAME_PART.put("ObjectUtils", methodSet(
+            "toString", "defaultIfNull", "firstNonNull"));
+        NULL_SAFE_METHODS_BY_CLASS_NAME_PART.put("BooleanUtils", methodSet(
+            "isTrue", "isFalse", "toBoolean", "toBooleanObject", "isNotTrue", "isNotFalse"));
+        NULL_SAFE_METHODS_BY_CLASS_NAME_PART.put("CollectionUtils", methodSet(
+            "isEmpty", "isNotEmpty", "size", "emptyIfNull"));
+    }
+    
+    private static void addNullSafeMethods(String qualifiedName, String... methods) {
+        Set<String> set = methodSet(methods);
+        NULL_SAFE_METHODS_BY_CLASS.put(qualifiedName, set);
+        NULL_SAFE_METHODS_BY_CLASS.put(qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1), set);
+    }
+    
+    private static Set<String> methodSet(String... methods) {
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(methods)));
+    }
+    
+    private NullSafetyRules() {
+    }
+    
+    // ---------------------------------------------------------------- types
+    
+    /**
+     * String type as reported by canonical text (fully qualified or unresolved simple name)
+     */
+    public static boolean isStringType(String typeName) {
+        return STRING_TYPE.equals(typeName) || "String".equals(typeName);
+    }
+    
+    public static boolean isBooleanWrapperType(String typeName) {
+        return BOOLEAN_WRAPPER_TYPE.equals(typeName) || "Boolean".equals(typeName);
+    }
+    
+    /**
+     * Boolean.TRUE / Boolean.FALSE are never null and safe to unbox
+     */
+    public static boolean isBooleanConstant(String expressionText) {
+        return "Boolean.TRUE".equals(expressionText) || "Boolean.FALSE".equals(expressionText) ||
+               "java.lang.Boolean.TRUE".equals(expressionText) || "java.lang.Boolean.FALSE".equals(expressionText);
+    }
+    
+    /**
+     * Classification bits for one type in the hierarchy of a qualifier's class; see {@link #classifySupertype}
+     */
+    public static final int TYPE_COLLECTION = 1;
+    public static final int TYPE_MAP = 1 << 1;
+    public static final int TYPE_CONTEXT = 1 << 2;
+    
+    /**
+     * Contribution of one class in a type's hierarchy (the type itself included) to its classification
+     * Callers OR the result over all supertypes: any Collection or Map subtype is a collection,
+     * any Map subtype is a map, and a context is a subtype of a configured base type
+     * Only when no base types are configured, a class whose simple name ends with a context-like word
+     * (FooContext, RequestAttributes, AppSettings, ...) counts as a context instead, see {@link #isContextClassName}
+     *
+     * @param contextBaseTypes qualified names of the context base types; empty to fall back to class names
+     */
+    public static int classifySupertype(String qualifiedName, String simpleName, Collection<String> contextBaseTypes) {
+        int kind = 0;
+        if (COLLECTION_BASE_TYPE.equals(qualifiedName)) {
+            kind |= TYPE_COLLECTION;
+        } else if (MAP_BASE_TYPE.equals(qualifiedName)) {
+            kind |= TYPE_COLLECTION | TYPE_MAP;
+        }
+        boolean context = contextBaseTypes.isEmpty()
+            ? isContextClassName(simpleName)
+            : qualifiedName != null && contextBaseTypes.contains(qualifiedName);
+        if (context) {
+            kind |= TYPE_CONTEXT;
+        }
+        return kind;
+    }
+    
+    /**
+     * Simple class name ending with a context-like word; whole words only, so Settlement or ContextMenu do not match
+     * Name-based fallback for projects without configured context base types; a name cannot tell a
+     * request context from a CacheManager's Cache, so configured base types replace it
+     */
+    public static boolean isContextClassName(String simpleName) {
+        if (simpleName == null) {
+            return false;
+        }
+        for (String suffix : CONTEXT_NAME_SUFFIXES) {
+            if (simpleName.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // ---------------------------------------------------------------- methods
+    
+    public static boolean isLogMethod(String methodName) {
+        return methodName != null && LOG_METHODS.contains(methodName);
+    }
+    
+    public static Set<String> getLogMethods() {
+        return Collections.unmodifiableSet(LOG_METHODS);
+    }
+    
+    /**
+     * Log calls must be made on something that looks like a logger (log, LOG, logger, ...)
+     */
+    public static boolean isLoggerQualifier(String qualifierText) {
+        return qualifierText.toLowerCase().contains("log");
+    }
+    
+    public static boolean isCollectionCheckMethod(String methodName) {
+        return "isEmpty".equals(methodName) || "size".equals(methodName);
+    }
+    
+    public static boolean isSizeMethod(String methodName) {
+        return "size".equals(methodName) || "length".equals(methodName);
+    }
+    
+    public static boolean isNonNullFactoryMethod(String methodName) {
+        return methodName != null && NON_NULL_FACTORY_METHODS.contains(methodName);
+    }
+    
+    /**
+     * Check if method name is a getter (getXxx or isXxx)
+     */
+    public static boolean isGetterName(String methodName) {
+        return (methodName.startsWith("get") && methodName.length() > 3) ||
+               (methodName.startsWith("is") && methodName.length() > 2);
+    }
+    
+    /**
+     * Extract property name from getter method
+     * getDay -> Day
+     * isActive -> Active
+     */
+    public static String extractPropertyName(String methodName) {
+        if (methodName.startsWith("get") && methodName.length() > 3) {
+            return methodName.substring(3);
+        } else if (methodName.startsWith("is") && methodName.length() > 2) {
+            return methodName.substring(2);
+        }
+        return null;
+    }
+    
+    /**
+     * Check if method name matches setter patterns (set, put, add, insert, append)
+     */
+    public static boolean isSetterLikeMethod(String methodName) {
+        for (String pattern : SETTER_METHOD_PATTERNS) {
+            if (methodName.startsWith(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Check if method is excluded (assertions, etc.)
+     */
+    public static boolean isExcludedMethod(String methodName) {
+        for (String excluded : EXCLUDED_METHODS) {
+            if (methodName.contains(excluded) || methodName.equalsIgnoreCase(excluded)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Determine which argument index is the value argument of a setter-like call
+     */
+    public static int getValueArgumentIndex(String methodName, int argCount) {
+        // For most setters, the value is the last argument
+        // setTransactionAttribute(namespace, key, value) -> index 2
+        // setAttribute(key, value) -> index 1
+        // put(key, value) -> index 1
+        // add(value) -> index 0
+        
+        // Special cases for specific method patterns
+        if (methodName.matches("set.*Attribute")) {
+            // setXxxAttribute methods typically have (namespace, key, value) or (key, value)
+            return argCount - 1; // Last argument is the value
+        }
+        
+        if (methodName.equals("put") || methodName.equals("putIfAbsent")) {
+            // Map.put(key, value) -> value is index 1
+            return argCount >= 2 ? 1 : -1;
+        }
+        
+        if (methodName.equals("add") || methodName.equals("append")) {
+            // Collection.add(value) or StringBuilder.append(value) -> value is index 0
+            // But List.add(index, value) -> value is index 1
+            if (argCount == 1) {
+                return 0;
+            } else if (argCount == 2) {
+                return 1;
+            }
+        }
+        
+        if (methodName.startsWith("set")) {
+            // Generic setters: setValue(value), setName(value), etc.
+            if (argCount == 1) {
+                return 0;
+            }
+            // Multi-arg setters: value is usually last
+            return argCount - 1;
+        }
+        
+        // Default: value is the last argument
+        return argCount > 0 ? argCount - 1 : -1;
+    }
+    
+    // ---------------------------------------------------------------- log whitelist
+    
+    /**
+     * Check if a call is a whitelisted null-safe utility method
+     *
+     * @param qualifierClass canonical type of the call qualifier, or null if unknown
+     * @param methodName called method name
+     */
+    public static boolean isNullSafeUtilityCall(String qualifierClass, String methodName) {
+        if (qualifierClass == null) {
+            return false;
+        }
+        
+        Set<String> methods = NULL_SAFE_METHODS_BY_CLASS.get(qualifierClass);
+        if (methods != null) {
+            return methods.contains(methodName);
+        }
+        
+        // Apache Commons helpers are matched by name, whatever their package or version
+        for (Map.Entry<String, Set<String>> entry : NULL_SAFE_METHODS_BY_CLASS_NAME_PART.entrySet()) {
+            if (entry.getValue().contains(methodName) && qualifierClass.contains(entry.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+package com.codinglegion.core.rules;
+
+import com.codinglegion.model.ViolationType;
+
+/**
+ * Groups of rules that report the same underlying problem
+ * Overlapping findings of one family describe one fix, so only one of them is kept
+ * (see {@link FindingDeduplicator}); findings of different families never replace each other
+ */
+public enum RuleFamily {
+    STRING_EQUALS,
+    STRING_EMPTY,
+    /** Null/empty checks, size comparisons and unguarded isEmpty()/size() on the same collection */
+    COLLECTION,
+    TERNARY_DEFAULT,
+    BOOLEAN_UNBOXING,
+    LOG_DEREFERENCE,
+    DTO_INITIALIZATION,
+    /** Null written to a context or a map - one setter call is one problem */
+    NULL_VALUE;
+    
+    public static RuleFamily of(ViolationType type) {
+        switch (type) {
+            case STRING_EQUALS:
+                return STRING_EQUALS;
+            case STRING_EMPTY_CHECK:
+                return STRING_EMPTY;
+            case COLLECTION_NULL_CHECK:
+            case COLLECTION_SIZE_CHECK:
+                return COLLECTION;
+            case TERNARY_NULL_DEFAULT:
+                return TERNARY_DEFAULT;
+            case BOOLEAN_UNBOXING:
+                return BOOLEAN_UNBOXING;
+            case LOG_NULL_DEREFERENCE:
+                return LOG_DEREFERENCE;
+            case DTO_INITIALIZATION_CHECK:
+                return DTO_INITIALIZATION;
+            case NULL_VALUE_IN_CONTEXT:
+            case NULL_VALUE_IN_MAP:
+            default:
+                return NULL_VALUE;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.codinglegion.core.rules;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Case-insensitive "ends with any of" test over a fixed set of suffixes
+ * The suffixes are lowercased once and stored reversed in a trie, so a match reads the
+ * candidate backwards at most once instead of lowercasing it and every pattern per call
+ *
+ * Immutable once compiled, safe to share between threads
+ */
+public final class SuffixMatcher {
+    
+    private static final SuffixMatcher EMPTY = new SuffixMatcher(new Node());
+    
+    private final Node root;
+    
+    private SuffixMatcher(Node root) {
+        this.root = root;
+    }
+    
+    /**
+     * Matcher for the given suffixes; blank entries are ignored
+     */
+    public static SuffixMatcher compile(Collection<String> suffixes) {
+        Node root = new Node();
+        boolean any = false;
+        for (String suffix : suffixes) {
+            String lower = suffix.trim().toLowerCase();
+            if (lower.isEmpty()) {
+                continue;
+            }
+            Node node = root;
+            for (int i = lower.length() - 1; i >= 0; i--) {
+                node = node.childOrCreate(lower.charAt(i));
+            }
+            node.terminal = true;
+            any = true;
+        }
+        return any ? new SuffixMatcher(root) : EMPTY;
+    }
+    
+    public boolean isEmpty() {
+        return root.size == 0;
+    }
+    
+    /**
+     * Whether the text ends with one of the suffixes, ignoring case
+     */
+    public boolean matches(CharSequence text) {
+        Node node = root;
+        for (int i = text.length() - 1; i >= 0 && node.size > 0; i--) {
+            node = node.child(Character.toLowerCase(text.charAt(i)));
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Trie node; children are few, so a linear scan of parallel arrays beats a map
+     */
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        int size;
+        boolean terminal;
+        
+        Node child(char key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+        
+        Node childOrCreate(char key) {
+            Node existing = child(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(2, size * 2));
+                children = Arrays.copyOf(children, keys.length);
+            }
+            Node created = new Node();
+            keys[size] = key;
+            children[size++] = created;
+            return created;
+        }
+    }
+}
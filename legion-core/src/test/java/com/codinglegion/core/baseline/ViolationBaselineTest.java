@@ -0,0 +1,142 @@
+package com.codinglegion.core.baseline;
+
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.model.ViolationType;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Baseline file round trip, copy counting and rejection of files that are not baselines
+ */
+public class ViolationBaselineTest {
+    
+    private static final SourceFinding EQUALS = finding(ViolationType.STRING_EQUALS, "name.equals(\"x\")");
+    private static final SourceFinding UNBOXING = finding(ViolationType.BOOLEAN_UNBOXING, "if (flag)");
+    
+    @Test
+    public void writeThenLoadAndRead() throws Exception {
+        Path dir = Files.createTempDirectory("legion-baseline");
+        Path file = dir.resolve("baseline.bin");
+        try {
+            ViolationBaseline.write(file, Arrays.asList(EQUALS, UNBOXING));
+            
+            for (ViolationBaseline baseline : Arrays.asList(ViolationBaseline.load(file), ViolationBaseline.read(file))) {
+                assertEquals(2, baseline.size());
+                assertTrue(baseline.contains(EQUALS));
+                assertTrue(baseline.contains(UNBOXING));
+                assertFalse(baseline.contains(finding(ViolationType.STRING_EQUALS, "other.equals(\"x\")")));
+            }
+            
+            // Rewriting the file that was just read must work (it is not mapped)
+            ViolationBaseline read = ViolationBaseline.read(file);
+            ViolationBaseline.write(file, read.toArray());
+            assertEquals(2, ViolationBaseline.read(file).size());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+    
+    @Test
+    public void bloomFilterHasNoFalseNegatives() throws Exception {
+        long[] fingerprints = new long[10000];
+        for (int i = 0; i < fingerprints.length; i++) {
+            fingerprints[i] = i * 0x9e3779b97f4a7c15L;
+        }
+        Path dir = Files.createTempDirectory("legion-baseline");
+        Path file = dir.resolve("baseline.bin");
+        try {
+            ViolationBaseline.write(file, fingerprints);
+            ViolationBaseline baseline = ViolationBaseline.load(file);
+            
+            assertEquals(fingerprints.length, baseline.size());
+            for (long fingerprint : fingerprints) {
+                assertTrue(baseline.contains(fingerprint));
+            }
+            int misses = 0;
+            for (long fingerprint = 1; fingerprint <= 1000; fingerprint++) {
+                if (!baseline.contains(fingerprint * 31 + 7)) {
+                    misses++;
+                }
+            }
+            assertEquals(1000, misses);
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+    
+    @Test
+    public void filterNewCountsIdenticalCopies() throws Exception {
+        Path dir = Files.createTempDirectory("legion-baseline");
+        Path file = dir.resolve("baseline.bin");
+        try {
+            SourceFinding copy = finding(ViolationType.STRING_EQUALS, "name.equals(\"x\")");
+            ViolationBaseline.write(file, Collections.singletonList(EQUALS));
+            ViolationBaseline baseline = ViolationBaseline.load(file);
+            
+            assertEquals(1, baseline.count(FindingFingerprint.of(copy)));
+            List<SourceFinding> fresh = baseline.filterNew(Arrays.asList(EQUALS, copy, UNBOXING));
+            assertEquals(Arrays.asList(copy, UNBOXING), fresh);
+            
+            ViolationBaseline.write(file, Arrays.asList(EQUALS, copy));
+            assertEquals(Collections.singletonList(UNBOXING),
+                ViolationBaseline.load(file).filterNew(Arrays.asList(EQUALS, copy, UNBOXING)));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+    
+    @Test
+    public void rejectsTruncatedAndForeignFiles() throws Exception {
+        Path dir = Files.createTempDirectory("legion-baseline");
+        Path file = dir.resolve("baseline.bin");
+        try {
+            ViolationBaseline.write(file, Arrays.asList(EQUALS, UNBOXING));
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+            assertRejected(file, "Truncated");
+            
+            Files.write(file, "<baseline/>\n".getBytes(StandardCharsets.UTF_8));
+            assertRejected(file, "Not a Coding Legion baseline");
+            
+            Files.write(file, new byte[3]);
+            assertRejected(file, "Not a Coding Legion baseline");
+            
+            Files.delete(file);
+            assertEquals(0, ViolationBaseline.load(file).size());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+    
+    private static void assertRejected(Path file, String message) {
+        for (int i = 0; i < 2; i++) {
+            try {
+                if (i == 0) {
+                    ViolationBaseline.load(file);
+                } else {
+                    ViolationBaseline.read(file);
+                }
+                fail("Accepted " + file);
+            } catch (IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+            }
+        }
+    }
+    
+    private static SourceFinding finding(ViolationType type, String code) {
+        return new SourceFinding(type, "Sample.java", 1, 1, "Sample", "com.example", code);
+    }
+}
@@ -0,0 +1,98 @@
+package com.codinglegion.core.daemon;
+
+import com.codinglegion.core.baseline.ViolationBaseline;
+import com.codinglegion.core.javac.JavacAnalyzer;
+import com.codinglegion.core.rules.CoreRuleConfig;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Cached results are dropped when a type they relied on changes, even if its file is not in the request
+ */
+public class AnalysisDaemonTest {
+    
+    private static final String ORDER =
+        "public class Order {\n" +
+        "    public boolean isInitialized(String property) { return true; }\n" +
+        "    public String getName() { return \"\"; }\n" +
+        "}\n";
+    
+    private static final String PLAIN_ORDER =
+        "public class Order {\n" +
+        "    public String getName() { return \"\"; }\n" +
+        "}\n";
+    
+    private static final String USE =
+        "public class Use {\n" +
+        "    String f(Order order) {\n" +
+        "        return order.getName();\n" +
+        "    }\n" +
+        "}\n";
+    
+    @Test
+    public void changedDependencyInvalidatesCachedResults() throws Exception {
+        Path dir = Files.createTempDirectory("legion-daemon");
+        File order = write(dir, "Order.java", ORDER);
+        File use = write(dir, "Use.java", USE);
+        try (JavacAnalyzer analyzer = new JavacAnalyzer(CoreRuleConfig.allRules(), null, dir.toString(), 1, 50);
+             AnalysisDaemon daemon = new AnalysisDaemon(analyzer, 0, ViolationBaseline.empty())) {
+            Thread server = new Thread(() -> {
+                try {
+                    daemon.serve();
+                } catch (IOException ignored) {
+                    // closed by the test
+                }
+            });
+            server.start();
+            
+            assertEquals("END 1 0", last(analyze(daemon.getPort(), use)));
+            assertEquals("END 1 0", last(analyze(daemon.getPort(), use)));
+            
+            write(dir, "Order.java", PLAIN_ORDER);
+            // Keep the mtime distinct on file systems with coarse timestamps
+            order.setLastModified(order.lastModified() + 2000);
+            assertEquals("END 0 0", last(analyze(daemon.getPort(), use)));
+            
+            daemon.close();
+            server.join();
+        } finally {
+            Files.delete(order.toPath());
+            Files.delete(use.toPath());
+            Files.delete(dir);
+        }
+    }
+    
+    private static List<String> analyze(int port, File file) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            out.write("ANALYZE\n" + file.getAbsolutePath() + "\n\n");
+            out.flush();
+            
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines;
+        }
+    }
+    
+    private static String last(List<String> lines) {
+        return lines.get(lines.size() - 1);
+    }
+    
+    private static File write(Path dir, String name, String source) throws IOException {
+        return Files.write(dir.resolve(name), source.getBytes(StandardCharsets.UTF_8)).toFile();
+    }
+}
@@ -0,0 +1,65 @@
+package com.codinglegion.core.export;
+
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.model.ViolationType;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Artifact locations: relative to %SRCROOT% inside the base directory, absolute file URIs outside it
+ */
+public class SarifExporterTest {
+    
+    @Test
+    public void locationsAreRelativeInsideBaseAndFileUrisOutside() throws Exception {
+        Path dir = Files.createTempDirectory("legion-sarif");
+        Path base = Files.createDirectory(dir.resolve("my project"));
+        Path report = dir.resolve("report.sarif");
+        // Only a string: the file need not exist, nor be representable in the platform file name encoding
+        String inside = base + File.separator + "src" + File.separator + "Für Sale.java";
+        String outside = dir.resolve("other/A.java").toString();
+        try {
+            try (SarifExporter exporter = new SarifExporter(report, base.toString())) {
+                exporter.write(finding(inside));
+                exporter.write(finding(outside));
+            }
+            String sarif = new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+            
+            assertTrue(sarif, sarif.contains("\"%SRCROOT%\": {\"uri\": \"" + base.toUri().toASCIIString() + "\"}"));
+            assertTrue(sarif, sarif.contains("{\"uri\": \"src/F%C3%BCr%20Sale.java\", \"uriBaseId\": \"%SRCROOT%\"}"));
+            assertTrue(sarif, sarif.contains("{\"uri\": \"" + new File(outside).toPath().toUri().toASCIIString() + "\"}"));
+            assertTrue(sarif, sarif.contains("file:///"));
+        } finally {
+            Files.deleteIfExists(report);
+            Files.delete(base);
+            Files.delete(dir);
+        }
+    }
+    
+    @Test
+    public void windowsPathsAreMatchedAgainstTheBase() {
+        // Plugin paths use forward slashes, javac reports URI paths with a leading slash
+        assertEquals("src/A.java", ExportText.pathInBase("C:/work/app/src/A.java", "C:\\work\\app"));
+        assertEquals("src/A.java", ExportText.pathInBase("/C:/work/app/src/A.java", "C:\\work\\app"));
+        assertNull(ExportText.pathInBase("C:/work/lib/A.java", "C:\\work\\app"));
+        assertNull(ExportText.pathInBase("C:/work/app/src/A.java", null));
+    }
+    
+    @Test
+    public void relativeUrisAreEncoded() {
+        assertEquals("src/a%20b/A.java", SarifExporter.relativeUri("src/a b/A.java"));
+        assertEquals("./c:d/A.java", SarifExporter.relativeUri("c:d/A.java"));
+    }
+    
+    private static SourceFinding finding(String path) {
+        return new SourceFinding(ViolationType.STRING_EQUALS, path, 3, 5, "A", "com.example", "a.equals(b)");
+    }
+}
@@ -0,0 +1,76 @@
+package com.codinglegion.core.javac;
+
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.core.rules.CoreRuleConfig;
+import com.codinglegion.model.ViolationType;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A type declared in another batch resolves through the sourcepath
+ */
+public class JavacAnalyzerBatchTest {
+    
+    private static final String ORDER =
+        "public class Order {\n" +
+        "    public boolean isInitialized(String property) { return true; }\n" +
+        "    public String getName() { return \"\"; }\n" +
+        "}\n";
+    
+    private static final String USE =
+        "public class Use {\n" +
+        "    String f(Order order) {\n" +
+        "        return order.getName();\n" +
+        "    }\n" +
+        "}\n";
+    
+    @Test
+    public void findingsDoNotDependOnBatchSize() throws Exception {
+        Path dir = Files.createTempDirectory("legion-batch");
+        File order = write(dir, "Order.java", ORDER);
+        File use = write(dir, "Use.java", USE);
+        try {
+            List<String> together = analyze(Arrays.asList(order, use), dir, 50);
+            List<String> alone = analyze(Arrays.asList(order, use), dir, 1);
+            
+            assertEquals(Collections.singletonList("Use.java:3 " + ViolationType.DTO_INITIALIZATION_CHECK), together);
+            assertEquals(together, alone);
+            // Only the analyzed file is reported, Order.java is just read for its type
+            assertEquals(together, analyze(Collections.singletonList(use), dir, 1));
+        } finally {
+            Files.delete(order.toPath());
+            Files.delete(use.toPath());
+            Files.delete(dir);
+        }
+    }
+    
+    private static List<String> analyze(List<File> files, Path sourcepath, int batchSize)
+            throws IOException, InterruptedException {
+        try (JavacAnalyzer analyzer = new JavacAnalyzer(CoreRuleConfig.allRules(), null, sourcepath.toString(),
+                1, batchSize)) {
+            return analyzer.analyze(files).stream()
+                .map(JavacAnalyzerBatchTest::describe)
+                .collect(Collectors.toList());
+        }
+    }
+    
+    private static String describe(SourceFinding finding) {
+        String path = finding.getFilePath();
+        return path.substring(path.lastIndexOf('/') + 1) + ":" + finding.getLineNumber() + " " + finding.getType();
+    }
+    
+    private static File write(Path dir, String name, String source) throws IOException {
+        return Files.write(dir.resolve(name), source.getBytes(StandardCharsets.UTF_8)).toFile();
+    }
+}
@@ -0,0 +1,85 @@
+package com.codinglegion.core.javac;
+
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.core.rules.CoreRuleConfig;
+import com.codinglegion.model.ViolationType;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Nested findings that are separate problems survive the overlap merge end to end
+ */
+public class JavacAnalyzerOverlapTest {
+    
+    @Test
+    public void keepsUnboxingInIfBody() throws Exception {
+        List<SourceFinding> findings = analyze(
+            "public class Sample {\n" +
+            "    boolean f(Boolean flag, Boolean other) {\n" +
+            "        if (flag) {\n" +
+            "            boolean x = other;\n" +
+            "        }\n" +
+            "        return true;\n" +
+            "    }\n" +
+            "}\n");
+        
+        assertEquals(Collections.nCopies(2, ViolationType.BOOLEAN_UNBOXING), types(findings));
+        assertEquals(3, findings.get(0).getLineNumber());
+        assertEquals(4, findings.get(1).getLineNumber());
+    }
+    
+    @Test
+    public void keepsBothCallsOfGetterChain() throws Exception {
+        List<SourceFinding> findings = analyze(
+            "public class Sample {\n" +
+            "    static class Customer { boolean isInitialized(String p) { return true; } String getName() { return \"\"; } }\n" +
+            "    static class Order { boolean isInitialized(String p) { return true; } Customer getCustomer() { return null; } }\n" +
+            "    String f(Order order) {\n" +
+            "        return order.getCustomer().getName();\n" +
+            "    }\n" +
+            "}\n");
+        
+        assertEquals(Collections.nCopies(2, ViolationType.DTO_INITIALIZATION_CHECK), types(findings));
+        assertEquals("order.getCustomer().getName()", findings.get(0).getViolatingCode());
+        assertEquals("order.getCustomer()", findings.get(1).getViolatingCode());
+    }
+    
+    @Test
+    public void reportsNullOrEmptyCheckOnce() throws Exception {
+        List<SourceFinding> findings = analyze(
+            "import java.util.List;\n" +
+            "public class Sample {\n" +
+            "    boolean f(List<String> list) {\n" +
+            "        return list == null || list.isEmpty();\n" +
+            "    }\n" +
+            "}\n");
+        
+        assertEquals(Collections.singletonList(ViolationType.COLLECTION_NULL_CHECK), types(findings));
+    }
+    
+    private static List<SourceFinding> analyze(String source) throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("legion-overlap");
+        File file = dir.resolve("Sample.java").toFile();
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+        try (JavacAnalyzer analyzer = new JavacAnalyzer(CoreRuleConfig.allRules(), null, null, 1, JavacAnalyzer.DEFAULT_BATCH_SIZE)) {
+            return analyzer.analyze(Collections.singletonList(file));
+        } finally {
+            Files.deleteIfExists(file.toPath());
+            Files.deleteIfExists(dir);
+        }
+    }
+    
+    private static List<ViolationType> types(List<SourceFinding> findings) {
+        return findings.stream().map(SourceFinding::getType).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,82 @@
+package com.codinglegion.core.javac;
+
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.core.rules.CoreRuleConfig;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Every rule-corpus file yields exactly the findings its {@code // expect:} markers name.
+ * The plugin's RuleCorpusPsiTest runs the same files through the PSI analyzer.
+ */
+public class RuleCorpusTest {
+    
+    private static final Pattern EXPECT = Pattern.compile("//\\s*expect:\\s*(.+)$");
+    
+    @Test
+    public void findingsMatchCorpusMarkers() throws Exception {
+        URL url = RuleCorpusTest.class.getResource("/rule-corpus");
+        assertNotNull("rule-corpus is not on the test classpath", url);
+        Path corpus = Paths.get(url.toURI());
+        List<File> files;
+        try (Stream<Path> paths = Files.list(corpus)) {
+            files = paths.filter(p -> p.toString().endsWith(".java"))
+                .sorted()
+                .map(Path::toFile)
+                .collect(Collectors.toList());
+        }
+        assertTrue("rule-corpus is empty", !files.isEmpty());
+        
+        List<String> expected = new ArrayList<>();
+        for (File file : files) {
+            expected.addAll(expectedFindings(file));
+        }
+        List<String> actual;
+        try (JavacAnalyzer analyzer = new JavacAnalyzer(CoreRuleConfig.allRules(), null, corpus.toString(), 1, 50)) {
+            actual = analyzer.analyze(files).stream()
+                .map(RuleCorpusTest::describe)
+                .collect(Collectors.toList());
+        }
+        assertEquals(sorted(expected), sorted(actual));
+    }
+    
+    private static List<String> expectedFindings(File file) throws IOException {
+        List<String> findings = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            Matcher matcher = EXPECT.matcher(lines.get(i));
+            if (matcher.find()) {
+                for (String rule : matcher.group(1).split(",")) {
+                    findings.add(file.getName() + ":" + (i + 1) + " " + rule.trim());
+                }
+            }
+        }
+        return findings;
+    }
+    
+    private static String describe(SourceFinding finding) {
+        String path = finding.getFilePath();
+        return path.substring(path.lastIndexOf('/') + 1) + ":" + finding.getLineNumber() + " " + finding.getType();
+    }
+    
+    private static String sorted(List<String> findings) {
+        return findings.stream().sorted().collect(Collectors.joining("\n"));
+    }
+}
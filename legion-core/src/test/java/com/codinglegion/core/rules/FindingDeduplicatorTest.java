@@ -0,0 +1,95 @@
+package com.codinglegion.core.rules;
+
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.model.ViolationType;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class FindingDeduplicatorTest {
+    
+    private final DuplicateStats stats = new DuplicateStats();
+    private final FindingDeduplicator<SourceFinding> deduplicator = new FindingDeduplicator<>(stats);
+    
+    @Test
+    public void keepsUnboxingInIfBody() {
+        // if (flag) { boolean x = other; } - the if statement and the declaration in its body
+        SourceFinding condition = finding(ViolationType.BOOLEAN_UNBOXING, "flag");
+        SourceFinding body = finding(ViolationType.BOOLEAN_UNBOXING, "other");
+        deduplicator.offer(condition, 0, 40);
+        deduplicator.offer(body, 12, 30);
+        
+        assertEquals(2, deduplicator.drain().size());
+        assertEquals(0, stats.getTotal());
+    }
+    
+    @Test
+    public void keepsBothCallsOfGetterChain() {
+        // order.getCustomer().getName() and the order.getCustomer() it is called on
+        SourceFinding outer = finding(ViolationType.DTO_INITIALIZATION_CHECK, "order.getCustomer().getName()");
+        SourceFinding inner = finding(ViolationType.DTO_INITIALIZATION_CHECK, "order.getCustomer()");
+        deduplicator.offer(outer, 0, 30);
+        deduplicator.offer(inner, 0, 19);
+        
+        assertEquals(2, deduplicator.drain().size());
+        assertEquals(0, stats.getTotal());
+    }
+    
+    @Test
+    public void mergesNullOrEmptyCheckWithItsIsEmptyCall() {
+        // list == null || list.isEmpty()
+        SourceFinding check = finding(ViolationType.COLLECTION_NULL_CHECK, "list == null || list.isEmpty()");
+        SourceFinding call = finding(ViolationType.COLLECTION_NULL_CHECK, "list.isEmpty()");
+        deduplicator.offer(check, 0, 30);
+        deduplicator.offer(call, 16, 30);
+        
+        List<SourceFinding> kept = deduplicator.drain();
+        assertEquals(1, kept.size());
+        assertSame(check, kept.get(0));
+        assertEquals(1, stats.getDropped(ViolationType.COLLECTION_NULL_CHECK));
+    }
+    
+    @Test
+    public void mergesSizeComparisonWithItsSizeCall() {
+        // list.size() == 0
+        SourceFinding comparison = finding(ViolationType.COLLECTION_SIZE_CHECK, "list.size() == 0");
+        SourceFinding call = finding(ViolationType.COLLECTION_NULL_CHECK, "list.size()");
+        deduplicator.offer(comparison, 0, 16);
+        deduplicator.offer(call, 0, 11);
+        
+        // Both are errors, so the enclosing comparison is kept
+        List<SourceFinding> kept = deduplicator.drain();
+        assertEquals(1, kept.size());
+        assertSame(comparison, kept.get(0));
+    }
+    
+    @Test
+    public void keepsCollectionCallNestedInsideCheckOperand() {
+        // list == null || other.get(names.isEmpty() ? 0 : 1).isEmpty() - names.isEmpty() is not an operand
+        SourceFinding check = finding(ViolationType.COLLECTION_NULL_CHECK, "list == null || ...");
+        SourceFinding nested = finding(ViolationType.COLLECTION_NULL_CHECK, "names.isEmpty()");
+        deduplicator.offer(check, 0, 60);
+        deduplicator.offer(nested, 26, 41);
+        
+        assertEquals(2, deduplicator.drain().size());
+    }
+    
+    @Test
+    public void mergesFindingsOnSameRange() {
+        SourceFinding context = finding(ViolationType.NULL_VALUE_IN_CONTEXT, "context.put(\"k\", null)");
+        SourceFinding map = finding(ViolationType.NULL_VALUE_IN_MAP, "context.put(\"k\", null)");
+        deduplicator.offer(context, 5, 27);
+        deduplicator.offer(map, 5, 27);
+        
+        List<SourceFinding> kept = deduplicator.drain();
+        assertEquals(1, kept.size());
+        assertSame(context, kept.get(0));
+    }
+    
+    private static SourceFinding finding(ViolationType type, String code) {
+        return new SourceFinding(type, "Sample.java", 1, 1, "Sample", "", code);
+    }
+}
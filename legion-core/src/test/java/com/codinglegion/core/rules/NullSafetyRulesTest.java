@@ -0,0 +1,33 @@
+package com.codinglegion.core.rules;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class NullSafetyRulesTest {
+    
+    private static final List<String> NO_BASE_TYPES = Collections.emptyList();
+    private static final List<String> BASE_TYPES = Collections.singletonList("com.acme.RequestScope");
+    
+    @Test
+    public void contextNameCountsWithoutBaseTypes() {
+        assertEquals(NullSafetyRules.TYPE_CONTEXT,
+            NullSafetyRules.classifySupertype("com.acme.AppContext", "AppContext", NO_BASE_TYPES));
+    }
+    
+    @Test
+    public void contextNameIgnoredOnceBaseTypesAreConfigured() {
+        assertEquals(0, NullSafetyRules.classifySupertype("com.acme.AppContext", "AppContext", BASE_TYPES));
+        assertEquals(NullSafetyRules.TYPE_CONTEXT,
+            NullSafetyRules.classifySupertype("com.acme.RequestScope", "RequestScope", BASE_TYPES));
+    }
+    
+    @Test
+    public void mapIsCollectionWhateverTheBaseTypes() {
+        assertEquals(NullSafetyRules.TYPE_COLLECTION | NullSafetyRules.TYPE_MAP,
+            NullSafetyRules.classifySupertype("java.util.Map", "Map", BASE_TYPES));
+    }
+}
@@ -0,0 +1,12 @@
+public class BooleanUnboxing {
+    boolean unbox(Boolean flag, boolean primitive) {
+        boolean copy = flag; // expect: BOOLEAN_UNBOXING
+        if (flag) { // expect: BOOLEAN_UNBOXING
+            return copy;
+        }
+        if (primitive) {
+            return Boolean.TRUE.equals(flag);
+        }
+        return flag; // expect: BOOLEAN_UNBOXING
+    }
+}
@@ -0,0 +1,14 @@
+import java.util.List;
+
+public class CollectionNullCheck {
+    boolean check(List<String> items, List<String> others) {
+        if (items == null || items.isEmpty()) { // expect: COLLECTION_NULL_CHECK
+            return true;
+        }
+        return others.isEmpty(); // expect: COLLECTION_NULL_CHECK
+    }
+    
+    boolean nullOnly(List<String> items) {
+        return items == null;
+    }
+}
@@ -0,0 +1,14 @@
+import java.util.List;
+
+public class CollectionSizeCheck {
+    boolean check(List<String> items) {
+        if (items.size() == 0) { // expect: COLLECTION_SIZE_CHECK
+            return true;
+        }
+        return items.size() > 0; // expect: COLLECTION_SIZE_CHECK
+    }
+    
+    int count(List<String> items) {
+        return items.size() + 1; // expect: COLLECTION_NULL_CHECK
+    }
+}
@@ -0,0 +1,23 @@
+public class DtoInitializationCheck {
+    static class Order {
+        boolean isInitialized(String property) { return true; }
+        String getDay() { return ""; }
+    }
+    
+    static class SpecialOrder extends Order {
+    }
+    
+    static class Plain {
+        String getDay() { return ""; }
+    }
+    
+    String read(Order order, SpecialOrder special, Plain plain) {
+        String day = order.getDay(); // expect: DTO_INITIALIZATION_CHECK
+        // isInitialized itself reads as an is-getter of the property "Initialized"
+        if (order.isInitialized("Day")) { // expect: DTO_INITIALIZATION_CHECK
+            day = order.getDay();
+        }
+        day = special.getDay(); // expect: DTO_INITIALIZATION_CHECK
+        return day + plain.getDay();
+    }
+}
@@ -0,0 +1,21 @@
+public class LogNullDereference {
+    static class Logger {
+        void info(String message) { }
+    }
+    
+    static class Client {
+        String name;
+        String getName() { return name; }
+    }
+    
+    private final Logger log = new Logger();
+    
+    void report(Client client) {
+        log.info("Name: " + client.getName()); // expect: LOG_NULL_DEREFERENCE
+        log.info("Name: " + client.name); // expect: LOG_NULL_DEREFERENCE
+        log.info("Client: " + client);
+        log.info("Name: " + (client != null ? client.getName() : null));
+        // A class-qualified call has no qualifier type, so the String.valueOf whitelist does not apply
+        log.info("Name: " + String.valueOf(client)); // expect: LOG_NULL_DEREFERENCE
+    }
+}
@@ -0,0 +1,15 @@
+public class NullValueInContext {
+    static class RequestContext {
+        void setAttribute(String key, Object value) { }
+    }
+    
+    static class Product {
+        void setPrice(Object price) { }
+    }
+    
+    void store(RequestContext context, Product product, Object value) {
+        context.setAttribute("key", null); // expect: NULL_VALUE_IN_CONTEXT
+        context.setAttribute("key", value);
+        product.setPrice(null);
+    }
+}
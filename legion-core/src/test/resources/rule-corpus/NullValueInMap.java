@@ -0,0 +1,11 @@
+import java.util.HashMap;
+import java.util.Map;
+
+public class NullValueInMap {
+    private final Map<String, Object> values = new HashMap<>();
+    
+    void store(Object value) {
+        values.put("key", null); // expect: NULL_VALUE_IN_MAP
+        values.put("key", value);
+    }
+}
@@ -0,0 +1,11 @@
+public class StringEmptyCheck {
+    boolean check(String value) {
+        if (value == null || value.isEmpty()) { // expect: STRING_EMPTY_CHECK
+            return true;
+        }
+        if (value == null || value.length() == 0) { // expect: STRING_EMPTY_CHECK
+            return true;
+        }
+        return value == null;
+    }
+}
@@ -0,0 +1,11 @@
+public class StringEquals {
+    boolean compare(String name, String other) {
+        if (name.equals(other)) { // expect: STRING_EQUALS
+            return true;
+        }
+        if ("CONSTANT".equals(name)) {
+            return true;
+        }
+        return name.equals("x"); // expect: STRING_EQUALS
+    }
+}
@@ -0,0 +1,10 @@
+public class TernaryNullDefault {
+    String pick(String value, String fallback) {
+        String result = value != null ? value : "default"; // expect: TERNARY_NULL_DEFAULT
+        return result == null ? fallback : result; // expect: TERNARY_NULL_DEFAULT
+    }
+    
+    String other(String value, String fallback) {
+        return value != null ? fallback : "none";
+    }
+}
@@ -1,2 +1,4 @@
 rootProject.name = "coding-legion"
 
+
+include("legion-core")
@@ -0,0 +1,84 @@
+package com.codinglegion.actions;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vcs.VcsException;
+import com.codinglegion.analyzer.CodingStandardsAnalyzer;
+import com.codinglegion.core.history.IntroducedFinding;
+import com.codinglegion.history.BranchHistoryAnalyzer;
+import com.codinglegion.ui.FindingListPanel;
+import com.codinglegion.utils.GitBranchChecker;
+import com.codinglegion.utils.GitRevisionReader.Commit;
+import git4idea.repo.GitRepository;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Action to find which commit of the current branch introduced each violation
+ * Analyzes every commit since the merge-base with the base branch from git objects, without checking
+ * anything out, and lists the violations of HEAD with their commit in a "History" tab
+ */
+public class AnalyzeBranchHistoryAction extends AnAction {
+    
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+        
+        GitRepository repository = GitBranchChecker.getRepository(project);
+        if (repository == null) {
+            Messages.showErrorDialog(project, "The project root is not a Git repository.", "Branch History");
+            return;
+        }
+        String baseBranch = GitBranchChecker.findBaseBranch(repository);
+        if (baseBranch == null) {
+            Messages.showErrorDialog(project,
+                "No main, master, develop or development branch found to compare the current branch with.",
+                "Branch History");
+            return;
+        }
+        
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Coding Legion: Analyzing Branch History", true) {
+            private BranchHistoryAnalyzer.Result result;
+            
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                // Every file version is analyzed with types resolved against the current project
+                DumbService.getInstance(project).waitForSmartMode();
+                
+                BranchHistoryAnalyzer analyzer = new BranchHistoryAnalyzer(project, repository, new CodingStandardsAnalyzer(project));
+                try {
+                    result = analyzer.analyze(baseBranch, indicator);
+                } catch (VcsException ex) {
+                    throw new IllegalStateException(ex.getMessage(), ex);
+                }
+            }
+            
+            @Override
+            public void onSuccess() {
+                FindingListPanel panel = new FindingListPanel(project, "Commit", finding -> {
+                    Commit commit = result.getCommits().get(((IntroducedFinding) finding).getCommit());
+                    return commit != null ? commit.getHash().substring(0, 8) + " " + commit.getSubject() : "";
+                });
+                panel.setFindings(result.getFindings(), String.format(
+                    "%d violation(s) introduced in %d commit(s) since %s. %d file version(s) analyzed, %d reused.",
+                    result.getFindings().size(), result.getCommits().size(), baseBranch,
+                    result.getBlobsAnalyzed(), result.getBlobsReused()));
+                panel.showInToolWindow("History");
+            }
+            
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(project, "Branch history analysis failed:\n\n" + error.getMessage(), "Branch History");
+            }
+        });
+    }
+}
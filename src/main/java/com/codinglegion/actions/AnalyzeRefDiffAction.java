@@ -0,0 +1,83 @@
+package com.codinglegion.actions;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vcs.VcsException;
+import com.codinglegion.analyzer.CodingStandardsAnalyzer;
+import com.codinglegion.core.history.IntroducedFinding;
+import com.codinglegion.history.RefDiffAnalyzer;
+import com.codinglegion.ui.CompareRefsDialog;
+import com.codinglegion.ui.FindingListPanel;
+import com.codinglegion.utils.GitBranchChecker;
+import git4idea.repo.GitRepository;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Action to analyze another branch or a pull request without checking it out
+ * Compares two refs, analyzes the changed Java files from git objects in parallel and lists their
+ * violations in a "Ref Diff" tab; the working tree and the indexes stay untouched
+ */
+public class AnalyzeRefDiffAction extends AnAction {
+    
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+        
+        GitRepository repository = GitBranchChecker.getRepository(project);
+        if (repository == null) {
+            Messages.showErrorDialog(project, "The project root is not a Git repository.", "Ref Diff");
+            return;
+        }
+        
+        CompareRefsDialog dialog = new CompareRefsDialog(project, GitBranchChecker.findBaseBranch(repository), "HEAD");
+        if (!dialog.showAndGet()) {
+            return;
+        }
+        String baseRef = dialog.getBaseRef();
+        String targetRef = dialog.getTargetRef();
+        
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Coding Legion: Analyzing " + targetRef, true) {
+            private RefDiffAnalyzer.Result result;
+            
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                // Blob contents are analyzed with types resolved against the current project
+                DumbService.getInstance(project).waitForSmartMode();
+                
+                RefDiffAnalyzer analyzer = new RefDiffAnalyzer(project, repository, new CodingStandardsAnalyzer(project));
+                int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+                try {
+                    result = analyzer.analyze(baseRef, targetRef, parallelism, indicator);
+                } catch (VcsException ex) {
+                    throw new IllegalStateException(ex.getMessage(), ex);
+                }
+            }
+            
+            @Override
+            public void onSuccess() {
+                FindingListPanel panel = new FindingListPanel(project, "Change",
+                    finding -> ((IntroducedFinding) finding).getCommit() != null ? "New" : "Existing");
+                panel.setFindings(result.getFindings(), String.format(
+                    "%s vs %s (merge-base %s): %d violation(s) in %d changed file(s), %d new.",
+                    targetRef, baseRef, result.getMergeBase().substring(0, 8), result.getFindings().size(),
+                    result.getFilesAnalyzed(), result.getIntroducedCount()));
+                panel.showInToolWindow("Ref Diff");
+            }
+            
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(project, "Ref diff analysis failed:\n\n" + error.getMessage(), "Ref Diff");
+            }
+        });
+    }
+}
@@ -0,0 +1,184 @@
+package com.codinglegion.actions;
+
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.analysis.BaseAnalysisAction;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.codinglegion.analyzer.AnalysisConfig;
+import com.codinglegion.analyzer.CodingStandardsAnalyzer;
+import com.codinglegion.analyzer.StageStats;
+import com.codinglegion.baseline.ViolationBaselineService;
+import com.codinglegion.index.TriggerCandidateIndex;
+import com.codinglegion.model.Violation;
+import com.codinglegion.settings.CodingLegionSettings;
+import com.codinglegion.ui.ViolationTreePanel;
+import com.codinglegion.utils.ProjectFileCollector;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Action to run the analysis over a whole scope instead of the branch changes
+ * The scope (project, module, directory or custom scope) is picked in the platform scope dialog;
+ * test sources, generated sources and excluded roots are skipped
+ *
+ * Files are sharded by module and the shards analyzed in parallel; the tool window shows the
+ * violations found so far as shards finish, at most once per second
+ */
+public class AnalyzeScopeAction extends BaseAnalysisAction {
+    
+    /**
+     * Modules with more files than this are split into several shards to keep the workers balanced
+     */
+    private static final int MAX_SHARD_SIZE = 200;
+    
+    /**
+     * Minimum time between two partial updates of the tool window; small shards finish faster than the
+     * results can be copied and shown
+     */
+    private static final long PARTIAL_UPDATE_INTERVAL_MS = 1000;
+    
+    public AnalyzeScopeAction() {
+        super("Coding Legion Scope Analysis", "Coding Legion");
+    }
+    
+    @Override
+    protected void analyze(@NotNull Project project, @NotNull AnalysisScope scope) {
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project)
+            .getToolWindow("Coding Legion");
+        
+        if (toolWindow != null) {
+            toolWindow.show(() -> {});
+        }
+        
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Coding Legion: Analyzing " + scope.getDisplayName(), true) {
+            private final AnalysisConfig config = AnalysisConfig.fromSettings(CodingLegionSettings.getInstance());
+            private final boolean quickScanFirst = CodingLegionSettings.getInstance().quickScanFirst;
+            private List<VirtualFile> scopeFiles;
+            private List<Violation> violations;
+            private int baselined;
+            private boolean deferred;
+            private StageStats stageStats;
+            
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                indicator.setText("Collecting files of " + scope.getDisplayName() + "...");
+                
+                // While indexing, only the syntactic checks run now; the others follow in smart mode
+                deferred = DeferredAnalysis.mustDefer(project, config);
+                CodingStandardsAnalyzer analyzer = new CodingStandardsAnalyzer(project, deferred ? config.syntacticTier() : config);
+                scopeFiles = ProjectFileCollector.getScopeJavaFiles(project, scope);
+                List<VirtualFile> files = TriggerCandidateIndex.filterCandidates(project, scopeFiles, analyzer.getDetectors());
+                List<List<VirtualFile>> shards = ProjectFileCollector.shardByModule(project, files, MAX_SHARD_SIZE);
+                
+                ViolationBaselineService baselineService = ViolationBaselineService.getInstance(project);
+                baselineService.reload();
+                
+                // Quick scan findings stand in for a file until its shard is done
+                List<Violation> quickViolations = quickScanFirst && !deferred
+                    ? QuickScan.run(project, config, files, indicator)
+                    : new ArrayList<>();
+                if (!quickViolations.isEmpty()) {
+                    QuickScan.show(project, quickViolations);
+                }
+                Set<VirtualFile> doneFiles = new HashSet<>();
+                
+                List<Violation> newViolations = new ArrayList<>();
+                int[] baselinedCount = {0};
+                
+                indicator.setIndeterminate(false);
+                indicator.setText(String.format("Analyzing %d of %d file(s) in %d shard(s)...",
+                    files.size(), scopeFiles.size(), shards.size()));
+                
+                // The results so far are only copied when they are actually shown
+                PartialResultThrottle partialResults = new PartialResultThrottle(PARTIAL_UPDATE_INTERVAL_MS, () -> {
+                    List<Violation> snapshot;
+                    int snapshotBaselined;
+                    synchronized (newViolations) {
+                        snapshot = new ArrayList<>(newViolations);
+                        for (Violation violation : quickViolations) {
+                            if (!doneFiles.contains(violation.getFile().getVirtualFile())) {
+                                snapshot.add(violation);
+                            }
+                        }
+                        snapshotBaselined = baselinedCount[0];
+                    }
+                    showPartial(project, snapshot, snapshotBaselined);
+                });
+                
+                int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+                try {
+                    analyzer.analyzeShardsInParallel(shards, parallelism, indicator, (shard, shardViolations) -> {
+                        List<Violation> shardNew = baselineService.filterNew(shardViolations);
+                        synchronized (newViolations) {
+                            newViolations.addAll(shardNew);
+                            baselinedCount[0] += shardViolations.size() - shardNew.size();
+                            doneFiles.addAll(shard);
+                        }
+                        partialResults.changed();
+                    });
+                } finally {
+                    // The final results are shown by onSuccess
+                    partialResults.finish();
+                }
+                
+                indicator.checkCanceled();
+                violations = newViolations;
+                baselined = baselinedCount[0];
+                stageStats = analyzer.getStageStats();
+                
+                indicator.setText("Analysis complete");
+            }
+            
+            @Override
+            public void onSuccess() {
+                RunStatistics.report(project, deferred ? scope.getDisplayName() + ", syntactic checks" : scope.getDisplayName(),
+                    stageStats);
+                if (deferred) {
+                    // All scope files: the index tier filters them by its own detectors' triggers
+                    DeferredAnalysis.runWhenSmart(project, config, scopeFiles, violations, baselined);
+                    return;
+                }
+                ViolationTreePanel panel = project.getUserData(ViolationTreePanel.KEY);
+                if (panel != null) {
+                    panel.updateViolations(violations, baselined);
+                }
+            }
+            
+            @Override
+            public void onCancel() {
+                ViolationTreePanel panel = project.getUserData(ViolationTreePanel.KEY);
+                if (panel != null) {
+                    panel.showError("Analysis was cancelled by user");
+                }
+            }
+            
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                ViolationTreePanel panel = project.getUserData(ViolationTreePanel.KEY);
+                if (panel != null) {
+                    panel.showError("Analysis failed: " + error.getMessage());
+                }
+            }
+        });
+    }
+    
+    private void showPartial(Project project, List<Violation> violations, int baselined) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            ViolationTreePanel panel = project.getUserData(ViolationTreePanel.KEY);
+            if (panel != null) {
+                panel.showPartialViolations(violations, baselined);
+            }
+        });
+    }
+}
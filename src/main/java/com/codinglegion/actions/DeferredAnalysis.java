@@ -0,0 +1,109 @@
+package com.codinglegion.actions;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.codinglegion.analyzer.AnalysisConfig;
+import com.codinglegion.analyzer.CodingStandardsAnalyzer;
+import com.codinglegion.analyzer.StageStats;
+import com.codinglegion.baseline.ViolationBaselineService;
+import com.codinglegion.index.TriggerCandidateIndex;
+import com.codinglegion.model.Violation;
+import com.codinglegion.ui.ViolationTreePanel;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Second half of a run started while the IDE was indexing
+ * Only the syntactic detectors ran then; once indexing finishes, the detectors that need resolved types
+ * run on the same files and the tool window shows both results as one run
+ */
+final class DeferredAnalysis {
+    
+    private DeferredAnalysis() {
+    }
+    
+    /**
+     * Whether a run with this configuration has to leave its index-dependent detectors for later
+     */
+    static boolean mustDefer(Project project, AnalysisConfig config) {
+        return DumbService.isDumb(project) && config.needsIndex();
+    }
+    
+    /**
+     * Show the syntactic results as partial and run the index tier of the configuration as soon as
+     * the IDE is in smart mode again
+     *
+     * @param syntacticViolations violations of the syntactic tier, baseline already applied
+     * @param baselined syntactic violations hidden by the baseline
+     */
+    static void runWhenSmart(Project project, AnalysisConfig config, List<VirtualFile> files,
+                             List<Violation> syntacticViolations, int baselined) {
+        ViolationTreePanel panel = project.getUserData(ViolationTreePanel.KEY);
+        if (panel != null) {
+            panel.showPartialViolations(syntacticViolations, baselined);
+        }
+        
+        DumbService.getInstance(project).runWhenSmart(() ->
+            ProgressManager.getInstance().run(new Task.Backgroundable(project, "Coding Legion: Running Type-Based Checks", true) {
+                private List<Violation> violations;
+                private int totalBaselined;
+                private StageStats stageStats;
+                
+                @Override
+                public void run(@NotNull ProgressIndicator indicator) {
+                    indicator.setIndeterminate(false);
+                    indicator.setText("Indexing finished, running type-based checks...");
+                    
+                    CodingStandardsAnalyzer analyzer = new CodingStandardsAnalyzer(project, config.indexTier());
+                    List<VirtualFile> candidates = TriggerCandidateIndex.filterCandidates(project, files, analyzer.getDetectors());
+                    int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+                    List<Violation> found = analyzer.analyzeFilesInParallel(candidates, parallelism, indicator);
+                    stageStats = analyzer.getStageStats();
+                    
+                    List<Violation> newFound = ViolationBaselineService.getInstance(project).filterNew(found);
+                    violations = new ArrayList<>(syntacticViolations.size() + newFound.size());
+                    for (Violation violation : syntacticViolations) {
+                        // The files may have been edited while the index tier waited
+                        if (violation.getElement().isValid()) {
+                            violations.add(violation);
+                        }
+                    }
+                    violations.addAll(newFound);
+                    totalBaselined = baselined + found.size() - newFound.size();
+                    
+                    indicator.setText("Analysis complete");
+                }
+                
+                @Override
+                public void onSuccess() {
+                    ViolationTreePanel panel = project.getUserData(ViolationTreePanel.KEY);
+                    if (panel != null) {
+                        panel.updateViolations(violations, totalBaselined);
+                    }
+                    RunStatistics.report(project, "type-based checks after indexing", stageStats);
+                }
+                
+                @Override
+                public void onCancel() {
+                    ViolationTreePanel panel = project.getUserData(ViolationTreePanel.KEY);
+                    if (panel != null) {
+                        panel.showError("Type-based checks were cancelled by user");
+                    }
+                }
+                
+                @Override
+                public void onThrowable(@NotNull Throwable error) {
+                    ViolationTreePanel panel = project.getUserData(ViolationTreePanel.KEY);
+                    if (panel != null) {
+                        panel.showError("Type-based checks failed: " + error.getMessage());
+                    }
+                }
+            }));
+    }
+}
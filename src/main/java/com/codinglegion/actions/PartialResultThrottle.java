@@ -0,0 +1,67 @@
+package com.codinglegion.actions;
+
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how often the results of a running analysis are published to the tool window
+ * A change within the interval after the last publication is not dropped: it is coalesced with any
+ * further changes into one publication when the interval has passed
+ */
+final class PartialResultThrottle {
+    
+    private final long intervalMillis;
+    private final Runnable publish;
+    private long lastPublished;
+    private ScheduledFuture<?> pending;
+    private boolean finished;
+    
+    /**
+     * @param publish builds the current results and shows them; called on a background thread
+     */
+    PartialResultThrottle(long intervalMillis, Runnable publish) {
+        this.intervalMillis = intervalMillis;
+        this.publish = publish;
+    }
+    
+    /**
+     * The results changed; publish them now or with the pending publication
+     */
+    synchronized void changed() {
+        if (finished || pending != null) {
+            return;
+        }
+        long wait = lastPublished + intervalMillis - System.currentTimeMillis();
+        if (wait <= 0) {
+            publishNow();
+        } else {
+            pending = AppExecutorUtil.getAppScheduledExecutorService()
+                .schedule(this::publishPending, wait, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Stop publishing; the caller shows the final results itself
+     */
+    synchronized void finish() {
+        finished = true;
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+    
+    private synchronized void publishPending() {
+        pending = null;
+        if (!finished) {
+            publishNow();
+        }
+    }
+    
+    private void publishNow() {
+        lastPublished = System.currentTimeMillis();
+        publish.run();
+    }
+}
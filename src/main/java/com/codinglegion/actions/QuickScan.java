@@ -0,0 +1,51 @@
+package com.codinglegion.actions;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.codinglegion.analyzer.AnalysisConfig;
+import com.codinglegion.analyzer.CodingStandardsAnalyzer;
+import com.codinglegion.baseline.ViolationBaselineService;
+import com.codinglegion.model.Violation;
+import com.codinglegion.ui.ViolationTreePanel;
+
+import java.util.List;
+
+/**
+ * First, resolve-free pass of a run with "Show quick scan results first" enabled
+ * Its findings are shown at once as a partial run, marked QUICK; the full pass that follows replaces
+ * them, confirming the ones it finds again and dropping the rest
+ */
+final class QuickScan {
+    
+    /**
+     * Latency target of the quick scan; files not reached by then only show up with the full pass
+     */
+    static final long BUDGET_MILLIS = 250;
+    
+    private QuickScan() {
+    }
+    
+    /**
+     * Quick scan findings of the files not hidden by the baseline
+     */
+    static List<Violation> run(Project project, AnalysisConfig config, List<VirtualFile> files, ProgressIndicator indicator) {
+        indicator.setText("Quick scan...");
+        CodingStandardsAnalyzer analyzer = new CodingStandardsAnalyzer(project, config.quickScan());
+        List<Violation> found = analyzer.analyzeFilesWithin(files, BUDGET_MILLIS, indicator);
+        return ViolationBaselineService.getInstance(project).filterNew(found);
+    }
+    
+    /**
+     * Show quick scan findings as the partial state of the current run
+     */
+    static void show(Project project, List<Violation> violations) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            ViolationTreePanel panel = project.getUserData(ViolationTreePanel.KEY);
+            if (panel != null) {
+                panel.showPartialViolations(violations, 0);
+            }
+        });
+    }
+}
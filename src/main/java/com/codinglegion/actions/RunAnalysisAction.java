@@ -10,8 +10,12 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowManager;
+import com.codinglegion.analyzer.AnalysisConfig;
 import com.codinglegion.analyzer.CodingStandardsAnalyzer;
+import com.codinglegion.analyzer.StageStats;
+import com.codinglegion.baseline.ViolationBaselineService;
 import com.codinglegion.model.Violation;
+import com.codinglegion.settings.CodingLegionSettings;
 import com.codinglegion.ui.ViolationTreePanel;
 import com.codinglegion.utils.GitBranchChecker;
 import org.jetbrains.annotations.NotNull;
@@ -82,24 +86,51 @@ public class RunAnalysisAction extends AnAction {
         
         // Run analysis in background
         ProgressManager.getInstance().run(new Task.Backgroundable(project, "Coding Legion: Analyzing Files", true) {
+            private final AnalysisConfig config = AnalysisConfig.fromSettings(CodingLegionSettings.getInstance());
+            private final boolean quickScanFirst = CodingLegionSettings.getInstance().quickScanFirst;
             private List<Violation> violations;
+            private int baselined;
+            private boolean deferred;
+            private StageStats stageStats;
             
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
                 indicator.setIndeterminate(false);
                 indicator.setText("Initializing Coding Legion...");
                 
-                CodingStandardsAnalyzer analyzer = new CodingStandardsAnalyzer(project);
+                // Re-read the baseline each run; it may have changed with a VCS update
+                ViolationBaselineService baselineService = ViolationBaselineService.getInstance(project);
+                baselineService.reload();
                 
-                indicator.setText(String.format("Analyzing %d changed file(s)...", changedFiles.size()));
-                violations = analyzer.analyzeFiles(changedFiles, indicator);
+                // While indexing, only the syntactic checks run now; the others follow in smart mode
+                deferred = DeferredAnalysis.mustDefer(project, config);
+                CodingStandardsAnalyzer analyzer = new CodingStandardsAnalyzer(project, deferred ? config.syntacticTier() : config);
+                
+                // The syntactic tier already gives early results while indexing
+                if (quickScanFirst && !deferred) {
+                    QuickScan.show(project, QuickScan.run(project, config, changedFiles, indicator));
+                }
+                
+                indicator.setText(String.format(deferred
+                    ? "Indexing in progress, running syntactic checks on %d changed file(s)..."
+                    : "Analyzing %d changed file(s)...", changedFiles.size()));
+                List<Violation> allViolations = analyzer.analyzeFiles(changedFiles, indicator);
+                stageStats = analyzer.getStageStats();
+                
+                violations = baselineService.filterNew(allViolations);
+                baselined = allViolations.size() - violations.size();
                 
                 indicator.setText("Analysis complete");
             }
             
             @Override
             public void onSuccess() {
-                updateUI(project, violations, changedFiles.size());
+                if (deferred) {
+                    DeferredAnalysis.runWhenSmart(project, config, changedFiles, violations, baselined);
+                } else {
+                    updateUI(project, violations, baselined);
+                }
+                RunStatistics.report(project, deferred ? "changed files, syntactic checks" : "changed files", stageStats);
             }
             
             @Override
@@ -126,11 +157,11 @@ public class RunAnalysisAction extends AnAction {
         });
     }
     
-    private void updateUI(Project project, List<Violation> violations, int fileCount) {
+    private void updateUI(Project project, List<Violation> violations, int baselined) {
         ApplicationManager.getApplication().invokeLater(() -> {
             ViolationTreePanel panel = project.getUserData(ViolationTreePanel.KEY);
             if (panel != null) {
-                panel.updateViolations(violations);
+                panel.updateViolations(violations, baselined);
             }
             
             // No dialog boxes - just update the tabs silently for all cases
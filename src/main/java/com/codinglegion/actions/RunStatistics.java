@@ -0,0 +1,35 @@
+package com.codinglegion.actions;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.StatusBar;
+import com.codinglegion.analyzer.StageStats;
+
+/**
+ * Reports the {@link StageStats} of a finished run: all counters are logged to idea.log, and the method
+ * cache reuse and resolves are shown in the status bar, so a slow re-run can be told apart from one that
+ * could not use the method cache or had to resolve more candidates
+ */
+final class RunStatistics {
+    
+    private static final Logger LOG = Logger.getInstance(RunStatistics.class);
+    
+    private RunStatistics() {
+    }
+    
+    /**
+     * Called on the EDT once the run's results are shown
+     *
+     * @param run short description of the run, e.g. "changed files"
+     */
+    static void report(Project project, String run, StageStats stats) {
+        LOG.info(String.format("Coding Legion (%s): %s", run, stats));
+        long methods = stats.getReusedMethods() + stats.getAnalyzedMethods();
+        if (methods > 0 && !project.isDisposed()) {
+            StatusBar.Info.set(String.format("Coding Legion: reused results of %d of %d method(s); " +
+                    "%d candidate(s) rejected before resolve, %d resolve(s) (+%d memoized)",
+                stats.getReusedMethods(), methods, stats.getRejectedBeforeResolve(),
+                stats.getResolves(), stats.getMemoizedResolves()), project);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.codinglegion.analyzer;
+
+import com.codinglegion.analyzer.detectors.*;
+import com.codinglegion.core.rules.CoreRuleConfig;
+import com.codinglegion.model.ViolationType;
+import com.codinglegion.settings.CodingLegionSettings;
+import com.intellij.openapi.project.DumbService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the settings for one analysis run
+ * Taken once when the run starts, so detectors never read the settings service while
+ * traversing files and a settings change mid-run cannot mix two configurations
+ */
+public final class AnalysisConfig {
+    
+    private final CoreRuleConfig rules;
+    private final List<ViolationDetector> detectors;
+    private final boolean quickScan;
+    private final boolean tier;
+    
+    private AnalysisConfig(CoreRuleConfig rules) {
+        this(rules, createDetectors(rules), false, false);
+    }
+    
+    private AnalysisConfig(CoreRuleConfig rules, List<ViolationDetector> detectors, boolean quickScan, boolean tier) {
+        this.rules = rules;
+        this.detectors = Collections.unmodifiableList(detectors);
+        this.quickScan = quickScan;
+        this.tier = tier;
+    }
+    
+    /**
+     * Snapshot of the current settings
+     */
+    public static AnalysisConfig fromSettings(CodingLegionSettings settings) {
+        Set<ViolationType> enabled = EnumSet.noneOf(ViolationType.class);
+        if (settings.enableStringEqualsCheck) {
+            enabled.add(ViolationType.STRING_EQUALS);
+        }
+        if (settings.enableStringEmptyCheck) {
+            enabled.add(ViolationType.STRING_EMPTY_CHECK);
+        }
+        if (settings.enableCollectionCheck) {
+            enabled.add(ViolationType.COLLECTION_NULL_CHECK);
+            enabled.add(ViolationType.COLLECTION_SIZE_CHECK);
+        }
+        if (settings.enableTernaryNullDefaultCheck) {
+            enabled.add(ViolationType.TERNARY_NULL_DEFAULT);
+        }
+        if (settings.enableBooleanUnboxingCheck) {
+            enabled.add(ViolationType.BOOLEAN_UNBOXING);
+        }
+        if (settings.enableLogNullDereferenceCheck) {
+            enabled.add(ViolationType.LOG_NULL_DEREFERENCE);
+        }
+        if (settings.enableDtoInitializationCheck) {
+            enabled.add(ViolationType.DTO_INITIALIZATION_CHECK);
+        }
+        if (settings.enableNullInContextCheck) {
+            enabled.add(ViolationType.NULL_VALUE_IN_CONTEXT);
+        }
+        if (settings.enableNullInMapCheck) {
+            enabled.add(ViolationType.NULL_VALUE_IN_MAP);
+        }
+        
+        return new AnalysisConfig(new CoreRuleConfig(enabled, settings.utilityBeanPatterns, settings.contextBaseTypes));
+    }
+    
+    /**
+     * One instance of every detector, whatever the settings (for indexing)
+     */
+    public static List<ViolationDetector> allDetectors() {
+        return createDetectors(CoreRuleConfig.allRules());
+    }
+    
+    /**
+     * One detector per enabled rule group; detectors are stateless and shared by all files of the run
+     */
+    private static List<ViolationDetector> createDetectors(CoreRuleConfig rules) {
+        List<ViolationDetector> detectors = new ArrayList<>();
+        
+        if (rules.isEnabled(ViolationType.STRING_EQUALS)) {
+            detectors.add(new StringEqualsDetector());
+        }
+        if (rules.isEnabled(ViolationType.STRING_EMPTY_CHECK)) {
+            detectors.add(new StringEmptyCheckDetector());
+        }
+        if (rules.isEnabled(ViolationType.COLLECTION_NULL_CHECK) || rules.isEnabled(ViolationType.COLLECTION_SIZE_CHECK)) {
+            detectors.add(new CollectionCheckDetector());
+        }
+        if (rules.isEnabled(ViolationType.TERNARY_NULL_DEFAULT)) {
+            detectors.add(new TernaryNullCheckDetector());
+        }
+        if (rules.isEnabled(ViolationType.BOOLEAN_UNBOXING)) {
+            detectors.add(new BooleanUnboxingDetector());
+        }
+        if (rules.isEnabled(ViolationType.LOG_NULL_DEREFERENCE)) {
+            detectors.add(new LogNullDereferenceDetector());
+        }
+        if (rules.isEnabled(ViolationType.DTO_INITIALIZATION_CHECK)) {
+            detectors.add(new DtoInitializationCheckDetector());
+        }
+        if (rules.isEnabled(ViolationType.NULL_VALUE_IN_CONTEXT) || rules.isEnabled(ViolationType.NULL_VALUE_IN_MAP)) {
+            detectors.add(new NullValueInContextDetector());
+        }
+        
+        return detectors;
+    }
+    
+    /**
+     * Enabled rules, compiled utility bean patterns and context base types
+     */
+    public CoreRuleConfig getRules() {
+        return rules;
+    }
+    
+    public List<ViolationDetector> getDetectors() {
+        return detectors;
+    }
+    
+    /**
+     * Same rules with only the syntactic detectors, which can run while the IDE is indexing
+     * Syntactic detectors implement {@link com.intellij.openapi.project.DumbAware}
+     */
+    public AnalysisConfig syntacticTier() {
+        return withDetectors(true);
+    }
+    
+    /**
+     * Same rules with only the detectors that need resolved types or references (and so smart mode)
+     */
+    public AnalysisConfig indexTier() {
+        return withDetectors(false);
+    }
+    
+    /**
+     * Whether any detector needs the indexes, i.e. the run cannot be completed in dumb mode
+     */
+    public boolean needsIndex() {
+        if (quickScan) {
+            return false;
+        }
+        for (ViolationDetector detector : detectors) {
+            if (!DumbService.isDumbAware(detector)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private AnalysisConfig withDetectors(boolean dumbAware) {
+        List<ViolationDetector> tier = new ArrayList<>();
+        for (ViolationDetector detector : detectors) {
+            if (DumbService.isDumbAware(detector) == dumbAware) {
+                tier.add(detector);
+            }
+        }
+        return new AnalysisConfig(rules, tier, quickScan, true);
+    }
+    
+    /**
+     * Same rules and detectors, matching only rule shapes that need no types or resolves
+     * Syntactic detectors run in full; the others report {@link ViolationDetector#detectShape} matches,
+     * marked provisional until a full run confirms them
+     */
+    public AnalysisConfig quickScan() {
+        return new AnalysisConfig(rules, detectors, true, tier);
+    }
+    
+    public boolean isQuickScan() {
+        return quickScan;
+    }
+    
+    /**
+     * Whether a run with this configuration does the full work of a file: all enabled detectors, no quick scan
+     * Only such runs are comparable with each other, e.g. for {@link FileCostService}
+     */
+    public boolean isComplete() {
+        return !quickScan && !tier;
+    }
+    
+    /**
+     * Whether the qualifier name matches a utility bean pattern (assumed non-null by the log rule)
+     */
+    public boolean isUtilityBean(String qualifierName) {
+        return rules.isUtilityBean(qualifierName);
+    }
+}
@@ -1,16 +1,35 @@
 package com.codinglegion.analyzer;
 
+import com.intellij.ide.highlighter.JavaFileType;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
-import com.codinglegion.analyzer.detectors.*;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.codinglegion.core.cost.FileCostTable;
+import com.codinglegion.core.rules.DuplicateStats;
+import com.codinglegion.core.rules.FindingDeduplicator;
 import com.codinglegion.model.Violation;
 import com.codinglegion.settings.CodingLegionSettings;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 /**
  * Main analyzer class for Coding Legion
@@ -18,94 +37,290 @@ import java.util.List;
  */
 public class CodingStandardsAnalyzer {
     
+    /**
+     * Files loaded and parsed ahead of the sequential analysis; bounds the parsed trees held in memory
+     */
+    private static final int PREFETCH_DEPTH = 8;
+    
+    private final AnalysisConfig config;
     private final List<ViolationDetector> detectors;
+    private final TokenPrefilter prefilter;
+    private final MethodResultCache methodCache;
     private final Project project;
+    private final TypeClassifier typeClassifier;
+    private final DtoClassCache dtoClassCache;
+    private final DuplicateStats duplicateStats = new DuplicateStats();
+    private final StageStats stageStats = new StageStats();
+    private final FileCostService costService;
+    private final List<FileCostTable.Regression> costRegressions = Collections.synchronizedList(new ArrayList<>());
     
+    /**
+     * Analyzer for one run with a snapshot of the current settings
+     */
     public CodingStandardsAnalyzer(Project project) {
+        this(project, AnalysisConfig.fromSettings(CodingLegionSettings.getInstance()));
+    }
+    
+    public CodingStandardsAnalyzer(Project project, AnalysisConfig config) {
         this.project = project;
-        this.detectors = initializeDetectors();
+        this.config = config;
+        this.detectors = config.getDetectors();
+        this.prefilter = new TokenPrefilter(detectors);
+        // Quick scan findings are provisional and never cached
+        this.methodCache = config.isQuickScan() ? null : new MethodResultCache(project, config);
+        // Quick scans and detector tiers do part of the work, so their times are not comparable
+        this.costService = config.isComplete() ? FileCostService.getInstance(project) : null;
+        this.typeClassifier = TypeClassifier.getInstance(project);
+        this.dtoClassCache = DtoClassCache.getInstance(project);
     }
     
     /**
-     * Initialize all violation detectors
-     * Only includes enabled detectors based on user settings
+     * Analyze a list of files and return all violations found
+     * Open and recently edited files are analyzed first (see {@link FileScheduler})
+     * Upcoming files are loaded and parsed in the background while the current one is analyzed
+     * (see {@link ContentPrefetcher})
      */
-    private List<ViolationDetector> initializeDetectors() {
-        CodingLegionSettings settings = CodingLegionSettings.getInstance();
-        List<ViolationDetector> detectors = new ArrayList<>();
+    public List<Violation> analyzeFiles(List<VirtualFile> files, ProgressIndicator indicator) {
+        List<Violation> allViolations = new ArrayList<>();
         
-        if (settings.enableStringEqualsCheck) {
-            detectors.add(new StringEqualsDetector());
-        }
-        if (settings.enableStringEmptyCheck) {
-            detectors.add(new StringEmptyCheckDetector());
-        }
-        if (settings.enableCollectionCheck) {
-            detectors.add(new CollectionCheckDetector());
-        }
-        if (settings.enableTernaryNullDefaultCheck) {
-            detectors.add(new TernaryNullCheckDetector());
-        }
-        if (settings.enableBooleanUnboxingCheck) {
-            detectors.add(new BooleanUnboxingDetector());
-        }
-        if (settings.enableLogNullDereferenceCheck) {
-            detectors.add(new LogNullDereferenceDetector());
-        }
-        if (settings.enableDtoInitializationCheck) {
-            detectors.add(new DtoInitializationCheckDetector());
-        }
-        if (settings.enableNullInContextCheck || settings.enableNullInMapCheck) {
-            detectors.add(new NullValueInContextDetector());
+        int fileCount = files.size();
+        int currentFile = 0;
+        
+        List<VirtualFile> scheduled = FileScheduler.forProject(project).schedule(files);
+        try (ContentPrefetcher prefetcher = new ContentPrefetcher(project, scheduled, PREFETCH_DEPTH)) {
+            ContentPrefetcher.Prefetched next;
+            while ((next = prefetcher.next()) != null) {
+                VirtualFile file = next.getFile();
+                currentFile++;
+                
+                if (indicator != null) {
+                    indicator.setFraction((double) currentFile / fileCount);
+                    indicator.setText("Analyzing " + file.getName() + " (" + currentFile + "/" + fileCount + ")");
+                    
+                    if (indicator.isCanceled()) {
+                        break;
+                    }
+                }
+                
+                allViolations.addAll(analyzeVirtualFile(file, next.getPsiFile(), next.getPrepareNanos(), indicator));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Analysis was interrupted", e);
+        } finally {
+            saveCosts();
         }
         
-        return detectors;
+        return allViolations;
     }
     
     /**
-     * Analyze a list of files and return all violations found
+     * Analyze files in schedule order until the time budget is spent; files not reached by then are left out
+     * Meant for the quick scan, whose results are replaced by a full run anyway; the budget goes to the
+     * open and recently edited files first
      */
-    public List<Violation> analyzeFiles(List<VirtualFile> files, ProgressIndicator indicator) {
+    public List<Violation> analyzeFilesWithin(List<VirtualFile> files, long budgetMillis, ProgressIndicator indicator) {
         List<Violation> allViolations = new ArrayList<>();
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        
+        for (VirtualFile file : FileScheduler.forProject(project).schedule(files)) {
+            if (System.nanoTime() > deadline || (indicator != null && indicator.isCanceled())) {
+                break;
+            }
+            allViolations.addAll(analyzeVirtualFile(file, indicator));
+        }
+        
+        return allViolations;
+    }
+    
+    /**
+     * Analyze a list of files on a bounded pool of worker threads
+     * Each file is analyzed in its own read action. Files are submitted in schedule order (open and
+     * recently edited first, longest first within a tier); results keep the input file order
+     */
+    public List<Violation> analyzeFilesInParallel(List<VirtualFile> files, int parallelism, ProgressIndicator indicator) {
+        if (parallelism <= 1 || files.size() <= 1) {
+            return analyzeFiles(files, indicator);
+        }
+        
+        ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+            "Coding Legion Analysis", parallelism);
         
         int fileCount = files.size();
-        int currentFile = 0;
+        AtomicInteger completed = new AtomicInteger();
+        Map<VirtualFile, Future<List<Violation>>> futures = new HashMap<>();
         
-        for (VirtualFile file : files) {
-            currentFile++;
-            
-            if (indicator != null) {
-                indicator.setFraction((double) currentFile / fileCount);
-                indicator.setText("Analyzing " + file.getName() + " (" + currentFile + "/" + fileCount + ")");
-                
-                if (indicator.isCanceled()) {
-                    break;
-                }
+        try {
+            for (VirtualFile file : FileScheduler.forProject(project).schedule(files)) {
+                futures.put(file, executor.submit(() -> {
+                    if (indicator != null && indicator.isCanceled()) {
+                        return Collections.<Violation>emptyList();
+                    }
+                    
+                    List<Violation> fileViolations = analyzeVirtualFile(file, indicator);
+                    
+                    if (indicator != null) {
+                        indicator.setFraction((double) completed.incrementAndGet() / fileCount);
+                    }
+                    return fileViolations;
+                }));
             }
             
-            // Analyze this file in a read action
-            List<Violation> fileViolations = ReadAction.compute(() -> {
-                PsiManager psiManager = PsiManager.getInstance(project);
-                PsiFile psiFile = psiManager.findFile(file);
-                
-                if (psiFile == null || !(psiFile instanceof PsiJavaFile)) {
-                    return new ArrayList<>();
-                }
-                
-                return analyzeFile(psiFile, indicator);
-            });
-            
-            allViolations.addAll(fileViolations);
+            List<Violation> allViolations = new ArrayList<>();
+            for (VirtualFile file : files) {
+                allViolations.addAll(futures.get(file).get());
+            }
+            return allViolations;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Analysis was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Analysis failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+            saveCosts();
+        }
+    }
+    
+    /**
+     * Analyze shards of files on a bounded pool of worker threads, one shard per task
+     * Files of a shard are analyzed one after another, each in its own read action; the listener
+     * gets each shard and its violations as soon as the shard is done (on a worker thread)
+     *
+     * Open and recently edited files are moved into a leading shard of their own so they are reported
+     * first; the listener gets the shards as scheduled, not as passed in
+     *
+     * @return violations of all shards, in the order the shards finished
+     */
+    public List<Violation> analyzeShardsInParallel(List<List<VirtualFile>> moduleShards, int parallelism,
+                                                   ProgressIndicator indicator,
+                                                   BiConsumer<List<VirtualFile>, List<Violation>> shardListener) {
+        List<List<VirtualFile>> shards = FileScheduler.forProject(project).scheduleShards(moduleShards);
+        ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+            "Coding Legion Scope Analysis", Math.max(1, parallelism));
+        CompletionService<List<Violation>> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<List<Violation>>, List<VirtualFile>> shardOf = new HashMap<>();
+        
+        int fileCount = 0;
+        for (List<VirtualFile> shard : shards) {
+            fileCount += shard.size();
         }
+        int totalFiles = fileCount;
+        AtomicInteger completed = new AtomicInteger();
         
-        return allViolations;
+        try {
+            for (List<VirtualFile> shard : shards) {
+                shardOf.put(completion.submit(() -> {
+                    List<Violation> shardViolations = new ArrayList<>();
+                    for (VirtualFile file : shard) {
+                        if (indicator != null && indicator.isCanceled()) {
+                            break;
+                        }
+                        shardViolations.addAll(analyzeVirtualFile(file, indicator));
+                        if (indicator != null) {
+                            indicator.setFraction((double) completed.incrementAndGet() / totalFiles);
+                        }
+                    }
+                    return shardViolations;
+                }), shard);
+            }
+            
+            List<Violation> allViolations = new ArrayList<>();
+            for (int i = 0; i < shards.size(); i++) {
+                Future<List<Violation>> done = completion.take();
+                List<Violation> shardViolations = done.get();
+                allViolations.addAll(shardViolations);
+                shardListener.accept(shardOf.get(done), shardViolations);
+            }
+            return allViolations;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Analysis was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Analysis failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+            saveCosts();
+        }
+    }
+    
+    /**
+     * Analyze file content that is not part of the project (e.g. a git blob) as a light in-memory file
+     * Nothing is written to the VFS or the indexes; the file name only names the file of the violations
+     */
+    public List<Violation> analyzeText(String fileName, CharSequence text, ProgressIndicator indicator) {
+        return ReadAction.compute(() -> {
+            PsiFile psiFile = PsiFileFactory.getInstance(project).createFileFromText(fileName, JavaFileType.INSTANCE, text);
+            if (!(psiFile instanceof PsiJavaFile)) {
+                return new ArrayList<>();
+            }
+            return analyzeFile((PsiJavaFile) psiFile, indicator, new FileVisit());
+        });
+    }
+    
+    private List<Violation> analyzeVirtualFile(VirtualFile file, ProgressIndicator indicator) {
+        return analyzeVirtualFile(file, null, 0, indicator);
+    }
+    
+    /**
+     * Analyze one virtual file in a read action, on the PSI prepared by the {@link ContentPrefetcher}
+     * if there is one and it is still valid
+     * Returns an empty list for files that are not Java sources
+     * The cost of a complete analysis (no reused methods, not cancelled), loading and parsing included,
+     * is recorded for scheduling
+     */
+    private List<Violation> analyzeVirtualFile(VirtualFile file, @Nullable PsiJavaFile prepared, long prepareNanos,
+                                               ProgressIndicator indicator) {
+        return ReadAction.compute(() -> {
+            if (!file.isValid()) {
+                return new ArrayList<>();
+            }
+            
+            long start = System.nanoTime();
+            boolean usePrepared = prepared != null && prepared.isValid();
+            PsiFile psiFile = usePrepared ? prepared : PsiManager.getInstance(project).findFile(file);
+            
+            if (psiFile == null || !(psiFile instanceof PsiJavaFile)) {
+                return new ArrayList<>();
+            }
+            
+            FileVisit visit = new FileVisit();
+            List<Violation> violations = analyzeFile((PsiJavaFile) psiFile, indicator, visit);
+            long nanos = System.nanoTime() - start + (usePrepared ? prepareNanos : 0);
+            
+            if (costService != null && !visit.reusedMethods && (indicator == null || !indicator.isCanceled())) {
+                FileCostTable.Regression regression = costService.record(file, nanos, visit.nodes);
+                if (regression != null) {
+                    costRegressions.add(regression);
+                }
+            }
+            return violations;
+        });
     }
     
     /**
      * Analyze a single file
+     * The file text is lexed first: files and methods without any detector's trigger tokens are not
+     * visited, and each method is visited only with the detectors that can fire in it
+     * Methods unchanged since an earlier run reuse their violations (see {@link MethodResultCache})
+     * Detectors share one {@link FileAnalysisContext}, which tracks the enclosing class and method
+     * Overlapping findings of one rule family are merged as they are produced
      */
-    private List<Violation> analyzeFile(PsiFile psiFile, ProgressIndicator indicator) {
-        List<Violation> violations = new ArrayList<>();
+    private List<Violation> analyzeFile(PsiJavaFile psiFile, ProgressIndicator indicator, FileVisit visit) {
+        CharSequence text = psiFile.getViewProvider().getContents();
+        TokenPrefilter.Triggers triggers = prefilter.scan(text, psiFile.getLanguageLevel());
+        List<ViolationDetector> fileDetectors = triggers.detectorsIn(0, Integer.MAX_VALUE);
+        if (fileDetectors.isEmpty()) {
+            stageStats.recordSkippedFile();
+            return new ArrayList<>();
+        }
+        
+        FindingDeduplicator<Violation> deduplicator = new FindingDeduplicator<>(duplicateStats);
+        FileAnalysisContext context = new FileAnalysisContext(psiFile, config, typeClassifier, dtoClassCache, stageStats);
+        Deque<List<ViolationDetector>> activeDetectors = new ArrayDeque<>();
+        activeDetectors.push(fileDetectors);
+        // Violations of each method being visited, innermost first, stored in the method cache on exit
+        Deque<List<Violation>> methodViolations = new ArrayDeque<>();
         
         // Visit all elements in the file
         psiFile.accept(new PsiRecursiveElementVisitor() {
@@ -114,19 +329,113 @@ public class CodingStandardsAnalyzer {
                 if (indicator != null && indicator.isCanceled()) {
                     return;
                 }
+                visit.nodes++;
                 
-                // Run all detectors on this element
-                for (ViolationDetector detector : detectors) {
-                    List<Violation> detected = detector.detect(element);
-                    violations.addAll(detected);
+                boolean method = element instanceof PsiMethod;
+                boolean cacheable = method && methodCache != null && MethodResultCache.isCacheable((PsiMethod) element);
+                if (method) {
+                    TextRange range = element.getTextRange();
+                    List<ViolationDetector> methodDetectors = triggers.detectorsIn(range.getStartOffset(), range.getEndOffset());
+                    if (methodDetectors.isEmpty()) {
+                        stageStats.recordSkippedMethod();
+                        return;
+                    }
+                    
+                    List<Violation> cached = cacheable ? methodCache.get((PsiMethod) element, text) : null;
+                    if (cacheable) {
+                        stageStats.recordMethodCache(cached != null);
+                    }
+                    if (cached != null) {
+                        visit.reusedMethods = true;
+                        for (Violation violation : cached) {
+                            report(context.relocate(violation));
+                        }
+                        return;
+                    }
+                    
+                    activeDetectors.push(methodDetectors);
+                    methodViolations.push(new ArrayList<>());
                 }
                 
-                // Continue visiting children
-                super.visitElement(element);
+                context.enter(element);
+                try {
+                    // Run the detectors that can fire here on this element
+                    for (ViolationDetector detector : activeDetectors.peek()) {
+                        if (!config.isQuickScan() || DumbService.isDumbAware(detector)) {
+                            for (Violation violation : detector.detect(element, context)) {
+                                report(violation);
+                            }
+                        } else {
+                            for (Violation violation : detector.detectShape(element, context)) {
+                                report(violation.asProvisional());
+                            }
+                        }
+                    }
+                    
+                    // Continue visiting children
+                    super.visitElement(element);
+                } finally {
+                    context.exit(element);
+                    if (method) {
+                        activeDetectors.pop();
+                        List<Violation> found = methodViolations.pop();
+                        if (cacheable && (indicator == null || !indicator.isCanceled())) {
+                            methodCache.put((PsiMethod) element, text, found);
+                        }
+                        if (!methodViolations.isEmpty()) {
+                            methodViolations.peek().addAll(found);
+                        }
+                    }
+                }
+            }
+            
+            private void report(Violation violation) {
+                TextRange range = violation.getElement().getTextRange();
+                deduplicator.offer(violation, range.getStartOffset(), range.getEndOffset());
+                if (!methodViolations.isEmpty()) {
+                    methodViolations.peek().add(violation);
+                }
             }
         });
         
-        return violations;
+        return deduplicator.drain();
+    }
+    
+    /**
+     * Write the costs recorded by this run (no-op for quick scans and tiers)
+     */
+    private void saveCosts() {
+        if (costService != null) {
+            costService.save();
+        }
+    }
+    
+    /**
+     * Files that took more than {@link FileCostService#REGRESSION_THRESHOLD} longer than their average
+     * in this run
+     */
+    public List<FileCostTable.Regression> getCostRegressions() {
+        synchronized (costRegressions) {
+            return new ArrayList<>(costRegressions);
+        }
+    }
+    
+    /**
+     * Overlapping findings dropped so far by this analyzer
+     */
+    public DuplicateStats getDuplicateStats() {
+        return duplicateStats;
+    }
+    
+    /**
+     * Where detector candidates were rejected so far, and how many resolves that left
+     */
+    public StageStats getStageStats() {
+        return stageStats;
+    }
+    
+    public AnalysisConfig getConfig() {
+        return config;
     }
     
     /**
@@ -135,5 +444,12 @@ public class CodingStandardsAnalyzer {
     public List<ViolationDetector> getDetectors() {
         return detectors;
     }
+    
+    /**
+     * What the analysis of one file did, for its cost record
+     */
+    private static final class FileVisit {
+        int nodes;
+        boolean reusedMethods;
+    }
 }
-
@@ -0,0 +1,154 @@
+package com.codinglegion.analyzer;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.impl.source.tree.TreeUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * I/O stage of a sequential analysis: loads, decodes and parses the upcoming files on a pooled thread
+ * while the analysis stage visits the current one, so a cold file (e.g. on a network-mounted home)
+ * does not stall the analysis
+ *
+ * Files are handed out in the given order through a bounded queue; when it is full the prefetch thread
+ * waits, so at most {@code depth} parsed files are held ahead of the analysis. Content is read outside
+ * any read action (a slow disk never blocks write actions); only parsing takes a read action
+ */
+final class ContentPrefetcher implements AutoCloseable {
+    
+    private static final Prefetched END = new Prefetched(null, null, null, 0);
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    
+    private final Project project;
+    private final BlockingQueue<Prefetched> queue;
+    private volatile boolean closed;
+    
+    ContentPrefetcher(Project project, List<VirtualFile> files, int depth) {
+        this.project = project;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, depth));
+        AppExecutorUtil.getAppExecutorService().execute(() -> produce(files));
+    }
+    
+    /**
+     * Next file in order, waiting until it is prepared; null once all files were handed out
+     */
+    Prefetched next() throws InterruptedException {
+        Prefetched next = queue.take();
+        return next == END ? null : next;
+    }
+    
+    /**
+     * Stop prefetching and drop the files not handed out yet
+     */
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+    
+    private void produce(List<VirtualFile> files) {
+        try {
+            for (VirtualFile file : files) {
+                if (closed || !offer(prefetch(file))) {
+                    return;
+                }
+            }
+        } finally {
+            offer(END);
+        }
+    }
+    
+    /**
+     * Wait for room in the queue (backpressure), giving up once the consumer is gone
+     */
+    private boolean offer(Prefetched prefetched) {
+        try {
+            while (!closed) {
+                if (queue.offer(prefetched, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+    
+    /**
+     * A file with its PSI parsed, or without PSI if it could not be prepared here; the analysis stage
+     * then loads it itself
+     */
+    private Prefetched prefetch(VirtualFile file) {
+        try {
+            if (!file.isValid() || file.isDirectory()) {
+                return new Prefetched(file, null, null, 0);
+            }
+            long start = System.nanoTime();
+            // Bytes end up in the VFS content cache, so the parse below does not touch the disk
+            file.contentsToByteArray();
+            
+            return ReadAction.compute(() -> {
+                if (!file.isValid()) {
+                    return new Prefetched(file, null, null, 0);
+                }
+                PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+                if (!(psiFile instanceof PsiJavaFile)) {
+                    return new Prefetched(file, null, null, 0);
+                }
+                // Method bodies are parsed lazily; expand them here rather than during the visit
+                ASTNode tree = psiFile.getNode();
+                TreeUtil.ensureParsed(tree);
+                return new Prefetched(file, (PsiJavaFile) psiFile, tree, System.nanoTime() - start);
+            });
+        } catch (IOException | RuntimeException e) {
+            return new Prefetched(file, null, null, 0);
+        }
+    }
+    
+    /**
+     * A file ready for analysis
+     */
+    static final class Prefetched {
+        private final VirtualFile file;
+        private final PsiJavaFile psiFile;
+        // Keeps the parsed tree reachable until the file is analyzed
+        private final ASTNode tree;
+        private final long prepareNanos;
+        
+        Prefetched(VirtualFile file, PsiJavaFile psiFile, ASTNode tree, long prepareNanos) {
+            this.file = file;
+            this.psiFile = psiFile;
+            this.tree = tree;
+            this.prepareNanos = prepareNanos;
+        }
+        
+        VirtualFile getFile() {
+            return file;
+        }
+        
+        /**
+         * Parsed PSI, or null if the analysis must load the file itself
+         */
+        PsiJavaFile getPsiFile() {
+            return psiFile;
+        }
+        
+        /**
+         * Time spent loading and parsing the file, part of its analysis cost
+         */
+        long getPrepareNanos() {
+            return prepareNanos;
+        }
+    }
+}
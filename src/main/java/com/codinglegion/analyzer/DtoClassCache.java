@@ -0,0 +1,63 @@
+package com.codinglegion.analyzer;
+
+import com.codinglegion.core.rules.NullSafetyRules;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+
+/**
+ * Whether a class is a DTO: declares or inherits isInitialized(String)
+ * The answer is cached on each class (a {@link com.intellij.psi.util.CachedValue}), so a getter
+ * qualifier's class is walked up its supertypes once, not on every call
+ *
+ * Entries are dropped after structural Java changes (classes, methods, signatures), edits inside
+ * method bodies keep them. Only the classes the analysis asks about are computed again afterwards,
+ * so a structural edit costs a supertype walk per DTO-candidate class instead of a project-wide
+ * search of all isInitialized declarations and their inheritors
+ */
+public class DtoClassCache {
+    
+    private final Project project;
+    
+    public DtoClassCache(Project project) {
+        this.project = project;
+    }
+    
+    public static DtoClassCache getInstance(Project project) {
+        return ServiceManager.getService(project, DtoClassCache.class);
+    }
+    
+    /**
+     * Whether the class declares or inherits isInitialized(String)
+     * While indexing the class is checked directly; supertypes may not resolve yet, so the answer
+     * is not cached
+     */
+    public boolean isDtoClass(PsiClass psiClass) {
+        if (DumbService.isDumb(project)) {
+            return hasIsInitializedMethod(psiClass);
+        }
+        return CachedValuesManager.getCachedValue(psiClass, () -> CachedValueProvider.Result.create(
+            hasIsInitializedMethod(psiClass), PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT));
+    }
+    
+    /**
+     * Walks the class and its supertypes
+     */
+    private static boolean hasIsInitializedMethod(PsiClass psiClass) {
+        for (PsiMethod method : psiClass.findMethodsByName(NullSafetyRules.IS_INITIALIZED_METHOD, true)) {
+            if (isInitializedSignature(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean isInitializedSignature(PsiMethod method) {
+        PsiParameter[] params = method.getParameterList().getParameters();
+        return params.length == 1 && NullSafetyRules.isStringType(params[0].getType().getCanonicalText());
+    }
+}
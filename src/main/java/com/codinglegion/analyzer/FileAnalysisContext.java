@@ -0,0 +1,306 @@
+package com.codinglegion.analyzer;
+
+import com.intellij.psi.*;
+import com.codinglegion.core.rules.NullSafetyRules;
+import com.codinglegion.model.Violation;
+import com.codinglegion.model.ViolationType;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State shared by all detectors while one file is traversed
+ * The analyzer keeps the class/method scope stack in step with the visitor, so a violation
+ * no longer walks up the tree for its class name or scans the file text for its line;
+ * expression types are resolved and classified once per expression, whichever detector asks first
+ * (collection / map / context by inheritance, see {@link TypeClassifier}); references and calls
+ * are resolved at most once per file, and detectors report where they rejected a candidate
+ * (see {@link Stage})
+ *
+ * Not thread-safe: one context per file, used by the thread that analyzes it
+ */
+public class FileAnalysisContext {
+    
+    // Above the NullSafetyRules.TYPE_* bits
+    private static final int STRING = 1 << 8;
+    private static final int BOOLEAN_WRAPPER = 1 << 9;
+    
+    private static final ExpressionType UNTYPED = new ExpressionType(null, 0);
+    
+    // Stands for "resolved to nothing" in the resolve memo
+    private static final Object UNRESOLVED = new Object();
+    
+    private final PsiJavaFile file;
+    private final AnalysisConfig config;
+    private final TypeClassifier typeClassifier;
+    private final DtoClassCache dtoClassCache;
+    private final StageStats stageStats;
+    private final String packageName;
+    private final Deque<PsiClass> classes = new ArrayDeque<>();
+    private final Deque<PsiMethod> methods = new ArrayDeque<>();
+    private final Map<PsiExpression, ExpressionType> expressionTypes = new HashMap<>();
+    private final Map<PsiExpression, Object> resolved = new HashMap<>();
+    private final GuardFactIndex guardFacts = new GuardFactIndex(this);
+    // Guard facts resolve their subjects, which the syntactic tier must not do while indexing
+    private final boolean trackGuards;
+    private int[] lineStarts;
+    
+    public FileAnalysisContext(PsiJavaFile file, AnalysisConfig config, TypeClassifier typeClassifier,
+                               DtoClassCache dtoClassCache, StageStats stageStats) {
+        this.file = file;
+        this.config = config;
+        this.typeClassifier = typeClassifier;
+        this.dtoClassCache = dtoClassCache;
+        this.stageStats = stageStats;
+        this.trackGuards = config.needsIndex();
+        String name = file.getPackageName();
+        this.packageName = name != null && !name.isEmpty() ? name : "default";
+    }
+    
+    /**
+     * Called by the analyzer before the detectors see an element
+     */
+    public void enter(PsiElement element) {
+        if (element instanceof PsiClass && !(element instanceof PsiTypeParameter)) {
+            classes.push((PsiClass) element);
+        } else if (element instanceof PsiMethod) {
+            methods.push((PsiMethod) element);
+        }
+        if (trackGuards) {
+            guardFacts.enter(element);
+        }
+    }
+    
+    /**
+     * Called by the analyzer after an element and all its children were visited
+     */
+    public void exit(PsiElement element) {
+        if (trackGuards) {
+            guardFacts.exit(element);
+        }
+        if (!classes.isEmpty() && classes.peek() == element) {
+            classes.pop();
+        } else if (!methods.isEmpty() && methods.peek() == element) {
+            methods.pop();
+        }
+    }
+    
+    public PsiJavaFile getFile() {
+        return file;
+    }
+    
+    /**
+     * Settings snapshot of the current run
+     */
+    public AnalysisConfig getConfig() {
+        return config;
+    }
+    
+    public String getPackageName() {
+        return packageName;
+    }
+    
+    /**
+     * Innermost class around the current element, or null at file level
+     */
+    public PsiClass getCurrentClass() {
+        return classes.peek();
+    }
+    
+    /**
+     * Simple name of the innermost class; "Unknown" for anonymous classes and file level
+     */
+    public String getCurrentClassName() {
+        PsiClass psiClass = classes.peek();
+        return psiClass != null && psiClass.getName() != null ? psiClass.getName() : "Unknown";
+    }
+    
+    /**
+     * Innermost method around the current element, or null in field initializers and class bodies
+     */
+    public PsiMethod getCurrentMethod() {
+        return methods.peek();
+    }
+    
+    /**
+     * Null and isInitialized guards of the current region
+     */
+    public GuardFactIndex getGuardFacts() {
+        return guardFacts;
+    }
+    
+    public int getLineNumber(PsiElement element) {
+        int line = Arrays.binarySearch(lineStarts(), element.getTextOffset());
+        return line >= 0 ? line + 1 : -line - 1;
+    }
+    
+    public int getColumnNumber(PsiElement element) {
+        int offset = element.getTextOffset();
+        return offset - lineStarts()[getLineNumber(element) - 1] + 1;
+    }
+    
+    /**
+     * Canonical text of the expression's type, or null if it cannot be resolved
+     */
+    public String getCanonicalType(PsiExpression expr) {
+        return typeOf(expr).canonicalText;
+    }
+    
+    public boolean isStringType(PsiExpression expr) {
+        return (typeOf(expr).flags & STRING) != 0;
+    }
+    
+    public boolean isBooleanWrapperType(PsiExpression expr) {
+        return (typeOf(expr).flags & BOOLEAN_WRAPPER) != 0;
+    }
+    
+    public boolean isCollectionType(PsiExpression expr) {
+        return (typeOf(expr).flags & NullSafetyRules.TYPE_COLLECTION) != 0;
+    }
+    
+    public boolean isMapType(PsiExpression expr) {
+        return (typeOf(expr).flags & NullSafetyRules.TYPE_MAP) != 0;
+    }
+    
+    public boolean isContextType(PsiExpression expr) {
+        return (typeOf(expr).flags & NullSafetyRules.TYPE_CONTEXT) != 0;
+    }
+    
+    /**
+     * Whether the expression's class declares or inherits isInitialized(String), see {@link DtoClassCache}
+     */
+    public boolean isDtoType(PsiExpression expr) {
+        PsiType type = expr.getType();
+        if (!(type instanceof PsiClassType)) {
+            return false;
+        }
+        PsiClass psiClass = ((PsiClassType) type).resolve();
+        return psiClass != null && dtoClassCache.isDtoClass(psiClass);
+    }
+    
+    /**
+     * Target of the reference, resolved once per file whichever detector asks first
+     */
+    public PsiElement resolve(PsiReferenceExpression ref) {
+        return (PsiElement) memoizedResolve(ref);
+    }
+    
+    /**
+     * Called method, resolved once per file whichever detector asks first
+     */
+    public PsiMethod resolveMethod(PsiMethodCallExpression call) {
+        return (PsiMethod) memoizedResolve(call);
+    }
+    
+    /**
+     * Record that a detector dropped its candidate at this stage
+     */
+    public void rejected(Stage stage) {
+        stageStats.recordRejected(stage);
+    }
+    
+    /**
+     * Violation located at the element, in the current class and package
+     */
+    public Violation createViolation(ViolationType type, PsiElement element, String code) {
+        return new Violation(
+            type,
+            file,
+            element,
+            getLineNumber(element),
+            getColumnNumber(element),
+            getCurrentClassName(),
+            packageName,
+            code
+        );
+    }
+    
+    /**
+     * Copy of a violation from an earlier analysis of this file, at the element's current line and column
+     */
+    public Violation relocate(Violation violation) {
+        PsiElement element = violation.getElement();
+        return new Violation(
+            violation.getType(),
+            file,
+            element,
+            getLineNumber(element),
+            getColumnNumber(element),
+            violation.getClassName(),
+            violation.getPackageName(),
+            violation.getViolatingCode()
+        );
+    }
+    
+    private Object memoizedResolve(PsiExpression expr) {
+        Object target = resolved.get(expr);
+        stageStats.recordResolve(target != null);
+        if (target == null) {
+            PsiElement element = expr instanceof PsiMethodCallExpression
+                ? ((PsiMethodCallExpression) expr).resolveMethod()
+                : ((PsiReferenceExpression) expr).resolve();
+            target = element != null ? element : UNRESOLVED;
+            resolved.put(expr, target);
+        }
+        return target != UNRESOLVED ? target : null;
+    }
+    
+    private ExpressionType typeOf(PsiExpression expr) {
+        ExpressionType cached = expressionTypes.get(expr);
+        if (cached == null) {
+            cached = classify(expr.getType());
+            expressionTypes.put(expr, cached);
+        }
+        return cached;
+    }
+    
+    private ExpressionType classify(PsiType type) {
+        if (type == null) {
+            return UNTYPED;
+        }
+        
+        String text = type.getCanonicalText();
+        int flags = typeClassifier.classify(type, config.getRules().getContextBaseTypes());
+        if (NullSafetyRules.isStringType(text)) {
+            flags |= STRING;
+        }
+        if (NullSafetyRules.isBooleanWrapperType(text)) {
+            flags |= BOOLEAN_WRAPPER;
+        }
+        return new ExpressionType(text, flags);
+    }
+    
+    /**
+     * Offsets at which each line starts, built on the first violation of the file
+     */
+    private int[] lineStarts() {
+        if (lineStarts == null) {
+            CharSequence text = file.getViewProvider().getContents();
+            int[] starts = new int[16];
+            int count = 1;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == '\n') {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, count * 2);
+                    }
+                    starts[count++] = i + 1;
+                }
+            }
+            lineStarts = Arrays.copyOf(starts, count);
+        }
+        return lineStarts;
+    }
+    
+    private static class ExpressionType {
+        final String canonicalText;
+        final int flags;
+        
+        ExpressionType(String canonicalText, int flags) {
+            this.canonicalText = canonicalText;
+            this.flags = flags;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.codinglegion.analyzer;
+
+import com.codinglegion.core.cost.FileCostTable;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-file analysis cost (time, PSI nodes visited) measured in earlier runs, used by the
+ * {@link FileScheduler} to hand out the most expensive files first
+ * Costs depend on the machine, so the table lives in the IDE system directory, not in the project
+ *
+ * A file analyzed more than {@link #REGRESSION_THRESHOLD} slower than its average is logged as a cost
+ * regression (idea.log) and reported by the run's analyzer
+ */
+public class FileCostService {
+    
+    private static final Logger LOG = Logger.getInstance(FileCostService.class);
+    
+    private static final String FILE_NAME = "file-costs.bin";
+    
+    /**
+     * Slowdown over a file's average that counts as a regression (0.5 = 50% slower)
+     */
+    public static final double REGRESSION_THRESHOLD = 0.5;
+    
+    /**
+     * Slowdowns smaller than this are timer and GC noise, whatever the ratio
+     */
+    private static final long MIN_REGRESSION_NANOS = 20_000_000L;
+    
+    private final Project project;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile FileCostTable table;
+    
+    public FileCostService(Project project) {
+        this.project = project;
+    }
+    
+    public static FileCostService getInstance(Project project) {
+        return ServiceManager.getService(project, FileCostService.class);
+    }
+    
+    public Path getCostFile() {
+        return Paths.get(PathManager.getSystemPath(), "coding-legion", project.getLocationHash(), FILE_NAME);
+    }
+    
+    /**
+     * Current table, read from disk on first use; an unreadable file counts as empty
+     */
+    public FileCostTable getTable() {
+        FileCostTable current = table;
+        if (current == null) {
+            synchronized (this) {
+                if (table == null) {
+                    try {
+                        table = FileCostTable.load(getCostFile());
+                    } catch (IOException e) {
+                        LOG.warn("Cannot read analysis cost table " + getCostFile(), e);
+                        table = new FileCostTable();
+                    }
+                }
+                current = table;
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Record a complete analysis of a file
+     *
+     * @return the regression, or null if the file was about as fast as before
+     */
+    FileCostTable.Regression record(VirtualFile file, long nanos, int nodes) {
+        dirty.set(true);
+        FileCostTable.Regression regression = getTable().record(file.getPath(), nanos, nodes, file.getLength(),
+            REGRESSION_THRESHOLD, MIN_REGRESSION_NANOS);
+        if (regression != null) {
+            LOG.info("Coding Legion analysis cost regressed: " + regression);
+        }
+        return regression;
+    }
+    
+    /**
+     * Write the table if costs were recorded since the last save
+     */
+    void save() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            getTable().write(getCostFile());
+        } catch (IOException e) {
+            LOG.warn("Cannot write analysis cost table " + getCostFile(), e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.codinglegion.analyzer;
+
+import com.codinglegion.core.cost.FileCostTable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.ex.IdeDocumentHistory;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Order in which the files of a run are analyzed, so the files the developer is looking at come first
+ * Tiers: files open in an editor, then recently edited files (unsaved or in the IDE's change history),
+ * then the rest. Within a tier the most expensive files go first (longest processing time first), which
+ * keeps parallel workers evenly loaded: an expensive file picked up last would leave the other workers
+ * idle while it finishes. The cost of a file is its time in earlier runs ({@link FileCostService}), or
+ * for files never measured an estimate from the length
+ *
+ * A snapshot of the editors, history and costs taken when the run starts
+ */
+final class FileScheduler {
+    
+    static final int OPEN = 0;
+    static final int RECENTLY_EDITED = 1;
+    static final int OTHER = 2;
+    
+    private final Set<VirtualFile> openFiles;
+    private final Set<VirtualFile> editedFiles;
+    private final FileCostTable costs;
+    
+    private FileScheduler(Set<VirtualFile> openFiles, Set<VirtualFile> editedFiles, FileCostTable costs) {
+        this.openFiles = openFiles;
+        this.editedFiles = editedFiles;
+        this.costs = costs;
+    }
+    
+    static FileScheduler forProject(Project project) {
+        if (project.isDefault() || project.isDisposed()) {
+            return new FileScheduler(Collections.emptySet(), Collections.emptySet(), new FileCostTable());
+        }
+        FileCostTable costs = FileCostService.getInstance(project).getTable();
+        // No editors in headless runs; only the cost order applies there
+        if (ApplicationManager.getApplication().isHeadlessEnvironment()) {
+            return new FileScheduler(Collections.emptySet(), Collections.emptySet(), costs);
+        }
+        
+        Set<VirtualFile> openFiles = new HashSet<>(Arrays.asList(FileEditorManager.getInstance(project).getOpenFiles()));
+        
+        Set<VirtualFile> editedFiles = new HashSet<>(Arrays.asList(IdeDocumentHistory.getInstance(project).getChangedFiles()));
+        FileDocumentManager documentManager = FileDocumentManager.getInstance();
+        for (Document document : documentManager.getUnsavedDocuments()) {
+            VirtualFile file = documentManager.getFile(document);
+            if (file != null) {
+                editedFiles.add(file);
+            }
+        }
+        return new FileScheduler(openFiles, editedFiles, costs);
+    }
+    
+    int tierOf(VirtualFile file) {
+        if (openFiles.contains(file)) {
+            return OPEN;
+        }
+        return editedFiles.contains(file) ? RECENTLY_EDITED : OTHER;
+    }
+    
+    /**
+     * The files in analysis order: by tier, most expensive first within a tier
+     */
+    List<VirtualFile> schedule(List<VirtualFile> files) {
+        return schedule(files, estimateCosts(Collections.singletonList(files)));
+    }
+    
+    private List<VirtualFile> schedule(List<VirtualFile> files, Map<VirtualFile, Long> fileCosts) {
+        List<VirtualFile> scheduled = new ArrayList<>(files);
+        scheduled.sort(Comparator.comparingInt(this::tierOf)
+            .thenComparing(Comparator.comparingLong((VirtualFile file) -> fileCosts.get(file)).reversed()));
+        return scheduled;
+    }
+    
+    /**
+     * Expected nanos per file, computed once per schedule; the comparator would otherwise ask the
+     * table and the VFS for every comparison
+     */
+    private Map<VirtualFile, Long> estimateCosts(List<List<VirtualFile>> shards) {
+        double nanosPerByte = costs.getNanosPerByte();
+        Map<VirtualFile, Long> fileCosts = new HashMap<>();
+        for (List<VirtualFile> shard : shards) {
+            for (VirtualFile file : shard) {
+                long nanos = costs.getNanos(file.getPath());
+                fileCosts.put(file, nanos >= 0 ? nanos : (long) (file.getLength() * nanosPerByte));
+            }
+        }
+        return fileCosts;
+    }
+    
+    /**
+     * Shards in analysis order
+     * Open and recently edited files are taken out of their shards into a leading shard of their own,
+     * so their results are reported first instead of with the rest of their module. The other shards
+     * follow most expensive first, and the files of every shard are ordered like {@link #schedule(List)}
+     */
+    List<List<VirtualFile>> scheduleShards(List<List<VirtualFile>> shards) {
+        Map<VirtualFile, Long> fileCosts = estimateCosts(shards);
+        List<VirtualFile> priorityFiles = new ArrayList<>();
+        List<List<VirtualFile>> rest = new ArrayList<>(shards.size());
+        Map<List<VirtualFile>, Long> shardCosts = new IdentityHashMap<>();
+        
+        for (List<VirtualFile> shard : shards) {
+            List<VirtualFile> others = new ArrayList<>(shard.size());
+            long shardCost = 0;
+            for (VirtualFile file : shard) {
+                if (tierOf(file) == OTHER) {
+                    others.add(file);
+                    shardCost += fileCosts.get(file);
+                } else {
+                    priorityFiles.add(file);
+                }
+            }
+            if (!others.isEmpty()) {
+                List<VirtualFile> scheduledShard = schedule(others, fileCosts);
+                rest.add(scheduledShard);
+                shardCosts.put(scheduledShard, shardCost);
+            }
+        }
+        rest.sort(Comparator.comparingLong((List<VirtualFile> shard) -> shardCosts.get(shard)).reversed());
+        
+        List<List<VirtualFile>> scheduled = new ArrayList<>(rest.size() + 1);
+        if (!priorityFiles.isEmpty()) {
+            scheduled.add(schedule(priorityFiles, fileCosts));
+        }
+        scheduled.addAll(rest);
+        return scheduled;
+    }
+}
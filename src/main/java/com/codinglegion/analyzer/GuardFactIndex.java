@@ -0,0 +1,186 @@
+package com.codinglegion.analyzer;
+
+import com.codinglegion.core.rules.GuardFact;
+import com.codinglegion.core.rules.NullSafetyRules;
+import com.intellij.psi.*;
+import com.intellij.psi.tree.IElementType;
+
+import java.util.*;
+
+/**
+ * Guard facts ("x != null", "dto.isInitialized(\"Day\")") that hold in the region being visited
+ * Each if / ternary / while condition is read once, when the visitor enters it, and its facts are
+ * merged with the enclosing region's; detectors then ask about the current region in O(1)
+ * instead of walking up to the method and re-reading every enclosing condition
+ *
+ * A region is the whole guarded statement or expression, condition included, as the detectors
+ * have always treated it. Guards do not cross method boundaries (a method of an anonymous class
+ * starts with no facts). Subjects are compared by resolved variable, so "this.items" and "items"
+ * are the same; other expressions (getDto().isInitialized(...)) fall back to their text
+ */
+public class GuardFactIndex {
+    
+    private static final Set<GuardFact> NO_FACTS = Collections.emptySet();
+    
+    private final FileAnalysisContext context;
+    private final Deque<Region> regions = new ArrayDeque<>();
+    
+    GuardFactIndex(FileAnalysisContext context) {
+        this.context = context;
+    }
+    
+    /**
+     * Called by {@link FileAnalysisContext#enter} before the detectors see an element
+     */
+    void enter(PsiElement element) {
+        if (element instanceof PsiMethod) {
+            regions.push(new Region(element, NO_FACTS));
+            return;
+        }
+        
+        Set<GuardFact> facts = NO_FACTS;
+        if (element instanceof PsiIfStatement) {
+            PsiExpression condition = ((PsiIfStatement) element).getCondition();
+            facts = collect(condition, true);
+        } else if (element instanceof PsiConditionalExpression) {
+            facts = collect(((PsiConditionalExpression) element).getCondition(), true);
+        } else if (element instanceof PsiWhileStatement) {
+            // Loops only establish isInitialized facts, like the DTO rule always did
+            facts = collect(((PsiWhileStatement) element).getCondition(), false);
+        }
+        
+        if (!facts.isEmpty()) {
+            Set<GuardFact> merged = new HashSet<>(current());
+            merged.addAll(facts);
+            regions.push(new Region(element, merged));
+        }
+    }
+    
+    void exit(PsiElement element) {
+        if (!regions.isEmpty() && regions.peek().owner == element) {
+            regions.pop();
+        }
+    }
+    
+    /**
+     * Whether an enclosing condition compares the expression with null (== or !=, possibly in an && chain)
+     */
+    public boolean isNullChecked(PsiExpression subject) {
+        Set<GuardFact> facts = current();
+        return !facts.isEmpty() && facts.contains(GuardFact.nullCheck(subjectKey(subject)));
+    }
+    
+    /**
+     * Whether an enclosing condition calls subject.isInitialized("property")
+     */
+    public boolean isInitializationChecked(PsiExpression subject, String property) {
+        Set<GuardFact> facts = current();
+        return !facts.isEmpty() && facts.contains(GuardFact.initializationCheck(subjectKey(subject), property));
+    }
+    
+    private Set<GuardFact> current() {
+        return regions.isEmpty() ? NO_FACTS : regions.peek().facts;
+    }
+    
+    private Set<GuardFact> collect(PsiExpression condition, boolean nullChecks) {
+        if (condition == null) {
+            return NO_FACTS;
+        }
+        Set<GuardFact> facts = new HashSet<>();
+        if (nullChecks) {
+            collectNullChecks(condition, facts);
+        }
+        collectInitializationChecks(condition, facts);
+        return facts.isEmpty() ? NO_FACTS : facts;
+    }
+    
+    /**
+     * x != null / x == null, directly or as an operand of &&
+     */
+    private void collectNullChecks(PsiExpression condition, Set<GuardFact> facts) {
+        if (!(condition instanceof PsiPolyadicExpression)) {
+            return;
+        }
+        
+        PsiPolyadicExpression polyadic = (PsiPolyadicExpression) condition;
+        IElementType op = polyadic.getOperationTokenType();
+        PsiExpression[] operands = polyadic.getOperands();
+        
+        if ((op == JavaTokenType.NE || op == JavaTokenType.EQEQ) && operands.length == 2) {
+            if (isNullLiteral(operands[0]) && !isNullLiteral(operands[1])) {
+                facts.add(GuardFact.nullCheck(subjectKey(operands[1])));
+            } else if (isNullLiteral(operands[1]) && !isNullLiteral(operands[0])) {
+                facts.add(GuardFact.nullCheck(subjectKey(operands[0])));
+            }
+        } else if (op == JavaTokenType.ANDAND) {
+            for (PsiExpression operand : operands) {
+                collectNullChecks(operand, facts);
+            }
+        }
+    }
+    
+    /**
+     * dto.isInitialized("Property") anywhere in the condition, through &&, ||, ! and parentheses
+     */
+    private void collectInitializationChecks(PsiExpression condition, Set<GuardFact> facts) {
+        if (condition instanceof PsiMethodCallExpression) {
+            PsiMethodCallExpression call = (PsiMethodCallExpression) condition;
+            PsiReferenceExpression methodRef = call.getMethodExpression();
+            PsiExpression qualifier = methodRef.getQualifierExpression();
+            PsiExpression[] args = call.getArgumentList().getExpressions();
+            
+            if (qualifier != null && args.length == 1 && args[0] instanceof PsiLiteralExpression &&
+                NullSafetyRules.IS_INITIALIZED_METHOD.equals(methodRef.getReferenceName())) {
+                Object value = ((PsiLiteralExpression) args[0]).getValue();
+                if (value instanceof String) {
+                    facts.add(GuardFact.initializationCheck(subjectKey(qualifier), (String) value));
+                }
+            }
+        } else if (condition instanceof PsiPolyadicExpression) {
+            for (PsiExpression operand : ((PsiPolyadicExpression) condition).getOperands()) {
+                collectInitializationChecks(operand, facts);
+            }
+        } else if (condition instanceof PsiParenthesizedExpression) {
+            PsiExpression inner = ((PsiParenthesizedExpression) condition).getExpression();
+            if (inner != null) {
+                collectInitializationChecks(inner, facts);
+            }
+        } else if (condition instanceof PsiPrefixExpression) {
+            PsiExpression operand = ((PsiPrefixExpression) condition).getOperand();
+            if (operand != null) {
+                collectInitializationChecks(operand, facts);
+            }
+        }
+    }
+    
+    private static boolean isNullLiteral(PsiExpression expr) {
+        return expr instanceof PsiLiteralExpression && "null".equals(expr.getText());
+    }
+    
+    /**
+     * The resolved variable for plain and this-qualified references, otherwise the expression text
+     */
+    private Object subjectKey(PsiExpression expr) {
+        if (expr instanceof PsiReferenceExpression) {
+            PsiReferenceExpression ref = (PsiReferenceExpression) expr;
+            PsiExpression qualifier = ref.getQualifierExpression();
+            if (qualifier == null || qualifier instanceof PsiThisExpression) {
+                PsiElement resolved = context.resolve(ref);
+                if (resolved instanceof PsiVariable) {
+                    return resolved;
+                }
+            }
+        }
+        return expr.getText();
+    }
+    
+    private static class Region {
+        final PsiElement owner;
+        final Set<GuardFact> facts;
+        
+        Region(PsiElement owner, Set<GuardFact> facts) {
+            this.owner = owner;
+            this.facts = facts;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.codinglegion.analyzer;
+
+import com.codinglegion.core.rules.CoreRuleConfig;
+import com.codinglegion.model.Violation;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiClassInitializer;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiLambdaExpression;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.util.PsiModificationTracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Violations of a method kept on the method itself (user data), so a file re-analyzed after an edit
+ * only runs the detectors again on the methods that changed
+ *
+ * An entry is reused while the method text, the rule configuration, the detector tier and the project's
+ * Java structure (classes, signatures, hierarchies - everything type facts depend on) are unchanged. Edits inside
+ * other method bodies keep it; reparsing the method drops it with the old PSI
+ *
+ * Only methods that are members of a top-level or member class are cached. A method of an anonymous
+ * or local class, or of a class in a lambda or initializer, depends on the enclosing code too (null
+ * checks around it, the guard regions of the outer method); its violations are stored with the
+ * enclosing method instead, whose text covers it
+ */
+class MethodResultCache {
+    
+    private static final Key<Entry> KEY = Key.create("CodingLegion.methodViolations");
+    
+    private final CoreRuleConfig rules;
+    private final List<String> detectorNames = new ArrayList<>();
+    private final PsiModificationTracker modificationTracker;
+    
+    MethodResultCache(Project project, AnalysisConfig config) {
+        this.rules = config.getRules();
+        for (ViolationDetector detector : config.getDetectors()) {
+            detectorNames.add(detector.getName());
+        }
+        this.modificationTracker = PsiModificationTracker.SERVICE.getInstance(project);
+    }
+    
+    /**
+     * Whether the method's violations depend on its own text only, i.e. it is not nested in another
+     * method, lambda, initializer or field
+     */
+    static boolean isCacheable(PsiMethod method) {
+        return PsiTreeUtil.getParentOfType(method, PsiMethod.class, PsiLambdaExpression.class,
+            PsiClassInitializer.class, PsiField.class) == null;
+    }
+    
+    /**
+     * Violations found in the method by an earlier analysis, or null if they may have changed
+     * Line numbers are those of the earlier analysis; see {@link FileAnalysisContext#relocate}
+     */
+    List<Violation> get(PsiMethod method, CharSequence fileText) {
+        Entry entry = method.getUserData(KEY);
+        if (entry == null || !entry.rules.equals(rules) || !entry.detectorNames.equals(detectorNames) ||
+            entry.structureCount != modificationTracker.getJavaStructureModificationCount()) {
+            return null;
+        }
+        
+        TextRange range = method.getTextRange();
+        if (range.getLength() != entry.length || textHash(fileText, range) != entry.textHash) {
+            return null;
+        }
+        for (Violation violation : entry.violations) {
+            // Same text, but parts of the method may have been reparsed into new elements
+            if (!violation.getElement().isValid()) {
+                return null;
+            }
+        }
+        return entry.violations;
+    }
+    
+    void put(PsiMethod method, CharSequence fileText, List<Violation> violations) {
+        TextRange range = method.getTextRange();
+        method.putUserData(KEY, new Entry(rules, detectorNames, modificationTracker.getJavaStructureModificationCount(),
+            range.getLength(), textHash(fileText, range), Collections.unmodifiableList(violations)));
+    }
+    
+    private static int textHash(CharSequence text, TextRange range) {
+        int hash = 0;
+        for (int i = range.getStartOffset(); i < range.getEndOffset(); i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash;
+    }
+    
+    private static class Entry {
+        final CoreRuleConfig rules;
+        final List<String> detectorNames;
+        final long structureCount;
+        final int length;
+        final int textHash;
+        final List<Violation> violations;
+        
+        Entry(CoreRuleConfig rules, List<String> detectorNames, long structureCount, int length, int textHash,
+              List<Violation> violations) {
+            this.rules = rules;
+            this.detectorNames = detectorNames;
+            this.structureCount = structureCount;
+            this.length = length;
+            this.textHash = textHash;
+            this.violations = violations;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.codinglegion.analyzer;
+
+/**
+ * Cost classes of detector predicates, cheapest first
+ * Detectors test their conditions in this order, so a candidate is rejected by name or shape
+ * before its type is inferred and by type before anything is resolved
+ */
+public enum Stage {
+    
+    /**
+     * Method, field or qualifier names compared as text
+     */
+    TOKEN,
+    
+    /**
+     * Syntactic structure: qualifier present, literal operands, argument count
+     */
+    SHAPE,
+    
+    /**
+     * Expression type inference (cached per expression by {@link FileAnalysisContext})
+     */
+    TYPE,
+    
+    /**
+     * Reference and method resolution, class hierarchy and index lookups
+     */
+    RESOLVE
+}
@@ -0,0 +1,95 @@
+package com.codinglegion.analyzer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts detector candidates rejected at each {@link Stage}, resolves done or answered from the file memo,
+ * files and methods the {@link TokenPrefilter} kept from being visited at all, and methods whose
+ * violations were reused from the {@link MethodResultCache}
+ * Thread-safe, so one instance can collect counts from parallel file analyses
+ */
+public class StageStats {
+    
+    private final AtomicLongArray rejected = new AtomicLongArray(Stage.values().length);
+    private final AtomicLong resolves = new AtomicLong();
+    private final AtomicLong memoizedResolves = new AtomicLong();
+    private final AtomicLong skippedFiles = new AtomicLong();
+    private final AtomicLong skippedMethods = new AtomicLong();
+    private final AtomicLong reusedMethods = new AtomicLong();
+    private final AtomicLong analyzedMethods = new AtomicLong();
+    
+    void recordRejected(Stage stage) {
+        rejected.incrementAndGet(stage.ordinal());
+    }
+    
+    void recordResolve(boolean memoized) {
+        (memoized ? memoizedResolves : resolves).incrementAndGet();
+    }
+    
+    void recordSkippedFile() {
+        skippedFiles.incrementAndGet();
+    }
+    
+    void recordSkippedMethod() {
+        skippedMethods.incrementAndGet();
+    }
+    
+    void recordMethodCache(boolean reused) {
+        (reused ? reusedMethods : analyzedMethods).incrementAndGet();
+    }
+    
+    public long getRejected(Stage stage) {
+        return rejected.get(stage.ordinal());
+    }
+    
+    /**
+     * Candidates dropped before any resolve was needed
+     */
+    public long getRejectedBeforeResolve() {
+        return getRejected(Stage.TOKEN) + getRejected(Stage.SHAPE) + getRejected(Stage.TYPE);
+    }
+    
+    public long getResolves() {
+        return resolves.get();
+    }
+    
+    public long getMemoizedResolves() {
+        return memoizedResolves.get();
+    }
+    
+    public long getSkippedFiles() {
+        return skippedFiles.get();
+    }
+    
+    public long getSkippedMethods() {
+        return skippedMethods.get();
+    }
+    
+    public long getReusedMethods() {
+        return reusedMethods.get();
+    }
+    
+    /**
+     * Methods the detectors actually ran on (neither skipped nor reused)
+     */
+    public long getAnalyzedMethods() {
+        return analyzedMethods.get();
+    }
+    
+    /**
+     * e.g. "skipped 30 file(s), 210 method(s); reused 95 of 140 method(s); rejected TOKEN=812, SHAPE=95,
+     * TYPE=40, RESOLVE=7; resolves 52 (+18 memoized)"
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("skipped ").append(getSkippedFiles()).append(" file(s), ")
+            .append(getSkippedMethods()).append(" method(s); reused ").append(getReusedMethods())
+            .append(" of ").append(getReusedMethods() + getAnalyzedMethods()).append(" method(s); rejected ");
+        for (Stage stage : Stage.values()) {
+            sb.append(stage.ordinal() == 0 ? "" : ", ").append(stage.name()).append('=').append(getRejected(stage));
+        }
+        return sb.append("; resolves ").append(getResolves())
+            .append(" (+").append(getMemoizedResolves()).append(" memoized)").toString();
+    }
+}
@@ -0,0 +1,132 @@
+package com.codinglegion.analyzer;
+
+import com.intellij.lang.java.lexer.JavaLexer;
+import com.intellij.lexer.Lexer;
+import com.intellij.pom.java.LanguageLevel;
+import com.intellij.psi.JavaTokenType;
+import com.intellij.psi.impl.source.tree.ElementType;
+import com.intellij.psi.tree.IElementType;
+
+import java.util.*;
+
+/**
+ * Decides from the token stream alone which detectors can possibly fire in a file or a text range
+ * Each detector declares trigger tokens ({@link ViolationDetector#getTriggerTokens()}); the file text is
+ * lexed once, without building a tree, and only identifiers and keywords are compared, so a trigger
+ * word inside a comment or string literal does not count
+ *
+ * Built once per run; {@link #scan} is thread-safe
+ */
+public class TokenPrefilter {
+    
+    private final List<ViolationDetector> detectors;
+    private final Map<String, Integer> exactTokens = new HashMap<>();
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<Integer> prefixMasks = new ArrayList<>();
+    private final int alwaysMask;
+    
+    public TokenPrefilter(List<ViolationDetector> detectors) {
+        if (detectors.size() > Integer.SIZE) {
+            throw new IllegalArgumentException("At most " + Integer.SIZE + " detectors are supported");
+        }
+        this.detectors = detectors;
+        
+        int always = 0;
+        for (int i = 0; i < detectors.size(); i++) {
+            int bit = 1 << i;
+            Collection<String> triggers = detectors.get(i).getTriggerTokens();
+            if (triggers.isEmpty()) {
+                always |= bit;
+                continue;
+            }
+            for (String trigger : triggers) {
+                if (trigger.endsWith("*")) {
+                    prefixes.add(trigger.substring(0, trigger.length() - 1));
+                    prefixMasks.add(bit);
+                } else {
+                    exactTokens.merge(trigger, bit, (a, b) -> a | b);
+                }
+            }
+        }
+        this.alwaysMask = always;
+    }
+    
+    /**
+     * Lex the file text and record where each detector's triggers occur
+     */
+    public Triggers scan(CharSequence text, LanguageLevel languageLevel) {
+        Lexer lexer = new JavaLexer(languageLevel);
+        lexer.start(text);
+        
+        int[] offsets = new int[64];
+        int[] masks = new int[64];
+        int count = 0;
+        
+        for (IElementType tokenType = lexer.getTokenType(); tokenType != null; lexer.advance(), tokenType = lexer.getTokenType()) {
+            if (tokenType != JavaTokenType.IDENTIFIER && tokenType != JavaTokenType.NULL_KEYWORD &&
+                !ElementType.KEYWORD_BIT_SET.contains(tokenType)) {
+                continue;
+            }
+            int mask = maskOf(text, lexer.getTokenStart(), lexer.getTokenEnd());
+            if (mask != 0) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                    masks = Arrays.copyOf(masks, count * 2);
+                }
+                offsets[count] = lexer.getTokenStart();
+                masks[count++] = mask;
+            }
+        }
+        
+        return new Triggers(Arrays.copyOf(offsets, count), Arrays.copyOf(masks, count));
+    }
+    
+    private int maskOf(CharSequence text, int start, int end) {
+        String token = text.subSequence(start, end).toString();
+        Integer mask = exactTokens.get(token);
+        int result = mask != null ? mask : 0;
+        for (int i = 0; i < prefixes.size(); i++) {
+            String prefix = prefixes.get(i);
+            if (token.length() > prefix.length() && token.startsWith(prefix)) {
+                result |= prefixMasks.get(i);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Trigger occurrences of one file
+     */
+    public class Triggers {
+        
+        private final int[] offsets;
+        private final int[] masks;
+        
+        private Triggers(int[] offsets, int[] masks) {
+            this.offsets = offsets;
+            this.masks = masks;
+        }
+        
+        /**
+         * Detectors that can fire on tokens within [start, end), in run order; empty if none can
+         */
+        public List<ViolationDetector> detectorsIn(int start, int end) {
+            int mask = alwaysMask;
+            int i = Arrays.binarySearch(offsets, start);
+            for (i = i >= 0 ? i : -i - 1; i < offsets.length && offsets[i] < end; i++) {
+                mask |= masks[i];
+            }
+            
+            if (mask == 0) {
+                return Collections.emptyList();
+            }
+            List<ViolationDetector> active = new ArrayList<>(Integer.bitCount(mask));
+            for (int d = 0; d < detectors.size(); d++) {
+                if ((mask & (1 << d)) != 0) {
+                    active.add(detectors.get(d));
+                }
+            }
+            return active;
+        }
+    }
+}
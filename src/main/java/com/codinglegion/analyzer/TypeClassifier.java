@@ -0,0 +1,90 @@
+package com.codinglegion.analyzer;
+
+import com.codinglegion.core.rules.NullSafetyRules;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiClassType;
+import com.intellij.psi.PsiType;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PsiModificationTracker;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collection / map / context classification of types by inheritance rather than by type name,
+ * so MyList extends ArrayList is a collection and Settlement or BlacklistService are not
+ *
+ * Answers are kept per resolved class (by qualified name) and context base types until the next PSI
+ * change in the project, so each class hierarchy is walked once per edit instead of once per qualifier
+ * The base types are passed with each call: runs with different rule configurations share the
+ * service without overwriting each other's answers
+ */
+public class TypeClassifier {
+    
+    private final PsiModificationTracker modificationTracker;
+    private final ConcurrentHashMap<Set<String>, ConcurrentHashMap<String, Integer>> kindsByBaseTypes =
+        new ConcurrentHashMap<>();
+    private volatile long modificationCount = -1;
+    
+    public TypeClassifier(Project project) {
+        this.modificationTracker = PsiModificationTracker.SERVICE.getInstance(project);
+    }
+    
+    public static TypeClassifier getInstance(Project project) {
+        return ServiceManager.getService(project, TypeClassifier.class);
+    }
+    
+    /**
+     * {@link NullSafetyRules#classifySupertype} bits of the type's class and all its supertypes
+     * 0 for primitives, arrays and unresolved types
+     *
+     * @param contextBaseTypes qualified names of the configured context base types, an immutable set
+     *                         (see {@link com.codinglegion.core.rules.CoreRuleConfig#getContextBaseTypes})
+     */
+    public int classify(PsiType type, Set<String> contextBaseTypes) {
+        if (!(type instanceof PsiClassType)) {
+            return 0;
+        }
+        
+        PsiClass psiClass = ((PsiClassType) type).resolve();
+        if (psiClass == null) {
+            return 0;
+        }
+        
+        String qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName == null) {
+            // Local, anonymous and type parameter classes have no stable key
+            return computeKind(psiClass, contextBaseTypes);
+        }
+        
+        long currentCount = modificationTracker.getModificationCount();
+        if (currentCount != modificationCount) {
+            synchronized (this) {
+                if (currentCount != modificationCount) {
+                    kindsByBaseTypes.clear();
+                    modificationCount = currentCount;
+                }
+            }
+        }
+        
+        ConcurrentHashMap<String, Integer> kinds =
+            kindsByBaseTypes.computeIfAbsent(contextBaseTypes, baseTypes -> new ConcurrentHashMap<>());
+        Integer cached = kinds.get(qualifiedName);
+        if (cached == null) {
+            cached = computeKind(psiClass, contextBaseTypes);
+            kinds.put(qualifiedName, cached);
+        }
+        return cached;
+    }
+    
+    private static int computeKind(PsiClass psiClass, Set<String> contextBaseTypes) {
+        int[] kind = new int[1];
+        InheritanceUtil.processSupers(psiClass, true, superClass -> {
+            kind[0] |= NullSafetyRules.classifySupertype(superClass.getQualifiedName(), superClass.getName(), contextBaseTypes);
+            return true;
+        });
+        return kind[0];
+    }
+}
@@ -3,11 +3,17 @@ package com.codinglegion.analyzer;
 import com.intellij.psi.PsiElement;
 import com.codinglegion.model.Violation;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Base interface for all violation detectors in Coding Legion
  * Implementing this interface makes it easy to add new coding standard rules
+ *
+ * Detectors that only look at the tree shape (no getType(), resolve() or type facts of the context)
+ * should also implement {@link com.intellij.openapi.project.DumbAware}: they run at once while the
+ * IDE is indexing, the others are deferred until indexing finishes (see {@link AnalysisConfig#syntacticTier()})
  */
 public interface ViolationDetector {
     
@@ -15,9 +21,28 @@ public interface ViolationDetector {
      * Detect violations in the given PSI element
      * 
      * @param element PSI element to analyze
+     * @param context state of the file being traversed (scope, line table, type facts)
      * @return List of detected violations (empty if none found)
      */
-    List<Violation> detect(PsiElement element);
+    List<Violation> detect(PsiElement element, FileAnalysisContext context);
+    
+    /**
+     * Quick scan variant of {@link #detect}: only the checks that need no getType(), resolve() or type
+     * facts of the context, for shapes specific enough to stand for the rule on their own
+     * Matches are shown as provisional until the full pass confirms or drops them; the default finds
+     * nothing (syntactic detectors are run in full by the quick scan instead)
+     */
+    default List<Violation> detectShape(PsiElement element, FileAnalysisContext context) {
+        return Collections.emptyList();
+    }
+    
+    /**
+     * Identifiers or keywords without which this detector cannot report anything, e.g. "equals" or "null"
+     * A trailing * matches any longer identifier with that prefix ("get*")
+     * Files and methods containing none of them are not visited for this detector (see {@link TokenPrefilter});
+     * return an empty collection if a violation can occur without any telltale token
+     */
+    Collection<String> getTriggerTokens();
     
     /**
      * Get the name of this detector (for logging/debugging)
@@ -1,60 +1,66 @@
 package com.codinglegion.analyzer.detectors;
 
 import com.intellij.psi.*;
+import com.codinglegion.analyzer.FileAnalysisContext;
+import com.codinglegion.analyzer.Stage;
 import com.codinglegion.analyzer.ViolationDetector;
+import com.codinglegion.core.rules.NullSafetyRules;
 import com.codinglegion.model.Violation;
 import com.codinglegion.model.ViolationType;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Detects Boolean wrapper auto-unboxing to primitive boolean
  * Rule: Avoid boolean boolVal = boolObj (may cause NPE). Use BooleanUtils.isTrue() or Boolean.TRUE.equals()
  */
-public class BooleanUnboxingDetector extends BaseDetector implements ViolationDetector {
+public class BooleanUnboxingDetector implements ViolationDetector {
     
     @Override
-    public List<Violation> detect(PsiElement element) {
+    public List<Violation> detect(PsiElement element, FileAnalysisContext context) {
         List<Violation> violations = new ArrayList<>();
         
         // Check for variable declarations with assignment
         if (element instanceof PsiLocalVariable) {
             PsiLocalVariable variable = (PsiLocalVariable) element;
-            checkVariableAssignment(variable, violations);
+            checkVariableAssignment(variable, context, violations);
         }
         
         // Check for assignment expressions
         if (element instanceof PsiAssignmentExpression) {
             PsiAssignmentExpression assignment = (PsiAssignmentExpression) element;
-            checkAssignment(assignment, violations);
+            checkAssignment(assignment, context, violations);
         }
         
         // Check for Boolean wrapper used directly in conditionals
         if (element instanceof PsiIfStatement) {
             PsiIfStatement ifStmt = (PsiIfStatement) element;
             PsiExpression condition = ifStmt.getCondition();
-            if (condition != null && isBooleanWrapperType(condition)) {
-                addViolation(element, condition.getText(), violations);
+            if (condition != null && isBooleanWrapperType(condition, context)) {
+                addViolation(element, condition.getText(), context, violations);
             }
         }
         
         // Check for return statements
         if (element instanceof PsiReturnStatement) {
             PsiReturnStatement returnStmt = (PsiReturnStatement) element;
-            checkReturnStatement(returnStmt, violations);
+            checkReturnStatement(returnStmt, context, violations);
         }
         
         // Check for method call arguments
         if (element instanceof PsiMethodCallExpression) {
             PsiMethodCallExpression methodCall = (PsiMethodCallExpression) element;
-            checkMethodArguments(methodCall, violations);
+            checkMethodArguments(methodCall, context, violations);
         }
         
         return violations;
     }
     
-    private void checkVariableAssignment(PsiLocalVariable variable, List<Violation> violations) {
+    private void checkVariableAssignment(PsiLocalVariable variable, FileAnalysisContext context,
+                                         List<Violation> violations) {
         PsiType varType = variable.getType();
         
         // Check if variable is primitive boolean
@@ -68,12 +74,13 @@ public class BooleanUnboxingDetector extends BaseDetector implements ViolationDe
         }
         
         // Check if initializer is Boolean wrapper type
-        if (isBooleanWrapperType(initializer)) {
-            addViolation(variable, initializer.getText(), violations);
+        if (isBooleanWrapperType(initializer, context)) {
+            addViolation(variable, initializer.getText(), context, violations);
         }
     }
     
-    private void checkAssignment(PsiAssignmentExpression assignment, List<Violation> violations) {
+    private void checkAssignment(PsiAssignmentExpression assignment, FileAnalysisContext context,
+                                 List<Violation> violations) {
         PsiExpression lhs = assignment.getLExpression();
         PsiExpression rhs = assignment.getRExpression();
         
@@ -87,24 +94,18 @@ public class BooleanUnboxingDetector extends BaseDetector implements ViolationDe
         }
         
         // Check if RHS is Boolean wrapper type
-        if (isBooleanWrapperType(rhs)) {
-            addViolation(assignment, rhs.getText(), violations);
+        if (isBooleanWrapperType(rhs, context)) {
+            addViolation(assignment, rhs.getText(), context, violations);
         }
     }
     
-    private boolean isBooleanWrapperType(PsiExpression expr) {
+    private boolean isBooleanWrapperType(PsiExpression expr, FileAnalysisContext context) {
         // Skip Boolean constants (Boolean.TRUE, Boolean.FALSE) - they're safe
         if (isBooleanConstant(expr)) {
             return false;
         }
         
-        PsiType type = expr.getType();
-        if (type == null) {
-            return false;
-        }
-        
-        String typeName = type.getCanonicalText();
-        return "java.lang.Boolean".equals(typeName) || "Boolean".equals(typeName);
+        return context.isBooleanWrapperType(expr);
     }
     
     /**
@@ -115,43 +116,59 @@ public class BooleanUnboxingDetector extends BaseDetector implements ViolationDe
             return false;
         }
         
-        PsiReferenceExpression ref = (PsiReferenceExpression) expr;
-        String text = ref.getText();
-        
         // Check for Boolean.TRUE or Boolean.FALSE
-        return "Boolean.TRUE".equals(text) || "Boolean.FALSE".equals(text) ||
-               "java.lang.Boolean.TRUE".equals(text) || "java.lang.Boolean.FALSE".equals(text);
+        return NullSafetyRules.isBooleanConstant(expr.getText());
     }
     
-    private void checkReturnStatement(PsiReturnStatement returnStmt, List<Violation> violations) {
+    private void checkReturnStatement(PsiReturnStatement returnStmt, FileAnalysisContext context,
+                                      List<Violation> violations) {
         PsiExpression returnValue = returnStmt.getReturnValue();
         if (returnValue == null) {
             return;
         }
         
         // Check if return value is Boolean wrapper but method returns primitive boolean
-        if (!isBooleanWrapperType(returnValue)) {
+        if (!isBooleanWrapperType(returnValue, context)) {
             return;
         }
         
-        // Find the containing method
-        PsiMethod method = findContainingMethod(returnStmt);
+        // The containing method
+        PsiMethod method = context.getCurrentMethod();
         if (method == null) {
             return;
         }
         
         PsiType returnType = method.getReturnType();
         if (returnType != null && returnType.equals(PsiType.BOOLEAN)) {
-            addViolation(returnStmt, returnValue.getText(), violations);
+            addViolation(returnStmt, returnValue.getText(), context, violations);
         }
     }
     
-    private void checkMethodArguments(PsiMethodCallExpression methodCall, List<Violation> violations) {
+    private void checkMethodArguments(PsiMethodCallExpression methodCall, FileAnalysisContext context,
+                                      List<Violation> violations) {
         PsiExpression[] args = methodCall.getArgumentList().getExpressions();
+        if (args.length == 0) {
+            context.rejected(Stage.SHAPE);
+            return;
+        }
+        
+        // Only resolve the method when some argument is a Boolean wrapper
+        boolean anyWrapper = false;
+        for (PsiExpression arg : args) {
+            if (isBooleanWrapperType(arg, context)) {
+                anyWrapper = true;
+                break;
+            }
+        }
+        if (!anyWrapper) {
+            context.rejected(Stage.TYPE);
+            return;
+        }
         
-        // Try to resolve the method to check parameter types
-        PsiMethod method = methodCall.resolveMethod();
+        // Resolve the method to check parameter types
+        PsiMethod method = context.resolveMethod(methodCall);
         if (method == null) {
+            context.rejected(Stage.RESOLVE);
             return;
         }
         
@@ -162,41 +179,21 @@ public class BooleanUnboxingDetector extends BaseDetector implements ViolationDe
             PsiParameter param = params[i];
             
             // Check if argument is Boolean wrapper but parameter is primitive boolean
-            if (isBooleanWrapperType(arg) && param.getType().equals(PsiType.BOOLEAN)) {
-                addViolation(arg, arg.getText(), violations);
+            if (param.getType().equals(PsiType.BOOLEAN) && isBooleanWrapperType(arg, context)) {
+                addViolation(arg, arg.getText(), context, violations);
             }
         }
     }
     
-    private PsiMethod findContainingMethod(PsiElement element) {
-        PsiElement current = element.getParent();
-        while (current != null) {
-            if (current instanceof PsiMethod) {
-                return (PsiMethod) current;
-            }
-            current = current.getParent();
-        }
-        return null;
+    private void addViolation(PsiElement element, String code, FileAnalysisContext context,
+                              List<Violation> violations) {
+        violations.add(context.createViolation(ViolationType.BOOLEAN_UNBOXING, element, code));
     }
     
-    private void addViolation(PsiElement element, String code, List<Violation> violations) {
-        int lineNumber = getLineNumber(element);
-        int columnNumber = getColumnNumber(element);
-        String className = getClassName(element);
-        String packageName = getPackageName(element);
-        
-        Violation violation = new Violation(
-            ViolationType.BOOLEAN_UNBOXING,
-            element.getContainingFile(),
-            element,
-            lineNumber,
-            columnNumber,
-            className,
-            packageName,
-            code
-        );
-        
-        violations.add(violation);
+    @Override
+    public Collection<String> getTriggerTokens() {
+        // A Boolean returned by a method declared elsewhere needs no Boolean token here
+        return Collections.emptyList();
     }
     
     @Override
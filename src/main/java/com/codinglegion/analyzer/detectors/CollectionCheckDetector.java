@@ -2,11 +2,16 @@ package com.codinglegion.analyzer.detectors;
 
 import com.intellij.psi.*;
 import com.intellij.psi.tree.IElementType;
+import com.codinglegion.analyzer.FileAnalysisContext;
+import com.codinglegion.analyzer.Stage;
 import com.codinglegion.analyzer.ViolationDetector;
+import com.codinglegion.core.rules.NullSafetyRules;
 import com.codinglegion.model.Violation;
 import com.codinglegion.model.ViolationType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,10 +21,10 @@ import java.util.List;
  * 2. Size comparisons: collection.size() == 0 or > 0
  * 3. Unsafe isEmpty/size calls without null checks (NPE risk)
  */
-public class CollectionCheckDetector extends BaseDetector implements ViolationDetector {
+public class CollectionCheckDetector implements ViolationDetector {
     
     @Override
-    public List<Violation> detect(PsiElement element) {
+    public List<Violation> detect(PsiElement element, FileAnalysisContext context) {
         List<Violation> violations = new ArrayList<>();
         
         // Pattern 1: collection == null || collection.isEmpty()
@@ -28,22 +33,48 @@ public class CollectionCheckDetector extends BaseDetector implements ViolationDe
             
             // Check for OR pattern: collection == null || collection.isEmpty()
             if (binary.getOperationTokenType() == JavaTokenType.OROR) {
-                checkNullOrEmptyPattern(binary, violations);
+                checkNullOrEmptyPattern(binary, context, violations);
             }
             
             // Check for size comparisons: collection.size() == 0, > 0, etc.
-            checkSizeComparisonPattern(binary, violations);
+            checkSizeComparisonPattern(binary, context, violations);
         }
         
         // Pattern 2: Unsafe isEmpty() or size() call without null check
         if (element instanceof PsiMethodCallExpression) {
-            checkUnsafeCollectionMethod((PsiMethodCallExpression) element, violations);
+            checkUnsafeCollectionMethod((PsiMethodCallExpression) element, context, violations);
         }
         
         return violations;
     }
     
-    private void checkNullOrEmptyPattern(PsiBinaryExpression binary, List<Violation> violations) {
+    /**
+     * Quick scan: a qualified, argument-less size() compared with a number; few types besides collections
+     * have size(). length() is left to the full pass, it is how strings are measured
+     * The null-or-empty shape is left to the full pass too, it is the same for strings
+     */
+    @Override
+    public List<Violation> detectShape(PsiElement element, FileAnalysisContext context) {
+        List<Violation> violations = new ArrayList<>();
+        
+        if (element instanceof PsiBinaryExpression) {
+            PsiExpression sizeExpr = sizeComparisonOperand((PsiBinaryExpression) element);
+            if (sizeExpr != null && isQualifiedSizeCall((PsiMethodCallExpression) sizeExpr)) {
+                addViolation(element, ViolationType.COLLECTION_SIZE_CHECK, context, violations);
+            }
+        }
+        
+        return violations;
+    }
+    
+    private boolean isQualifiedSizeCall(PsiMethodCallExpression methodCall) {
+        PsiReferenceExpression methodRef = methodCall.getMethodExpression();
+        return "size".equals(methodRef.getReferenceName()) && methodRef.getQualifierExpression() != null &&
+            methodCall.getArgumentList().getExpressions().length == 0;
+    }
+    
+    private void checkNullOrEmptyPattern(PsiBinaryExpression binary, FileAnalysisContext context,
+                                         List<Violation> violations) {
         PsiExpression left = binary.getLOperand();
         PsiExpression right = binary.getROperand();
         
@@ -62,73 +93,84 @@ public class CollectionCheckDetector extends BaseDetector implements ViolationDe
             String leftVar = getVariableFromNullCheck(left);
             String rightVar = getVariableFromCollectionCheck(right);
             
-            if (leftVar != null && leftVar.equals(rightVar) && isCollectionExpression(right)) {
-                addViolation(binary, ViolationType.COLLECTION_NULL_CHECK, violations);
+            if (leftVar != null && leftVar.equals(rightVar) && isCollectionExpression(right, context)) {
+                addViolation(binary, ViolationType.COLLECTION_NULL_CHECK, context, violations);
             }
         }
     }
     
-    private void checkSizeComparisonPattern(PsiBinaryExpression binary, List<Violation> violations) {
+    private void checkSizeComparisonPattern(PsiBinaryExpression binary, FileAnalysisContext context,
+                                            List<Violation> violations) {
+        PsiExpression sizeExpr = sizeComparisonOperand(binary);
+        
+        // Check if it's a Collection type
+        if (sizeExpr != null && isCollectionSizeCall(sizeExpr, context)) {
+            addViolation(binary, ViolationType.COLLECTION_SIZE_CHECK, context, violations);
+        }
+    }
+    
+    /**
+     * The size() call of a comparison between size() and a numeric literal, or null for other expressions
+     */
+    private PsiExpression sizeComparisonOperand(PsiBinaryExpression binary) {
         IElementType op = binary.getOperationTokenType();
         
         // Check for comparison operators: ==, !=, >, <, >=, <=
         if (op != JavaTokenType.EQEQ && op != JavaTokenType.NE && 
             op != JavaTokenType.GT && op != JavaTokenType.LT &&
             op != JavaTokenType.GE && op != JavaTokenType.LE) {
-            return;
+            return null;
         }
         
         PsiExpression left = binary.getLOperand();
         PsiExpression right = binary.getROperand();
         
         if (right == null) {
-            return;
+            return null;
         }
         
         // Check if either side is size() method call and other is numeric literal (0, 1, etc.)
-        boolean leftIsSize = isSizeCall(left);
-        boolean rightIsSize = isSizeCall(right);
-        boolean leftIsNumeric = isNumericLiteral(left);
-        boolean rightIsNumeric = isNumericLiteral(right);
-        
-        if ((leftIsSize && rightIsNumeric) || (rightIsSize && leftIsNumeric)) {
-            PsiExpression sizeExpr = leftIsSize ? left : right;
-            
-            // Check if it's a Collection type
-            if (isCollectionSizeCall(sizeExpr)) {
-                addViolation(binary, ViolationType.COLLECTION_SIZE_CHECK, violations);
-            }
+        if (isSizeCall(left) && isNumericLiteral(right)) {
+            return left;
         }
+        if (isSizeCall(right) && isNumericLiteral(left)) {
+            return right;
+        }
+        return null;
     }
     
-    private void checkUnsafeCollectionMethod(PsiMethodCallExpression methodCall, List<Violation> violations) {
+    private void checkUnsafeCollectionMethod(PsiMethodCallExpression methodCall, FileAnalysisContext context,
+                                             List<Violation> violations) {
         String methodName = methodCall.getMethodExpression().getReferenceName();
         
         // Only check isEmpty() and size() calls
-        if (!"isEmpty".equals(methodName) && !"size".equals(methodName)) {
+        if (!NullSafetyRules.isCollectionCheckMethod(methodName)) {
+            context.rejected(Stage.TOKEN);
             return;
         }
         
         PsiExpression qualifier = methodCall.getMethodExpression().getQualifierExpression();
         
-        // Skip if no qualifier (shouldn't happen) or if it's a known safe pattern
-        if (qualifier == null || !isCollectionType(qualifier)) {
+        // Skip if no qualifier (shouldn't happen) or if the qualifier is guaranteed non-null
+        if (qualifier == null || isGuaranteedNonNull(qualifier)) {
+            context.rejected(Stage.SHAPE);
             return;
         }
         
-        // Check if this call is already protected by a null check
-        if (isProtectedByNullCheck(methodCall, qualifier)) {
+        if (!context.isCollectionType(qualifier)) {
+            context.rejected(Stage.TYPE);
             return;
         }
         
-        // Check if the qualifier is a literal or guaranteed non-null
-        if (isGuaranteedNonNull(qualifier)) {
+        // Check if this call is already protected by a null check
+        if (context.getGuardFacts().isNullChecked(qualifier)) {
+            context.rejected(Stage.RESOLVE);
             return;
         }
         
         // This is an unsafe collection method call - could NPE
         // Use COLLECTION_NULL_CHECK type for consistency
-        addViolation(methodCall, ViolationType.COLLECTION_NULL_CHECK, violations);
+        addViolation(methodCall, ViolationType.COLLECTION_NULL_CHECK, context, violations);
     }
     
     private boolean isNullCheck(PsiExpression expr) {
@@ -235,7 +277,7 @@ public class CollectionCheckDetector extends BaseDetector implements ViolationDe
         PsiMethodCallExpression methodCall = (PsiMethodCallExpression) expr;
         String methodName = methodCall.getMethodExpression().getReferenceName();
         
-        return "size".equals(methodName) || "length".equals(methodName);
+        return NullSafetyRules.isSizeMethod(methodName);
     }
     
     private boolean isZeroLiteral(PsiExpression expr) {
@@ -260,26 +302,26 @@ public class CollectionCheckDetector extends BaseDetector implements ViolationDe
         return value instanceof Number;
     }
     
-    private boolean isCollectionExpression(PsiExpression expr) {
+    private boolean isCollectionExpression(PsiExpression expr, FileAnalysisContext context) {
         if (expr instanceof PsiMethodCallExpression) {
             PsiMethodCallExpression methodCall = (PsiMethodCallExpression) expr;
             PsiExpression qualifier = methodCall.getMethodExpression().getQualifierExpression();
-            return qualifier != null && isCollectionType(qualifier);
+            return qualifier != null && context.isCollectionType(qualifier);
         } else if (expr instanceof PsiBinaryExpression) {
             PsiBinaryExpression binary = (PsiBinaryExpression) expr;
             PsiExpression left = binary.getLOperand();
             PsiExpression right = binary.getROperand();
             
             if (isSizeCall(left)) {
-                return isCollectionSizeCall(left);
+                return isCollectionSizeCall(left, context);
             } else if (right != null && isSizeCall(right)) {
-                return isCollectionSizeCall(right);
+                return isCollectionSizeCall(right, context);
             }
         }
         return false;
     }
     
-    private boolean isCollectionSizeCall(PsiExpression expr) {
+    private boolean isCollectionSizeCall(PsiExpression expr, FileAnalysisContext context) {
         if (!(expr instanceof PsiMethodCallExpression)) {
             return false;
         }
@@ -287,80 +329,7 @@ public class CollectionCheckDetector extends BaseDetector implements ViolationDe
         PsiMethodCallExpression methodCall = (PsiMethodCallExpression) expr;
         PsiExpression qualifier = methodCall.getMethodExpression().getQualifierExpression();
         
-        return qualifier != null && isCollectionType(qualifier);
-    }
-    
-    private boolean isCollectionType(PsiExpression expr) {
-        PsiType type = expr.getType();
-        if (type == null) {
-            return false;
-        }
-        
-        String typeName = type.getCanonicalText();
-        
-        // Check if it's a Collection, List, Set, Map, etc.
-        return typeName.contains("Collection") || typeName.contains("List") || 
-               typeName.contains("Set") || typeName.contains("Map") ||
-               typeName.contains("Queue") || typeName.contains("Deque");
-    }
-    
-    private boolean isProtectedByNullCheck(PsiMethodCallExpression methodCall, PsiExpression qualifier) {
-        // Look for parent if statement with null check
-        PsiElement parent = methodCall.getParent();
-        
-        while (parent != null && !(parent instanceof PsiMethod)) {
-            if (parent instanceof PsiIfStatement) {
-                PsiIfStatement ifStmt = (PsiIfStatement) parent;
-                PsiExpression condition = ifStmt.getCondition();
-                
-                if (condition != null && containsNullCheckFor(condition, qualifier.getText())) {
-                    return true;
-                }
-            }
-            
-            // Check for ternary with null check
-            if (parent instanceof PsiConditionalExpression) {
-                PsiConditionalExpression ternary = (PsiConditionalExpression) parent;
-                PsiExpression condition = ternary.getCondition();
-                
-                if (condition != null && containsNullCheckFor(condition, qualifier.getText())) {
-                    return true;
-                }
-            }
-            
-            parent = parent.getParent();
-        }
-        
-        return false;
-    }
-    
-    private boolean containsNullCheckFor(PsiExpression condition, String varName) {
-        if (condition instanceof PsiBinaryExpression) {
-            PsiBinaryExpression binary = (PsiBinaryExpression) condition;
-            IElementType op = binary.getOperationTokenType();
-            
-            if (op == JavaTokenType.NE || op == JavaTokenType.EQEQ) {
-                PsiExpression left = binary.getLOperand();
-                PsiExpression right = binary.getROperand();
-                
-                if (right == null) {
-                    return false;
-                }
-                
-                boolean hasNull = "null".equals(left.getText()) || "null".equals(right.getText());
-                boolean hasVar = left.getText().equals(varName) || right.getText().equals(varName);
-                
-                return hasNull && hasVar;
-            }
-            
-            // Recursively check AND conditions
-            if (op == JavaTokenType.ANDAND) {
-                return containsNullCheckFor(binary.getLOperand(), varName) ||
-                       (binary.getROperand() != null && containsNullCheckFor(binary.getROperand(), varName));
-            }
-        }
-        
-        return false;
+        return qualifier != null && context.isCollectionType(qualifier);
     }
     
     private boolean isGuaranteedNonNull(PsiExpression expr) {
@@ -375,9 +344,7 @@ public class CollectionCheckDetector extends BaseDetector implements ViolationDe
             String methodName = methodCall.getMethodExpression().getReferenceName();
             
             // Common factory methods that return non-null
-            if ("emptyList".equals(methodName) || "emptySet".equals(methodName) || 
-                "emptyMap".equals(methodName) || "singleton".equals(methodName) ||
-                "singletonList".equals(methodName) || "asList".equals(methodName)) {
+            if (NullSafetyRules.isNonNullFactoryMethod(methodName)) {
                 return true;
             }
         }
@@ -385,25 +352,14 @@ public class CollectionCheckDetector extends BaseDetector implements ViolationDe
         return false;
     }
     
-    private void addViolation(PsiElement element, ViolationType type, List<Violation> violations) {
-        int lineNumber = getLineNumber(element);
-        int columnNumber = getColumnNumber(element);
-        String className = getClassName(element);
-        String packageName = getPackageName(element);
-        String code = element.getText();
-        
-        Violation violation = new Violation(
-            type,
-            element.getContainingFile(),
-            element,
-            lineNumber,
-            columnNumber,
-            className,
-            packageName,
-            code
-        );
-        
-        violations.add(violation);
+    private void addViolation(PsiElement element, ViolationType type, FileAnalysisContext context,
+                              List<Violation> violations) {
+        violations.add(context.createViolation(type, element, element.getText()));
+    }
+    
+    @Override
+    public Collection<String> getTriggerTokens() {
+        return Arrays.asList("isEmpty", "size");
     }
     
     @Override
@@ -2,13 +2,15 @@ package com.codinglegion.analyzer.detectors;
 
 import com.intellij.psi.*;
 import com.intellij.psi.tree.IElementType;
+import com.codinglegion.analyzer.FileAnalysisContext;
+import com.codinglegion.analyzer.Stage;
 import com.codinglegion.analyzer.ViolationDetector;
+import com.codinglegion.core.rules.NullSafetyRules;
 import com.codinglegion.model.Violation;
 import com.codinglegion.model.ViolationType;
-import com.codinglegion.settings.CodingLegionSettings;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,14 +19,10 @@ import java.util.List;
  * Detects: client.getName(), list.get(0), client.name
  * Ignores: client (simple reference with implicit toString())
  */
-public class LogNullDereferenceDetector extends BaseDetector implements ViolationDetector {
-    
-    private static final List<String> LOG_METHODS = Arrays.asList(
-        "debug", "info", "warn", "error", "trace", "fatal", "log"
-    );
+public class LogNullDereferenceDetector implements ViolationDetector {
     
     @Override
-    public List<Violation> detect(PsiElement element) {
+    public List<Violation> detect(PsiElement element, FileAnalysisContext context) {
         List<Violation> violations = new ArrayList<>();
         
         if (!(element instanceof PsiMethodCallExpression)) {
@@ -35,15 +33,16 @@ public class LogNullDereferenceDetector extends BaseDetector implements Violatio
         String methodName = methodCall.getMethodExpression().getReferenceName();
         
         // Check if this is a log method
-        if (methodName == null || !LOG_METHODS.contains(methodName)) {
+        if (!NullSafetyRules.isLogMethod(methodName)) {
+            context.rejected(Stage.TOKEN);
             return violations;
         }
         
         // Check if the method is called on a logger object
         PsiExpression qualifier = methodCall.getMethodExpression().getQualifierExpression();
         if (qualifier != null) {
-            String qualifierText = qualifier.getText();
-            if (!qualifierText.toLowerCase().contains("log")) {
+            if (!NullSafetyRules.isLoggerQualifier(qualifier.getText())) {
+                context.rejected(Stage.TOKEN);
                 return violations;
             }
         }
@@ -52,26 +51,9 @@ public class LogNullDereferenceDetector extends BaseDetector implements Violatio
         PsiExpression[] args = methodCall.getArgumentList().getExpressions();
         
         for (PsiExpression arg : args) {
-            if (containsMethodCall(arg)) {
-                int columnNumber = getColumnNumber(element);
-                String packageName = getPackageName(element);
+            if (containsMethodCall(arg, context)) {
                 // This argument contains a method call or field access - potential null dereference
-                int lineNumber = getLineNumber(element);
-                String className = getClassName(element);
-                String code = element.getText();
-                
-                Violation violation = new Violation(
-                    ViolationType.LOG_NULL_DEREFERENCE,
-                    element.getContainingFile(),
-                    element,
-                    lineNumber,
-                    columnNumber,
-                    className,
-                    packageName,
-                    code
-                );
-                
-                violations.add(violation);
+                violations.add(context.createViolation(ViolationType.LOG_NULL_DEREFERENCE, element, element.getText()));
                 break; // Only report once per log statement
             }
         }
@@ -79,7 +61,7 @@ public class LogNullDereferenceDetector extends BaseDetector implements Violatio
         return violations;
     }
     
-    private boolean containsMethodCall(PsiExpression expr) {
+    private boolean containsMethodCall(PsiExpression expr, FileAnalysisContext context) {
         // If this is a ternary operator with a null check, it's safe
         if (expr instanceof PsiConditionalExpression) {
             PsiConditionalExpression conditional = (PsiConditionalExpression) expr;
@@ -98,7 +80,7 @@ public class LogNullDereferenceDetector extends BaseDetector implements Violatio
             String methodName = methodCall.getMethodExpression().getReferenceName();
             
             // Check if this is a whitelisted null-safe method
-            if (isNullSafeMethod(methodCall, methodName, qualifier)) {
+            if (isNullSafeMethod(methodName, qualifier, context)) {
                 return false;
             }
             
@@ -117,7 +99,7 @@ public class LogNullDereferenceDetector extends BaseDetector implements Violatio
             // Simple references like "client" without field access are safe (just toString())
             if (qualifier != null && !(qualifier instanceof PsiThisExpression) && !(qualifier instanceof PsiSuperExpression)) {
                 // Check if it's actually a field, not a method call (already handled above)
-                PsiElement resolved = ref.resolve();
+                PsiElement resolved = context.resolve(ref);
                 if (resolved instanceof PsiField) {
                     return true;
                 }
@@ -126,7 +108,7 @@ public class LogNullDereferenceDetector extends BaseDetector implements Violatio
         
         // Recursively check child expressions for method calls or field access
         for (PsiElement child : expr.getChildren()) {
-            if (child instanceof PsiExpression && containsMethodCall((PsiExpression) child)) {
+            if (child instanceof PsiExpression && containsMethodCall((PsiExpression) child, context)) {
                 return true;
             }
         }
@@ -134,7 +116,7 @@ public class LogNullDereferenceDetector extends BaseDetector implements Violatio
         return false;
     }
     
-    private boolean isNullSafeMethod(PsiMethodCallExpression methodCall, String methodName, PsiExpression qualifier) {
+    private boolean isNullSafeMethod(String methodName, PsiExpression qualifier, FileAnalysisContext context) {
         if (methodName == null) {
             return false;
         }
@@ -144,92 +126,16 @@ public class LogNullDereferenceDetector extends BaseDetector implements Violatio
         String qualifierName = null;
         if (qualifier != null) {
             qualifierName = qualifier.getText();
-            PsiType type = qualifier.getType();
-            if (type != null) {
-                qualifierClass = type.getCanonicalText();
-            }
-        }
-        
-        // Skip common utility bean patterns (autowired beans) based on user settings
-        if (qualifierName != null) {
-            CodingLegionSettings settings = CodingLegionSettings.getInstance();
-            String lowerName = qualifierName.toLowerCase();
-            
-            for (String pattern : settings.utilityBeanPatterns) {
-                if (lowerName.endsWith(pattern.toLowerCase())) {
-                    return true;  // Assume autowired beans are non-null
-                }
-            }
-        }
-        
-        // String class null-safe methods
-        if ("java.lang.String".equals(qualifierClass) || "String".equals(qualifierClass)) {
-            if ("valueOf".equals(methodName) || "format".equals(methodName)) {
-                return true;
-            }
+            qualifierClass = context.getCanonicalType(qualifier);
         }
         
-        // Objects class null-safe methods (Java 7+)
-        if ("java.util.Objects".equals(qualifierClass) || "Objects".equals(qualifierClass)) {
-            if ("toString".equals(methodName) || "isNull".equals(methodName) || 
-                "nonNull".equals(methodName) || "hash".equals(methodName) ||
-                "equals".equals(methodName)) {
-                return true;
-            }
-        }
-        
-        // Arrays class null-safe methods
-        if ("java.util.Arrays".equals(qualifierClass) || "Arrays".equals(qualifierClass)) {
-            if ("toString".equals(methodName) || "deepToString".equals(methodName) ||
-                "asList".equals(methodName)) {
-                return true;
-            }
-        }
-        
-        // Optional class null-safe methods (Java 8+)
-        if ("java.util.Optional".equals(qualifierClass) || "Optional".equals(qualifierClass)) {
-            if ("ofNullable".equals(methodName) || "empty".equals(methodName)) {
-                return true;
-            }
+        // Skip common utility bean patterns (autowired beans) based on the run's settings snapshot
+        if (qualifierName != null && context.getConfig().isUtilityBean(qualifierName)) {
+            return true;  // Assume autowired beans are non-null
         }
         
-        // Apache Commons Lang - StringUtils
-        if (qualifierClass != null && qualifierClass.contains("StringUtils")) {
-            if ("toString".equals(methodName) || "isEmpty".equals(methodName) ||
-                "isNotEmpty".equals(methodName) || "isBlank".equals(methodName) ||
-                "isNotBlank".equals(methodName) || "defaultString".equals(methodName) ||
-                "defaultIfEmpty".equals(methodName) || "equals".equals(methodName) ||
-                "equalsIgnoreCase".equals(methodName)) {
-                return true;
-            }
-        }
-        
-        // Apache Commons Lang - ObjectUtils
-        if (qualifierClass != null && qualifierClass.contains("ObjectUtils")) {
-            if ("toString".equals(methodName) || "defaultIfNull".equals(methodName) ||
-                "firstNonNull".equals(methodName)) {
-                return true;
-            }
-        }
-        
-        // Apache Commons Lang - BooleanUtils
-        if (qualifierClass != null && qualifierClass.contains("BooleanUtils")) {
-            if ("isTrue".equals(methodName) || "isFalse".equals(methodName) ||
-                "toBoolean".equals(methodName) || "toBooleanObject".equals(methodName) ||
-                "isNotTrue".equals(methodName) || "isNotFalse".equals(methodName)) {
-                return true;
-            }
-        }
-        
-        // Apache Commons Collections - CollectionUtils
-        if (qualifierClass != null && qualifierClass.contains("CollectionUtils")) {
-            if ("isEmpty".equals(methodName) || "isNotEmpty".equals(methodName) ||
-                "size".equals(methodName) || "emptyIfNull".equals(methodName)) {
-                return true;
-            }
-        }
-        
-        return false;
+        // String, Objects, Arrays, Optional and Apache Commons null-safe methods
+        return NullSafetyRules.isNullSafeUtilityCall(qualifierClass, methodName);
     }
     
     private boolean isNullCheckCondition(PsiExpression condition) {
@@ -261,6 +167,11 @@ public class LogNullDereferenceDetector extends BaseDetector implements Violatio
         return false;
     }
     
+    @Override
+    public Collection<String> getTriggerTokens() {
+        return NullSafetyRules.getLogMethods();
+    }
+    
     @Override
     public String getName() {
         return "LogNullDereferenceDetector";
@@ -2,21 +2,26 @@ package com.codinglegion.analyzer.detectors;
 
 import com.intellij.psi.*;
 import com.intellij.psi.tree.IElementType;
+import com.codinglegion.analyzer.FileAnalysisContext;
+import com.codinglegion.analyzer.Stage;
 import com.codinglegion.analyzer.ViolationDetector;
+import com.codinglegion.core.rules.NullSafetyRules;
 import com.codinglegion.model.Violation;
 import com.codinglegion.model.ViolationType;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Detects manual string null/empty checks that should use StringUtils.isEmpty()
  * Rule: Use StringUtils.isEmpty(str) instead of str == null || str.isEmpty() or str.equals("")
  */
-public class StringEmptyCheckDetector extends BaseDetector implements ViolationDetector {
+public class StringEmptyCheckDetector implements ViolationDetector {
     
     @Override
-    public List<Violation> detect(PsiElement element) {
+    public List<Violation> detect(PsiElement element, FileAnalysisContext context) {
         List<Violation> violations = new ArrayList<>();
         
         if (!(element instanceof PsiBinaryExpression)) {
@@ -28,6 +33,7 @@ public class StringEmptyCheckDetector extends BaseDetector implements ViolationD
         // Check for pattern: str == null || str.isEmpty()
         // or str == null || str.equals("")
         if (binary.getOperationTokenType() != JavaTokenType.OROR) {
+            context.rejected(Stage.TOKEN);
             return violations;
         }
         
@@ -38,36 +44,53 @@ public class StringEmptyCheckDetector extends BaseDetector implements ViolationD
             return violations;
         }
         
-        // Check if left is null check
-        boolean leftIsNullCheck = isNullCheck(left);
+        // Check if left is null check before any type of the right side is inferred
+        if (!isNullCheck(left)) {
+            context.rejected(Stage.SHAPE);
+            return violations;
+        }
         
         // Check if right is isEmpty(), equals(""), or length() == 0 check on same variable
-        boolean rightIsEmptyCheck = isEmptyCheck(right) || isEqualsEmptyStringCheck(right) || isLengthZeroCheck(right);
+        boolean rightIsEmptyCheck = isEqualsEmptyStringCheck(right) || isEmptyCheck(right, context)
+            || isLengthZeroCheck(right, context);
+        
+        if (!rightIsEmptyCheck) {
+            context.rejected(Stage.TYPE);
+            return violations;
+        }
+        
+        // Check if both sides refer to the same string variable
+        String leftVar = getVariableFromNullCheck(left);
+        String rightVar = getVariableFromEmptyCheck(right, context);
+        
+        if (leftVar != null && leftVar.equals(rightVar)) {
+            violations.add(context.createViolation(ViolationType.STRING_EMPTY_CHECK, element, element.getText()));
+        }
+        
+        return violations;
+    }
+    
+    /**
+     * Quick scan: str == null || str.equals("") on the same variable; isEmpty() and length() need the
+     * String type to be told apart from collections and arrays
+     */
+    @Override
+    public List<Violation> detectShape(PsiElement element, FileAnalysisContext context) {
+        List<Violation> violations = new ArrayList<>();
         
-        if (leftIsNullCheck && rightIsEmptyCheck) {
-            // Check if both sides refer to the same string variable
+        if (!(element instanceof PsiBinaryExpression) ||
+            ((PsiBinaryExpression) element).getOperationTokenType() != JavaTokenType.OROR) {
+            return violations;
+        }
+        
+        PsiBinaryExpression binary = (PsiBinaryExpression) element;
+        PsiExpression left = binary.getLOperand();
+        PsiExpression right = binary.getROperand();
+        
+        if (right != null && isNullCheck(left) && isEqualsEmptyStringCheck(right)) {
             String leftVar = getVariableFromNullCheck(left);
-            String rightVar = getVariableFromEmptyCheck(right);
-            
-            if (leftVar != null && leftVar.equals(rightVar)) {
-                int lineNumber = getLineNumber(element);
-                int columnNumber = getColumnNumber(element);
-                String className = getClassName(element);
-                String packageName = getPackageName(element);
-                String code = element.getText();
-                
-                Violation violation = new Violation(
-                    ViolationType.STRING_EMPTY_CHECK,
-                    element.getContainingFile(),
-                    element,
-                    lineNumber,
-                    columnNumber,
-                    className,
-                    packageName,
-                    code
-                );
-                
-                violations.add(violation);
+            if (leftVar != null && leftVar.equals(getVariableFromEmptyCheck(right, context))) {
+                violations.add(context.createViolation(ViolationType.STRING_EMPTY_CHECK, element, element.getText()));
             }
         }
         
@@ -111,7 +134,7 @@ public class StringEmptyCheckDetector extends BaseDetector implements ViolationD
         return null;
     }
     
-    private boolean isEmptyCheck(PsiExpression expr) {
+    private boolean isEmptyCheck(PsiExpression expr, FileAnalysisContext context) {
         if (!(expr instanceof PsiMethodCallExpression)) {
             return false;
         }
@@ -126,11 +149,8 @@ public class StringEmptyCheckDetector extends BaseDetector implements ViolationD
         // Check if the qualifier is a String type
         PsiExpression qualifier = methodCall.getMethodExpression().getQualifierExpression();
         if (qualifier != null) {
-            PsiType type = qualifier.getType();
-            if (type != null) {
-                // Only match if it's java.lang.String
-                return type.getCanonicalText().equals("java.lang.String");
-            }
+            // Only match if it's java.lang.String
+            return NullSafetyRules.STRING_TYPE.equals(context.getCanonicalType(qualifier));
         }
         
         return false;
@@ -163,7 +183,7 @@ public class StringEmptyCheckDetector extends BaseDetector implements ViolationD
         return false;
     }
     
-    private boolean isLengthZeroCheck(PsiExpression expr) {
+    private boolean isLengthZeroCheck(PsiExpression expr, FileAnalysisContext context) {
         // Check for pattern: str.length() == 0
         if (!(expr instanceof PsiBinaryExpression)) {
             return false;
@@ -183,16 +203,12 @@ public class StringEmptyCheckDetector extends BaseDetector implements ViolationD
             return false;
         }
         
-        // Check if one side is length() call and other is 0
-        boolean leftIsLength = isLengthCall(left);
-        boolean rightIsLength = isLengthCall(right);
-        boolean leftIsZero = isZeroLiteral(left);
-        boolean rightIsZero = isZeroLiteral(right);
-        
-        return (leftIsLength && rightIsZero) || (rightIsLength && leftIsZero);
+        // Check if one side is 0 and the other a length() call (literal first, it needs no type)
+        return (isZeroLiteral(right) && isLengthCall(left, context)) ||
+               (isZeroLiteral(left) && isLengthCall(right, context));
     }
     
-    private boolean isLengthCall(PsiExpression expr) {
+    private boolean isLengthCall(PsiExpression expr, FileAnalysisContext context) {
         if (!(expr instanceof PsiMethodCallExpression)) {
             return false;
         }
@@ -207,10 +223,7 @@ public class StringEmptyCheckDetector extends BaseDetector implements ViolationD
         // Check if it's called on a String
         PsiExpression qualifier = methodCall.getMethodExpression().getQualifierExpression();
         if (qualifier != null) {
-            PsiType type = qualifier.getType();
-            if (type != null) {
-                return type.getCanonicalText().equals("java.lang.String");
-            }
+            return NullSafetyRules.STRING_TYPE.equals(context.getCanonicalType(qualifier));
         }
         
         return false;
@@ -227,7 +240,7 @@ public class StringEmptyCheckDetector extends BaseDetector implements ViolationD
         return value instanceof Integer && (Integer) value == 0;
     }
     
-    private String getVariableFromEmptyCheck(PsiExpression expr) {
+    private String getVariableFromEmptyCheck(PsiExpression expr, FileAnalysisContext context) {
         if (expr instanceof PsiMethodCallExpression) {
             PsiMethodCallExpression methodCall = (PsiMethodCallExpression) expr;
             PsiExpression qualifier = methodCall.getMethodExpression().getQualifierExpression();
@@ -241,7 +254,8 @@ public class StringEmptyCheckDetector extends BaseDetector implements ViolationD
             PsiExpression left = binary.getLOperand();
             PsiExpression right = binary.getROperand();
             
-            PsiExpression lengthExpr = isLengthCall(left) ? left : (right != null && isLengthCall(right) ? right : null);
+            PsiExpression lengthExpr = isLengthCall(left, context) ? left
+                : (right != null && isLengthCall(right, context) ? right : null);
             if (lengthExpr instanceof PsiMethodCallExpression) {
                 PsiMethodCallExpression methodCall = (PsiMethodCallExpression) lengthExpr;
                 PsiExpression qualifier = methodCall.getMethodExpression().getQualifierExpression();
@@ -254,6 +268,12 @@ public class StringEmptyCheckDetector extends BaseDetector implements ViolationD
         return null;
     }
     
+    @Override
+    public Collection<String> getTriggerTokens() {
+        // str == null || ...
+        return Collections.singletonList("null");
+    }
+    
     @Override
     public String getName() {
         return "StringEmptyCheckDetector";
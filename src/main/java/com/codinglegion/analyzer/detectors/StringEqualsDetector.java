@@ -1,21 +1,25 @@
 package com.codinglegion.analyzer.detectors;
 
 import com.intellij.psi.*;
+import com.codinglegion.analyzer.FileAnalysisContext;
+import com.codinglegion.analyzer.Stage;
 import com.codinglegion.analyzer.ViolationDetector;
 import com.codinglegion.model.Violation;
 import com.codinglegion.model.ViolationType;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Detects string.equals() calls that should use StringUtils.equals()
  * Rule: Use StringUtils.equals(a, b) instead of a.equals(b)
  */
-public class StringEqualsDetector extends BaseDetector implements ViolationDetector {
+public class StringEqualsDetector implements ViolationDetector {
     
     @Override
-    public List<Violation> detect(PsiElement element) {
+    public List<Violation> detect(PsiElement element, FileAnalysisContext context) {
         List<Violation> violations = new ArrayList<>();
         
         if (!(element instanceof PsiMethodCallExpression)) {
@@ -27,12 +31,14 @@ public class StringEqualsDetector extends BaseDetector implements ViolationDetec
         
         // Check if method name is "equals"
         if (!"equals".equals(methodRef.getReferenceName())) {
+            context.rejected(Stage.TOKEN);
             return violations;
         }
         
         // Get the qualifier (the object on which equals is called)
         PsiExpression qualifier = methodRef.getQualifierExpression();
         if (qualifier == null) {
+            context.rejected(Stage.SHAPE);
             return violations;
         }
         
@@ -40,43 +46,180 @@ public class StringEqualsDetector extends BaseDetector implements ViolationDetec
         if (qualifier instanceof PsiLiteralExpression) {
             PsiLiteralExpression literal = (PsiLiteralExpression) qualifier;
             if (literal.getValue() instanceof String) {
+                context.rejected(Stage.SHAPE);
                 return violations; // This is already null-safe
             }
         }
         
         // Check if qualifier is a String type
-        PsiType qualifierType = qualifier.getType();
-        if (qualifierType == null) {
+        if (!context.isStringType(qualifier)) {
+            context.rejected(Stage.TYPE);
             return violations;
         }
         
-        String qualifierTypeName = qualifierType.getCanonicalText();
-        if (!qualifierTypeName.equals("java.lang.String") && !qualifierTypeName.equals("String")) {
+        // This is a variable.equals() call on String - create violation
+        violations.add(context.createViolation(ViolationType.STRING_EQUALS, element, element.getText()));
+        return violations;
+    }
+    
+    /**
+     * Quick scan: x.equals("literal") where the tree alone shows x is a String: a variable declared as
+     * String in the enclosing code, a toString() or String.valueOf() call, or a concatenation with a
+     * string literal. Other qualifiers (enums, Objects, custom types with equals) are left to the full pass
+     */
+    @Override
+    public List<Violation> detectShape(PsiElement element, FileAnalysisContext context) {
+        List<Violation> violations = new ArrayList<>();
+        
+        if (!(element instanceof PsiMethodCallExpression)) {
             return violations;
         }
         
-        // This is a variable.equals() call on String - create violation
-        int lineNumber = getLineNumber(element);
-        int columnNumber = getColumnNumber(element);
-        String className = getClassName(element);
-        String packageName = getPackageName(element);
-        String code = element.getText();
-        
-        Violation violation = new Violation(
-            ViolationType.STRING_EQUALS,
-            element.getContainingFile(),
-            element,
-            lineNumber,
-            columnNumber,
-            className,
-            packageName,
-            code
-        );
+        PsiMethodCallExpression methodCall = (PsiMethodCallExpression) element;
+        PsiReferenceExpression methodRef = methodCall.getMethodExpression();
+        PsiExpression qualifier = methodRef.getQualifierExpression();
+        PsiExpression[] args = methodCall.getArgumentList().getExpressions();
         
-        violations.add(violation);
+        if ("equals".equals(methodRef.getReferenceName()) && qualifier != null && !isStringLiteral(qualifier) &&
+            args.length == 1 && isStringLiteral(args[0]) && isDeclaredString(qualifier)) {
+            violations.add(context.createViolation(ViolationType.STRING_EQUALS, element, element.getText()));
+        }
         return violations;
     }
     
+    private boolean isStringLiteral(PsiExpression expr) {
+        return expr instanceof PsiLiteralExpression && ((PsiLiteralExpression) expr).getValue() instanceof String;
+    }
+    
+    /**
+     * Whether the expression is a String by its shape or declaration, without getType() or resolve()
+     */
+    private boolean isDeclaredString(PsiExpression expr) {
+        if (expr instanceof PsiParenthesizedExpression) {
+            PsiExpression inner = ((PsiParenthesizedExpression) expr).getExpression();
+            return inner != null && isDeclaredString(inner);
+        }
+        
+        // "prefix" + x is a String whatever x is
+        if (expr instanceof PsiPolyadicExpression) {
+            PsiPolyadicExpression polyadic = (PsiPolyadicExpression) expr;
+            if (polyadic.getOperationTokenType() != JavaTokenType.PLUS) {
+                return false;
+            }
+            for (PsiExpression operand : polyadic.getOperands()) {
+                if (isStringLiteral(operand)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        if (expr instanceof PsiMethodCallExpression) {
+            PsiMethodCallExpression call = (PsiMethodCallExpression) expr;
+            PsiReferenceExpression callRef = call.getMethodExpression();
+            String name = callRef.getReferenceName();
+            PsiExpression callQualifier = callRef.getQualifierExpression();
+            // String is final, so no override of toString() can return anything else
+            if ("toString".equals(name) && call.getArgumentList().getExpressions().length == 0) {
+                return true;
+            }
+            return callQualifier != null && "String".equals(callQualifier.getText()) &&
+                ("valueOf".equals(name) || "format".equals(name) || "join".equals(name));
+        }
+        
+        if (expr instanceof PsiReferenceExpression && ((PsiReferenceExpression) expr).getQualifierExpression() == null) {
+            PsiVariable declaration = findDeclaration(expr, ((PsiReferenceExpression) expr).getReferenceName());
+            return declaration != null && isStringTypeElement(declaration.getTypeElement());
+        }
+        return false;
+    }
+    
+    /**
+     * The local variable, parameter or field of the enclosing class that a simple name refers to, found
+     * by walking the enclosing scopes; null if it is declared elsewhere (outer or super classes, imports)
+     */
+    private PsiVariable findDeclaration(PsiElement reference, String name) {
+        if (name == null) {
+            return null;
+        }
+        PsiElement child = reference;
+        for (PsiElement scope = reference.getParent(); scope != null && !(scope instanceof PsiFile);
+             child = scope, scope = scope.getParent()) {
+            if (scope instanceof PsiCodeBlock) {
+                for (PsiStatement statement : ((PsiCodeBlock) scope).getStatements()) {
+                    if (statement == child) {
+                        break;
+                    }
+                    PsiVariable local = findDeclared(statement, name);
+                    if (local != null) {
+                        return local;
+                    }
+                }
+            } else if (scope instanceof PsiForStatement) {
+                PsiVariable local = findDeclared(((PsiForStatement) scope).getInitialization(), name);
+                if (local != null) {
+                    return local;
+                }
+            } else if (scope instanceof PsiForeachStatement) {
+                PsiParameter parameter = ((PsiForeachStatement) scope).getIterationParameter();
+                if (name.equals(parameter.getName())) {
+                    return parameter;
+                }
+            } else if (scope instanceof PsiTryStatement && ((PsiTryStatement) scope).getResourceList() != null) {
+                for (PsiElement resource : ((PsiTryStatement) scope).getResourceList().getChildren()) {
+                    if (resource instanceof PsiResourceVariable && name.equals(((PsiResourceVariable) resource).getName())) {
+                        return (PsiResourceVariable) resource;
+                    }
+                }
+            } else if (scope instanceof PsiCatchSection) {
+                PsiParameter parameter = ((PsiCatchSection) scope).getParameter();
+                if (parameter != null && name.equals(parameter.getName())) {
+                    return parameter;
+                }
+            } else if (scope instanceof PsiParameterListOwner) {
+                // Methods and lambdas; an implicitly typed lambda parameter has no type element
+                for (PsiParameter parameter : ((PsiParameterListOwner) scope).getParameterList().getParameters()) {
+                    if (name.equals(parameter.getName())) {
+                        return parameter;
+                    }
+                }
+            } else if (scope instanceof PsiClass) {
+                for (PsiField field : ((PsiClass) scope).getFields()) {
+                    if (name.equals(field.getName())) {
+                        return field;
+                    }
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+    
+    private PsiVariable findDeclared(PsiStatement statement, String name) {
+        if (!(statement instanceof PsiDeclarationStatement)) {
+            return null;
+        }
+        for (PsiElement declared : ((PsiDeclarationStatement) statement).getDeclaredElements()) {
+            if (declared instanceof PsiLocalVariable && name.equals(((PsiLocalVariable) declared).getName())) {
+                return (PsiLocalVariable) declared;
+            }
+        }
+        return null;
+    }
+    
+    private boolean isStringTypeElement(PsiTypeElement typeElement) {
+        if (typeElement == null) {
+            return false;
+        }
+        String text = typeElement.getText();
+        return "String".equals(text) || "java.lang.String".equals(text);
+    }
+    
+    @Override
+    public Collection<String> getTriggerTokens() {
+        return Collections.singletonList("equals");
+    }
+    
     @Override
     public String getName() {
         return "StringEqualsDetector";
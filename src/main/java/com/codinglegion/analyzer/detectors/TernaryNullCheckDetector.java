@@ -2,11 +2,15 @@ package com.codinglegion.analyzer.detectors;
 
 import com.intellij.psi.*;
 import com.intellij.psi.tree.IElementType;
+import com.codinglegion.analyzer.FileAnalysisContext;
 import com.codinglegion.analyzer.ViolationDetector;
 import com.codinglegion.model.Violation;
 import com.codinglegion.model.ViolationType;
+import com.intellij.openapi.project.DumbAware;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -15,21 +19,22 @@ import java.util.List;
  *   - obj != null ? obj : defaultValue (ternary)
  *   - if (obj == null) { x = default; } else { x = obj; } (if-else assignment)
  *   - if (obj == null) { return default; } else { return obj; } (if-else return)
+ * Compares expressions by text only, so it also runs while the IDE is indexing
  */
-public class TernaryNullCheckDetector extends BaseDetector implements ViolationDetector {
+public class TernaryNullCheckDetector implements ViolationDetector, DumbAware {
     
     @Override
-    public List<Violation> detect(PsiElement element) {
+    public List<Violation> detect(PsiElement element, FileAnalysisContext context) {
         List<Violation> violations = new ArrayList<>();
         
         // Check for ternary pattern
         if (element instanceof PsiConditionalExpression) {
-            checkTernaryPattern((PsiConditionalExpression) element, violations);
+            checkTernaryPattern((PsiConditionalExpression) element, context, violations);
         }
         
         // Check for if-else pattern
         if (element instanceof PsiIfStatement) {
-            checkIfElsePattern((PsiIfStatement) element, violations);
+            checkIfElsePattern((PsiIfStatement) element, context, violations);
         }
         
         return violations;
@@ -38,7 +43,8 @@ public class TernaryNullCheckDetector extends BaseDetector implements ViolationD
     /**
      * Check ternary expression: obj != null ? obj : default
      */
-    private void checkTernaryPattern(PsiConditionalExpression ternary, List<Violation> violations) {
+    private void checkTernaryPattern(PsiConditionalExpression ternary, FileAnalysisContext context,
+                                     List<Violation> violations) {
         PsiExpression condition = ternary.getCondition();
         PsiExpression thenExpr = ternary.getThenExpression();
         PsiExpression elseExpr = ternary.getElseExpression();
@@ -65,14 +71,15 @@ public class TernaryNullCheckDetector extends BaseDetector implements ViolationD
         }
         
         if (isNullDefaultPattern) {
-            addViolation(ternary, violations);
+            addViolation(ternary, context, violations);
         }
     }
     
     /**
      * Check if-else statement: if (obj == null) { x = default; } else { x = obj; }
      */
-    private void checkIfElsePattern(PsiIfStatement ifStatement, List<Violation> violations) {
+    private void checkIfElsePattern(PsiIfStatement ifStatement, FileAnalysisContext context,
+                                    List<Violation> violations) {
         PsiExpression condition = ifStatement.getCondition();
         PsiStatement thenBranch = ifStatement.getThenBranch();
         PsiStatement elseBranch = ifStatement.getElseBranch();
@@ -101,7 +108,7 @@ public class TernaryNullCheckDetector extends BaseDetector implements ViolationD
             checkAssignmentPattern(ifStatement, nullCheck, 
                 (PsiExpressionStatement) thenStmt, 
                 (PsiExpressionStatement) elseStmt, 
-                violations);
+                context, violations);
         }
         
         // Check for return pattern
@@ -109,7 +116,7 @@ public class TernaryNullCheckDetector extends BaseDetector implements ViolationD
             checkReturnPattern(ifStatement, nullCheck,
                 (PsiReturnStatement) thenStmt,
                 (PsiReturnStatement) elseStmt,
-                violations);
+                context, violations);
         }
     }
     
@@ -118,7 +125,7 @@ public class TernaryNullCheckDetector extends BaseDetector implements ViolationD
      */
     private void checkAssignmentPattern(PsiIfStatement ifStatement, NullCheckInfo nullCheck,
                                        PsiExpressionStatement thenStmt, PsiExpressionStatement elseStmt,
-                                       List<Violation> violations) {
+                                       FileAnalysisContext context, List<Violation> violations) {
         PsiExpression thenExpr = thenStmt.getExpression();
         PsiExpression elseExpr = elseStmt.getExpression();
         
@@ -156,7 +163,7 @@ public class TernaryNullCheckDetector extends BaseDetector implements ViolationD
         }
         
         if (isNullDefaultPattern) {
-            addViolation(ifStatement, violations);
+            addViolation(ifStatement, context, violations);
         }
     }
     
@@ -165,7 +172,7 @@ public class TernaryNullCheckDetector extends BaseDetector implements ViolationD
      */
     private void checkReturnPattern(PsiIfStatement ifStatement, NullCheckInfo nullCheck,
                                     PsiReturnStatement thenReturn, PsiReturnStatement elseReturn,
-                                    List<Violation> violations) {
+                                    FileAnalysisContext context, List<Violation> violations) {
         PsiExpression thenValue = thenReturn.getReturnValue();
         PsiExpression elseValue = elseReturn.getReturnValue();
         
@@ -185,7 +192,7 @@ public class TernaryNullCheckDetector extends BaseDetector implements ViolationD
         }
         
         if (isNullDefaultPattern) {
-            addViolation(ifStatement, violations);
+            addViolation(ifStatement, context, violations);
         }
     }
     
@@ -247,25 +254,8 @@ public class TernaryNullCheckDetector extends BaseDetector implements ViolationD
     /**
      * Add violation
      */
-    private void addViolation(PsiElement element, List<Violation> violations) {
-        int lineNumber = getLineNumber(element);
-        int columnNumber = getColumnNumber(element);
-        String className = getClassName(element);
-        String packageName = getPackageName(element);
-        String code = element.getText();
-        
-        Violation violation = new Violation(
-            ViolationType.TERNARY_NULL_DEFAULT,
-            element.getContainingFile(),
-            element,
-            lineNumber,
-            columnNumber,
-            className,
-            packageName,
-            code
-        );
-        
-        violations.add(violation);
+    private void addViolation(PsiElement element, FileAnalysisContext context, List<Violation> violations) {
+        violations.add(context.createViolation(ViolationType.TERNARY_NULL_DEFAULT, element, element.getText()));
     }
     
     /**
@@ -281,6 +271,11 @@ public class TernaryNullCheckDetector extends BaseDetector implements ViolationD
         }
     }
     
+    @Override
+    public Collection<String> getTriggerTokens() {
+        return Collections.singletonList("null");
+    }
+    
     @Override
     public String getName() {
         return "TernaryNullCheckDetector";
@@ -0,0 +1,93 @@
+package com.codinglegion.baseline;
+
+import com.codinglegion.core.Finding;
+import com.codinglegion.core.baseline.FindingFingerprint;
+import com.codinglegion.core.baseline.ViolationBaseline;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Project baseline of resolved / accepted violations ("Resolve & Track")
+ * Stored in coding-legion-baseline.bin in the project root so it can be committed and shared with CI
+ * (the command line runners read the same file with --baseline)
+ * The file is read into heap memory rather than mapped, since {@link #resolve} replaces it
+ */
+public class ViolationBaselineService {
+    
+    private static final Logger LOG = Logger.getInstance(ViolationBaselineService.class);
+    
+    public static final String FILE_NAME = "coding-legion-baseline.bin";
+    
+    private final Project project;
+    private volatile ViolationBaseline baseline;
+    
+    public ViolationBaselineService(Project project) {
+        this.project = project;
+    }
+    
+    public static ViolationBaselineService getInstance(Project project) {
+        return ServiceManager.getService(project, ViolationBaselineService.class);
+    }
+    
+    public Path getBaselineFile() {
+        return Paths.get(project.getBasePath(), FILE_NAME);
+    }
+    
+    /**
+     * Current baseline, read from disk on first use; an unreadable file counts as empty
+     */
+    public ViolationBaseline getBaseline() {
+        ViolationBaseline current = baseline;
+        if (current == null) {
+            synchronized (this) {
+                if (baseline == null) {
+                    try {
+                        baseline = ViolationBaseline.read(getBaselineFile());
+                    } catch (IOException e) {
+                        LOG.warn("Cannot read violation baseline " + getBaselineFile(), e);
+                        baseline = ViolationBaseline.empty();
+                    }
+                }
+                current = baseline;
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Violations that are not in the baseline, in their original order
+     */
+    public <T extends Finding> List<T> filterNew(List<T> violations) {
+        return getBaseline().filterNew(violations);
+    }
+    
+    /**
+     * Add violations to the baseline and rewrite the file; does I/O, so call it off the EDT
+     */
+    public synchronized void resolve(Collection<? extends Finding> violations) throws IOException {
+        long[] existing = getBaseline().toArray();
+        long[] merged = Arrays.copyOf(existing, existing.length + violations.size());
+        int i = existing.length;
+        for (Finding violation : violations) {
+            merged[i++] = FindingFingerprint.of(violation);
+        }
+        
+        ViolationBaseline.write(getBaselineFile(), merged);
+        baseline = ViolationBaseline.read(getBaselineFile());
+    }
+    
+    /**
+     * Forget the loaded baseline so the next run reads the file again (e.g. after a VCS update)
+     */
+    public void reload() {
+        baseline = null;
+    }
+}
@@ -0,0 +1,173 @@
+package com.codinglegion.batch;
+
+import com.codinglegion.core.export.ExportFormat;
+
+import java.io.File;
+
+/**
+ * Command line options for the headless Coding Legion runner
+ *
+ * Usage: idea.sh codinglegion &lt;projectPath&gt; [--scope=changed|project|module:&lt;name&gt;]
+ *        [--output=&lt;file&gt;] [--format=text|sarif|jsonl|junit] [--threads=&lt;n&gt;]
+ *        [--config=&lt;settings.properties&gt;] [--baseline=&lt;file&gt;] [--update-baseline] [--stats]
+ */
+public class BatchOptions {
+    
+    public static final String USAGE =
+        "Usage: codinglegion <projectPath> [--scope=changed|project|module:<name>] " +
+        "[--output=<file>] [--format=text|sarif|jsonl|junit] [--threads=<n>] [--config=<settings.properties>] " +
+        "[--baseline=<file>] [--update-baseline] [--stats]";
+    
+    /**
+     * Which files of the project are analyzed
+     */
+    public enum Scope {
+        CHANGED,
+        MODULE,
+        PROJECT
+    }
+    
+    private String projectPath;
+    private Scope scope = Scope.CHANGED;
+    private String moduleName;
+    private File outputFile;
+    private ExportFormat format;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private File configFile;
+    private File baselineFile;
+    private boolean updateBaseline;
+    private boolean stats;
+    
+    /**
+     * Parse starter arguments (the first argument is the command name itself)
+     *
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    public static BatchOptions parse(String[] args) {
+        BatchOptions options = new BatchOptions();
+        
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            
+            if (arg.startsWith("--scope=")) {
+                options.parseScope(arg.substring("--scope=".length()));
+            } else if (arg.startsWith("--output=")) {
+                options.outputFile = new File(arg.substring("--output=".length()));
+            } else if (arg.startsWith("--format=")) {
+                options.parseFormat(arg.substring("--format=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                options.threads = parseThreads(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--config=")) {
+                options.configFile = new File(arg.substring("--config=".length()));
+            } else if (arg.startsWith("--baseline=")) {
+                options.baselineFile = new File(arg.substring("--baseline=".length()));
+            } else if ("--update-baseline".equals(arg)) {
+                options.updateBaseline = true;
+            } else if ("--stats".equals(arg)) {
+                options.stats = true;
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            } else if (options.projectPath == null) {
+                options.projectPath = new File(arg).getAbsolutePath();
+            } else {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+        }
+        
+        if (options.projectPath == null) {
+            throw new IllegalArgumentException("Project path is required");
+        }
+        
+        if (options.outputFile == null) {
+            String extension = options.format != null ? options.format.getExtension() : "txt";
+            options.outputFile = new File("coding-legion-report." + extension);
+        }
+        
+        return options;
+    }
+    
+    private void parseScope(String value) {
+        if ("changed".equals(value)) {
+            scope = Scope.CHANGED;
+        } else if ("project".equals(value)) {
+            scope = Scope.PROJECT;
+        } else if (value.startsWith("module:") && value.length() > "module:".length()) {
+            scope = Scope.MODULE;
+            moduleName = value.substring("module:".length());
+        } else {
+            throw new IllegalArgumentException("Invalid scope: " + value);
+        }
+    }
+    
+    private void parseFormat(String value) {
+        if ("text".equals(value)) {
+            format = null;
+            return;
+        }
+        format = ExportFormat.fromName(value);
+        if (format == null) {
+            throw new IllegalArgumentException("Invalid format: " + value);
+        }
+    }
+    
+    private static int parseThreads(String value) {
+        try {
+            int threads = Integer.parseInt(value);
+            if (threads < 1) {
+                throw new IllegalArgumentException("Thread count must be at least 1: " + value);
+            }
+            return threads;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid thread count: " + value);
+        }
+    }
+    
+    public String getProjectPath() {
+        return projectPath;
+    }
+    
+    public Scope getScope() {
+        return scope;
+    }
+    
+    public String getModuleName() {
+        return moduleName;
+    }
+    
+    public File getOutputFile() {
+        return outputFile;
+    }
+    
+    /**
+     * @return export format, or null for the plain text report
+     */
+    public ExportFormat getFormat() {
+        return format;
+    }
+    
+    public int getThreads() {
+        return threads;
+    }
+    
+    public File getConfigFile() {
+        return configFile;
+    }
+    
+    /**
+     * @return explicit baseline file, or null for the project's coding-legion-baseline.bin
+     */
+    public File getBaselineFile() {
+        return baselineFile;
+    }
+    
+    public boolean isUpdateBaseline() {
+        return updateBaseline;
+    }
+    
+    /**
+     * Print where detectors rejected their candidates and how many resolves were done
+     */
+    public boolean isStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,248 @@
+package com.codinglegion.batch;
+
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vcs.changes.ChangeListManager;
+import com.intellij.openapi.vcs.changes.InvokeAfterUpdateMode;
+import com.intellij.openapi.vcs.changes.VcsDirtyScopeManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.codinglegion.analyzer.AnalysisConfig;
+import com.codinglegion.analyzer.CodingStandardsAnalyzer;
+import com.codinglegion.baseline.ViolationBaselineService;
+import com.codinglegion.core.baseline.ViolationBaseline;
+import com.codinglegion.core.cost.FileCostTable;
+import com.codinglegion.core.export.ExportFormat;
+import com.codinglegion.core.export.FindingExporter;
+import com.codinglegion.index.TriggerCandidateIndex;
+import com.codinglegion.model.Violation;
+import com.codinglegion.model.ViolationSeverity;
+import com.codinglegion.settings.CodingLegionSettings;
+import com.codinglegion.utils.GitBranchChecker;
+import com.codinglegion.utils.ProjectFileCollector;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Headless entry point for running Coding Legion in CI
+ * Opens a project, analyzes the requested scope and writes the results to a file
+ * A --config file configures this run only; the IDE's persistent settings are not changed
+ *
+ * Exit codes: 0 = no errors, 1 = ERROR violations found, 2 = invalid arguments or analysis failure
+ */
+public class HeadlessAnalysisStarter implements ApplicationStarter {
+    
+    private static final Logger LOG = Logger.getInstance(HeadlessAnalysisStarter.class);
+    
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_VIOLATIONS = 1;
+    public static final int EXIT_FAILURE = 2;
+    
+    private static final long CHANGE_LIST_TIMEOUT_MINUTES = 5;
+    
+    @Override
+    public String getCommandName() {
+        return "codinglegion";
+    }
+    
+    @Override
+    public boolean isHeadless() {
+        return true;
+    }
+    
+    /**
+     * Project opening and smart-mode waits must not block the EDT, so {@link #main} runs off it
+     */
+    @Override
+    public int getRequiredModality() {
+        return NOT_IN_EDT;
+    }
+    
+    @Override
+    public void main(@NotNull String[] args) {
+        int exitCode;
+        try {
+            exitCode = run(args);
+        } catch (Throwable t) {
+            LOG.error("Coding Legion headless analysis failed", t);
+            System.err.println("Coding Legion: analysis failed - " + t.getMessage());
+            exitCode = EXIT_FAILURE;
+        }
+        System.exit(exitCode);
+    }
+    
+    private int run(String[] args) throws Exception {
+        BatchOptions options;
+        try {
+            options = BatchOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Coding Legion: " + e.getMessage());
+            System.err.println(BatchOptions.USAGE);
+            return EXIT_FAILURE;
+        }
+        
+        CodingLegionSettings settings = options.getConfigFile() != null
+            ? loadSettings(options.getConfigFile())
+            : CodingLegionSettings.getInstance();
+        
+        Project project = openProject(options.getProjectPath());
+        if (project == null) {
+            System.err.println("Coding Legion: cannot open project " + options.getProjectPath());
+            return EXIT_FAILURE;
+        }
+        
+        // Type-dependent detectors need indexes
+        DumbService.getInstance(project).waitForSmartMode();
+        
+        List<VirtualFile> files = collectFiles(project, options);
+        if (files == null) {
+            System.err.println("Coding Legion: module not found - " + options.getModuleName());
+            return EXIT_FAILURE;
+        }
+        
+        CodingStandardsAnalyzer analyzer = new CodingStandardsAnalyzer(project, AnalysisConfig.fromSettings(settings));
+        if (options.getScope() != BatchOptions.Scope.CHANGED) {
+            // Whole-tree scans only load PSI for files the trigger index marks as candidates
+            int collected = files.size();
+            files = TriggerCandidateIndex.filterCandidates(project, files, analyzer.getDetectors());
+            System.out.println(String.format("Coding Legion: %d of %d file(s) contain rule triggers",
+                files.size(), collected));
+        }
+        
+        System.out.println(String.format("Coding Legion: analyzing %d file(s) with %d thread(s)",
+            files.size(), options.getThreads()));
+        
+        List<Violation> found = analyzer.analyzeFilesInParallel(files, options.getThreads(), null);
+        if (analyzer.getDuplicateStats().getTotal() > 0) {
+            System.out.println("Coding Legion: overlapping findings merged: " + analyzer.getDuplicateStats());
+        }
+        if (options.isStats()) {
+            System.out.println("Coding Legion: detector stages: " + analyzer.getStageStats());
+        }
+        for (FileCostTable.Regression regression : analyzer.getCostRegressions()) {
+            System.out.println("Coding Legion: analysis cost regressed: " + regression);
+        }
+        
+        Path baselineFile = options.getBaselineFile() != null
+            ? options.getBaselineFile().toPath()
+            : ViolationBaselineService.getInstance(project).getBaselineFile();
+        if (options.isUpdateBaseline()) {
+            ViolationBaseline.write(baselineFile, found);
+            System.out.println(String.format("Coding Legion: baseline %s updated with %d violation(s)",
+                baselineFile.toAbsolutePath(), found.size()));
+            return EXIT_OK;
+        }
+        
+        List<Violation> violations = ViolationBaseline.load(baselineFile).filterNew(found);
+        if (violations.size() < found.size()) {
+            System.out.println(String.format("Coding Legion: %d known violation(s) suppressed by the baseline",
+                found.size() - violations.size()));
+        }
+        
+        writeReport(project, violations, options.getOutputFile(), options.getFormat());
+        
+        long errorCount = violations.stream()
+            .filter(v -> v.getSeverity() == ViolationSeverity.ERROR)
+            .count();
+        
+        System.out.println(String.format("Coding Legion: %d violation(s), %d error(s). Report: %s",
+            violations.size(), errorCount, options.getOutputFile().getAbsolutePath()));
+        
+        return errorCount > 0 ? EXIT_VIOLATIONS : EXIT_OK;
+    }
+    
+    /**
+     * Settings of this run: the IDE settings overridden by the config file, in a copy
+     */
+    private CodingLegionSettings loadSettings(File configFile) throws IOException {
+        Properties props = new Properties();
+        try (InputStream is = new FileInputStream(configFile)) {
+            props.load(is);
+        }
+        CodingLegionSettings settings = CodingLegionSettings.getInstance().copy();
+        settings.loadFromProperties(props);
+        return settings;
+    }
+    
+    private Project openProject(String projectPath) {
+        AtomicReference<Project> projectRef = new AtomicReference<>();
+        ApplicationManager.getApplication().invokeAndWait(() ->
+            projectRef.set(ProjectUtil.openOrImport(projectPath, null, false))
+        );
+        return projectRef.get();
+    }
+    
+    private List<VirtualFile> collectFiles(Project project, BatchOptions options) throws InterruptedException {
+        switch (options.getScope()) {
+            case PROJECT:
+                return ProjectFileCollector.getProjectJavaFiles(project);
+            case MODULE:
+                return ProjectFileCollector.getModuleJavaFiles(project, options.getModuleName());
+            case CHANGED:
+            default:
+                waitForChangeListUpdate(project);
+                return GitBranchChecker.getChangedJavaFiles(project);
+        }
+    }
+    
+    /**
+     * The change list is populated asynchronously after the project opens
+     * Force a full VCS refresh and wait for it before reading changed files
+     */
+    private void waitForChangeListUpdate(Project project) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        VcsDirtyScopeManager.getInstance(project).markEverythingDirty();
+        ChangeListManager.getInstance(project).invokeAfterUpdate(
+            latch::countDown, InvokeAfterUpdateMode.SILENT, null, null);
+        
+        if (!latch.await(CHANGE_LIST_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+            LOG.warn("Timed out waiting for the VCS change list; changed-file scope may be incomplete");
+        }
+    }
+    
+    private void writeReport(Project project, List<Violation> violations, File outputFile, ExportFormat format)
+            throws IOException {
+        File parent = outputFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        
+        String basePath = project.getBasePath();
+        
+        if (format != null) {
+            try (FindingExporter exporter = format.open(outputFile.toPath(), basePath)) {
+                exporter.writeAll(violations);
+            }
+            return;
+        }
+        
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(outputFile), StandardCharsets.UTF_8))) {
+            for (Violation violation : violations) {
+                String path = violation.getFile().getVirtualFile().getPath();
+                if (basePath != null && path.startsWith(basePath + "/")) {
+                    path = path.substring(basePath.length() + 1);
+                }
+                
+                writer.write(String.format("[%s] %s:%d:%d %s - %s%n",
+                    violation.getSeverity(),
+                    path,
+                    violation.getLineNumber(),
+                    violation.getColumnNumber(),
+                    violation.getType().name(),
+                    violation.getType().getTitle()));
+            }
+        }
+    }
+}
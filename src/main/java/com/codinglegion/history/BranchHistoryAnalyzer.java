@@ -0,0 +1,174 @@
+package com.codinglegion.history;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vcs.VcsException;
+import com.codinglegion.analyzer.CodingStandardsAnalyzer;
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.core.history.IntroducedFinding;
+import com.codinglegion.core.history.IntroductionTracker;
+import com.codinglegion.model.Violation;
+import com.codinglegion.utils.GitRevisionReader;
+import com.codinglegion.utils.GitRevisionReader.Commit;
+import com.codinglegion.utils.GitRevisionReader.FileChange;
+import git4idea.repo.GitRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the commit that introduced each violation of a branch
+ * Walks the commits from the merge-base with the base branch to HEAD, oldest first, and analyzes each
+ * changed Java file as it was in that commit, read from the git object database into an in-memory PSI
+ * file. Results are kept per blob, so a file version shared by several commits (or reverted to) is
+ * analyzed once; a branch where most commits touch a few files costs little more than one scan of the
+ * files it changes
+ */
+public class BranchHistoryAnalyzer {
+    
+    private final Project project;
+    private final GitRepository repository;
+    private final CodingStandardsAnalyzer analyzer;
+    private final String rootPath;
+    private final Map<String, List<SourceFinding>> findingsByBlob = new HashMap<>();
+    private int blobsAnalyzed;
+    private int blobsReused;
+    
+    public BranchHistoryAnalyzer(Project project, GitRepository repository, CodingStandardsAnalyzer analyzer) {
+        this.project = project;
+        this.repository = repository;
+        this.analyzer = analyzer;
+        this.rootPath = repository.getRoot().getPath();
+    }
+    
+    /**
+     * Violations of HEAD introduced after the merge-base of HEAD and the base branch
+     */
+    public Result analyze(String baseBranch, ProgressIndicator indicator) throws VcsException {
+        indicator.setText("Reading commits since " + baseBranch + "...");
+        String mergeBase = GitRevisionReader.mergeBase(project, repository, baseBranch, "HEAD");
+        List<Commit> commits = GitRevisionReader.commitsBetween(project, repository, mergeBase, "HEAD");
+        
+        IntroductionTracker tracker = new IntroductionTracker();
+        Map<String, Commit> commitsByHash = new LinkedHashMap<>();
+        for (int i = 0; i < commits.size(); i++) {
+            Commit commit = commits.get(i);
+            commitsByHash.put(commit.getHash(), commit);
+            indicator.checkCanceled();
+            indicator.setFraction((double) i / commits.size());
+            indicator.setText(String.format("Commit %d/%d: %s", i + 1, commits.size(), commit.getSubject()));
+            
+            for (FileChange change : commit.getChanges()) {
+                apply(tracker, commit, change, indicator);
+            }
+        }
+        
+        return new Result(tracker.getIntroduced(), commitsByHash, blobsAnalyzed, blobsReused);
+    }
+    
+    private void apply(IntroductionTracker tracker, Commit commit, FileChange change, ProgressIndicator indicator)
+        throws VcsException {
+        String oldPath = change.getOldPath();
+        String newPath = change.getNewPath();
+        
+        // First time the branch touches an existing file: its merge-base version is the starting point
+        if (change.getOldBlob() != null && !tracker.isTracked(oldPath) && change.getStatus() != 'C') {
+            tracker.seed(oldPath, findingsOf(change.getOldBlob(), oldPath, indicator));
+        }
+        
+        switch (change.getStatus()) {
+            case 'D':
+                tracker.delete(oldPath);
+                break;
+            case 'R':
+                tracker.rename(oldPath, newPath);
+                tracker.update(newPath, commit.getHash(), findingsOf(change.getNewBlob(), newPath, indicator));
+                break;
+            default:
+                tracker.update(newPath, commit.getHash(), findingsOf(change.getNewBlob(), newPath, indicator));
+        }
+    }
+    
+    /**
+     * Findings of a blob at the given path, analyzed the first time the blob is seen
+     */
+    private List<SourceFinding> findingsOf(String blob, String path, ProgressIndicator indicator) throws VcsException {
+        List<SourceFinding> findings = findingsByBlob.get(blob);
+        if (findings == null) {
+            String text = GitRevisionReader.readBlob(project, repository, blob);
+            String fileName = path.substring(path.lastIndexOf('/') + 1);
+            findings = new ArrayList<>();
+            // Keep plain findings only: the in-memory PSI can be collected right away
+            for (Violation violation : analyzer.analyzeText(fileName, text, indicator)) {
+                findings.add(new SourceFinding(violation.getType(), rootPath + "/" + path, violation.getLineNumber(),
+                    violation.getColumnNumber(), violation.getClassName(), violation.getPackageName(),
+                    violation.getViolatingCode()));
+            }
+            findingsByBlob.put(blob, findings);
+            blobsAnalyzed++;
+        } else {
+            blobsReused++;
+        }
+        return withPath(findings, rootPath + "/" + path);
+    }
+    
+    /**
+     * The same blob can live at several paths (renames, copies)
+     */
+    private static List<SourceFinding> withPath(List<SourceFinding> findings, String filePath) {
+        if (findings.isEmpty() || findings.get(0).getFilePath().equals(filePath)) {
+            return findings;
+        }
+        List<SourceFinding> moved = new ArrayList<>(findings.size());
+        for (SourceFinding finding : findings) {
+            moved.add(new SourceFinding(finding.getType(), filePath, finding.getLineNumber(), finding.getColumnNumber(),
+                finding.getClassName(), finding.getPackageName(), finding.getViolatingCode()));
+        }
+        return moved;
+    }
+    
+    /**
+     * Violations of HEAD introduced on the branch, with the commits of the range
+     */
+    public static class Result {
+        private final List<IntroducedFinding> findings;
+        private final Map<String, Commit> commits;
+        private final int blobsAnalyzed;
+        private final int blobsReused;
+        
+        Result(List<IntroducedFinding> findings, Map<String, Commit> commits, int blobsAnalyzed, int blobsReused) {
+            this.findings = findings;
+            this.commits = commits;
+            this.blobsAnalyzed = blobsAnalyzed;
+            this.blobsReused = blobsReused;
+        }
+        
+        public List<IntroducedFinding> getFindings() {
+            return findings;
+        }
+        
+        /**
+         * Commits of the range by hash, oldest first
+         */
+        public Map<String, Commit> getCommits() {
+            return commits;
+        }
+        
+        /**
+         * Distinct file versions that were analyzed
+         */
+        public int getBlobsAnalyzed() {
+            return blobsAnalyzed;
+        }
+        
+        /**
+         * File versions whose results were taken from an earlier commit
+         */
+        public int getBlobsReused() {
+            return blobsReused;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.codinglegion.history;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vcs.VcsException;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.codinglegion.analyzer.CodingStandardsAnalyzer;
+import com.codinglegion.core.SourceFinding;
+import com.codinglegion.core.history.IntroducedFinding;
+import com.codinglegion.core.history.IntroductionTracker;
+import com.codinglegion.model.Violation;
+import com.codinglegion.utils.GitRevisionReader;
+import com.codinglegion.utils.GitRevisionReader.FileChange;
+import git4idea.repo.GitRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Analyzes the Java files changed between two refs (e.g. a pull request branch and its target) as
+ * they are in the git object database
+ * Like {@code git diff base...target}, the target is compared with its merge-base with the base ref,
+ * so commits that only landed on the base are not reported. Both versions of each changed file are
+ * read into in-memory PSI files on a bounded pool of workers; nothing is checked out
+ */
+public class RefDiffAnalyzer {
+    
+    private final Project project;
+    private final GitRepository repository;
+    private final CodingStandardsAnalyzer analyzer;
+    private final String rootPath;
+    
+    public RefDiffAnalyzer(Project project, GitRepository repository, CodingStandardsAnalyzer analyzer) {
+        this.project = project;
+        this.repository = repository;
+        this.analyzer = analyzer;
+        this.rootPath = repository.getRoot().getPath();
+    }
+    
+    /**
+     * Violations of the changed files as they are in the target ref
+     * Each finding carries the target ref as its commit if the diff introduced it, or null if the
+     * merge-base version already had it
+     */
+    public Result analyze(String baseRef, String targetRef, int parallelism, ProgressIndicator indicator) throws VcsException {
+        indicator.setText("Comparing " + baseRef + " and " + targetRef + "...");
+        String mergeBase = GitRevisionReader.mergeBase(project, repository, baseRef, targetRef);
+        List<FileChange> changes = new ArrayList<>();
+        for (FileChange change : GitRevisionReader.changedFiles(project, repository, mergeBase, targetRef)) {
+            if (change.getNewBlob() != null) {
+                changes.add(change);
+            }
+        }
+        
+        ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+            "Coding Legion Ref Diff Analysis", Math.max(1, parallelism));
+        AtomicInteger completed = new AtomicInteger();
+        List<Future<List<List<SourceFinding>>>> futures = new ArrayList<>(changes.size());
+        
+        try {
+            for (FileChange change : changes) {
+                futures.add(executor.submit(() -> {
+                    if (indicator.isCanceled()) {
+                        return Collections.<List<SourceFinding>>emptyList();
+                    }
+                    // Copies are new files: their source's findings must not count as existing
+                    boolean hasBase = change.getOldBlob() != null && change.getStatus() != 'C';
+                    List<List<SourceFinding>> versions = new ArrayList<>(2);
+                    versions.add(hasBase ? findingsOf(change.getOldBlob(), change.getNewPath(), indicator) : Collections.emptyList());
+                    versions.add(findingsOf(change.getNewBlob(), change.getNewPath(), indicator));
+                    indicator.setFraction((double) completed.incrementAndGet() / changes.size());
+                    return versions;
+                }));
+            }
+            
+            // Matching is cheap and the tracker is not thread-safe, so it runs here in file order
+            IntroductionTracker tracker = new IntroductionTracker();
+            for (int i = 0; i < changes.size(); i++) {
+                List<List<SourceFinding>> versions = futures.get(i).get();
+                if (versions.isEmpty()) {
+                    continue;
+                }
+                String path = changes.get(i).getNewPath();
+                tracker.seed(path, versions.get(0));
+                tracker.update(path, targetRef, versions.get(1));
+            }
+            indicator.checkCanceled();
+            return new Result(tracker.getCurrent(), mergeBase, changes.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Analysis was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof VcsException) {
+                throw (VcsException) e.getCause();
+            }
+            throw new IllegalStateException("Analysis failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private List<SourceFinding> findingsOf(String blob, String path, ProgressIndicator indicator) throws VcsException {
+        String text = GitRevisionReader.readBlob(project, repository, blob);
+        String fileName = path.substring(path.lastIndexOf('/') + 1);
+        List<SourceFinding> findings = new ArrayList<>();
+        for (Violation violation : analyzer.analyzeText(fileName, text, indicator)) {
+            findings.add(new SourceFinding(violation.getType(), rootPath + "/" + path, violation.getLineNumber(),
+                violation.getColumnNumber(), violation.getClassName(), violation.getPackageName(),
+                violation.getViolatingCode()));
+        }
+        return findings;
+    }
+    
+    /**
+     * Violations of the changed files in the target ref
+     */
+    public static class Result {
+        private final List<IntroducedFinding> findings;
+        private final String mergeBase;
+        private final int filesAnalyzed;
+        
+        Result(List<IntroducedFinding> findings, String mergeBase, int filesAnalyzed) {
+            this.findings = findings;
+            this.mergeBase = mergeBase;
+            this.filesAnalyzed = filesAnalyzed;
+        }
+        
+        public List<IntroducedFinding> getFindings() {
+            return findings;
+        }
+        
+        /**
+         * Violations the diff introduced, i.e. not already in the merge-base version of their file
+         */
+        public long getIntroducedCount() {
+            return findings.stream().filter(finding -> finding.getCommit() != null).count();
+        }
+        
+        public String getMergeBase() {
+            return mergeBase;
+        }
+        
+        /**
+         * Changed Java files that exist in the target ref
+         */
+        public int getFilesAnalyzed() {
+            return filesAnalyzed;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.codinglegion.index;
+
+import com.codinglegion.analyzer.AnalysisConfig;
+import com.codinglegion.analyzer.TokenPrefilter;
+import com.codinglegion.analyzer.ViolationDetector;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.pom.java.LanguageLevel;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Persistent index: for each Java file, the detectors whose trigger tokens occur in it
+ * (keyed by {@link ViolationDetector#getName()}, all detectors regardless of settings)
+ * Kept up to date by the platform as files change, so a module or project scan only builds PSI
+ * for files that can produce a violation
+ *
+ * Bump {@link #VERSION} whenever a detector's trigger tokens change
+ */
+public class TriggerCandidateIndex extends ScalarIndexExtension<String> {
+    
+    public static final ID<String, Void> NAME = ID.create("codinglegion.triggerCandidates");
+    
+    private static final int VERSION = 1;
+    
+    private final TokenPrefilter prefilter = new TokenPrefilter(AnalysisConfig.allDetectors());
+    
+    @NotNull
+    @Override
+    public ID<String, Void> getName() {
+        return NAME;
+    }
+    
+    @NotNull
+    @Override
+    public DataIndexer<String, Void, FileContent> getIndexer() {
+        return inputData -> {
+            CharSequence text = inputData.getContentAsText();
+            Map<String, Void> keys = new HashMap<>();
+            for (ViolationDetector detector : prefilter.scan(text, LanguageLevel.HIGHEST).detectorsIn(0, text.length())) {
+                keys.put(detector.getName(), null);
+            }
+            return keys;
+        };
+    }
+    
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+    
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+    
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+    
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+    
+    /**
+     * The files, in their original order, in which at least one of the detectors can fire
+     * Returns all files while indexing, or when a detector declares no trigger tokens (it may fire anywhere)
+     */
+    public static List<VirtualFile> filterCandidates(Project project, List<VirtualFile> files,
+                                                     List<ViolationDetector> detectors) {
+        for (ViolationDetector detector : detectors) {
+            if (detector.getTriggerTokens().isEmpty()) {
+                return files;
+            }
+        }
+        
+        return ReadAction.compute(() -> {
+            if (DumbService.isDumb(project)) {
+                return files;
+            }
+            
+            GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+            FileBasedIndex index = FileBasedIndex.getInstance();
+            Set<VirtualFile> candidates = new HashSet<>();
+            for (ViolationDetector detector : detectors) {
+                candidates.addAll(index.getContainingFiles(NAME, detector.getName(), scope));
+            }
+            
+            List<VirtualFile> result = new ArrayList<>();
+            for (VirtualFile file : files) {
+                if (candidates.contains(file)) {
+                    result.add(file);
+                }
+            }
+            return result;
+        });
+    }
+}
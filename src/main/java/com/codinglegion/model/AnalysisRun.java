@@ -0,0 +1,53 @@
+package com.codinglegion.model;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Result of one analysis run, kept so later runs can be compared with it
+ */
+public class AnalysisRun {
+    private final long timestamp;
+    private final List<Violation> violations;
+    private final int baselined;
+    
+    public AnalysisRun(long timestamp, List<Violation> violations, int baselined) {
+        this.timestamp = timestamp;
+        this.violations = Collections.unmodifiableList(new ArrayList<>(violations));
+        this.baselined = baselined;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public List<Violation> getViolations() {
+        return violations;
+    }
+    
+    /**
+     * Number of violations found but hidden by the baseline
+     */
+    public int getBaselined() {
+        return baselined;
+    }
+    
+    /**
+     * Same run without the given violations, which were added to the baseline
+     */
+    public AnalysisRun withResolved(Collection<Violation> resolved) {
+        List<Violation> remaining = new ArrayList<>(violations);
+        remaining.removeAll(resolved);
+        return new AnalysisRun(timestamp, remaining, baselined + violations.size() - remaining.size());
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Run at %s (%d)",
+            new SimpleDateFormat("HH:mm:ss").format(new Date(timestamp)), violations.size());
+    }
+}
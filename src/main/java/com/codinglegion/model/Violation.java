@@ -1,5 +1,6 @@
 package com.codinglegion.model;
 
+import com.codinglegion.core.Finding;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 
@@ -8,7 +9,7 @@ import java.util.Objects;
 /**
  * Represents a detected null check violation in the codebase
  */
-public class Violation {
+public class Violation implements Finding {
     private final ViolationType type;
     private final PsiFile file;
     private final int lineNumber;
@@ -17,6 +18,7 @@ public class Violation {
     private final String packageName;
     private final String violatingCode;
     private final PsiElement element;
+    private final boolean provisional;
     
     public Violation(ViolationType type, PsiFile file, PsiElement element, 
                      int lineNumber, int columnNumber, String className, String packageName, String violatingCode) {
@@ -28,8 +30,36 @@ public class Violation {
         this.className = className;
         this.packageName = packageName;
         this.violatingCode = violatingCode;
+        this.provisional = false;
     }
     
+    private Violation(Violation violation, boolean provisional) {
+        this.type = violation.type;
+        this.file = violation.file;
+        this.element = violation.element;
+        this.lineNumber = violation.lineNumber;
+        this.columnNumber = violation.columnNumber;
+        this.className = violation.className;
+        this.packageName = violation.packageName;
+        this.violatingCode = violation.violatingCode;
+        this.provisional = provisional;
+    }
+    
+    /**
+     * Copy marked as a quick scan finding: the rule's shape matched, its type checks have not run yet
+     */
+    public Violation asProvisional() {
+        return new Violation(this, true);
+    }
+    
+    /**
+     * Whether this is an unconfirmed quick scan finding (see {@link #asProvisional()})
+     */
+    public boolean isProvisional() {
+        return provisional;
+    }
+    
+    @Override
     public ViolationType getType() {
         return type;
     }
@@ -38,30 +68,41 @@ public class Violation {
         return file;
     }
     
+    @Override
+    public String getFilePath() {
+        return file.getVirtualFile().getPath();
+    }
+    
     public PsiElement getElement() {
         return element;
     }
     
+    @Override
     public int getLineNumber() {
         return lineNumber;
     }
     
+    @Override
     public int getColumnNumber() {
         return columnNumber;
     }
     
+    @Override
     public String getClassName() {
         return className;
     }
     
+    @Override
     public String getPackageName() {
         return packageName;
     }
     
+    @Override
     public String getViolatingCode() {
         return violatingCode;
     }
     
+    @Override
     public ViolationSeverity getSeverity() {
         return type.getSeverity();
     }
@@ -24,7 +24,9 @@ public class CodingLegionConfigurable implements Configurable {
     
     private JPanel mainPanel;
     private JBCheckBox analyzeChangedLinesOnlyCheckbox;
+    private JBCheckBox quickScanFirstCheckbox;
     private JBTextArea utilityPatternsTextArea;
+    private JBTextArea contextBaseTypesTextArea;
     private JBTextArea protectedBranchesTextArea;
     
     // Rule checkboxes
@@ -88,6 +90,13 @@ public class CodingLegionConfigurable implements Configurable {
         
         content.add(createHelpLabel("When enabled, only modified lines are analyzed. Faster but may miss context-dependent violations."), gbc);
         gbc.gridy++;
+        
+        quickScanFirstCheckbox = new JBCheckBox("Show quick scan results first");
+        content.add(quickScanFirstCheckbox, gbc);
+        gbc.gridy++;
+        
+        content.add(createHelpLabel("Rule shapes that need no type information are shown within a fraction of a second, marked QUICK; the full type-aware pass then confirms or removes them."), gbc);
+        gbc.gridy++;
         gbc.insets = JBUI.insetsTop(20);
         
         // Protected Branches Section (before utility patterns) - Read-only with lock icon
@@ -131,6 +140,22 @@ public class CodingLegionConfigurable implements Configurable {
         gbc.gridy++;
         gbc.insets = JBUI.insetsTop(20);
         
+        // Context Base Types Section
+        content.add(createSectionLabel("Null In Context - Context Base Types"), gbc);
+        gbc.gridy++;
+        gbc.insets = JBUI.insets(5);
+        
+        content.add(createHelpLabel("Subtypes of these classes count as contexts (qualified names, one per line). Leave empty to treat classes named *Context, *Attributes, *Settings, ... as contexts:"), gbc);
+        gbc.gridy++;
+        
+        contextBaseTypesTextArea = new JBTextArea(3, 40);
+        contextBaseTypesTextArea.setLineWrap(true);
+        JScrollPane contextScroll = new JScrollPane(contextBaseTypesTextArea);
+        contextScroll.setPreferredSize(new Dimension(500, 60));
+        content.add(contextScroll, gbc);
+        gbc.gridy++;
+        gbc.insets = JBUI.insetsTop(20);
+        
         // Enable/Disable Rules Section
         content.add(createSectionLabel("Enable/Disable Rules"), gbc);
         gbc.gridy++;
@@ -257,10 +282,14 @@ public class CodingLegionConfigurable implements Configurable {
         CodingLegionSettings settings = CodingLegionSettings.getInstance();
         
         if (analyzeChangedLinesOnlyCheckbox.isSelected() != settings.analyzeChangedLinesOnly) return true;
+        if (quickScanFirstCheckbox.isSelected() != settings.quickScanFirst) return true;
         
         String currentUtilPatterns = String.join("\n", settings.utilityBeanPatterns);
         if (!utilityPatternsTextArea.getText().trim().equals(currentUtilPatterns)) return true;
         
+        String currentContextTypes = String.join("\n", settings.contextBaseTypes);
+        if (!contextBaseTypesTextArea.getText().trim().equals(currentContextTypes)) return true;
+        
         String currentBranches = String.join("\n", settings.protectedBranches);
         if (!protectedBranchesTextArea.getText().trim().equals(currentBranches)) return true;
         
@@ -279,9 +308,12 @@ public class CodingLegionConfigurable implements Configurable {
     
     @Override
     public void apply() {
-        CodingLegionSettings settings = CodingLegionSettings.getInstance();
-        
+        applyTo(CodingLegionSettings.getInstance());
+    }
+    
+    private void applyTo(CodingLegionSettings settings) {
         settings.analyzeChangedLinesOnly = analyzeChangedLinesOnlyCheckbox.isSelected();
+        settings.quickScanFirst = quickScanFirstCheckbox.isSelected();
         
         settings.utilityBeanPatterns.clear();
         String[] patterns = utilityPatternsTextArea.getText().split("\n");
@@ -292,6 +324,14 @@ public class CodingLegionConfigurable implements Configurable {
             }
         }
         
+        settings.contextBaseTypes.clear();
+        for (String baseType : contextBaseTypesTextArea.getText().split("\n")) {
+            String trimmed = baseType.trim();
+            if (!trimmed.isEmpty()) {
+                settings.contextBaseTypes.add(trimmed);
+            }
+        }
+        
         settings.protectedBranches.clear();
         String[] branches = protectedBranchesTextArea.getText().split("\n");
         for (String branch : branches) {
@@ -314,10 +354,14 @@ public class CodingLegionConfigurable implements Configurable {
     
     @Override
     public void reset() {
-        CodingLegionSettings settings = CodingLegionSettings.getInstance();
-        
+        resetFrom(CodingLegionSettings.getInstance());
+    }
+    
+    private void resetFrom(CodingLegionSettings settings) {
         analyzeChangedLinesOnlyCheckbox.setSelected(settings.analyzeChangedLinesOnly);
+        quickScanFirstCheckbox.setSelected(settings.quickScanFirst);
         utilityPatternsTextArea.setText(String.join("\n", settings.utilityBeanPatterns));
+        contextBaseTypesTextArea.setText(String.join("\n", settings.contextBaseTypes));
         protectedBranchesTextArea.setText(String.join("\n", settings.protectedBranches));
         
         enableStringEquals.setSelected(settings.enableStringEqualsCheck);
@@ -362,31 +406,15 @@ public class CodingLegionConfigurable implements Configurable {
         
         try {
             Properties props = new Properties();
-            props.load(new FileInputStream(filePath));
-            
-            // Load settings from properties
-            if (props.containsKey("analyzeChangedLinesOnly")) {
-                analyzeChangedLinesOnlyCheckbox.setSelected(Boolean.parseBoolean(props.getProperty("analyzeChangedLinesOnly")));
-            }
-            
-            if (props.containsKey("utilityBeanPatterns")) {
-                utilityPatternsTextArea.setText(props.getProperty("utilityBeanPatterns").replace(",", "\n"));
-            }
-            
-            if (props.containsKey("protectedBranches")) {
-                protectedBranchesTextArea.setText(props.getProperty("protectedBranches").replace(",", "\n"));
+            try (InputStream is = new FileInputStream(filePath)) {
+                props.load(is);
             }
             
-            // Load rule enable/disable states
-            enableStringEquals.setSelected(Boolean.parseBoolean(props.getProperty("enableStringEqualsCheck", "true")));
-            enableStringEmpty.setSelected(Boolean.parseBoolean(props.getProperty("enableStringEmptyCheck", "true")));
-            enableCollection.setSelected(Boolean.parseBoolean(props.getProperty("enableCollectionCheck", "true")));
-            enableTernaryNull.setSelected(Boolean.parseBoolean(props.getProperty("enableTernaryNullDefaultCheck", "true")));
-            enableBooleanUnboxing.setSelected(Boolean.parseBoolean(props.getProperty("enableBooleanUnboxingCheck", "true")));
-            enableNullInContext.setSelected(Boolean.parseBoolean(props.getProperty("enableNullInContextCheck", "true")));
-            enableLogNull.setSelected(Boolean.parseBoolean(props.getProperty("enableLogNullDereferenceCheck", "true")));
-            enableDtoInit.setSelected(Boolean.parseBoolean(props.getProperty("enableDtoInitializationCheck", "true")));
-            enableNullInMap.setSelected(Boolean.parseBoolean(props.getProperty("enableNullInMapCheck", "true")));
+            // Same parser as the headless runner, applied to the form; Apply still saves it
+            CodingLegionSettings imported = new CodingLegionSettings();
+            applyTo(imported);
+            imported.loadFromProperties(props);
+            resetFrom(imported);
             
             JOptionPane.showMessageDialog(mainPanel, 
                 "Settings imported successfully!", 
@@ -425,7 +453,9 @@ public class CodingLegionConfigurable implements Configurable {
             Properties props = new Properties();
                 
                 props.setProperty("analyzeChangedLinesOnly", String.valueOf(analyzeChangedLinesOnlyCheckbox.isSelected()));
+                props.setProperty("quickScanFirst", String.valueOf(quickScanFirstCheckbox.isSelected()));
                 props.setProperty("utilityBeanPatterns", utilityPatternsTextArea.getText().replace("\n", ","));
+                props.setProperty("contextBaseTypes", contextBaseTypesTextArea.getText().replace("\n", ","));
                 props.setProperty("protectedBranches", protectedBranchesTextArea.getText().replace("\n", ","));
                 
                 props.setProperty("enableStringEqualsCheck", String.valueOf(enableStringEquals.isSelected()));
@@ -10,6 +10,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
 
 /**
  * Persistent settings for Coding Legion plugin
@@ -26,9 +27,15 @@ public class CodingLegionSettings implements PersistentStateComponent<CodingLegi
     // Analysis scope
     public boolean analyzeChangedLinesOnly = false;
     
+    // Show resolve-free quick scan results before the full type-aware pass
+    public boolean quickScanFirst = false;
+    
     // Utility bean patterns for log null dereference whitelist (empty by default)
     public List<String> utilityBeanPatterns = new ArrayList<>();
     
+    // Extra context base types (qualified names) for the null-in-context rule (empty by default)
+    public List<String> contextBaseTypes = new ArrayList<>();
+    
     // Protected branch names (empty by default)
     public List<String> protectedBranches = new ArrayList<>();
     
@@ -64,8 +71,10 @@ public class CodingLegionSettings implements PersistentStateComponent<CodingLegi
     public void resetToDefaults() {
         // Don't clear installedVersion - keep it to track reinstalls
         analyzeChangedLinesOnly = false;
+        quickScanFirst = false;
         
         utilityBeanPatterns.clear();
+        contextBaseTypes.clear();
         protectedBranches.clear();
         
         enableStringEqualsCheck = false;
@@ -87,6 +96,65 @@ public class CodingLegionSettings implements PersistentStateComponent<CodingLegi
         resetToDefaults();
     }
     
+    /**
+     * Independent copy, e.g. for a run configured differently from the IDE; changing it leaves the
+     * persistent settings alone
+     */
+    public CodingLegionSettings copy() {
+        CodingLegionSettings copy = new CodingLegionSettings();
+        XmlSerializerUtil.copyBean(this, copy);
+        // copyBean shares the lists
+        copy.utilityBeanPatterns = new ArrayList<>(utilityBeanPatterns);
+        copy.contextBaseTypes = new ArrayList<>(contextBaseTypes);
+        copy.protectedBranches = new ArrayList<>(protectedBranches);
+        return copy;
+    }
+    
+    /**
+     * Apply settings from an exported .properties file (same format as Settings → Export)
+     * Keys missing from the file keep their current values, except rules, which default to enabled
+     * Used by Settings → Import (on a copy of the form) and by the headless runner (on a copy of
+     * the IDE settings), so CI and the IDE read the team configuration file the same way
+     */
+    public void loadFromProperties(Properties props) {
+        if (props.containsKey("analyzeChangedLinesOnly")) {
+            analyzeChangedLinesOnly = Boolean.parseBoolean(props.getProperty("analyzeChangedLinesOnly"));
+        }
+        if (props.containsKey("quickScanFirst")) {
+            quickScanFirst = Boolean.parseBoolean(props.getProperty("quickScanFirst"));
+        }
+        if (props.containsKey("utilityBeanPatterns")) {
+            utilityBeanPatterns = splitList(props.getProperty("utilityBeanPatterns"));
+        }
+        if (props.containsKey("contextBaseTypes")) {
+            contextBaseTypes = splitList(props.getProperty("contextBaseTypes"));
+        }
+        if (props.containsKey("protectedBranches")) {
+            protectedBranches = splitList(props.getProperty("protectedBranches"));
+        }
+        
+        enableStringEqualsCheck = Boolean.parseBoolean(props.getProperty("enableStringEqualsCheck", "true"));
+        enableStringEmptyCheck = Boolean.parseBoolean(props.getProperty("enableStringEmptyCheck", "true"));
+        enableCollectionCheck = Boolean.parseBoolean(props.getProperty("enableCollectionCheck", "true"));
+        enableTernaryNullDefaultCheck = Boolean.parseBoolean(props.getProperty("enableTernaryNullDefaultCheck", "true"));
+        enableBooleanUnboxingCheck = Boolean.parseBoolean(props.getProperty("enableBooleanUnboxingCheck", "true"));
+        enableNullInContextCheck = Boolean.parseBoolean(props.getProperty("enableNullInContextCheck", "true"));
+        enableLogNullDereferenceCheck = Boolean.parseBoolean(props.getProperty("enableLogNullDereferenceCheck", "true"));
+        enableDtoInitializationCheck = Boolean.parseBoolean(props.getProperty("enableDtoInitializationCheck", "true"));
+        enableNullInMapCheck = Boolean.parseBoolean(props.getProperty("enableNullInMapCheck", "true"));
+    }
+    
+    private static List<String> splitList(String value) {
+        List<String> result = new ArrayList<>();
+        for (String item : value.split(",")) {
+            String trimmed = item.trim();
+            if (!trimmed.isEmpty()) {
+                result.add(trimmed);
+            }
+        }
+        return result;
+    }
+    
     /**
      * Check if a rule is enabled
      */
@@ -0,0 +1,64 @@
+package com.codinglegion.ui;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.ui.ValidationInfo;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.ui.FormBuilder;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+
+/**
+ * Asks for the two refs (branches, tags or hashes) of a ref diff analysis
+ */
+public class CompareRefsDialog extends DialogWrapper {
+    
+    private final JBTextField baseField;
+    private final JBTextField targetField;
+    
+    public CompareRefsDialog(Project project, @Nullable String baseRef, @Nullable String targetRef) {
+        super(project);
+        baseField = new JBTextField(baseRef != null ? baseRef : "", 30);
+        targetField = new JBTextField(targetRef != null ? targetRef : "", 30);
+        setTitle("Analyze Ref Diff");
+        setOKButtonText("Analyze");
+        init();
+    }
+    
+    @Nullable
+    @Override
+    protected JComponent createCenterPanel() {
+        return FormBuilder.createFormBuilder()
+            .addLabeledComponent("Base ref:", baseField)
+            .addLabeledComponent("Target ref:", targetField)
+            .addComponentToRightColumn(new JLabel("e.g. origin/feature-branch; compared with its merge-base with the base ref"))
+            .getPanel();
+    }
+    
+    @Nullable
+    @Override
+    public JComponent getPreferredFocusedComponent() {
+        return targetField;
+    }
+    
+    @Nullable
+    @Override
+    protected ValidationInfo doValidate() {
+        if (getBaseRef().isEmpty()) {
+            return new ValidationInfo("Enter the base ref", baseField);
+        }
+        if (getTargetRef().isEmpty()) {
+            return new ValidationInfo("Enter the ref to analyze", targetField);
+        }
+        return null;
+    }
+    
+    public String getBaseRef() {
+        return baseField.getText().trim();
+    }
+    
+    public String getTargetRef() {
+        return targetField.getText().trim();
+    }
+}
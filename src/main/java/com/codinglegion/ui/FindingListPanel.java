@@ -0,0 +1,122 @@
+package com.codinglegion.ui;
+
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.ui.JBColor;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import com.intellij.ui.content.ContentManager;
+import com.intellij.ui.table.TableView;
+import com.intellij.util.ui.ColumnInfo;
+import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.ListTableModel;
+import com.codinglegion.core.Finding;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Table of findings that are not backed by project PSI (e.g. read from git objects), shown in an
+ * extra closeable tab of the Coding Legion tool window
+ * Double-click opens the working-tree file with the same path at the finding's line
+ */
+public class FindingListPanel extends JPanel {
+    
+    private final Project project;
+    private final ListTableModel<Finding> model;
+    private final TableView<Finding> table;
+    private final JLabel statusLabel;
+    
+    /**
+     * @param originColumn header of the leading column (e.g. "Commit"), or null for none
+     * @param origin       text of the leading column per finding; ignored without originColumn
+     */
+    public FindingListPanel(Project project, @Nullable String originColumn, Function<Finding, String> origin) {
+        super(new BorderLayout());
+        this.project = project;
+        
+        List<ColumnInfo<Finding, String>> columns = new ArrayList<>();
+        if (originColumn != null) {
+            columns.add(column(originColumn, origin));
+        }
+        columns.add(column("Location", finding -> String.format("%s.%s.java:%d:%d", finding.getPackageName(),
+            finding.getClassName(), finding.getLineNumber(), finding.getColumnNumber())));
+        columns.add(column("Severity", finding -> finding.getSeverity().name()));
+        columns.add(column("Rule", finding -> finding.getType().getCompactDescription()));
+        
+        model = new ListTableModel<>(columns.toArray(new ColumnInfo[0]));
+        table = new TableView<>(model);
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2 && table.getSelectedObject() != null) {
+                    navigate(table.getSelectedObject());
+                }
+            }
+        });
+        
+        statusLabel = new JLabel(" ");
+        statusLabel.setBorder(JBUI.Borders.empty(5));
+        statusLabel.setForeground(new JBColor(new Color(150, 150, 150), new Color(150, 150, 150)));
+        
+        add(ScrollPaneFactory.createScrollPane(table), BorderLayout.CENTER);
+        add(statusLabel, BorderLayout.SOUTH);
+    }
+    
+    public void setFindings(List<? extends Finding> findings, String status) {
+        model.setItems(new ArrayList<>(findings));
+        statusLabel.setText(status);
+    }
+    
+    /**
+     * Show the panel in a tab of the Coding Legion tool window, replacing an earlier tab with the same title
+     */
+    public void showInToolWindow(String title) {
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow("Coding Legion");
+        if (toolWindow == null) {
+            return;
+        }
+        
+        ContentManager contentManager = toolWindow.getContentManager();
+        Content previous = contentManager.findContent(title);
+        if (previous != null) {
+            contentManager.removeContent(previous, true);
+        }
+        Content content = ContentFactory.SERVICE.getInstance().createContent(this, title, false);
+        content.setCloseable(true);
+        contentManager.addContent(content);
+        contentManager.setSelectedContent(content);
+        toolWindow.show(() -> {});
+    }
+    
+    private void navigate(Finding finding) {
+        VirtualFile file = LocalFileSystem.getInstance().findFileByPath(finding.getFilePath());
+        if (file == null) {
+            statusLabel.setText("Not in the working tree: " + finding.getFilePath());
+            return;
+        }
+        FileEditorManager.getInstance(project).openTextEditor(new OpenFileDescriptor(project, file,
+            Math.max(0, finding.getLineNumber() - 1), Math.max(0, finding.getColumnNumber() - 1)), true);
+    }
+    
+    private static ColumnInfo<Finding, String> column(String name, Function<Finding, String> value) {
+        return new ColumnInfo<Finding, String>(name) {
+            @Override
+            public String valueOf(Finding finding) {
+                return value.apply(finding);
+            }
+        };
+    }
+}
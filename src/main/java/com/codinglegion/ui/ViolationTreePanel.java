@@ -8,31 +8,60 @@ import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
 import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
 import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectUtil;
+import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ThrowableComputable;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
 import com.intellij.ui.JBColor;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.ui.components.JBTabbedPane;
 import com.intellij.util.ui.JBUI;
+import com.codinglegion.baseline.ViolationBaselineService;
+import com.codinglegion.core.export.ExportFormat;
+import com.codinglegion.core.export.FindingExporter;
+import com.codinglegion.core.baseline.FindingDiff;
+import com.codinglegion.core.baseline.FindingFingerprint;
+import com.codinglegion.model.AnalysisRun;
 import com.codinglegion.model.Violation;
 import com.codinglegion.model.ViolationSeverity;
+import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
 import javax.swing.event.HyperlinkEvent;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
 import javax.swing.text.DefaultCaret;
+import javax.swing.text.Element;
+import javax.swing.text.html.HTML;
+import javax.swing.text.html.HTMLDocument;
 import javax.swing.text.html.HTMLEditorKit;
 import javax.swing.text.html.StyleSheet;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -42,19 +71,44 @@ public class ViolationTreePanel extends JPanel {
     
     private static final Logger LOG = Logger.getInstance(ViolationTreePanel.class);
     public static final Key<ViolationTreePanel> KEY = Key.create("CodingLegion.ViolationTreePanel");
+    private static final String RENDERED_HTML_KEY = "CodingLegion.renderedHtml";
+    private static final String ROWS_KEY = "CodingLegion.rows";
+    private static final String ROW_LIST_ID = "rows";
+    private static final String QUICK_BADGE_CLASS = "quick-badge";
+    
+    // Rows are listed in source order, not in the order files finished, so a later update keeps its rows in place
+    private static final Comparator<Violation> ROW_ORDER = Comparator
+        .comparing(Violation::getPackageName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+        .thenComparing(Violation::getClassName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+        .thenComparingInt(Violation::getLineNumber)
+        .thenComparingInt(Violation::getColumnNumber)
+        .thenComparing(violation -> violation.getType().name());
+    private static final int MAX_RUN_HISTORY = 5;
     
     private final Project project;
     private final JEditorPane errorsPane;
     private final JEditorPane warningsPane;
+    private final JEditorPane fixedPane;
     private final JLabel statusLabel;
     private final JLabel headerLabel;
     private final JTabbedPane tabbedPane;
     private final JButton rerunButton;
+    private final JButton exportButton;
+    private final JButton resolveAllButton;
+    private final JToggleButton newOnlyButton;
+    private final JComboBox<AnalysisRun> compareCombo;
     private final JPanel warningsFooter;
     private boolean hasRunAnalysis = false;
     private boolean isRerun = false; // Track if this is a re-run
     private List<Violation> currentErrors;
     private List<Violation> currentWarnings;
+    private List<Violation> currentFixed;
+    
+    // Current and earlier runs (newest first) for the run-to-run diff
+    private AnalysisRun currentRun;
+    private boolean currentRunPartial = false; // Still in progress; replaced rather than kept in the history
+    private final LinkedList<AnalysisRun> runHistory = new LinkedList<>();
+    private boolean updatingCompareChoices = false;
     
     public ViolationTreePanel(Project project) {
         this.project = project;
@@ -97,10 +151,63 @@ public class ViolationTreePanel extends JPanel {
         rerunButton.setPreferredSize(new Dimension(30, 20));
         rerunButton.addActionListener(e -> rerunAnalysis());
         
+        exportButton = new JButton("💾");
+        exportButton.setToolTipText("Export results (SARIF, JSON Lines, JUnit XML)");
+        exportButton.setFont(exportButton.getFont().deriveFont(Font.PLAIN, 14f));
+        exportButton.setFocusable(false);
+        exportButton.setContentAreaFilled(false);
+        exportButton.setBorderPainted(false);
+        exportButton.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        exportButton.setVisible(false); // Shown together with the re-run button
+        exportButton.setPreferredSize(new Dimension(30, 20));
+        exportButton.addActionListener(e -> exportViolations());
+        
+        resolveAllButton = new JButton("✔");
+        resolveAllButton.setToolTipText("Resolve all: add the current violations to the baseline");
+        resolveAllButton.setFont(resolveAllButton.getFont().deriveFont(Font.PLAIN, 14f));
+        resolveAllButton.setFocusable(false);
+        resolveAllButton.setContentAreaFilled(false);
+        resolveAllButton.setBorderPainted(false);
+        resolveAllButton.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        resolveAllButton.setVisible(false); // Shown together with the re-run button
+        resolveAllButton.setPreferredSize(new Dimension(30, 20));
+        resolveAllButton.addActionListener(e -> resolveAllViolations());
+        
+        // Diff controls, shown once there is an earlier run to compare with
+        compareCombo = new JComboBox<>();
+        compareCombo.setToolTipText("Compare with an earlier run");
+        compareCombo.setFont(compareCombo.getFont().deriveFont(Font.PLAIN, 11f));
+        compareCombo.setFocusable(false);
+        compareCombo.setMaximumSize(new Dimension(170, 22));
+        compareCombo.setVisible(false);
+        compareCombo.addActionListener(e -> {
+            if (!updatingCompareChoices) {
+                isRerun = true; // Keep the selected tab
+                renderCurrentRun();
+            }
+        });
+        
+        newOnlyButton = new JToggleButton("🆕");
+        newOnlyButton.setToolTipText("Show only violations that are new since the compared run");
+        newOnlyButton.setFont(newOnlyButton.getFont().deriveFont(Font.PLAIN, 14f));
+        newOnlyButton.setFocusable(false);
+        newOnlyButton.setBorderPainted(false);
+        newOnlyButton.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        newOnlyButton.setVisible(false);
+        newOnlyButton.setPreferredSize(new Dimension(30, 20));
+        newOnlyButton.addActionListener(e -> {
+            isRerun = true; // Keep the selected tab
+            renderCurrentRun();
+        });
+        
         // Create right panel with both docs and re-run button
         JPanel rightPanel = new JPanel();
         rightPanel.setLayout(new BoxLayout(rightPanel, BoxLayout.X_AXIS));
         rightPanel.setOpaque(false);
+        rightPanel.add(compareCombo);
+        rightPanel.add(newOnlyButton);
+        rightPanel.add(resolveAllButton);
+        rightPanel.add(exportButton);
         rightPanel.add(rerunButton);
         rightPanel.add(Box.createHorizontalStrut(10)); // Space between buttons
         rightPanel.add(docsLabel);
@@ -117,6 +224,10 @@ public class ViolationTreePanel extends JPanel {
         warningsPane = createViolationPane();
         warningsPane.setText("<html><body style='padding: 10px;'>Analysis not run yet. Run Legion Analysis from Tools menu or right-click project.</body></html>");
         
+        // Create Fixed pane (violations of the compared run that are gone)
+        fixedPane = createViolationPane();
+        fixedPane.setText("<html><body style='padding: 10px;'>Run the analysis twice to see fixed violations.</body></html>");
+        
         // Create footer for warnings tab
         warningsFooter = createWarningsFooter();
         
@@ -133,6 +244,8 @@ public class ViolationTreePanel extends JPanel {
         String warningsTitle = String.format("<html><b><font color='#FFB86C'>⚡ Warnings (%d)</font></b></html>", 0);
         tabbedPane.addTab(errorsTitle, new JBScrollPane(errorsPane));
         tabbedPane.addTab(warningsTitle, warningsTabPanel);
+        tabbedPane.addTab(String.format("<html><b><font color='#50FA7B'>✓ Fixed (%d)</font></b></html>", 0),
+            new JBScrollPane(fixedPane));
         
         // Create status bar
         statusLabel = new JLabel("Ready. Run Legion Analysis from Tools menu or right-click project to scan for violations.");
@@ -383,11 +496,15 @@ public class ViolationTreePanel extends JPanel {
                 
                 if (desc.startsWith("violation:")) {
                     // Navigate to violation in source code
-                    int violationIndex = Integer.parseInt(desc.substring("violation:".length()));
-                    boolean isErrorsPane = (pane == errorsPane);
-                    List<Violation> targetList = isErrorsPane ? currentErrors : currentWarnings;
-                    if (targetList != null && violationIndex < targetList.size()) {
-                        navigateToPosition(targetList.get(violationIndex));
+                    Violation violation = violationInRow(pane, desc.substring("violation:".length()));
+                    if (violation != null) {
+                        navigateToPosition(violation);
+                    }
+                } else if (desc.startsWith("resolve:")) {
+                    // Add this violation to the baseline
+                    Violation violation = violationInRow(pane, desc.substring("resolve:".length()));
+                    if (violation != null) {
+                        resolveViolations(Collections.singletonList(violation));
                     }
                 } else if (desc.startsWith("docs:")) {
                     // Navigate to documentation section for this violation type
@@ -437,125 +554,387 @@ public class ViolationTreePanel extends JPanel {
     }
     
     public void updateViolations(List<Violation> violations) {
+        updateViolations(violations, 0);
+    }
+    
+    /**
+     * Show the result of a new analysis run, compared with the previous run
+     *
+     * @param baselined number of violations that were found but hidden by the project baseline
+     */
+    public void updateViolations(List<Violation> violations, int baselined) {
+        showRun(violations, baselined, false);
+    }
+    
+    /**
+     * Show the results of a run that is still in progress (e.g. the shards of a scope analysis finished so far)
+     * The next partial or final update of the run replaces them instead of adding them to the run history
+     */
+    public void showPartialViolations(List<Violation> violations, int baselined) {
+        showRun(violations, baselined, true);
+    }
+    
+    private void showRun(List<Violation> violations, int baselined, boolean partial) {
         // Show re-run button after first analysis
         if (!hasRunAnalysis) {
             hasRunAnalysis = true;
             ApplicationManager.getApplication().invokeLater(() -> {
                 rerunButton.setVisible(true);
-                rerunButton.revalidate();
-                rerunButton.repaint();
+                exportButton.setVisible(true);
+                resolveAllButton.setVisible(true);
+                rerunButton.getParent().revalidate();
+                rerunButton.getParent().repaint();
             });
         }
         
+        AnalysisRun run = new AnalysisRun(System.currentTimeMillis(), violations, baselined);
         ApplicationManager.getApplication().invokeLater(() -> {
-            if (violations.isEmpty()) {
-                errorsPane.setText("<html><body style='padding: 10px;'>No errors found - Great job! ✓</body></html>");
-                warningsPane.setText("<html><body style='padding: 10px;'>No warnings found - Great job! ✓</body></html>");
-                updateHeader(0, 0);
-                updateTabTitles(0, 0);
-                statusLabel.setText("Analysis complete. No violations detected.");
-            } else {
-                // Group by severity
-                Map<ViolationSeverity, List<Violation>> grouped = violations.stream()
-                    .collect(Collectors.groupingBy(Violation::getSeverity));
-                
-                List<Violation> errors = grouped.getOrDefault(ViolationSeverity.ERROR, Collections.emptyList());
-                List<Violation> warnings = grouped.getOrDefault(ViolationSeverity.WARNING, Collections.emptyList());
-                
-                currentErrors = errors;
-                currentWarnings = warnings;
-                
-                int errorCount = errors.size();
-                int warningCount = warnings.size();
-                
-                // Generate HTML for errors
-                if (!errors.isEmpty()) {
-                    errorsPane.setText(generateViolationsHTML(errors));
-                    errorsPane.setCaretPosition(0);  // Scroll to top
-                } else {
-                    errorsPane.setText("<html><body style='padding: 10px;'>No errors found - Great job! ✓</body></html>");
+            if (currentRun != null && !currentRunPartial) {
+                runHistory.addFirst(currentRun);
+                while (runHistory.size() > MAX_RUN_HISTORY) {
+                    runHistory.removeLast();
                 }
-                
-                // Generate HTML for warnings (footer is now separate, always visible)
-                if (!warnings.isEmpty()) {
-                    warningsPane.setText(generateViolationsHTML(warnings));
-                    warningsPane.setCaretPosition(0);  // Scroll to top
-                } else {
-                    warningsPane.setText("<html><body style='padding: 10px;'>No warnings found - Great job! ✓</body></html>");
-                }
-                
-                updateHeader(errorCount, warningCount);
-                updateTabTitles(errorCount, warningCount);
-                statusLabel.setText(String.format(
-                    "Analysis complete. Found %d violation(s). Click to navigate.",
-                    violations.size()
-                ));
             }
+            currentRun = run;
+            currentRunPartial = partial;
+            updateCompareChoices();
+            renderCurrentRun();
         });
     }
     
-    private String generateViolationsHTML(List<Violation> violations) {
+    /**
+     * Offer the stored runs for comparison, most recent (the previous run) first
+     */
+    private void updateCompareChoices() {
+        updatingCompareChoices = true;
+        try {
+            compareCombo.setModel(new DefaultComboBoxModel<>(runHistory.toArray(new AnalysisRun[0])));
+            boolean hasHistory = !runHistory.isEmpty();
+            compareCombo.setVisible(hasHistory);
+            newOnlyButton.setVisible(hasHistory);
+            compareCombo.getParent().revalidate();
+        } finally {
+            updatingCompareChoices = false;
+        }
+    }
+    
+    /**
+     * Render the current run against the selected comparison run
+     * Must be called on the EDT
+     */
+    private void renderCurrentRun() {
+        if (currentRun == null) {
+            return;
+        }
+        
+        AnalysisRun compared = (AnalysisRun) compareCombo.getSelectedItem();
+        List<Violation> violations = currentRun.getViolations();
+        FindingDiff<Violation> diff = compared != null
+            ? FindingDiff.compute(compared.getViolations(), violations)
+            : FindingDiff.allNew(violations);
+        
+        List<Violation> shown = compared != null && newOnlyButton.isSelected() ? diff.getAdded() : violations;
+        
+        // Group by severity
+        Map<ViolationSeverity, List<Violation>> grouped = shown.stream()
+            .sorted(ROW_ORDER)
+            .collect(Collectors.groupingBy(Violation::getSeverity));
+        
+        currentErrors = grouped.getOrDefault(ViolationSeverity.ERROR, Collections.emptyList());
+        currentWarnings = grouped.getOrDefault(ViolationSeverity.WARNING, Collections.emptyList());
+        currentFixed = compared != null ? new ArrayList<>(diff.getFixed()) : Collections.emptyList();
+        currentFixed.sort(ROW_ORDER);
+        
+        if (currentErrors.isEmpty()) {
+            setPaneHtml(errorsPane, "<html><body style='padding: 10px;'>No errors found - Great job! ✓</body></html>");
+        } else {
+            setPaneRows(errorsPane, currentErrors, compared != null ? diff : null, true);
+        }
+        if (currentWarnings.isEmpty()) {
+            setPaneHtml(warningsPane, "<html><body style='padding: 10px;'>No warnings found - Great job! ✓</body></html>");
+        } else {
+            setPaneRows(warningsPane, currentWarnings, compared != null ? diff : null, true);
+        }
+        if (currentFixed.isEmpty()) {
+            setPaneHtml(fixedPane,
+                "<html><body style='padding: 10px;'>No fixed violations compared with the selected run.</body></html>");
+        } else {
+            setPaneRows(fixedPane, currentFixed, null, false);
+        }
+        
+        updateHeader(currentErrors.size(), currentWarnings.size());
+        updateTabTitles(currentErrors.size(), currentWarnings.size(), currentFixed.size());
+        
+        String baselineNote = currentRun.getBaselined() > 0
+            ? String.format(" %d known violation(s) hidden by the baseline.", currentRun.getBaselined())
+            : "";
+        String diffNote = compared != null
+            ? String.format(" %d new, %d fixed, %d unchanged vs. %s.",
+                diff.getAdded().size(), diff.getFixed().size(), diff.getUnchanged().size(), compared)
+            : "";
+        
+        long provisional = violations.stream().filter(Violation::isProvisional).count();
+        String quickNote = provisional > 0
+            ? String.format(" %d quick scan match(es) awaiting type checks.", provisional)
+            : "";
+        
+        String state = currentRunPartial ? "Analysis still running, partial results." : "Analysis complete.";
+        if (violations.isEmpty()) {
+            statusLabel.setText(state + " No violations detected." + diffNote + baselineNote);
+        } else {
+            statusLabel.setText(String.format(
+                "%s Found %d violation(s). Click to navigate.%s%s%s",
+                state,
+                violations.size(),
+                quickNote,
+                diffNote,
+                baselineNote
+            ));
+        }
+    }
+    
+    /**
+     * Replace the pane content only if it changed; setText re-parses and re-lays out the whole document
+     */
+    private static void setPaneHtml(JEditorPane pane, String html) {
+        pane.putClientProperty(ROWS_KEY, null);
+        if (html.equals(pane.getClientProperty(RENDERED_HTML_KEY))) {
+            return;
+        }
+        pane.setText(html);
+        pane.putClientProperty(RENDERED_HTML_KEY, html);
+        pane.setCaretPosition(0);  // Scroll to top
+    }
+    
+    /**
+     * Show violations as rows of a numbered list
+     * When the pane already shows rows and the rows kept by the new list are still in the same order,
+     * only the changed rows are touched: rows that are gone are removed from the document and new rows
+     * are inserted next to their kept neighbours (a resolved row, a shard's findings); a quick scan row
+     * confirmed by the full pass only loses its QUICK badge. Otherwise, e.g. after a theme change,
+     * the document is built in one go
+     *
+     * @param diff       marks new violations; null when there is nothing to compare with
+     * @param resolvable whether rows get a Resolve link
+     */
+    private void setPaneRows(JEditorPane pane, List<Violation> violations, FindingDiff<Violation> diff, boolean resolvable) {
+        // Get theme-adaptive colors
+        Color linkColor = new JBColor(new Color(26, 13, 171), new Color(88, 166, 255));
+        Color secondaryTextColor = new JBColor(new Color(95, 99, 104), new Color(154, 160, 166));
+        
+        String linkColorHex = String.format("#%02x%02x%02x", linkColor.getRed(), linkColor.getGreen(), linkColor.getBlue());
+        String secondaryColorHex = String.format("#%02x%02x%02x", secondaryTextColor.getRed(), secondaryTextColor.getGreen(), secondaryTextColor.getBlue());
+        
+        // A row only depends on the violation, its flags and the theme; identical copies are told apart
+        // by their occurrence. The QUICK badge is not part of the key: it is updated in place
+        List<String> keys = new ArrayList<>(violations.size());
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (Violation violation : violations) {
+            String key = FindingFingerprint.of(violation) + ":" + violation.getLineNumber() + ":"
+                + violation.getColumnNumber() + ":" + (diff != null && diff.isAdded(violation)) + ":"
+                + resolvable + ":" + linkColorHex + secondaryColorHex;
+            keys.add(key + "#" + occurrences.merge(key, 1, Integer::sum));
+        }
+        
+        PaneRows previous = (PaneRows) pane.getClientProperty(ROWS_KEY);
+        if (previous != null && updateRows(pane, previous, keys, violations, diff, resolvable, linkColorHex, secondaryColorHex)) {
+            return;
+        }
+        
+        PaneRows rows = new PaneRows();
         StringBuilder html = new StringBuilder();
         html.append("<html><head><style>");
         html.append("body { margin: 0; padding: 0; font-size: 11px; }");
+        html.append("ol { margin-left: 28px; margin-top: 0px; margin-bottom: 0px; }");
         html.append(".violation { margin-bottom: 18px; padding-bottom: 0px; }");
-        html.append(".violation-line { padding-left: 20px; text-indent: -20px; }");
-        html.append(".suggested-line { padding-left: 20px; }");
-        html.append(".number { font-weight: normal; font-size: 11px; margin-right: 4px; }");
         html.append(".location { font-weight: normal; font-size: 11px; }");
         html.append(".rule-label { font-weight: bold; margin-left: 6px; font-size: 11px; }");
         html.append(".rule-text { font-weight: normal; font-size: 11px; }");
         html.append(".suggested { display: inline; font-size: 11px; }");
+        html.append(".new-badge { font-weight: bold; font-size: 10px; color: #50FA7B; }");
+        html.append(".quick-badge { font-weight: bold; font-size: 10px; color: #8BE9FD; }");
         html.append("</style></head>");
-        html.append("<body>");
-        
-        // Get theme-adaptive colors
-        Color linkColor = new JBColor(new Color(26, 13, 171), new Color(88, 166, 255));
-        Color visitedColor = new JBColor(new Color(104, 29, 168), new Color(158, 111, 216));
-        Color secondaryTextColor = new JBColor(new Color(95, 99, 104), new Color(154, 160, 166));
+        html.append("<body><ol id='").append(ROW_LIST_ID).append("'>");
+        for (int i = 0; i < violations.size(); i++) {
+            String id = rows.add(keys.get(i), violations.get(i));
+            html.append(generateViolationRow(id, violations.get(i), diff != null && diff.isAdded(violations.get(i)),
+                resolvable, linkColorHex, secondaryColorHex));
+        }
+        html.append("</ol></body></html>");
         
-        String linkColorHex = String.format("#%02x%02x%02x", linkColor.getRed(), linkColor.getGreen(), linkColor.getBlue());
-        String visitedColorHex = String.format("#%02x%02x%02x", visitedColor.getRed(), visitedColor.getGreen(), visitedColor.getBlue());
-        String secondaryColorHex = String.format("#%02x%02x%02x", secondaryTextColor.getRed(), secondaryTextColor.getGreen(), secondaryTextColor.getBlue());
+        pane.setText(html.toString());
+        pane.putClientProperty(RENDERED_HTML_KEY, null);
+        pane.putClientProperty(ROWS_KEY, rows);
+        pane.setCaretPosition(0);  // Scroll to top
+    }
+    
+    /**
+     * Remove and insert only the rows that differ from the ones in the document
+     *
+     * @return false if the document has to be built from scratch (no row kept, or kept rows reordered)
+     */
+    private boolean updateRows(JEditorPane pane, PaneRows previous, List<String> keys, List<Violation> violations,
+                               FindingDiff<Violation> diff, boolean resolvable,
+                               String linkColorHex, String secondaryColorHex) {
+        Set<String> newKeys = new HashSet<>(keys);
+        List<String> keptBefore = new ArrayList<>();
+        for (String key : previous.idsByKey.keySet()) {
+            if (newKeys.contains(key)) {
+                keptBefore.add(key);
+            }
+        }
+        List<String> keptAfter = new ArrayList<>();
+        for (String key : keys) {
+            if (previous.idsByKey.containsKey(key)) {
+                keptAfter.add(key);
+            }
+        }
+        if (keptBefore.isEmpty() || !keptBefore.equals(keptAfter)) {
+            return false;
+        }
         
-        for (int i = 0; i < violations.size(); i++) {
-            Violation violation = violations.get(i);
+        HTMLDocument document = (HTMLDocument) pane.getDocument();
+        PaneRows rows = new PaneRows();
+        rows.nextId = previous.nextId;
+        try {
+            for (Map.Entry<String, String> row : previous.idsByKey.entrySet()) {
+                if (!newKeys.contains(row.getKey())) {
+                    document.removeElement(document.getElement(row.getValue()));
+                }
+            }
             
-            String locationLink = String.format(
-                "%s.%s:%d:%d",
-                violation.getPackageName(),
-                violation.getClassName() + ".java",
-                violation.getLineNumber(),
-                violation.getColumnNumber()
-            );
+            // Kept rows whose quick scan state changed
+            for (int i = 0; i < keys.size(); i++) {
+                String keptId = previous.idsByKey.get(keys.get(i));
+                Violation violation = violations.get(i);
+                if (keptId == null || previous.violationsById.get(keptId).isProvisional() == violation.isProvisional()) {
+                    continue;
+                }
+                Element row = document.getElement(keptId);
+                if (violation.isProvisional() || !removeQuickBadge(document, row)) {
+                    document.setOuterHTML(row, generateViolationRow(keptId, violation,
+                        diff != null && diff.isAdded(violation), resolvable, linkColorHex, secondaryColorHex));
+                }
+            }
             
-            // Professional formatted violation with proper indentation
-            html.append(String.format(
-                "<div class='violation'>" +
-                "<div class='violation-line'>" +
-                "<span class='number'>%d.</span> " +
-                "<a href='violation:%d' class='location'>%s</a>" +
-                "<span class='rule-label'> - Rule:</span>" +
-                "<span class='rule-text'> %s.</span> " +
-                "<a href='docs:%s' style='color: %s; text-decoration: none; font-size: 12px;' title='View full documentation'>ℹ️</a>" +
-                "</div>" +
-                "<div class='suggested-line'>" +
-                "<span class='suggested' style='color: %s;'>Suggested: %s</span>" +
-                "</div>" +
-                "</div>",
-                i + 1,
-                i,
-                locationLink,
-                violation.getType().getCompactDescription(),
-                violation.getType().name(),
-                linkColorHex,
-                secondaryColorHex,
-                violation.getType().getSuggestedFix()
-            ));
+            // New rows are collected until the next kept row and inserted before it in one call
+            StringBuilder pending = new StringBuilder();
+            for (int i = 0; i < keys.size(); i++) {
+                String keptId = previous.idsByKey.get(keys.get(i));
+                if (keptId != null) {
+                    if (pending.length() > 0) {
+                        document.insertBeforeStart(document.getElement(keptId), pending.toString());
+                        pending.setLength(0);
+                    }
+                    rows.put(keys.get(i), keptId, violations.get(i));
+                } else {
+                    String id = rows.add(keys.get(i), violations.get(i));
+                    pending.append(generateViolationRow(id, violations.get(i),
+                        diff != null && diff.isAdded(violations.get(i)), resolvable, linkColorHex, secondaryColorHex));
+                }
+            }
+            if (pending.length() > 0) {
+                document.insertBeforeEnd(document.getElement(ROW_LIST_ID), pending.toString());
+            }
+        } catch (BadLocationException | IOException e) {
+            LOG.warn("Cannot update violation rows, rendering them again", e);
+            return false;
         }
         
-        html.append("</body></html>");
-        return html.toString();
+        pane.putClientProperty(ROWS_KEY, rows);
+        return true;
+    }
+    
+    /**
+     * Remove the QUICK badge and the space after it from a row, leaving the rest of the row as it is
+     *
+     * @return false if the row has no badge
+     */
+    private static boolean removeQuickBadge(HTMLDocument document, Element row) throws BadLocationException {
+        int offset = row.getStartOffset();
+        while (offset < row.getEndOffset()) {
+            Element leaf = document.getCharacterElement(offset);
+            Object span = leaf.getAttributes().getAttribute(HTML.Tag.SPAN);
+            if (span instanceof AttributeSet
+                    && QUICK_BADGE_CLASS.equals(((AttributeSet) span).getAttribute(HTML.Attribute.CLASS))) {
+                int end = leaf.getEndOffset();
+                if (end < row.getEndOffset() && " ".equals(document.getText(end, 1))) {
+                    end++;
+                }
+                document.remove(leaf.getStartOffset(), end - leaf.getStartOffset());
+                return true;
+            }
+            offset = leaf.getEndOffset();
+        }
+        return false;
+    }
+    
+    /**
+     * Row keys and element ids of the rows in a pane's document, in display order, and the violation
+     * behind each row's links
+     */
+    private static final class PaneRows {
+        final Map<String, String> idsByKey = new LinkedHashMap<>();
+        final Map<String, Violation> violationsById = new HashMap<>();
+        int nextId;
+        
+        String add(String key, Violation violation) {
+            String id = "row-" + nextId++;
+            put(key, id, violation);
+            return id;
+        }
+        
+        void put(String key, String id, Violation violation) {
+            idsByKey.put(key, id);
+            violationsById.put(id, violation);
+        }
+    }
+    
+    private String generateViolationRow(String id, Violation violation, boolean isNew, boolean resolvable,
+                                        String linkColorHex, String secondaryColorHex) {
+        String locationLink = String.format(
+            "%s.%s:%d:%d",
+            violation.getPackageName(),
+            violation.getClassName() + ".java",
+            violation.getLineNumber(),
+            violation.getColumnNumber()
+        );
+        
+        String resolveLink = resolvable
+            ? String.format(" <a href='resolve:%s' style='color: %s; text-decoration: none; font-size: 11px;' " +
+                "title='Add to baseline and hide in future runs'>✔ Resolve</a>", id, secondaryColorHex)
+            : "";
+        String badges = (isNew ? "<span class='new-badge'>NEW</span> " : "")
+            + (violation.isProvisional()
+                ? "<span class='" + QUICK_BADGE_CLASS + "' title='Quick scan match, not yet confirmed by type checks'>QUICK</span> "
+                : "");
+        
+        // Professional formatted violation; the list numbers the rows, so a row does not depend on its position
+        return String.format(
+            "<li id='%s' class='violation'>" +
+            "<div class='violation-line'>" +
+            "%s" +
+            "<a href='violation:%s' class='location'>%s</a>" +
+            "<span class='rule-label'> - Rule:</span>" +
+            "<span class='rule-text'> %s.</span> " +
+            "<a href='docs:%s' style='color: %s; text-decoration: none; font-size: 12px;' title='View full documentation'>ℹ️</a>" +
+            "%s" +
+            "</div>" +
+            "<div class='suggested-line'>" +
+            "<span class='suggested' style='color: %s;'>Suggested: %s</span>" +
+            "</div>" +
+            "</li>",
+            id,
+            badges,
+            id,
+            locationLink,
+            violation.getType().getCompactDescription(),
+            violation.getType().name(),
+            linkColorHex,
+            resolveLink,
+            secondaryColorHex,
+            violation.getType().getSuggestedFix()
+        );
     }
     
     private void navigateToPosition(Violation violation) {
@@ -576,13 +955,19 @@ public class ViolationTreePanel extends JPanel {
         }
     }
     
-    private void updateTabTitles(int errors, int warnings) {
+    private static Violation violationInRow(JEditorPane pane, String rowId) {
+        PaneRows rows = (PaneRows) pane.getClientProperty(ROWS_KEY);
+        return rows != null ? rows.violationsById.get(rowId) : null;
+    }
+    
+    private void updateTabTitles(int errors, int warnings, int fixed) {
         // Create HTML formatted tab titles with better styling (compact to fit in one line)
         String errorsTitle = String.format("<html><b><font color='#FF5555'>⚠ Errors (%d)</font></b></html>", errors);
         String warningsTitle = String.format("<html><b><font color='#FFB86C'>⚡ Warnings (%d)</font></b></html>", warnings);
         
         tabbedPane.setTitleAt(0, errorsTitle);
         tabbedPane.setTitleAt(1, warningsTitle);
+        tabbedPane.setTitleAt(2, String.format("<html><b><font color='#50FA7B'>✓ Fixed (%d)</font></b></html>", fixed));
         
         // Only auto-switch tabs on initial run, not on re-run
         if (!isRerun) {
@@ -621,23 +1006,139 @@ public class ViolationTreePanel extends JPanel {
         }
     }
     
+    /**
+     * Add every currently shown violation to the baseline, after confirmation
+     */
+    private void resolveAllViolations() {
+        List<Violation> violations = new ArrayList<>();
+        if (currentErrors != null) {
+            violations.addAll(currentErrors);
+        }
+        if (currentWarnings != null) {
+            violations.addAll(currentWarnings);
+        }
+        if (violations.isEmpty()) {
+            return;
+        }
+        
+        int answer = Messages.showYesNoDialog(project,
+            String.format("Add all %d violation(s) to the baseline?\n\n" +
+                "They will be hidden in future runs until the code changes. The baseline is stored in %s.",
+                violations.size(), ViolationBaselineService.FILE_NAME),
+            "Resolve All Violations", Messages.getQuestionIcon());
+        if (answer == Messages.YES) {
+            resolveViolations(violations);
+        }
+    }
+    
+    /**
+     * Add violations to the baseline in the background, then remove them from the view
+     */
+    private void resolveViolations(List<Violation> resolved) {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Updating Coding Legion baseline", false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    ViolationBaselineService.getInstance(project).resolve(resolved);
+                } catch (IOException e) {
+                    LOG.warn("Cannot update violation baseline", e);
+                    ApplicationManager.getApplication().invokeLater(() ->
+                        statusLabel.setText("Cannot update baseline: " + e.getMessage()));
+                    return;
+                }
+                
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    if (currentRun != null) {
+                        currentRun = currentRun.withResolved(resolved);
+                        isRerun = true; // Keep the selected tab
+                        renderCurrentRun();
+                    }
+                });
+            }
+        });
+    }
+    
+    /**
+     * Write the current errors and warnings to a file; the format follows the chosen extension
+     */
+    private void exportViolations() {
+        List<Violation> violations = new ArrayList<>();
+        if (currentErrors != null) {
+            violations.addAll(currentErrors);
+        }
+        if (currentWarnings != null) {
+            violations.addAll(currentWarnings);
+        }
+        
+        FileSaverDescriptor descriptor = new FileSaverDescriptor("Export Coding Legion Results",
+            "SARIF (.sarif), JSON Lines (.jsonl) or JUnit XML (.xml)", "sarif", "jsonl", "xml");
+        VirtualFileWrapper target = FileChooserFactory.getInstance()
+            .createSaveFileDialog(descriptor, project)
+            .save(ProjectUtil.guessProjectDir(project), "coding-legion-report.sarif");
+        if (target == null) {
+            return;
+        }
+        
+        File file = target.getFile();
+        String name = file.getName();
+        ExportFormat format = ExportFormat.fromName(name.substring(name.lastIndexOf('.') + 1));
+        if (format == null) {
+            format = ExportFormat.SARIF;
+        }
+        ExportFormat exportFormat = format;
+        
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Exporting Coding Legion results", false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                // PSI-backed violations read their file paths under a read action
+                try (FindingExporter exporter = exportFormat.open(file.toPath(), project.getBasePath())) {
+                    for (Violation violation : violations) {
+                        ApplicationManager.getApplication().runReadAction((ThrowableComputable<Void, IOException>) () -> {
+                            exporter.write(violation);
+                            return null;
+                        });
+                    }
+                } catch (IOException e) {
+                    LOG.warn("Export failed", e);
+                    ApplicationManager.getApplication().invokeLater(() ->
+                        statusLabel.setText("Export failed: " + e.getMessage()));
+                    return;
+                }
+                ApplicationManager.getApplication().invokeLater(() ->
+                    statusLabel.setText(String.format("Exported %d violation(s) to %s", violations.size(), file.getPath())));
+            }
+        });
+    }
+    
     /**
      * Clear all violations from the UI
      * Called when there are no files to analyze (no changes, deleted files, wrong branch)
      */
     public void clearViolations() {
         ApplicationManager.getApplication().invokeLater(() -> {
-            // Clear current violations
+            // Clear current violations; the cleared run stays available for comparison unless it was partial
+            if (currentRun != null) {
+                if (!currentRunPartial) {
+                    runHistory.addFirst(currentRun);
+                    while (runHistory.size() > MAX_RUN_HISTORY) {
+                        runHistory.removeLast();
+                    }
+                }
+                currentRun = null;
+                currentRunPartial = false;
+            }
             currentErrors = null;
             currentWarnings = null;
+            currentFixed = null;
             
             // Reset panes to initial state
-            errorsPane.setText("<html><body style='padding: 10px;'>No violations. Either no Java changes detected or analysis not run yet.</body></html>");
-            warningsPane.setText("<html><body style='padding: 10px;'>No violations. Either no Java changes detected or analysis not run yet.</body></html>");
+            setPaneHtml(errorsPane, "<html><body style='padding: 10px;'>No violations. Either no Java changes detected or analysis not run yet.</body></html>");
+            setPaneHtml(warningsPane, "<html><body style='padding: 10px;'>No violations. Either no Java changes detected or analysis not run yet.</body></html>");
+            setPaneHtml(fixedPane, "<html><body style='padding: 10px;'>No violations. Either no Java changes detected or analysis not run yet.</body></html>");
             
             // Reset header and tabs
             updateHeader(0, 0);
-            updateTabTitles(0, 0);
+            updateTabTitles(0, 0, 0);
             
             // Update status
             statusLabel.setText("No Java changes detected. Previous violations cleared.");
@@ -647,10 +1148,10 @@ public class ViolationTreePanel extends JPanel {
     public void showError(String message) {
         ApplicationManager.getApplication().invokeLater(() -> {
             String errorHTML = String.format("<html><body style='padding: 10px;'>⚠ %s</body></html>", message);
-            errorsPane.setText(errorHTML);
-            warningsPane.setText(errorHTML);
+            setPaneHtml(errorsPane, errorHTML);
+            setPaneHtml(warningsPane, errorHTML);
             statusLabel.setText(message);
-            updateTabTitles(0, 0);
+            updateTabTitles(0, 0, currentFixed != null ? currentFixed.size() : 0);
         });
     }
 }
@@ -21,6 +21,9 @@ public class GitBranchChecker {
         "master", "main", "develop", "development"
     ));
     
+    // Branches a feature branch is usually cut from, most likely first
+    private static final List<String> BASE_BRANCHES = Arrays.asList("main", "master", "develop", "development");
+    
     /**
      * Check if the current branch is a feature branch (not main/master)
      */
@@ -66,6 +69,31 @@ public class GitBranchChecker {
         }
     }
     
+    /**
+     * Git repository of the project root, or null if the project is not under Git
+     */
+    public static GitRepository getRepository(Project project) {
+        return GitUtil.getRepositoryManager(project).getRepositoryForRootQuick(project.getBaseDir());
+    }
+    
+    /**
+     * The branch the current branch was most likely cut from: the first of main / master / develop /
+     * development that exists locally, else on origin; null if none does
+     */
+    public static String findBaseBranch(GitRepository repository) {
+        for (String name : BASE_BRANCHES) {
+            if (repository.getBranches().findLocalBranch(name) != null) {
+                return name;
+            }
+        }
+        for (String name : BASE_BRANCHES) {
+            if (repository.getBranches().findBranchByName("origin/" + name) != null) {
+                return "origin/" + name;
+            }
+        }
+        return null;
+    }
+    
     /**
      * Get all changed/added Java files in the current branch
      * Only returns .java files
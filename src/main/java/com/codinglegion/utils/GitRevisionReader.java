@@ -0,0 +1,186 @@
+package com.codinglegion.utils;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vcs.VcsException;
+import git4idea.commands.Git;
+import git4idea.commands.GitBinaryHandler;
+import git4idea.commands.GitCommand;
+import git4idea.commands.GitLineHandler;
+import git4idea.repo.GitRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads commits, changed files and file contents straight from the git object database
+ * Nothing is checked out: the working tree, the VFS and the IDE indexes stay untouched
+ */
+public class GitRevisionReader {
+    
+    private static final String NO_BLOB = "0000000000000000000000000000000000000000";
+    private static final String COMMIT_MARKER = "\u0001";
+    
+    /**
+     * Merge-base of two revisions (branch names, tags or hashes)
+     */
+    public static String mergeBase(Project project, GitRepository repository, String first, String second) throws VcsException {
+        GitLineHandler handler = new GitLineHandler(project, repository.getRoot(), GitCommand.MERGE_BASE);
+        handler.addParameters(first, second);
+        List<String> output = run(handler);
+        if (output.isEmpty()) {
+            throw new VcsException(first + " and " + second + " have no common ancestor");
+        }
+        return output.get(0).trim();
+    }
+    
+    /**
+     * Commits after {@code from} up to {@code to}, oldest first, with their changed Java files
+     * Follows first parents only; a merge commit lists what it changed relative to the branch
+     */
+    public static List<Commit> commitsBetween(Project project, GitRepository repository, String from, String to) throws VcsException {
+        GitLineHandler handler = new GitLineHandler(project, repository.getRoot(), GitCommand.LOG);
+        handler.addParameters("--reverse", "--first-parent", "-m", "--raw", "--no-abbrev", "-M",
+            "--format=" + COMMIT_MARKER + "%H %s", from + ".." + to);
+        handler.endOptions();
+        handler.addParameters("*.java");
+        
+        List<Commit> commits = new ArrayList<>();
+        Commit current = null;
+        for (String line : run(handler)) {
+            if (line.startsWith(COMMIT_MARKER)) {
+                String header = line.substring(COMMIT_MARKER.length());
+                int space = header.indexOf(' ');
+                current = space < 0
+                    ? new Commit(header, "")
+                    : new Commit(header.substring(0, space), header.substring(space + 1));
+                commits.add(current);
+            } else if (current != null && line.startsWith(":")) {
+                current.changes.add(parseRawLine(line));
+            }
+        }
+        return commits;
+    }
+    
+    /**
+     * Java files changed between two revisions (the tree of {@code from} against the tree of {@code to})
+     */
+    public static List<FileChange> changedFiles(Project project, GitRepository repository, String from, String to) throws VcsException {
+        GitLineHandler handler = new GitLineHandler(project, repository.getRoot(), GitCommand.DIFF);
+        handler.addParameters("--raw", "--no-abbrev", "-M", from, to);
+        handler.endOptions();
+        handler.addParameters("*.java");
+        
+        List<FileChange> changes = new ArrayList<>();
+        for (String line : run(handler)) {
+            if (line.startsWith(":")) {
+                changes.add(parseRawLine(line));
+            }
+        }
+        return changes;
+    }
+    
+    /**
+     * Text of a blob, with line separators normalized to \n as PSI expects
+     */
+    public static String readBlob(Project project, GitRepository repository, String blob) throws VcsException {
+        GitBinaryHandler handler = new GitBinaryHandler(project, repository.getRoot(), GitCommand.CAT_FILE);
+        handler.addParameters("blob", blob);
+        byte[] content = handler.run();
+        return StringUtil.convertLineSeparators(new String(content, StandardCharsets.UTF_8));
+    }
+    
+    private static List<String> run(GitLineHandler handler) throws VcsException {
+        handler.setSilent(true);
+        return Git.getInstance().runCommand(handler).getOutputOrThrow();
+    }
+    
+    /**
+     * ":100644 100644 <old blob> <new blob> M\tpath" or "... R087\told path\tnew path"
+     */
+    private static FileChange parseRawLine(String line) {
+        String[] parts = line.split("\t");
+        String[] meta = parts[0].split(" ");
+        char status = meta[4].charAt(0);
+        String oldBlob = NO_BLOB.equals(meta[2]) ? null : meta[2];
+        String newBlob = NO_BLOB.equals(meta[3]) ? null : meta[3];
+        String oldPath = parts[1];
+        String newPath = parts.length > 2 ? parts[2] : parts[1];
+        return new FileChange(status, oldPath, newPath, oldBlob, newBlob);
+    }
+    
+    /**
+     * One commit of a range and the Java files it changed
+     */
+    public static class Commit {
+        private final String hash;
+        private final String subject;
+        private final List<FileChange> changes = new ArrayList<>();
+        
+        Commit(String hash, String subject) {
+            this.hash = hash;
+            this.subject = subject;
+        }
+        
+        public String getHash() {
+            return hash;
+        }
+        
+        public String getSubject() {
+            return subject;
+        }
+        
+        public List<FileChange> getChanges() {
+            return changes;
+        }
+    }
+    
+    /**
+     * One changed file; paths are relative to the repository root
+     */
+    public static class FileChange {
+        private final char status;
+        private final String oldPath;
+        private final String newPath;
+        private final String oldBlob;
+        private final String newBlob;
+        
+        FileChange(char status, String oldPath, String newPath, String oldBlob, String newBlob) {
+            this.status = status;
+            this.oldPath = oldPath;
+            this.newPath = newPath;
+            this.oldBlob = oldBlob;
+            this.newBlob = newBlob;
+        }
+        
+        /**
+         * Git status letter: A added, M modified, D deleted, R renamed, C copied, T type changed
+         */
+        public char getStatus() {
+            return status;
+        }
+        
+        public String getOldPath() {
+            return oldPath;
+        }
+        
+        public String getNewPath() {
+            return newPath;
+        }
+        
+        /**
+         * Content before the change, or null for added files
+         */
+        public String getOldBlob() {
+            return oldBlob;
+        }
+        
+        /**
+         * Content after the change, or null for deleted files
+         */
+        public String getNewBlob() {
+            return newBlob;
+        }
+    }
+}
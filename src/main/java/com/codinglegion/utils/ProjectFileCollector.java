@@ -0,0 +1,119 @@
+package com.codinglegion.utils;
+
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.GeneratedSourcesFilter;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.vfs.VirtualFile;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for collecting Java source files outside of the Git change list
+ * Used by scope-based analysis (module / whole project / any {@link AnalysisScope})
+ */
+public class ProjectFileCollector {
+    
+    /**
+     * Get all Java source files in the project content roots
+     */
+    public static List<VirtualFile> getProjectJavaFiles(Project project) {
+        return ReadAction.compute(() -> {
+            ProjectFileIndex fileIndex = ProjectRootManager.getInstance(project).getFileIndex();
+            List<VirtualFile> files = new ArrayList<>();
+            
+            fileIndex.iterateContent(file -> {
+                if (isJavaSource(file) && fileIndex.isInSourceContent(file)) {
+                    files.add(file);
+                }
+                return true;
+            });
+            
+            return files;
+        });
+    }
+    
+    /**
+     * Get all Java source files of a single module
+     * Returns null if no module with this name exists
+     */
+    public static List<VirtualFile> getModuleJavaFiles(Project project, String moduleName) {
+        return ReadAction.compute(() -> {
+            Module module = ModuleManager.getInstance(project).findModuleByName(moduleName);
+            if (module == null) {
+                return null;
+            }
+            
+            ProjectFileIndex projectIndex = ProjectRootManager.getInstance(project).getFileIndex();
+            List<VirtualFile> files = new ArrayList<>();
+            
+            ModuleRootManager.getInstance(module).getFileIndex().iterateContent(file -> {
+                if (isJavaSource(file) && projectIndex.isInSourceContent(file)) {
+                    files.add(file);
+                }
+                return true;
+            });
+            
+            return files;
+        });
+    }
+    
+    /**
+     * Production Java sources of an analysis scope (project, module, directory or custom scope)
+     * Test sources, generated sources and excluded roots are skipped
+     */
+    public static List<VirtualFile> getScopeJavaFiles(Project project, AnalysisScope scope) {
+        return ReadAction.compute(() -> {
+            ProjectFileIndex fileIndex = ProjectRootManager.getInstance(project).getFileIndex();
+            List<VirtualFile> files = new ArrayList<>();
+            
+            scope.accept(file -> {
+                if (isJavaSource(file) && fileIndex.isInSourceContent(file) && !fileIndex.isInTestSourceContent(file) &&
+                    !fileIndex.isExcluded(file) && !GeneratedSourcesFilter.isGeneratedSourceByAnyFilter(file, project)) {
+                    files.add(file);
+                }
+                return true;
+            });
+            
+            return files;
+        });
+    }
+    
+    /**
+     * Split files into one shard per module; modules with more than maxShardSize files are split further
+     * Largest shards come first, so the longest work starts early
+     */
+    public static List<List<VirtualFile>> shardByModule(Project project, List<VirtualFile> files, int maxShardSize) {
+        Map<Module, List<VirtualFile>> byModule = ReadAction.compute(() -> {
+            ProjectFileIndex fileIndex = ProjectRootManager.getInstance(project).getFileIndex();
+            Map<Module, List<VirtualFile>> result = new LinkedHashMap<>();
+            for (VirtualFile file : files) {
+                // Files outside any module share the null key
+                result.computeIfAbsent(fileIndex.getModuleForFile(file), module -> new ArrayList<>()).add(file);
+            }
+            return result;
+        });
+        
+        List<List<VirtualFile>> shards = new ArrayList<>();
+        for (List<VirtualFile> moduleFiles : byModule.values()) {
+            for (int start = 0; start < moduleFiles.size(); start += maxShardSize) {
+                shards.add(moduleFiles.subList(start, Math.min(start + maxShardSize, moduleFiles.size())));
+            }
+        }
+        shards.sort(Comparator.comparingInt((List<VirtualFile> shard) -> shard.size()).reversed());
+        return shards;
+    }
+    
+    private static boolean isJavaSource(VirtualFile file) {
+        return !file.isDirectory() && file.getName().endsWith(".java");
+    }
+}
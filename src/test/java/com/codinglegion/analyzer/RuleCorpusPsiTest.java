@@ -0,0 +1,101 @@
+package com.codinglegion.analyzer;
+
+import com.codinglegion.model.Violation;
+import com.codinglegion.settings.CodingLegionSettings;
+import com.intellij.openapi.projectRoots.JavaSdk;
+import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.DefaultLightProjectDescriptor;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The PSI detectors report exactly the findings the rule-corpus markers name,
+ * the same corpus legion-core's RuleCorpusTest runs through the javac scanner
+ */
+public class RuleCorpusPsiTest extends LightJavaCodeInsightFixtureTestCase {
+    
+    private static final Pattern EXPECT = Pattern.compile("//\\s*expect:\\s*(.+)$");
+    
+    /**
+     * The JDK running the test, so the corpus resolves against a complete class library
+     */
+    private static final LightProjectDescriptor RUNNING_JDK = new DefaultLightProjectDescriptor() {
+        @Override
+        public Sdk getSdk() {
+            return JavaSdk.getInstance().createJdk("corpus-jdk", System.getProperty("java.home"), false);
+        }
+    };
+    
+    @NotNull
+    @Override
+    protected LightProjectDescriptor getProjectDescriptor() {
+        return RUNNING_JDK;
+    }
+    
+    public void testFindingsMatchCorpusMarkers() throws IOException {
+        String dir = System.getProperty("codinglegion.ruleCorpus");
+        assertNotNull("codinglegion.ruleCorpus is not set", dir);
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(Paths.get(dir))) {
+            files = paths.filter(p -> p.toString().endsWith(".java")).sorted().collect(Collectors.toList());
+        }
+        assertFalse("rule-corpus is empty", files.isEmpty());
+        
+        CodingStandardsAnalyzer analyzer = new CodingStandardsAnalyzer(getProject(), AnalysisConfig.fromSettings(allRules()));
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            expected.addAll(expectedFindings(name, lines));
+            for (Violation violation : analyzer.analyzeText(name, String.join("\n", lines), null)) {
+                actual.add(name + ":" + violation.getLineNumber() + " " + violation.getType());
+            }
+        }
+        assertEquals(sorted(expected), sorted(actual));
+    }
+    
+    private static CodingLegionSettings allRules() {
+        CodingLegionSettings settings = new CodingLegionSettings();
+        settings.enableStringEqualsCheck = true;
+        settings.enableStringEmptyCheck = true;
+        settings.enableCollectionCheck = true;
+        settings.enableTernaryNullDefaultCheck = true;
+        settings.enableBooleanUnboxingCheck = true;
+        settings.enableNullInContextCheck = true;
+        settings.enableLogNullDereferenceCheck = true;
+        settings.enableDtoInitializationCheck = true;
+        settings.enableNullInMapCheck = true;
+        return settings;
+    }
+    
+    private static List<String> expectedFindings(String name, List<String> lines) {
+        List<String> findings = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            Matcher matcher = EXPECT.matcher(lines.get(i));
+            if (matcher.find()) {
+                for (String rule : matcher.group(1).split(",")) {
+                    findings.add(name + ":" + (i + 1) + " " + rule.trim());
+                }
+            }
+        }
+        return findings;
+    }
+    
+    private static String sorted(List<String> findings) {
+        return findings.stream().sorted().collect(Collectors.joining("\n"));
+    }
+}